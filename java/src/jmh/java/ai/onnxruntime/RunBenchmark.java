@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * Licensed under the MIT License.
+ */
+package ai.onnxruntime;
+
+import ai.onnxruntime.OrtSession.PreparedRun;
+import ai.onnxruntime.OrtSession.Result;
+import ai.onnxruntime.OrtSession.SessionOptions;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per call overhead of the JNI layer on a tiny model, where the inference itself is
+ * negligible and the cost is dominated by marshalling inputs and constructing the Java outputs.
+ *
+ * <p>Run with {@code gradle jmh}, comparing the results across native library builds to measure
+ * changes in the native glue.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RunBenchmark {
+
+  private OrtEnvironment env;
+  private SessionOptions options;
+  private OrtSession session;
+  private PreparedRun preparedRun;
+  private OnnxTensor input;
+  private Map<String, OnnxTensor> inputMap;
+
+  @Setup(Level.Trial)
+  public void setup() throws OrtException, URISyntaxException {
+    // model takes 1x5 input of fixed type, echoes back
+    String modelPath =
+        Paths.get(RunBenchmark.class.getResource("/test_types_FLOAT.pb").toURI()).toString();
+    env = OrtEnvironment.getEnvironment("RunBenchmark");
+    options = new SessionOptions();
+    session = env.createSession(modelPath, options);
+    String inputName = session.getInputNames().iterator().next();
+    input = OnnxTensor.createTensor(env, new float[][] {{1.0f, 2.0f, -3.0f, 4.0f, 5.0f}});
+    inputMap = Collections.singletonMap(inputName, input);
+    preparedRun = session.prepare(Collections.singletonList(inputName));
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() throws OrtException {
+    preparedRun.close();
+    input.close();
+    session.close();
+    options.close();
+    env.close();
+  }
+
+  @Benchmark
+  public float run() throws OrtException {
+    try (Result result = session.run(inputMap)) {
+      return ((OnnxTensor) result.get(0)).getFloatBuffer().get(0);
+    }
+  }
+
+  @Benchmark
+  public float preparedRun() throws OrtException {
+    try (Result result = preparedRun.run(input)) {
+      return ((OnnxTensor) result.get(0)).getFloatBuffer().get(0);
+    }
+  }
+
+  @Benchmark
+  public Map<String, NodeInfo> inputInfo() throws OrtException {
+    return session.getInputInfo();
+  }
+}
@@ -0,0 +1,510 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * Licensed under the MIT License.
+ */
+package ai.onnxruntime;
+
+import ai.onnxruntime.OrtSession.Result;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects concurrent requests against an {@link OrtSession} into batches, scoring each batch with
+ * a single run.
+ *
+ * <p>Every input and output of the model must be a numeric tensor whose first dimension is free.
+ * Requests supply a tensor for every input, each with the same number of rows in the first
+ * dimension. Requests are queued, and a dispatcher thread concatenates the inputs of queued
+ * requests along the first dimension into direct buffers until either the batch would exceed the
+ * maximum batch size or the first request in the batch has waited for the maximum linger time.
+ * Requests whose non-batch dimensions differ from the batch being built are deferred to the next
+ * batch.
+ *
+ * <p>If the non-batch dimensions of every output are known from the model, the runtime writes the
+ * batch outputs directly into direct buffers and each request's outputs are views of a slice of
+ * them, otherwise the batch outputs are copied once before being sliced. The per request outputs
+ * are backed by Java buffers so they remain valid after the batch completes, and should be closed
+ * by the caller as normal.
+ *
+ * <p>The input tensors must not be closed until the request's future has completed. Closing the
+ * BatchingSession scores the requests which are already queued, it does not close the wrapped
+ * session.
+ */
+public class BatchingSession implements AutoCloseable {
+
+  private static final Logger logger = Logger.getLogger(BatchingSession.class.getName());
+
+  /** Sentinel which tells the dispatcher to exit. */
+  private static final Request SHUTDOWN = new Request(null, 0);
+
+  private final OrtEnvironment env;
+
+  private final OrtSession session;
+
+  private final int maxBatchSize;
+
+  private final long maxLingerMicros;
+
+  private final String[] inputNames;
+
+  private final TensorInfo[] inputInfo;
+
+  private final String[] outputNames;
+
+  private final TensorInfo[] outputInfo;
+
+  /** True if the non-batch dimensions of every output are known. */
+  private final boolean preallocateOutputs;
+
+  private final LinkedBlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+
+  private final Thread dispatcher;
+
+  /** A request taken from the queue which didn't fit in the previous batch. */
+  private Request deferred;
+
+  private boolean closed = false;
+
+  /**
+   * Creates a BatchingSession in front of the supplied session, and starts its dispatcher thread.
+   *
+   * @param env The environment used to create the batch tensors.
+   * @param session The session to score batches with.
+   * @param maxBatchSize The maximum number of rows in a batch.
+   * @param maxLingerMicros The maximum time in microseconds a request waits for other requests to
+   *     join its batch.
+   * @throws OrtException If the model's inputs or outputs can't be batched.
+   */
+  public BatchingSession(
+      OrtEnvironment env, OrtSession session, int maxBatchSize, long maxLingerMicros)
+      throws OrtException {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("maxBatchSize must be positive, found " + maxBatchSize);
+    }
+    if (maxLingerMicros < 0) {
+      throw new IllegalArgumentException(
+          "maxLingerMicros must be non-negative, found " + maxLingerMicros);
+    }
+    this.env = env;
+    this.session = session;
+    this.maxBatchSize = maxBatchSize;
+    this.maxLingerMicros = maxLingerMicros;
+    Map<String, NodeInfo> inputs = session.getInputInfo();
+    this.inputNames = new String[inputs.size()];
+    this.inputInfo = new TensorInfo[inputs.size()];
+    int i = 0;
+    for (NodeInfo n : inputs.values()) {
+      inputNames[i] = n.getName();
+      inputInfo[i] = checkBatchable(n);
+      i++;
+    }
+    Map<String, NodeInfo> outputs = session.getOutputInfo();
+    this.outputNames = new String[outputs.size()];
+    this.outputInfo = new TensorInfo[outputs.size()];
+    boolean staticOutputs = true;
+    i = 0;
+    for (NodeInfo n : outputs.values()) {
+      outputNames[i] = n.getName();
+      outputInfo[i] = checkBatchable(n);
+      long[] shape = outputInfo[i].shape;
+      for (int j = 1; j < shape.length; j++) {
+        if (shape[j] < 0) {
+          staticOutputs = false;
+        }
+      }
+      i++;
+    }
+    this.preallocateOutputs = staticOutputs;
+    this.dispatcher = new Thread(this::dispatch, "ort-batching-session");
+    dispatcher.setDaemon(true);
+    dispatcher.start();
+  }
+
+  /**
+   * Checks that the node is a numeric tensor with a free first dimension.
+   *
+   * @param node The node to check.
+   * @return The node's tensor info.
+   * @throws OrtException If the node can't be batched.
+   */
+  private static TensorInfo checkBatchable(NodeInfo node) throws OrtException {
+    if (!(node.getInfo() instanceof TensorInfo)) {
+      throw new OrtException("Node " + node.getName() + " is not a tensor, found " + node);
+    }
+    TensorInfo info = (TensorInfo) node.getInfo();
+    if ((info.type == OnnxJavaType.STRING)
+        || (TensorInfo.OnnxTensorType.mapFromJavaType(info.type) != info.onnxType)) {
+      throw new OrtException(
+          "Node " + node.getName() + " has unsupported type " + info.onnxType + " for batching");
+    }
+    if ((info.shape.length == 0) || (info.shape[0] >= 0)) {
+      throw new OrtException(
+          "Node "
+              + node.getName()
+              + " does not have a free batch dimension, found shape "
+              + Arrays.toString(info.shape));
+    }
+    return info;
+  }
+
+  /**
+   * Gets the maximum number of rows in a batch.
+   *
+   * @return The maximum batch size.
+   */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Gets the maximum time in microseconds a request waits for other requests to join its batch.
+   *
+   * @return The maximum linger time.
+   */
+  public long getMaxLingerMicros() {
+    return maxLingerMicros;
+  }
+
+  /**
+   * Submits a request for scoring in a future batch.
+   *
+   * <p>Cancelling the returned future before its batch is formed removes it from the batch.
+   *
+   * @param inputs A tensor for every model input, each with the same first dimension.
+   * @return A future of all the outputs for this request.
+   * @throws OrtException If the inputs don't match the model.
+   */
+  public CompletableFuture<Result> submit(Map<String, OnnxTensor> inputs) throws OrtException {
+    if (inputs.size() != inputNames.length) {
+      throw new OrtException(
+          "Unexpected number of inputs, expected " + inputNames.length + " found " + inputs.size());
+    }
+    OnnxTensor[] tensors = new OnnxTensor[inputNames.length];
+    long rows = -1;
+    for (int i = 0; i < inputNames.length; i++) {
+      OnnxTensor t = inputs.get(inputNames[i]);
+      if (t == null) {
+        throw new OrtException("Missing input " + inputNames[i]);
+      }
+      TensorInfo info = t.getInfo();
+      if ((info.onnxType != inputInfo[i].onnxType)
+          || (info.shape.length != inputInfo[i].shape.length)) {
+        throw new OrtException(
+            "Input " + inputNames[i] + " expected " + inputInfo[i] + " found " + info);
+      }
+      if (info.shape[0] <= 0) {
+        throw new OrtException(
+            "Input " + inputNames[i] + " must have at least one row, found " + info.shape[0]);
+      }
+      if (rows == -1) {
+        rows = info.shape[0];
+      } else if (info.shape[0] != rows) {
+        throw new OrtException(
+            "Input " + inputNames[i] + " has " + info.shape[0] + " rows, expected " + rows);
+      }
+      tensors[i] = t;
+    }
+    Request request = new Request(tensors, (int) rows);
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("Trying to submit to a closed BatchingSession");
+      }
+      queue.add(request);
+    }
+    return request;
+  }
+
+  /** The dispatcher loop, forms batches from the queue and scores them until shutdown. */
+  private void dispatch() {
+    long maxLingerNanos = TimeUnit.MICROSECONDS.toNanos(maxLingerMicros);
+    List<Request> batch = new ArrayList<>();
+    boolean running = true;
+    try {
+      while (running) {
+        Request first = deferred != null ? deferred : queue.take();
+        deferred = null;
+        if (first == SHUTDOWN) {
+          break;
+        } else if (first.isDone()) {
+          continue;
+        }
+        batch.add(first);
+        int rows = first.rows;
+        long deadline = first.submitTime + maxLingerNanos;
+        while (rows < maxBatchSize) {
+          long wait = deadline - System.nanoTime();
+          Request next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+          if (next == null) {
+            break;
+          } else if (next == SHUTDOWN) {
+            running = false;
+            break;
+          } else if (next.isDone()) {
+            continue;
+          } else if ((rows + next.rows > maxBatchSize) || !first.isCompatible(next)) {
+            deferred = next;
+            break;
+          }
+          batch.add(next);
+          rows += next.rows;
+        }
+        score(batch, rows);
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      IllegalStateException ex = new IllegalStateException("BatchingSession was interrupted", e);
+      for (Request r : batch) {
+        r.completeExceptionally(ex);
+      }
+      if (deferred != null) {
+        deferred.completeExceptionally(ex);
+      }
+      for (Request r : queue) {
+        r.completeExceptionally(ex);
+      }
+    }
+  }
+
+  /**
+   * Scores a batch, completing the future of each request in it.
+   *
+   * @param batch The requests.
+   * @param rows The total number of rows in the batch.
+   */
+  private void score(List<Request> batch, int rows) {
+    Map<String, OnnxTensor> batchInputs = new LinkedHashMap<>();
+    Map<String, OnnxTensor> batchOutputs = new LinkedHashMap<>();
+    try {
+      for (int i = 0; i < inputNames.length; i++) {
+        if (batch.size() == 1) {
+          batchInputs.put(inputNames[i], batch.get(0).inputs[i]);
+        } else {
+          long[] shape = batch.get(0).inputs[i].getInfo().getShape();
+          shape[0] = rows;
+          ByteBuffer buffer = allocate(shape, inputInfo[i].type);
+          for (Request r : batch) {
+            buffer.put(r.inputs[i].getBuffer());
+          }
+          buffer.rewind();
+          batchInputs.put(inputNames[i], createTensor(buffer, shape, inputInfo[i].type));
+        }
+      }
+      ByteBuffer[] outputBuffers = new ByteBuffer[outputNames.length];
+      long[][] outputShapes = new long[outputNames.length][];
+      if (preallocateOutputs) {
+        for (int i = 0; i < outputNames.length; i++) {
+          long[] shape = outputInfo[i].getShape();
+          shape[0] = rows;
+          outputBuffers[i] = allocate(shape, outputInfo[i].type);
+          outputShapes[i] = shape;
+          batchOutputs.put(
+              outputNames[i], createTensor(outputBuffers[i], shape, outputInfo[i].type));
+        }
+        session.run(batchInputs, batchOutputs);
+      } else {
+        try (Result result = session.run(batchInputs)) {
+          for (int i = 0; i < outputNames.length; i++) {
+            OnnxTensor output = (OnnxTensor) result.get(i);
+            long[] shape = output.getInfo().getShape();
+            if ((shape.length == 0) || (shape[0] != rows)) {
+              throw new OrtException(
+                  "Output "
+                      + outputNames[i]
+                      + " has shape "
+                      + Arrays.toString(shape)
+                      + ", expected "
+                      + rows
+                      + " rows");
+            }
+            outputBuffers[i] = allocate(shape, outputInfo[i].type);
+            outputBuffers[i].put(output.getBuffer());
+            outputBuffers[i].rewind();
+            outputShapes[i] = shape;
+          }
+        }
+      }
+      split(batch, rows, outputBuffers, outputShapes);
+    } catch (OrtException | RuntimeException e) {
+      for (Request r : batch) {
+        r.completeExceptionally(e);
+      }
+    } finally {
+      if (batch.size() != 1) {
+        OnnxValue.close(batchInputs);
+      }
+      OnnxValue.close(batchOutputs);
+    }
+  }
+
+  /**
+   * Slices the batch outputs into a Result per request, and completes the requests.
+   *
+   * @param batch The requests.
+   * @param rows The total number of rows in the batch.
+   * @param outputBuffers The batch output buffers.
+   * @param outputShapes The batch output shapes.
+   * @throws OrtException If the output tensors could not be created.
+   */
+  private void split(
+      List<Request> batch, int rows, ByteBuffer[] outputBuffers, long[][] outputShapes)
+      throws OrtException {
+    int[] rowBytes = new int[outputNames.length];
+    for (int i = 0; i < outputNames.length; i++) {
+      rowBytes[i] = outputBuffers[i].capacity() / rows;
+    }
+    int offset = 0;
+    for (Request r : batch) {
+      OnnxValue[] values = new OnnxValue[outputNames.length];
+      try {
+        for (int i = 0; i < outputNames.length; i++) {
+          ByteBuffer slice = outputBuffers[i].duplicate();
+          slice.position(offset * rowBytes[i]);
+          slice.limit((offset + r.rows) * rowBytes[i]);
+          long[] shape = Arrays.copyOf(outputShapes[i], outputShapes[i].length);
+          shape[0] = r.rows;
+          values[i] = createTensor(slice.slice(), shape, outputInfo[i].type);
+        }
+      } catch (OrtException | RuntimeException e) {
+        closeAll(values);
+        throw e;
+      }
+      Result result = new Result(outputNames, values);
+      if (!r.complete(result)) {
+        // Cancelled after the batch was formed, nothing else can reach the result.
+        result.close();
+      }
+      offset += r.rows;
+    }
+  }
+
+  private static void closeAll(OnnxValue[] values) {
+    for (OnnxValue v : values) {
+      if (v != null) {
+        v.close();
+      }
+    }
+  }
+
+  /**
+   * Allocates a native order direct buffer big enough for the supplied shape and type.
+   *
+   * @param shape The shape.
+   * @param type The element type.
+   * @return A direct buffer.
+   */
+  private static ByteBuffer allocate(long[] shape, OnnxJavaType type) {
+    long size = OrtUtil.elementCount(shape) * type.size;
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalStateException(
+          "Batch of shape " + Arrays.toString(shape) + " is too large for a direct buffer");
+    }
+    return ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * Creates a tensor which is a view of the supplied buffer.
+   *
+   * @param buffer The buffer, must be direct.
+   * @param shape The tensor shape.
+   * @param type The element type.
+   * @return A tensor backed by the buffer.
+   * @throws OrtException If the tensor could not be created.
+   */
+  private OnnxTensor createTensor(ByteBuffer buffer, long[] shape, OnnxJavaType type)
+      throws OrtException {
+    buffer.order(ByteOrder.nativeOrder());
+    switch (type) {
+      case FLOAT:
+        return OnnxTensor.createTensor(env, buffer.asFloatBuffer(), shape);
+      case DOUBLE:
+        return OnnxTensor.createTensor(env, buffer.asDoubleBuffer(), shape);
+      case INT16:
+        return OnnxTensor.createTensor(env, buffer.asShortBuffer(), shape);
+      case INT32:
+        return OnnxTensor.createTensor(env, buffer.asIntBuffer(), shape);
+      case INT64:
+        return OnnxTensor.createTensor(env, buffer.asLongBuffer(), shape);
+      case INT8:
+      case BOOL:
+        return OnnxTensor.createTensor(env, buffer, shape, type);
+      case STRING:
+      case UNKNOWN:
+      default:
+        throw new OrtException("Cannot batch tensors of type " + type);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "BatchingSession(session="
+        + session
+        + ",maxBatchSize="
+        + maxBatchSize
+        + ",maxLingerMicros="
+        + maxLingerMicros
+        + ")";
+  }
+
+  /**
+   * Closes the BatchingSession, waiting for the queued requests to be scored. Does not close the
+   * wrapped session.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("Trying to close an already closed BatchingSession");
+      }
+      closed = true;
+      queue.add(SHUTDOWN);
+    }
+    try {
+      dispatcher.join();
+    } catch (InterruptedException e) {
+      logger.log(Level.WARNING, "Interrupted while waiting for the dispatcher to exit", e);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** A queued request, which is completed with its slice of the batch outputs. */
+  private static final class Request extends CompletableFuture<Result> {
+    final OnnxTensor[] inputs;
+    final int rows;
+    final long submitTime;
+
+    Request(OnnxTensor[] inputs, int rows) {
+      this.inputs = inputs;
+      this.rows = rows;
+      this.submitTime = System.nanoTime();
+    }
+
+    /**
+     * Checks that the other request's inputs have the same non-batch dimensions as this request.
+     *
+     * @param other The other request.
+     * @return True if the requests can share a batch.
+     */
+    boolean isCompatible(Request other) {
+      for (int i = 0; i < inputs.length; i++) {
+        long[] shape = inputs[i].getInfo().shape;
+        long[] otherShape = other.inputs[i].getInfo().shape;
+        for (int j = 1; j < shape.length; j++) {
+          if (shape[j] != otherShape[j]) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+  }
+}
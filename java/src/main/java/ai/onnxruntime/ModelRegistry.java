@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * Licensed under the MIT License.
+ */
+package ai.onnxruntime;
+
+import ai.onnxruntime.OrtSession.SessionOptions;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A set of named models whose sessions are created on demand and closed again when they haven't
+ * been used recently and the registry needs the memory.
+ *
+ * <p>Each loaded session is charged an estimated native footprint, which starts at the size of the
+ * model file and grows to include the largest set of tensor outputs observed from a run through
+ * {@link Lease#run}. When the total estimate of the loaded sessions exceeds the memory budget the
+ * least recently used sessions are closed until it fits again. A session is leased by {@link
+ * #acquire} and is never closed while it has outstanding leases, so a run in progress is never
+ * interrupted, though this means the budget may be exceeded while many sessions are in use.
+ *
+ * <p>The registry is thread safe. Sessions are created outside of the registry lock, so a slow
+ * load only blocks other requests for the same model.
+ */
+public class ModelRegistry implements AutoCloseable {
+
+  private static final Logger logger = Logger.getLogger(ModelRegistry.class.getName());
+
+  private final OrtEnvironment env;
+
+  private final long memoryBudget;
+
+  private final Map<String, Entry> entries = new HashMap<>();
+
+  /** The loaded entries in least recently used order. */
+  private final LinkedHashMap<String, Entry> loaded = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long residentBytes = 0;
+
+  private long loads = 0;
+
+  private long evictions = 0;
+
+  private boolean closed = false;
+
+  /**
+   * Creates an empty registry.
+   *
+   * @param env The environment used to create sessions.
+   * @param memoryBudget The maximum estimated native memory in bytes of the loaded sessions.
+   */
+  public ModelRegistry(OrtEnvironment env, long memoryBudget) {
+    if (memoryBudget < 0) {
+      throw new IllegalArgumentException(
+          "memoryBudget must be non-negative, found " + memoryBudget);
+    }
+    this.env = env;
+    this.memoryBudget = memoryBudget;
+  }
+
+  /**
+   * Registers a model, it is not loaded until it is first acquired.
+   *
+   * <p>The session options are used each time the model is loaded, and must not be closed until the
+   * model is unregistered or the registry is closed.
+   *
+   * @param name The model name.
+   * @param modelPath The path to the model file.
+   * @param options The session options.
+   * @throws IOException If the size of the model file could not be read.
+   */
+  public void register(String name, Path modelPath, SessionOptions options) throws IOException {
+    long modelBytes = Files.size(modelPath);
+    synchronized (this) {
+      checkClosed();
+      if (entries.containsKey(name)) {
+        throw new IllegalArgumentException("Model " + name + " is already registered");
+      }
+      entries.put(name, new Entry(name, modelPath.toString(), options, modelBytes));
+    }
+  }
+
+  /**
+   * Unregisters a model, closing its session once any outstanding leases are closed.
+   *
+   * @param name The model name.
+   * @return True if the model was registered.
+   */
+  public synchronized boolean unregister(String name) {
+    checkClosed();
+    Entry e = entries.remove(name);
+    if (e == null) {
+      return false;
+    }
+    e.removed = true;
+    loaded.remove(name);
+    if ((e.refCount == 0) && (e.session != null)) {
+      closeSession(e);
+    }
+    return true;
+  }
+
+  /**
+   * Leases the session for the supplied model, loading it if necessary. The lease must be closed
+   * when the caller has finished running the session.
+   *
+   * @param name The model name.
+   * @return A lease on the model's session.
+   * @throws OrtException If the session could not be created.
+   */
+  public Lease acquire(String name) throws OrtException {
+    Entry e;
+    synchronized (this) {
+      checkClosed();
+      e = entries.get(name);
+      if (e == null) {
+        throw new IllegalArgumentException("Unknown model " + name);
+      }
+      // Taking a reference stops the session being evicted until the lease is closed.
+      e.refCount++;
+    }
+    OrtSession session;
+    try {
+      session = load(e);
+    } catch (OrtException | RuntimeException ex) {
+      release(e);
+      throw ex;
+    }
+    synchronized (this) {
+      // Marks the entry as most recently used.
+      loaded.get(name);
+    }
+    return new Lease(this, e, session);
+  }
+
+  /**
+   * Returns the entry's session, creating it if it isn't loaded.
+   *
+   * @param e The entry, which must be referenced by the caller.
+   * @return The session.
+   * @throws OrtException If the session could not be created.
+   */
+  private OrtSession load(Entry e) throws OrtException {
+    synchronized (e) {
+      if (e.session == null) {
+        long startTime = System.nanoTime();
+        OrtSession session = env.createSession(e.modelPath, e.options);
+        if (logger.isLoggable(Level.FINE)) {
+          logger.fine(
+              "Loaded model "
+                  + e.name
+                  + " in "
+                  + ((System.nanoTime() - startTime) / 1000000)
+                  + "ms");
+        }
+        synchronized (this) {
+          e.session = session;
+          if (!e.removed) {
+            loaded.put(e.name, e);
+          }
+          residentBytes += e.getFootprint();
+          loads++;
+          evict();
+        }
+      }
+      return e.session;
+    }
+  }
+
+  /**
+   * Drops a reference to the entry, closing its session if it has been unregistered, or evicting
+   * sessions if the registry is over budget.
+   *
+   * @param e The entry.
+   */
+  private synchronized void release(Entry e) {
+    e.refCount--;
+    if ((e.refCount == 0) && (e.removed || closed)) {
+      loaded.remove(e.name, e);
+      if (e.session != null) {
+        closeSession(e);
+      }
+    } else {
+      evict();
+    }
+  }
+
+  /**
+   * Raises the entry's observed allocation if the supplied output size is larger.
+   *
+   * @param e The entry.
+   * @param outputBytes The size of the outputs of a run.
+   */
+  private synchronized void observe(Entry e, long outputBytes) {
+    if (outputBytes > e.observedBytes) {
+      if (e.session != null) {
+        residentBytes += outputBytes - e.observedBytes;
+      }
+      e.observedBytes = outputBytes;
+    }
+  }
+
+  /** Closes least recently used idle sessions until the loaded sessions fit in the budget. */
+  private void evict() {
+    Iterator<Entry> itr = loaded.values().iterator();
+    while ((residentBytes > memoryBudget) && itr.hasNext()) {
+      Entry e = itr.next();
+      if (e.refCount == 0) {
+        itr.remove();
+        closeSession(e);
+        evictions++;
+      }
+    }
+  }
+
+  /**
+   * Closes the entry's session and removes its footprint from the resident size.
+   *
+   * @param e The entry, which must be loaded and not referenced.
+   */
+  private void closeSession(Entry e) {
+    residentBytes -= e.getFootprint();
+    try {
+      e.session.close();
+    } catch (OrtException ex) {
+      logger.log(Level.WARNING, "Failed to close the session for model " + e.name, ex);
+    }
+    e.session = null;
+  }
+
+  /**
+   * Gets the registered model names.
+   *
+   * @return The model names.
+   */
+  public synchronized List<String> getModelNames() {
+    return Collections.unmodifiableList(new ArrayList<>(entries.keySet()));
+  }
+
+  /**
+   * Checks if the model's session is currently loaded.
+   *
+   * @param name The model name.
+   * @return True if the session is loaded.
+   */
+  public synchronized boolean isLoaded(String name) {
+    return loaded.containsKey(name);
+  }
+
+  /**
+   * Gets the estimated native footprint of the model's session, whether or not it is loaded.
+   *
+   * @param name The model name.
+   * @return The estimated footprint in bytes.
+   */
+  public synchronized long getFootprint(String name) {
+    Entry e = entries.get(name);
+    if (e == null) {
+      throw new IllegalArgumentException("Unknown model " + name);
+    }
+    return e.getFootprint();
+  }
+
+  /**
+   * Gets the memory budget.
+   *
+   * @return The memory budget in bytes.
+   */
+  public long getMemoryBudget() {
+    return memoryBudget;
+  }
+
+  /**
+   * Gets the total estimated footprint of the loaded sessions.
+   *
+   * @return The resident size in bytes.
+   */
+  public synchronized long getResidentBytes() {
+    return residentBytes;
+  }
+
+  /**
+   * Gets the number of times a session has been loaded.
+   *
+   * @return The load count.
+   */
+  public synchronized long getLoadCount() {
+    return loads;
+  }
+
+  /**
+   * Gets the number of sessions closed to fit in the memory budget.
+   *
+   * @return The eviction count.
+   */
+  public synchronized long getEvictionCount() {
+    return evictions;
+  }
+
+  /** Checks if the registry is closed, if so throws {@link IllegalStateException}. */
+  private void checkClosed() {
+    if (closed) {
+      throw new IllegalStateException("Trying to use a closed ModelRegistry");
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "ModelRegistry(models="
+        + entries.size()
+        + ",loaded="
+        + loaded.size()
+        + ",residentBytes="
+        + residentBytes
+        + ",memoryBudget="
+        + memoryBudget
+        + ")";
+  }
+
+  /**
+   * Closes the registry and the idle sessions, sessions which are leased are closed when their
+   * leases are closed. Does not close the session options.
+   */
+  @Override
+  public synchronized void close() {
+    if (!closed) {
+      closed = true;
+      Iterator<Entry> itr = loaded.values().iterator();
+      while (itr.hasNext()) {
+        Entry e = itr.next();
+        if (e.refCount == 0) {
+          itr.remove();
+          closeSession(e);
+        }
+      }
+      entries.clear();
+    } else {
+      throw new IllegalStateException("Trying to close an already closed ModelRegistry");
+    }
+  }
+
+  /**
+   * A lease on a registered model's session, the session will not be closed until the lease is
+   * closed.
+   *
+   * <p>A lease is not thread safe, but the session it wraps can be used from multiple threads.
+   */
+  public static final class Lease implements AutoCloseable {
+    private final ModelRegistry registry;
+    private final Entry entry;
+    private final OrtSession session;
+    private boolean closed = false;
+
+    private Lease(ModelRegistry registry, Entry entry, OrtSession session) {
+      this.registry = registry;
+      this.entry = entry;
+      this.session = session;
+    }
+
+    /**
+     * Gets the leased session.
+     *
+     * @return The session.
+     */
+    public OrtSession getSession() {
+      checkClosed();
+      return session;
+    }
+
+    /**
+     * Scores the supplied inputs with the leased session, recording the size of the tensor outputs
+     * in the session's footprint estimate.
+     *
+     * @param inputs The inputs to score.
+     * @return The inferred outputs.
+     * @throws OrtException If there was an error in native code, or the inputs are invalid.
+     */
+    public OrtSession.Result run(Map<String, OnnxTensor> inputs) throws OrtException {
+      checkClosed();
+      OrtSession.Result result = session.run(inputs);
+      long outputBytes = 0;
+      for (Map.Entry<String, OnnxValue> e : result) {
+        if (e.getValue() instanceof OnnxTensor) {
+          TensorInfo info = ((OnnxTensor) e.getValue()).getInfo();
+          outputBytes += OrtUtil.elementCount(info.shape) * info.type.size;
+        }
+      }
+      registry.observe(entry, outputBytes);
+      return result;
+    }
+
+    private void checkClosed() {
+      if (closed) {
+        throw new IllegalStateException("Trying to use a closed Lease");
+      }
+    }
+
+    /** Releases the lease, allowing the session to be evicted. */
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        registry.release(entry);
+      } else {
+        logger.warning("Closing an already closed Lease.");
+      }
+    }
+  }
+
+  /** A registered model and its session if it is loaded. */
+  private static final class Entry {
+    final String name;
+    final String modelPath;
+    final SessionOptions options;
+    final long modelBytes;
+    /** The largest tensor output size observed from a run. */
+    long observedBytes = 0;
+    /** The number of outstanding leases and in progress acquisitions. */
+    int refCount = 0;
+    boolean removed = false;
+    /**
+     * Set under the entry lock while loading, and cleared under the registry lock when the entry
+     * is not referenced.
+     */
+    OrtSession session;
+
+    Entry(String name, String modelPath, SessionOptions options, long modelBytes) {
+      this.name = name;
+      this.modelPath = modelPath;
+      this.options = options;
+      this.modelBytes = modelBytes;
+    }
+
+    long getFootprint() {
+      return modelBytes + observedBytes;
+    }
+  }
+}
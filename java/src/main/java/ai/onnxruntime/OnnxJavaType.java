@@ -74,6 +74,7 @@ public enum OnnxJavaType {
       case ONNX_TENSOR_ELEMENT_DATA_TYPE_INT64:
         return OnnxJavaType.INT64;
       case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16:
+      case ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16:
       case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT:
         return OnnxJavaType.FLOAT;
       case ONNX_TENSOR_ELEMENT_DATA_TYPE_DOUBLE:
@@ -85,7 +86,6 @@ public enum OnnxJavaType {
       case ONNX_TENSOR_ELEMENT_DATA_TYPE_UNDEFINED:
       case ONNX_TENSOR_ELEMENT_DATA_TYPE_COMPLEX64:
       case ONNX_TENSOR_ELEMENT_DATA_TYPE_COMPLEX128:
-      case ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16:
       default:
         return OnnxJavaType.UNKNOWN;
     }
@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * A container for a map returned by {@link OrtSession#run(Map)}.
@@ -132,14 +133,19 @@ public class OnnxMap implements OnnxValue {
   /**
    * Returns a weakly typed Map containing all the elements.
    *
+   * <p>This boxes every key and value, the primitive map accessors such as {@link
+   * #getLongFloatMap()} avoid that.
+   *
    * @return A map.
    * @throws OrtException If the onnx runtime failed to read the entries.
    */
   @Override
   public Map<Object, Object> getValue() throws OrtException {
+    Object[] keysAndValues =
+        getKeysAndValues(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle);
+    Object[] keys = box(keysAndValues[0]);
+    Object[] values = box(keysAndValues[1]);
     HashMap<Object, Object> map = new HashMap<>();
-    Object[] keys = getMapKeys();
-    Object[] values = getMapValues();
     for (int i = 0; i < keys.length; i++) {
       map.put(keys[i], values[i]);
     }
@@ -147,59 +153,123 @@ public class OnnxMap implements OnnxValue {
   }
 
   /**
-   * Extracts the map keys, boxing the primitives as necessary.
+   * Returns the entries of a long to float map without boxing them.
    *
-   * @return The keys from the map as an array.
-   * @throws OrtException If the onnxruntime failed to read the keys.
+   * @return The map.
+   * @throws OrtException If this is not a long to float map, or the onnx runtime failed to read
+   *     the entries.
    */
-  private Object[] getMapKeys() throws OrtException {
-    if (stringKeys) {
-      return getStringKeys(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle);
-    } else {
-      return Arrays.stream(getLongKeys(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle))
-          .boxed()
-          .toArray();
+  public LongFloatMap getLongFloatMap() throws OrtException {
+    Object[] keysAndValues = getKeysAndValues(false, OnnxMapValueType.FLOAT);
+    return new LongFloatMap((long[]) keysAndValues[0], (float[]) keysAndValues[1]);
+  }
+
+  /**
+   * Returns the entries of a long to double map without boxing them.
+   *
+   * @return The map.
+   * @throws OrtException If this is not a long to double map, or the onnx runtime failed to read
+   *     the entries.
+   */
+  public LongDoubleMap getLongDoubleMap() throws OrtException {
+    Object[] keysAndValues = getKeysAndValues(false, OnnxMapValueType.DOUBLE);
+    return new LongDoubleMap((long[]) keysAndValues[0], (double[]) keysAndValues[1]);
+  }
+
+  /**
+   * Returns the entries of a long to long map without boxing them.
+   *
+   * @return The map.
+   * @throws OrtException If this is not a long to long map, or the onnx runtime failed to read the
+   *     entries.
+   */
+  public LongLongMap getLongLongMap() throws OrtException {
+    Object[] keysAndValues = getKeysAndValues(false, OnnxMapValueType.LONG);
+    return new LongLongMap((long[]) keysAndValues[0], (long[]) keysAndValues[1]);
+  }
+
+  /**
+   * Returns the entries of a string to float map without boxing the values.
+   *
+   * @return The map.
+   * @throws OrtException If this is not a string to float map, or the onnx runtime failed to read
+   *     the entries.
+   */
+  public StringFloatMap getStringFloatMap() throws OrtException {
+    Object[] keysAndValues = getKeysAndValues(true, OnnxMapValueType.FLOAT);
+    return new StringFloatMap((String[]) keysAndValues[0], (float[]) keysAndValues[1]);
+  }
+
+  /**
+   * Returns the entries of a string to double map without boxing the values.
+   *
+   * @return The map.
+   * @throws OrtException If this is not a string to double map, or the onnx runtime failed to read
+   *     the entries.
+   */
+  public StringDoubleMap getStringDoubleMap() throws OrtException {
+    Object[] keysAndValues = getKeysAndValues(true, OnnxMapValueType.DOUBLE);
+    return new StringDoubleMap((String[]) keysAndValues[0], (double[]) keysAndValues[1]);
+  }
+
+  /**
+   * Returns the entries of a string to long map without boxing the values.
+   *
+   * @return The map.
+   * @throws OrtException If this is not a string to long map, or the onnx runtime failed to read
+   *     the entries.
+   */
+  public StringLongMap getStringLongMap() throws OrtException {
+    Object[] keysAndValues = getKeysAndValues(true, OnnxMapValueType.LONG);
+    return new StringLongMap((String[]) keysAndValues[0], (long[]) keysAndValues[1]);
+  }
+
+  /**
+   * Extracts the keys and values in a single native call, after checking the map types.
+   *
+   * @param expectStringKeys True if the map should have string keys, false for long keys.
+   * @param expectedValueType The expected value type.
+   * @return A two element array holding the key array and the value array.
+   * @throws OrtException If the map has different types, or the onnx runtime failed to read the
+   *     entries.
+   */
+  private Object[] getKeysAndValues(boolean expectStringKeys, OnnxMapValueType expectedValueType)
+      throws OrtException {
+    if ((stringKeys != expectStringKeys) || (valueType != expectedValueType)) {
+      throw new OrtException(
+          "Cannot read a map of "
+              + info.keyType
+              + " to "
+              + info.valueType
+              + " as a map of "
+              + (expectStringKeys ? OnnxJavaType.STRING : OnnxJavaType.INT64)
+              + " to "
+              + expectedValueType);
     }
+    return getKeysAndValues(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle);
   }
 
   /**
-   * Extracts the map values, boxing primitives as necessary.
+   * Boxes the primitives in a key or value array as necessary.
    *
-   * @return The values from the map as an array.
-   * @throws OrtException If the onnxruntime failed to read the values.
+   * @param array The array.
+   * @return The boxed array.
    */
-  private Object[] getMapValues() throws OrtException {
-    switch (valueType) {
-      case STRING:
-        {
-          return getStringValues(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle);
-        }
-      case LONG:
-        {
-          return Arrays.stream(
-                  getLongValues(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle))
-              .boxed()
-              .toArray();
-        }
-      case FLOAT:
-        {
-          float[] floats = getFloatValues(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle);
-          Float[] boxed = new Float[floats.length];
-          for (int i = 0; i < floats.length; i++) {
-            // cast float to Float
-            boxed[i] = floats[i];
-          }
-          return boxed;
-        }
-      case DOUBLE:
-        {
-          return Arrays.stream(
-                  getDoubleValues(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle))
-              .boxed()
-              .toArray();
-        }
-      default:
-        throw new RuntimeException("Invalid or unknown valueType: " + valueType);
+  private static Object[] box(Object array) {
+    if (array instanceof long[]) {
+      return Arrays.stream((long[]) array).boxed().toArray();
+    } else if (array instanceof float[]) {
+      float[] floats = (float[]) array;
+      Float[] boxed = new Float[floats.length];
+      for (int i = 0; i < floats.length; i++) {
+        // cast float to Float
+        boxed[i] = floats[i];
+      }
+      return boxed;
+    } else if (array instanceof double[]) {
+      return Arrays.stream((double[]) array).boxed().toArray();
+    } else {
+      return (Object[]) array;
     }
   }
 
@@ -219,22 +289,564 @@ public class OnnxMap implements OnnxValue {
     close(OnnxRuntime.ortApiHandle, nativeHandle);
   }
 
-  private native String[] getStringKeys(long apiHandle, long nativeHandle, long allocatorHandle)
-      throws OrtException;
+  /**
+   * Base class for the maps with long keys. The keys and values are held in parallel arrays in
+   * the order the runtime returned them, and looked up through an open addressed hash table of
+   * entry indices.
+   */
+  public abstract static class LongKeyMap {
+    final long[] keys;
 
-  private native long[] getLongKeys(long apiHandle, long nativeHandle, long allocatorHandle)
-      throws OrtException;
+    /** The entry index plus one for each occupied slot, zero marks an empty slot. */
+    private final int[] table;
 
-  private native String[] getStringValues(long apiHandle, long nativeHandle, long allocatorHandle)
-      throws OrtException;
+    private final int mask;
 
-  private native long[] getLongValues(long apiHandle, long nativeHandle, long allocatorHandle)
-      throws OrtException;
+    LongKeyMap(long[] keys) {
+      this.keys = keys;
+      this.table = new int[tableSize(keys.length)];
+      this.mask = table.length - 1;
+      for (int i = 0; i < keys.length; i++) {
+        int slot = mix(keys[i]) & mask;
+        while ((table[slot] != 0) && (keys[table[slot] - 1] != keys[i])) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = i + 1;
+      }
+    }
 
-  private native float[] getFloatValues(long apiHandle, long nativeHandle, long allocatorHandle)
-      throws OrtException;
+    /**
+     * Returns the index of the entry with the supplied key.
+     *
+     * @param key The key.
+     * @return The entry index, or -1 if the key is not present.
+     */
+    public int indexOf(long key) {
+      int slot = mix(key) & mask;
+      int entry;
+      while ((entry = table[slot]) != 0) {
+        if (keys[entry - 1] == key) {
+          return entry - 1;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    /**
+     * Checks if the map contains the supplied key.
+     *
+     * @param key The key.
+     * @return True if the key is present.
+     */
+    public boolean containsKey(long key) {
+      return indexOf(key) >= 0;
+    }
+
+    /**
+     * The number of entries in the map.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+      return keys.length;
+    }
+
+    /**
+     * Returns the key of the entry at the supplied index.
+     *
+     * @param index The entry index.
+     * @return The key.
+     */
+    public long keyAt(int index) {
+      return keys[index];
+    }
+
+    /**
+     * Returns a copy of the keys, in entry order.
+     *
+     * @return The keys.
+     */
+    public long[] getKeys() {
+      return keys.clone();
+    }
+
+    int checkedIndexOf(long key) {
+      int index = indexOf(key);
+      if (index < 0) {
+        throw new NoSuchElementException("Key " + key + " not found");
+      }
+      return index;
+    }
+  }
+
+  /** A map from long keys to float values which doesn't box its entries. */
+  public static final class LongFloatMap extends LongKeyMap {
+    private final float[] values;
+
+    LongFloatMap(long[] keys, float[] values) {
+      super(keys);
+      this.values = values;
+    }
+
+    /**
+     * Returns the value for the supplied key.
+     *
+     * @param key The key.
+     * @return The value.
+     * @throws NoSuchElementException If the key is not present.
+     */
+    public float get(long key) {
+      return values[checkedIndexOf(key)];
+    }
+
+    /**
+     * Returns the value for the supplied key, or the default value if it is not present.
+     *
+     * @param key The key.
+     * @param defaultValue The value to return if the key is not present.
+     * @return The value.
+     */
+    public float getOrDefault(long key, float defaultValue) {
+      int index = indexOf(key);
+      return index < 0 ? defaultValue : values[index];
+    }
+
+    /**
+     * Returns the value of the entry at the supplied index.
+     *
+     * @param index The entry index.
+     * @return The value.
+     */
+    public float valueAt(int index) {
+      return values[index];
+    }
+
+    /**
+     * Returns a copy of the values, in entry order.
+     *
+     * @return The values.
+     */
+    public float[] getValues() {
+      return values.clone();
+    }
+
+    @Override
+    public String toString() {
+      return "LongFloatMap(size=" + size() + ")";
+    }
+  }
+
+  /** A map from long keys to double values which doesn't box its entries. */
+  public static final class LongDoubleMap extends LongKeyMap {
+    private final double[] values;
+
+    LongDoubleMap(long[] keys, double[] values) {
+      super(keys);
+      this.values = values;
+    }
+
+    /**
+     * Returns the value for the supplied key.
+     *
+     * @param key The key.
+     * @return The value.
+     * @throws NoSuchElementException If the key is not present.
+     */
+    public double get(long key) {
+      return values[checkedIndexOf(key)];
+    }
+
+    /**
+     * Returns the value for the supplied key, or the default value if it is not present.
+     *
+     * @param key The key.
+     * @param defaultValue The value to return if the key is not present.
+     * @return The value.
+     */
+    public double getOrDefault(long key, double defaultValue) {
+      int index = indexOf(key);
+      return index < 0 ? defaultValue : values[index];
+    }
+
+    /**
+     * Returns the value of the entry at the supplied index.
+     *
+     * @param index The entry index.
+     * @return The value.
+     */
+    public double valueAt(int index) {
+      return values[index];
+    }
+
+    /**
+     * Returns a copy of the values, in entry order.
+     *
+     * @return The values.
+     */
+    public double[] getValues() {
+      return values.clone();
+    }
+
+    @Override
+    public String toString() {
+      return "LongDoubleMap(size=" + size() + ")";
+    }
+  }
+
+  /** A map from long keys to long values which doesn't box its entries. */
+  public static final class LongLongMap extends LongKeyMap {
+    private final long[] values;
+
+    LongLongMap(long[] keys, long[] values) {
+      super(keys);
+      this.values = values;
+    }
+
+    /**
+     * Returns the value for the supplied key.
+     *
+     * @param key The key.
+     * @return The value.
+     * @throws NoSuchElementException If the key is not present.
+     */
+    public long get(long key) {
+      return values[checkedIndexOf(key)];
+    }
+
+    /**
+     * Returns the value for the supplied key, or the default value if it is not present.
+     *
+     * @param key The key.
+     * @param defaultValue The value to return if the key is not present.
+     * @return The value.
+     */
+    public long getOrDefault(long key, long defaultValue) {
+      int index = indexOf(key);
+      return index < 0 ? defaultValue : values[index];
+    }
+
+    /**
+     * Returns the value of the entry at the supplied index.
+     *
+     * @param index The entry index.
+     * @return The value.
+     */
+    public long valueAt(int index) {
+      return values[index];
+    }
+
+    /**
+     * Returns a copy of the values, in entry order.
+     *
+     * @return The values.
+     */
+    public long[] getValues() {
+      return values.clone();
+    }
+
+    @Override
+    public String toString() {
+      return "LongLongMap(size=" + size() + ")";
+    }
+  }
+
+  /**
+   * Base class for the maps with string keys. The keys and values are held in parallel arrays in
+   * the order the runtime returned them, and looked up through an open addressed hash table of
+   * entry indices.
+   */
+  public abstract static class StringKeyMap {
+    final String[] keys;
+
+    /** The entry index plus one for each occupied slot, zero marks an empty slot. */
+    private final int[] table;
+
+    private final int mask;
+
+    StringKeyMap(String[] keys) {
+      this.keys = keys;
+      this.table = new int[tableSize(keys.length)];
+      this.mask = table.length - 1;
+      for (int i = 0; i < keys.length; i++) {
+        int slot = mix(keys[i].hashCode()) & mask;
+        while ((table[slot] != 0) && !keys[table[slot] - 1].equals(keys[i])) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = i + 1;
+      }
+    }
+
+    /**
+     * Returns the index of the entry with the supplied key.
+     *
+     * @param key The key.
+     * @return The entry index, or -1 if the key is not present.
+     */
+    public int indexOf(String key) {
+      int slot = mix(key.hashCode()) & mask;
+      int entry;
+      while ((entry = table[slot]) != 0) {
+        if (keys[entry - 1].equals(key)) {
+          return entry - 1;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    /**
+     * Checks if the map contains the supplied key.
+     *
+     * @param key The key.
+     * @return True if the key is present.
+     */
+    public boolean containsKey(String key) {
+      return indexOf(key) >= 0;
+    }
+
+    /**
+     * The number of entries in the map.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+      return keys.length;
+    }
+
+    /**
+     * Returns the key of the entry at the supplied index.
+     *
+     * @param index The entry index.
+     * @return The key.
+     */
+    public String keyAt(int index) {
+      return keys[index];
+    }
+
+    /**
+     * Returns a copy of the keys, in entry order.
+     *
+     * @return The keys.
+     */
+    public String[] getKeys() {
+      return keys.clone();
+    }
+
+    int checkedIndexOf(String key) {
+      int index = indexOf(key);
+      if (index < 0) {
+        throw new NoSuchElementException("Key " + key + " not found");
+      }
+      return index;
+    }
+  }
+
+  /** A map from string keys to float values which doesn't box its entries. */
+  public static final class StringFloatMap extends StringKeyMap {
+    private final float[] values;
+
+    StringFloatMap(String[] keys, float[] values) {
+      super(keys);
+      this.values = values;
+    }
+
+    /**
+     * Returns the value for the supplied key.
+     *
+     * @param key The key.
+     * @return The value.
+     * @throws NoSuchElementException If the key is not present.
+     */
+    public float get(String key) {
+      return values[checkedIndexOf(key)];
+    }
+
+    /**
+     * Returns the value for the supplied key, or the default value if it is not present.
+     *
+     * @param key The key.
+     * @param defaultValue The value to return if the key is not present.
+     * @return The value.
+     */
+    public float getOrDefault(String key, float defaultValue) {
+      int index = indexOf(key);
+      return index < 0 ? defaultValue : values[index];
+    }
+
+    /**
+     * Returns the value of the entry at the supplied index.
+     *
+     * @param index The entry index.
+     * @return The value.
+     */
+    public float valueAt(int index) {
+      return values[index];
+    }
+
+    /**
+     * Returns a copy of the values, in entry order.
+     *
+     * @return The values.
+     */
+    public float[] getValues() {
+      return values.clone();
+    }
+
+    @Override
+    public String toString() {
+      return "StringFloatMap(size=" + size() + ")";
+    }
+  }
+
+  /** A map from string keys to double values which doesn't box its entries. */
+  public static final class StringDoubleMap extends StringKeyMap {
+    private final double[] values;
+
+    StringDoubleMap(String[] keys, double[] values) {
+      super(keys);
+      this.values = values;
+    }
+
+    /**
+     * Returns the value for the supplied key.
+     *
+     * @param key The key.
+     * @return The value.
+     * @throws NoSuchElementException If the key is not present.
+     */
+    public double get(String key) {
+      return values[checkedIndexOf(key)];
+    }
+
+    /**
+     * Returns the value for the supplied key, or the default value if it is not present.
+     *
+     * @param key The key.
+     * @param defaultValue The value to return if the key is not present.
+     * @return The value.
+     */
+    public double getOrDefault(String key, double defaultValue) {
+      int index = indexOf(key);
+      return index < 0 ? defaultValue : values[index];
+    }
+
+    /**
+     * Returns the value of the entry at the supplied index.
+     *
+     * @param index The entry index.
+     * @return The value.
+     */
+    public double valueAt(int index) {
+      return values[index];
+    }
+
+    /**
+     * Returns a copy of the values, in entry order.
+     *
+     * @return The values.
+     */
+    public double[] getValues() {
+      return values.clone();
+    }
+
+    @Override
+    public String toString() {
+      return "StringDoubleMap(size=" + size() + ")";
+    }
+  }
+
+  /** A map from string keys to long values which doesn't box its entries. */
+  public static final class StringLongMap extends StringKeyMap {
+    private final long[] values;
+
+    StringLongMap(String[] keys, long[] values) {
+      super(keys);
+      this.values = values;
+    }
+
+    /**
+     * Returns the value for the supplied key.
+     *
+     * @param key The key.
+     * @return The value.
+     * @throws NoSuchElementException If the key is not present.
+     */
+    public long get(String key) {
+      return values[checkedIndexOf(key)];
+    }
+
+    /**
+     * Returns the value for the supplied key, or the default value if it is not present.
+     *
+     * @param key The key.
+     * @param defaultValue The value to return if the key is not present.
+     * @return The value.
+     */
+    public long getOrDefault(String key, long defaultValue) {
+      int index = indexOf(key);
+      return index < 0 ? defaultValue : values[index];
+    }
+
+    /**
+     * Returns the value of the entry at the supplied index.
+     *
+     * @param index The entry index.
+     * @return The value.
+     */
+    public long valueAt(int index) {
+      return values[index];
+    }
+
+    /**
+     * Returns a copy of the values, in entry order.
+     *
+     * @return The values.
+     */
+    public long[] getValues() {
+      return values.clone();
+    }
+
+    @Override
+    public String toString() {
+      return "StringLongMap(size=" + size() + ")";
+    }
+  }
+
+  /**
+   * Returns the hash table size for the supplied number of entries, a power of two at least twice
+   * the number of entries.
+   *
+   * @param entries The number of entries.
+   * @return The table size.
+   */
+  private static int tableSize(int entries) {
+    return Math.max(2, Integer.highestOneBit(Math.max(1, entries) * 2 - 1) << 1);
+  }
+
+  /**
+   * Spreads the bits of a long key into an int hash.
+   *
+   * @param key The key.
+   * @return The hash.
+   */
+  private static int mix(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /**
+   * Spreads the bits of a hash code.
+   *
+   * @param hash The hash code.
+   * @return The hash.
+   */
+  private static int mix(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
 
-  private native double[] getDoubleValues(long apiHandle, long nativeHandle, long allocatorHandle)
+  private native Object[] getKeysAndValues(long apiHandle, long nativeHandle, long allocatorHandle)
       throws OrtException;
 
   private native void close(long apiHandle, long nativeHandle);
@@ -8,9 +8,17 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Locale;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -33,10 +41,25 @@ final class OnnxRuntime {
   /** The short name of the ONNX runtime JNI shared library */
   static final String ONNXRUNTIME_JNI_LIBRARY_NAME = "onnxruntime4j_jni";
 
+  /**
+   * The system property which enables the persistent cache of native libraries extracted from the
+   * jar, its value is the cache directory.
+   */
+  static final String CACHE_DIRECTORY_PROPERTY = "onnxruntime.native.cache.dir";
+
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
   private static final String OS_ARCH_STR = initOsArch();
 
   private static boolean loaded = false;
 
+  /**
+   * True while {@link #init()} is loading the libraries. Setting up the JNI library initializes
+   * classes whose static initializers call {@link #init()} again on the same thread, and those
+   * calls must return without loading a second copy.
+   */
+  private static boolean loading = false;
+
   /** The API handle. */
   static long ortApiHandle;
 
@@ -73,22 +96,53 @@ final class OnnxRuntime {
    * @throws IOException If it can't write to disk to copy out the library from the jar file.
    */
   static synchronized void init() throws IOException {
-    if (loaded) {
+    if (loaded || loading) {
       return;
     }
-    Path tempDirectory = isAndroid() ? null : Files.createTempDirectory("onnxruntime-java");
+    long startTime = System.nanoTime();
+    String cacheProperty = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+    Path cacheDirectory = null;
+    Path tempDirectory = null;
+    if (!isAndroid()) {
+      if (cacheProperty != null) {
+        cacheDirectory = Files.createDirectories(Paths.get(cacheProperty, OS_ARCH_STR));
+      } else {
+        tempDirectory = Files.createTempDirectory("onnxruntime-java");
+      }
+    }
+    startTime = logPhase("Creating the library directory", startTime);
+    loading = true;
     try {
-      load(tempDirectory, ONNXRUNTIME_LIBRARY_NAME);
-      load(tempDirectory, ONNXRUNTIME_JNI_LIBRARY_NAME);
+      load(tempDirectory, cacheDirectory, ONNXRUNTIME_LIBRARY_NAME);
+      startTime = logPhase("Loading " + ONNXRUNTIME_LIBRARY_NAME, startTime);
+      load(tempDirectory, cacheDirectory, ONNXRUNTIME_JNI_LIBRARY_NAME);
+      startTime = logPhase("Loading " + ONNXRUNTIME_JNI_LIBRARY_NAME, startTime);
       ortApiHandle = initialiseAPIBase(ORT_API_VERSION_3);
+      logPhase("Initialising the API", startTime);
       loaded = true;
     } finally {
-      if (!isAndroid()) {
+      loading = false;
+      if (tempDirectory != null) {
         cleanUp(tempDirectory.toFile());
       }
     }
   }
 
+  /**
+   * Logs the time taken by a phase of {@link #init()}.
+   *
+   * @param phase The phase description.
+   * @param startTime The start time of the phase from {@link System#nanoTime()}.
+   * @return The current time, which is the start of the next phase.
+   */
+  private static long logPhase(String phase, long startTime) {
+    long endTime = System.nanoTime();
+    if (logger.isLoggable(Level.FINE)) {
+      logger.fine(phase + " took " + ((endTime - startTime) / 1000) + "us");
+    }
+    return endTime;
+  }
+
   /**
    * Attempt to remove a file and then mark for delete on exit if it cannot be deleted at this point
    * in time.
@@ -123,11 +177,15 @@ final class OnnxRuntime {
   /**
    * Load a shared library by name.
    *
-   * @param tempDirectory The temp directory to write the library resource to.
+   * @param tempDirectory The temp directory to write the library resource to, null if the cache is
+   *     enabled.
+   * @param cacheDirectory The cache directory to extract the library resource to, null if the cache
+   *     is disabled.
    * @param library The bare name of the library.
    * @throws IOException If the file failed to read or write.
    */
-  private static void load(Path tempDirectory, String library) throws IOException {
+  private static void load(Path tempDirectory, Path cacheDirectory, String library)
+      throws IOException {
     // On Android, we simply use System.loadLibrary
     if (isAndroid()) {
       System.loadLibrary("onnxruntime4j_jni");
@@ -165,7 +223,17 @@ final class OnnxRuntime {
     // replace Mac's jnilib extension to dylib
     String libraryFileName = System.mapLibraryName(library).replace("jnilib", "dylib");
     String resourcePath = "/ai/onnxruntime/native/" + OS_ARCH_STR + '/' + libraryFileName;
-    File tempFile = tempDirectory.resolve(libraryFileName).toFile();
+    if (cacheDirectory != null) {
+      URL resource = OnnxRuntime.class.getResource(resourcePath);
+      if (resource != null) {
+        // 3c) Found in resources, load via the persistent cache
+        Path cachedFile = extractToCache(cacheDirectory, resource, libraryFileName);
+        System.load(cachedFile.toAbsolutePath().toString());
+        logger.log(Level.FINE, "Loaded native library '" + library + "' from " + cachedFile);
+        return;
+      }
+    }
+    File tempFile = tempDirectory == null ? null : tempDirectory.resolve(libraryFileName).toFile();
     try (InputStream is = OnnxRuntime.class.getResourceAsStream(resourcePath)) {
       if (is == null) {
         // 3a) Not found in resources, load from library path
@@ -183,19 +251,141 @@ final class OnnxRuntime {
                 + resourcePath
                 + " copying to "
                 + tempFile);
-        byte[] buffer = new byte[1024];
-        int readBytes;
         try (FileOutputStream os = new FileOutputStream(tempFile)) {
-          while ((readBytes = is.read(buffer)) != -1) {
-            os.write(buffer, 0, readBytes);
-          }
+          copy(is, os, null);
         }
         System.load(tempFile.getAbsolutePath());
         logger.log(Level.FINE, "Loaded native library '" + library + "' from resource path");
       }
     } finally {
-      cleanUp(tempFile);
+      if (tempFile != null) {
+        cleanUp(tempFile);
+      }
+    }
+  }
+
+  /**
+   * Extracts a library resource into the cache, unless a verified copy is already there.
+   *
+   * <p>Libraries are stored under a directory named for the CRC32 and size of their contents, so
+   * different versions of the jar don't collide. The CRC32 is read from the jar's directory where
+   * possible so the resource isn't decompressed when the cached copy is valid. A cached copy is
+   * verified against the CRC32 before it is used, and new copies are written to a temporary file
+   * and atomically renamed into place so concurrent JVMs never load a partially written library.
+   *
+   * @param cacheDirectory The cache directory for this platform.
+   * @param resource The library resource.
+   * @param libraryFileName The platform specific library file name.
+   * @return The path to the verified cached library.
+   * @throws IOException If the library could not be read, written or verified.
+   */
+  static Path extractToCache(Path cacheDirectory, URL resource, String libraryFileName)
+      throws IOException {
+    long crc = -1;
+    long size = -1;
+    URLConnection connection = resource.openConnection();
+    if (connection instanceof JarURLConnection) {
+      JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+      crc = entry.getCrc();
+      size = entry.getSize();
+    }
+    if ((crc == -1) || (size == -1)) {
+      // Not in a jar, or the jar doesn't record the CRC, so checksum the resource directly.
+      CRC32 checksum = new CRC32();
+      try (InputStream is = resource.openStream()) {
+        size = copy(is, null, checksum);
+      }
+      crc = checksum.getValue();
+    }
+    Path directory = Files.createDirectories(cacheDirectory.resolve(cacheKey(crc, size)));
+    Path cachedFile = directory.resolve(libraryFileName);
+    if (isValid(cachedFile, crc, size)) {
+      logger.log(Level.FINE, "Reusing cached native library " + cachedFile);
+      return cachedFile;
+    }
+    Path tempFile = Files.createTempFile(directory, libraryFileName, ".tmp");
+    try {
+      CRC32 checksum = new CRC32();
+      try (InputStream is = resource.openStream();
+          OutputStream os = Files.newOutputStream(tempFile)) {
+        copy(is, os, checksum);
+      }
+      if (checksum.getValue() != crc) {
+        throw new IOException("Checksum mismatch extracting " + resource);
+      }
+      try {
+        Files.move(
+            tempFile,
+            cachedFile,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (IOException e) {
+        // Another JVM may have the library open, which is fine if it has already written it.
+        if (!isValid(cachedFile, crc, size)) {
+          throw e;
+        }
+      }
+      logger.log(Level.FINE, "Extracted native library " + resource + " to " + cachedFile);
+      return cachedFile;
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Computes the cache directory name for a library, from the CRC32 and size of its contents.
+   *
+   * @param crc The CRC32 of the library.
+   * @param size The size of the library in bytes.
+   * @return The directory name.
+   */
+  static String cacheKey(long crc, long size) {
+    return String.format(Locale.ROOT, "%08x-%d", crc, size);
+  }
+
+  /**
+   * Checks if the file exists and has the expected size and CRC32.
+   *
+   * @param file The file to check.
+   * @param crc The expected CRC32.
+   * @param size The expected size in bytes.
+   * @return True if the file is valid.
+   * @throws IOException If the file could not be read.
+   */
+  static boolean isValid(Path file, long crc, long size) throws IOException {
+    if (!Files.isRegularFile(file) || (Files.size(file) != size)) {
+      return false;
+    }
+    CRC32 checksum = new CRC32();
+    try (InputStream is = Files.newInputStream(file)) {
+      copy(is, null, checksum);
+    }
+    return checksum.getValue() == crc;
+  }
+
+  /**
+   * Copies a stream, optionally checksumming the bytes.
+   *
+   * @param is The input stream.
+   * @param os The (possibly null) output stream.
+   * @param checksum The (possibly null) checksum to update.
+   * @return The number of bytes copied.
+   * @throws IOException If the streams failed to read or write.
+   */
+  static long copy(InputStream is, OutputStream os, CRC32 checksum) throws IOException {
+    byte[] buffer = new byte[COPY_BUFFER_SIZE];
+    long total = 0;
+    int readBytes;
+    while ((readBytes = is.read(buffer)) != -1) {
+      if (os != null) {
+        os.write(buffer, 0, readBytes);
+      }
+      if (checksum != null) {
+        checksum.update(buffer, 0, readBytes);
+      }
+      total += readBytes;
     }
+    return total;
   }
 
   /**
@@ -8,7 +8,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 /**
@@ -16,8 +18,13 @@ import java.util.stream.Collectors;
  *
  * <p>Supports the types mentioned in "onnxruntime_c_api.h", currently String, Long, Float, Double,
  * Map&gt;String,Float&lt;, Map&gt;Long,Float&lt;.
+ *
+ * <p>{@link #getValue()} boxes every element, the typed accessors such as {@link #getFloats()} and
+ * {@link #getMapFloatValues(int)} return primitive arrays instead. {@link #get(int)} and {@link
+ * #iterator()} read a single element at a time as an {@link OnnxValue}, which also supports
+ * sequences of arbitrary tensors.
  */
-public class OnnxSequence implements OnnxValue {
+public class OnnxSequence implements OnnxValue, Iterable<OnnxValue> {
 
   static {
     try {
@@ -57,7 +64,7 @@ public class OnnxSequence implements OnnxValue {
    * Extracts a Java object from the native ONNX type.
    *
    * <p>Returns either a {@link List} of boxed primitives, {@link String}s, or {@link
-   * java.util.Map}s.
+   * java.util.Map}s. The typed accessors avoid boxing the elements.
    *
    * @return A Java object containing the value.
    * @throws OrtException If the runtime failed to read an element.
@@ -110,6 +117,258 @@ public class OnnxSequence implements OnnxValue {
     }
   }
 
+  /**
+   * Gets the number of elements in this sequence.
+   *
+   * @return The sequence length.
+   */
+  public int size() {
+    return info.length;
+  }
+
+  /**
+   * Reads the element at the supplied index without reading the rest of the sequence.
+   *
+   * <p>Tensor elements are returned as {@link OnnxTensor}s and map elements as {@link OnnxMap}s.
+   * The returned value is owned by the caller and must be closed, it remains valid after this
+   * sequence is closed.
+   *
+   * @param index The element index.
+   * @return The element.
+   * @throws OrtException If the native code failed to read the element.
+   */
+  public OnnxValue get(int index) throws OrtException {
+    if ((index < 0) || (index >= info.length)) {
+      throw new IndexOutOfBoundsException(
+          "Index " + index + " out of range for a sequence of length " + info.length);
+    }
+    return getElement(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle, index);
+  }
+
+  /**
+   * Returns an iterator which reads each element when it is requested, using {@link #get(int)}.
+   * The caller must close each returned element.
+   *
+   * <p>If the native code fails to read an element then {@link Iterator#next()} throws {@link
+   * IllegalStateException} wrapping the {@link OrtException}.
+   *
+   * @return An iterator over the elements.
+   */
+  @Override
+  public Iterator<OnnxValue> iterator() {
+    return new Iterator<OnnxValue>() {
+      private int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < info.length;
+      }
+
+      @Override
+      public OnnxValue next() {
+        if (index >= info.length) {
+          throw new NoSuchElementException();
+        }
+        try {
+          OnnxValue value = get(index);
+          index++;
+          return value;
+        } catch (OrtException e) {
+          throw new IllegalStateException("Failed to read element " + index + " of " + info, e);
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns the elements of a sequence of floats without boxing them.
+   *
+   * @return The sequence elements.
+   * @throws OrtException If this is not a sequence of floats, or the native code failed to read
+   *     the elements.
+   */
+  public float[] getFloats() throws OrtException {
+    checkSequenceType(OnnxJavaType.FLOAT);
+    return getFloats(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle);
+  }
+
+  /**
+   * Returns the elements of a sequence of doubles without boxing them.
+   *
+   * @return The sequence elements.
+   * @throws OrtException If this is not a sequence of doubles, or the native code failed to read
+   *     the elements.
+   */
+  public double[] getDoubles() throws OrtException {
+    checkSequenceType(OnnxJavaType.DOUBLE);
+    return getDoubles(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle);
+  }
+
+  /**
+   * Returns the elements of a sequence of longs without boxing them.
+   *
+   * @return The sequence elements.
+   * @throws OrtException If this is not a sequence of longs, or the native code failed to read
+   *     the elements.
+   */
+  public long[] getLongs() throws OrtException {
+    checkSequenceType(OnnxJavaType.INT64);
+    return getLongs(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle);
+  }
+
+  /**
+   * Returns the elements of a sequence of strings without boxing them.
+   *
+   * @return The sequence elements.
+   * @throws OrtException If this is not a sequence of strings, or the native code failed to read
+   *     the elements.
+   */
+  public String[] getStrings() throws OrtException {
+    checkSequenceType(OnnxJavaType.STRING);
+    return getStrings(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle);
+  }
+
+  /**
+   * Returns the keys of the map at the specified index of a sequence of maps with long keys,
+   * without boxing them. The keys are in the same order as the values of the map.
+   *
+   * @param index The index of the map.
+   * @return The map keys.
+   * @throws OrtException If this is not a sequence of maps with long keys, or the native code
+   *     failed to read the keys.
+   */
+  public long[] getMapLongKeys(int index) throws OrtException {
+    checkMapType(index, info.mapInfo.keyType, OnnxJavaType.INT64);
+    return getLongKeys(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle, index);
+  }
+
+  /**
+   * Returns the keys of the map at the specified index of a sequence of maps with string keys,
+   * without boxing them. The keys are in the same order as the values of the map.
+   *
+   * @param index The index of the map.
+   * @return The map keys.
+   * @throws OrtException If this is not a sequence of maps with string keys, or the native code
+   *     failed to read the keys.
+   */
+  public String[] getMapStringKeys(int index) throws OrtException {
+    checkMapType(index, info.mapInfo.keyType, OnnxJavaType.STRING);
+    return getStringKeys(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle, index);
+  }
+
+  /**
+   * Returns the values of the map at the specified index of a sequence of maps with float values,
+   * without boxing them. The values are in the same order as the keys of the map.
+   *
+   * @param index The index of the map.
+   * @return The map values.
+   * @throws OrtException If this is not a sequence of maps with float values, or the native code
+   *     failed to read the values.
+   */
+  public float[] getMapFloatValues(int index) throws OrtException {
+    checkMapType(index, info.mapInfo.valueType, OnnxJavaType.FLOAT);
+    return getFloatValues(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle, index);
+  }
+
+  /**
+   * Returns the values of the map at the specified index of a sequence of maps with double values,
+   * without boxing them. The values are in the same order as the keys of the map.
+   *
+   * @param index The index of the map.
+   * @return The map values.
+   * @throws OrtException If this is not a sequence of maps with double values, or the native code
+   *     failed to read the values.
+   */
+  public double[] getMapDoubleValues(int index) throws OrtException {
+    checkMapType(index, info.mapInfo.valueType, OnnxJavaType.DOUBLE);
+    return getDoubleValues(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle, index);
+  }
+
+  /**
+   * Returns the values of the map at the specified index of a sequence of maps with long values,
+   * without boxing them. The values are in the same order as the keys of the map.
+   *
+   * @param index The index of the map.
+   * @return The map values.
+   * @throws OrtException If this is not a sequence of maps with long values, or the native code
+   *     failed to read the values.
+   */
+  public long[] getMapLongValues(int index) throws OrtException {
+    checkMapType(index, info.mapInfo.valueType, OnnxJavaType.INT64);
+    return getLongValues(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle, index);
+  }
+
+  /**
+   * Returns the values of the map at the specified index of a sequence of maps with string values,
+   * without boxing them. The values are in the same order as the keys of the map.
+   *
+   * @param index The index of the map.
+   * @return The map values.
+   * @throws OrtException If this is not a sequence of maps with string values, or the native code
+   *     failed to read the values.
+   */
+  public String[] getMapStringValues(int index) throws OrtException {
+    checkMapType(index, info.mapInfo.valueType, OnnxJavaType.STRING);
+    return getStringValues(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle, index);
+  }
+
+  /**
+   * Reads a sequence of maps with float values, as produced by a classifier's ZipMap operator,
+   * into a single {@link ClassifierResult} using one native call. The labels are read from the
+   * first map, and every map must have the same number of entries.
+   *
+   * @return The class labels and a dense row major matrix of the probabilities.
+   * @throws OrtException If this is not a sequence of maps with float values, the maps have
+   *     different sizes, or the native code failed to read the maps.
+   */
+  public ClassifierResult getClassifierResult() throws OrtException {
+    if (!info.sequenceOfMaps || (info.mapInfo.valueType != OnnxJavaType.FLOAT)) {
+      throw new OrtException("Cannot read the maps of " + info + " as classifier output");
+    }
+    if (info.length == 0) {
+      Object labels =
+          info.mapInfo.keyType == OnnxJavaType.STRING ? new String[0] : (Object) new long[0];
+      return new ClassifierResult(labels, new float[0], 0, 0);
+    }
+    Object[] columns =
+        getClassifierColumns(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle);
+    float[] probabilities = (float[]) columns[1];
+    int numClasses = probabilities.length / info.length;
+    return new ClassifierResult(columns[0], probabilities, info.length, numClasses);
+  }
+
+  /**
+   * Checks this is a sequence of the supplied element type.
+   *
+   * @param type The expected element type.
+   * @throws OrtException If the sequence has a different element type.
+   */
+  private void checkSequenceType(OnnxJavaType type) throws OrtException {
+    if (info.sequenceOfMaps || (info.sequenceType != type)) {
+      throw new OrtException("Cannot read the elements of " + info + " as " + type);
+    }
+  }
+
+  /**
+   * Checks this is a sequence of maps, the index is valid, and the keys or values have the
+   * supplied type.
+   *
+   * @param index The map index.
+   * @param actual The key or value type of the maps.
+   * @param expected The requested type.
+   * @throws OrtException If this is not a sequence of maps, or the types don't match.
+   */
+  private void checkMapType(int index, OnnxJavaType actual, OnnxJavaType expected)
+      throws OrtException {
+    if (!info.sequenceOfMaps || (actual != expected)) {
+      throw new OrtException("Cannot read the maps of " + info + " as " + expected);
+    }
+    if ((index < 0) || (index >= info.length)) {
+      throw new IndexOutOfBoundsException(
+          "Index " + index + " out of range for a sequence of length " + info.length);
+    }
+  }
+
   @Override
   public SequenceInfo getInfo() {
     return info;
@@ -187,6 +446,193 @@ public class OnnxSequence implements OnnxValue {
     }
   }
 
+  /**
+   * The probabilities produced by a classifier for a batch of rows, stored as a flat row major
+   * matrix with one column per class, along with the class labels shared by all the rows.
+   *
+   * <p>The argmax and top-k methods read the matrix in place and don't allocate.
+   */
+  public static final class ClassifierResult {
+    private final long[] longLabels;
+    private final String[] stringLabels;
+    private final float[] probabilities;
+    private final int numRows;
+    private final int numClasses;
+
+    ClassifierResult(Object labels, float[] probabilities, int numRows, int numClasses) {
+      this.longLabels = labels instanceof long[] ? (long[]) labels : null;
+      this.stringLabels = labels instanceof String[] ? (String[]) labels : null;
+      this.probabilities = probabilities;
+      this.numRows = numRows;
+      this.numClasses = numClasses;
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return The number of rows.
+     */
+    public int getNumRows() {
+      return numRows;
+    }
+
+    /**
+     * Gets the number of classes.
+     *
+     * @return The number of classes.
+     */
+    public int getNumClasses() {
+      return numClasses;
+    }
+
+    /**
+     * Gets the class labels if the classifier uses integer labels, indexed by class.
+     *
+     * @return The labels, or null if the labels are strings.
+     */
+    public long[] getLongLabels() {
+      return longLabels;
+    }
+
+    /**
+     * Gets the class labels if the classifier uses string labels, indexed by class.
+     *
+     * @return The labels, or null if the labels are integers.
+     */
+    public String[] getStringLabels() {
+      return stringLabels;
+    }
+
+    /**
+     * Gets the probabilities as a flat row major array, where the probability of class {@code c}
+     * for row {@code r} is at {@code r * getNumClasses() + c}. This is the backing array, not a
+     * copy.
+     *
+     * @return The probabilities.
+     */
+    public float[] getProbabilities() {
+      return probabilities;
+    }
+
+    /**
+     * Copies the probabilities into a {@code float[rows][classes]} matrix.
+     *
+     * @return The probabilities.
+     */
+    public float[][] getProbabilityMatrix() {
+      float[][] output = new float[numRows][];
+      for (int i = 0; i < numRows; i++) {
+        output[i] = Arrays.copyOfRange(probabilities, i * numClasses, (i + 1) * numClasses);
+      }
+      return output;
+    }
+
+    /**
+     * Gets the probability of the supplied class for the supplied row.
+     *
+     * @param row The row index.
+     * @param classIdx The class index.
+     * @return The probability.
+     */
+    public float getProbability(int row, int classIdx) {
+      checkRow(row);
+      if ((classIdx < 0) || (classIdx >= numClasses)) {
+        throw new IndexOutOfBoundsException(
+            "Class " + classIdx + " out of range for " + numClasses + " classes");
+      }
+      return probabilities[row * numClasses + classIdx];
+    }
+
+    /**
+     * Finds the most probable class for the supplied row, ties go to the lowest class index.
+     *
+     * @param row The row index.
+     * @return The class index, or -1 if there are no classes.
+     */
+    public int argmax(int row) {
+      checkRow(row);
+      int offset = row * numClasses;
+      int best = -1;
+      float bestValue = Float.NEGATIVE_INFINITY;
+      for (int i = 0; i < numClasses; i++) {
+        float value = probabilities[offset + i];
+        if ((best == -1) || (value > bestValue)) {
+          best = i;
+          bestValue = value;
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Writes the most probable class of each row into the supplied array.
+     *
+     * @param output The array to write into, must have at least {@link #getNumRows()} elements.
+     */
+    public void argmax(int[] output) {
+      if (output.length < numRows) {
+        throw new IllegalArgumentException(
+            "Output array has " + output.length + " elements, expected at least " + numRows);
+      }
+      for (int i = 0; i < numRows; i++) {
+        output[i] = argmax(i);
+      }
+    }
+
+    /**
+     * Writes the indices of the {@code k} most probable classes of the supplied row into the
+     * supplied array, in descending order of probability with ties going to the lowest class
+     * index.
+     *
+     * @param row The row index.
+     * @param k The number of classes to find.
+     * @param output The array to write into, must have at least {@code k} elements.
+     * @return The number of class indices written, which is the smaller of {@code k} and the
+     *     number of classes.
+     */
+    public int topK(int row, int k, int[] output) {
+      checkRow(row);
+      if ((k < 0) || (output.length < k)) {
+        throw new IllegalArgumentException(
+            "Invalid k " + k + " for an output array with " + output.length + " elements");
+      }
+      int offset = row * numClasses;
+      int count = 0;
+      for (int i = 0; i < numClasses; i++) {
+        float value = probabilities[offset + i];
+        // Insert into the sorted prefix, k is expected to be small.
+        int pos = count;
+        while ((pos > 0) && (value > probabilities[offset + output[pos - 1]])) {
+          pos--;
+        }
+        if (pos < k) {
+          int end = Math.min(count, k - 1);
+          System.arraycopy(output, pos, output, pos + 1, end - pos);
+          output[pos] = i;
+          if (count < k) {
+            count++;
+          }
+        }
+      }
+      return count;
+    }
+
+    private void checkRow(int row) {
+      if ((row < 0) || (row >= numRows)) {
+        throw new IndexOutOfBoundsException(
+            "Row " + row + " out of range for a result with " + numRows + " rows");
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "ClassifierResult(numRows=" + numRows + ",numClasses=" + numClasses + ")";
+    }
+  }
+
+  private native OnnxValue getElement(
+      long apiHandle, long nativeHandle, long allocatorHandle, int index) throws OrtException;
+
   private native String[] getStringKeys(
       long apiHandle, long nativeHandle, long allocatorHandle, int index) throws OrtException;
 
@@ -217,5 +663,8 @@ public class OnnxSequence implements OnnxValue {
   private native double[] getDoubles(long apiHandle, long nativeHandle, long allocatorHandle)
       throws OrtException;
 
+  private native Object[] getClassifierColumns(
+      long apiHandle, long nativeHandle, long allocatorHandle) throws OrtException;
+
   private native void close(long apiHandle, long nativeHandle);
 }
@@ -12,7 +12,11 @@ import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.LongBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.logging.Logger;
 
 /**
  * A Java object wrapping an OnnxTensor. Tensors are the main input to the library, and can also be
@@ -20,6 +24,8 @@ import java.nio.ShortBuffer;
  */
 public class OnnxTensor implements OnnxValue {
 
+  private static final Logger logger = Logger.getLogger(OnnxTensor.class.getName());
+
   static {
     try {
       OnnxRuntime.init();
@@ -40,15 +46,30 @@ public class OnnxTensor implements OnnxValue {
    */
   private final Buffer buffer;
 
+  /** The direct buffer backing a mutable tensor, null if the tensor is immutable. */
+  private final ByteBuffer writableBuffer;
+
+  private volatile boolean closed = false;
+
   OnnxTensor(long nativeHandle, long allocatorHandle, TensorInfo info) {
     this(nativeHandle, allocatorHandle, info, null);
   }
 
   OnnxTensor(long nativeHandle, long allocatorHandle, TensorInfo info, Buffer buffer) {
+    this(nativeHandle, allocatorHandle, info, buffer, null);
+  }
+
+  OnnxTensor(
+      long nativeHandle,
+      long allocatorHandle,
+      TensorInfo info,
+      Buffer buffer,
+      ByteBuffer writableBuffer) {
     this.nativeHandle = nativeHandle;
     this.allocatorHandle = allocatorHandle;
     this.info = info;
     this.buffer = buffer;
+    this.writableBuffer = writableBuffer;
   }
 
   @Override
@@ -73,6 +94,7 @@ public class OnnxTensor implements OnnxValue {
    */
   @Override
   public Object getValue() throws OrtException {
+    checkClosed();
     if (info.isScalar()) {
       switch (info.type) {
         case FLOAT:
@@ -95,6 +117,15 @@ public class OnnxTensor implements OnnxValue {
         default:
           throw new OrtException("Extracting the value of an invalid Tensor.");
       }
+    } else if (info.type == OnnxJavaType.STRING) {
+      String[] carrier = (String[]) info.makeCarrier();
+      int[] offsets = new int[carrier.length];
+      byte[] data = getUtf8Content(offsets);
+      for (int i = 0; i < carrier.length; i++) {
+        int end = i + 1 < carrier.length ? offsets[i + 1] : data.length;
+        carrier[i] = new String(data, offsets[i], end - offsets[i], StandardCharsets.UTF_8);
+      }
+      return carrier;
     } else {
       Object carrier = info.makeCarrier();
       getArray(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle, carrier);
@@ -102,6 +133,23 @@ public class OnnxTensor implements OnnxValue {
     }
   }
 
+  /**
+   * Copies a multidimensional tensor into the supplied array, which must have the type and shape
+   * of the array returned by {@link #getValue()}. This allows a caller to reuse one output array
+   * across many inferences rather than allocating a new one each time.
+   *
+   * @param carrier The array to fill.
+   * @return The supplied array.
+   * @throws OrtException If the tensor is a scalar or a string tensor, if the array doesn't match
+   *     the tensor's type and shape, or if the native code encountered an error.
+   */
+  public Object getValue(Object carrier) throws OrtException {
+    checkClosed();
+    info.validateCarrier(carrier);
+    getArray(OnnxRuntime.ortApiHandle, nativeHandle, allocatorHandle, carrier);
+    return carrier;
+  }
+
   @Override
   public TensorInfo getInfo() {
     return info;
@@ -118,7 +166,264 @@ public class OnnxTensor implements OnnxValue {
    */
   @Override
   public void close() {
-    close(OnnxRuntime.ortApiHandle, nativeHandle);
+    if (!closed) {
+      closed = true;
+      close(OnnxRuntime.ortApiHandle, nativeHandle);
+    } else {
+      logger.warning("Closing an already closed tensor.");
+    }
+  }
+
+  /**
+   * Checks if the tensor has been closed.
+   *
+   * @return True if the tensor is closed.
+   */
+  public boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Checks if the tensor is mutable, i.e. it was created by {@link #createMutable} and can be
+   * refilled in place.
+   *
+   * @return True if the tensor is mutable.
+   */
+  public boolean isMutable() {
+    return writableBuffer != null;
+  }
+
+  /**
+   * Returns a writable view of a mutable tensor's memory, in native byte order and positioned at
+   * the start of the tensor. Writes are visible to subsequent runs which use this tensor.
+   *
+   * @return A direct ByteBuffer over the tensor's memory.
+   * @throws IllegalStateException If the tensor is not mutable or is closed.
+   */
+  public ByteBuffer getWritableBuffer() {
+    checkClosed();
+    if (writableBuffer == null) {
+      throw new IllegalStateException("Trying to write to an immutable OnnxTensor");
+    }
+    return writableBuffer.duplicate().order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * Overwrites a mutable float tensor with the values in {@code src} starting at {@code offset}.
+   *
+   * @param src The source array, must have at least as many elements after {@code offset} as the
+   *     tensor.
+   * @param offset The index of the first element to copy.
+   * @throws OrtException If the tensor is not a float tensor, or the source is too short.
+   */
+  public void fill(float[] src, int offset) throws OrtException {
+    ByteBuffer dst = checkFill(OnnxJavaType.FLOAT, src.length, offset);
+    dst.asFloatBuffer().put(src, offset, dst.capacity() / OnnxJavaType.FLOAT.size);
+  }
+
+  /**
+   * Overwrites a mutable double tensor with the values in {@code src} starting at {@code offset}.
+   *
+   * @param src The source array, must have at least as many elements after {@code offset} as the
+   *     tensor.
+   * @param offset The index of the first element to copy.
+   * @throws OrtException If the tensor is not a double tensor, or the source is too short.
+   */
+  public void fill(double[] src, int offset) throws OrtException {
+    ByteBuffer dst = checkFill(OnnxJavaType.DOUBLE, src.length, offset);
+    dst.asDoubleBuffer().put(src, offset, dst.capacity() / OnnxJavaType.DOUBLE.size);
+  }
+
+  /**
+   * Overwrites a mutable int8 tensor with the values in {@code src} starting at {@code offset}.
+   *
+   * @param src The source array, must have at least as many elements after {@code offset} as the
+   *     tensor.
+   * @param offset The index of the first element to copy.
+   * @throws OrtException If the tensor is not an int8 tensor, or the source is too short.
+   */
+  public void fill(byte[] src, int offset) throws OrtException {
+    ByteBuffer dst = checkFill(OnnxJavaType.INT8, src.length, offset);
+    dst.put(src, offset, dst.capacity());
+  }
+
+  /**
+   * Overwrites a mutable int16 tensor with the values in {@code src} starting at {@code offset}.
+   *
+   * @param src The source array, must have at least as many elements after {@code offset} as the
+   *     tensor.
+   * @param offset The index of the first element to copy.
+   * @throws OrtException If the tensor is not an int16 tensor, or the source is too short.
+   */
+  public void fill(short[] src, int offset) throws OrtException {
+    ByteBuffer dst = checkFill(OnnxJavaType.INT16, src.length, offset);
+    dst.asShortBuffer().put(src, offset, dst.capacity() / OnnxJavaType.INT16.size);
+  }
+
+  /**
+   * Overwrites a mutable int32 tensor with the values in {@code src} starting at {@code offset}.
+   *
+   * @param src The source array, must have at least as many elements after {@code offset} as the
+   *     tensor.
+   * @param offset The index of the first element to copy.
+   * @throws OrtException If the tensor is not an int32 tensor, or the source is too short.
+   */
+  public void fill(int[] src, int offset) throws OrtException {
+    ByteBuffer dst = checkFill(OnnxJavaType.INT32, src.length, offset);
+    dst.asIntBuffer().put(src, offset, dst.capacity() / OnnxJavaType.INT32.size);
+  }
+
+  /**
+   * Overwrites a mutable int64 tensor with the values in {@code src} starting at {@code offset}.
+   *
+   * @param src The source array, must have at least as many elements after {@code offset} as the
+   *     tensor.
+   * @param offset The index of the first element to copy.
+   * @throws OrtException If the tensor is not an int64 tensor, or the source is too short.
+   */
+  public void fill(long[] src, int offset) throws OrtException {
+    ByteBuffer dst = checkFill(OnnxJavaType.INT64, src.length, offset);
+    dst.asLongBuffer().put(src, offset, dst.capacity() / OnnxJavaType.INT64.size);
+  }
+
+  /**
+   * Overwrites a mutable bool tensor with the values in {@code src} starting at {@code offset}.
+   *
+   * @param src The source array, must have at least as many elements after {@code offset} as the
+   *     tensor.
+   * @param offset The index of the first element to copy.
+   * @throws OrtException If the tensor is not a bool tensor, or the source is too short.
+   */
+  public void fill(boolean[] src, int offset) throws OrtException {
+    ByteBuffer dst = checkFill(OnnxJavaType.BOOL, src.length, offset);
+    int count = dst.capacity();
+    for (int i = 0; i < count; i++) {
+      dst.put(i, src[offset + i] ? (byte) 1 : (byte) 0);
+    }
+  }
+
+  /**
+   * Checks the tensor can be filled from a source of the supplied type and length.
+   *
+   * @param type The source type.
+   * @param srcLength The source array length.
+   * @param offset The index of the first element to copy.
+   * @return The writable buffer.
+   * @throws OrtException If the type doesn't match or the source is too short.
+   */
+  private ByteBuffer checkFill(OnnxJavaType type, int srcLength, int offset) throws OrtException {
+    ByteBuffer dst = getWritableBuffer();
+    if (info.type != type) {
+      throw new OrtException("Cannot fill a " + info.type + " tensor with " + type + " values");
+    }
+    int count = dst.capacity() / type.size;
+    if ((offset < 0) || (srcLength - offset < count)) {
+      throw new OrtException(
+          "Source has "
+              + (srcLength - offset)
+              + " elements after offset "
+              + offset
+              + ", the tensor requires "
+              + count);
+    }
+    return dst;
+  }
+
+  /**
+   * Returns a read-only view of the tensor's memory as floats if the underlying type is fp32,
+   * otherwise it returns null. The view does not copy the tensor, and throws {@link
+   * IllegalStateException} if it is used after the tensor is closed. The tensor must not be closed
+   * concurrently with reads from the view.
+   *
+   * @return A FloatView of the OnnxTensor.
+   */
+  public FloatView asFloatView() {
+    if ((info.type == OnnxJavaType.FLOAT)
+        && (info.onnxType == TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT)) {
+      return new FloatView(this, getBuffer().asFloatBuffer());
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Returns a read-only view of the tensor's memory as doubles if the underlying type is a double,
+   * otherwise it returns null. See {@link #asFloatView} for the lifetime of the view.
+   *
+   * @return A DoubleView of the OnnxTensor.
+   */
+  public DoubleView asDoubleView() {
+    if (info.type == OnnxJavaType.DOUBLE) {
+      return new DoubleView(this, getBuffer().asDoubleBuffer());
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Returns a read-only view of the tensor's memory as bytes if the underlying type is int8, uint8
+   * or bool, otherwise it returns null. See {@link #asFloatView} for the lifetime of the view.
+   *
+   * @return A ByteView of the OnnxTensor.
+   */
+  public ByteView asByteView() {
+    if ((info.type == OnnxJavaType.INT8) || (info.type == OnnxJavaType.BOOL)) {
+      return new ByteView(this, getBuffer());
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Returns a read-only view of the tensor's memory as shorts if the underlying type is int16,
+   * uint16, fp16 or bf16, otherwise it returns null. fp16 and bf16 values are returned as their raw
+   * bits. See {@link #asFloatView} for the lifetime of the view.
+   *
+   * @return A ShortView of the OnnxTensor.
+   */
+  public ShortView asShortView() {
+    if ((info.type == OnnxJavaType.INT16)
+        || (info.onnxType == TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16)
+        || (info.onnxType == TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16)) {
+      return new ShortView(this, getBuffer().asShortBuffer());
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Returns a read-only view of the tensor's memory as ints if the underlying type is int32 or
+   * uint32, otherwise it returns null. See {@link #asFloatView} for the lifetime of the view.
+   *
+   * @return An IntView of the OnnxTensor.
+   */
+  public IntView asIntView() {
+    if (info.type == OnnxJavaType.INT32) {
+      return new IntView(this, getBuffer().asIntBuffer());
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Returns a read-only view of the tensor's memory as longs if the underlying type is int64 or
+   * uint64, otherwise it returns null. See {@link #asFloatView} for the lifetime of the view.
+   *
+   * @return A LongView of the OnnxTensor.
+   */
+  public LongView asLongView() {
+    if (info.type == OnnxJavaType.INT64) {
+      return new LongView(this, getBuffer().asLongBuffer());
+    } else {
+      return null;
+    }
+  }
+
+  /** Checks if the tensor is closed, if so throws {@link IllegalStateException}. */
+  private void checkClosed() {
+    if (closed) {
+      throw new IllegalStateException("Trying to use a closed OnnxTensor");
+    }
   }
 
   /**
@@ -130,6 +435,7 @@ public class OnnxTensor implements OnnxValue {
    * @return A ByteBuffer copy of the OnnxTensor.
    */
   public ByteBuffer getByteBuffer() {
+    checkClosed();
     if (info.type != OnnxJavaType.STRING) {
       ByteBuffer buffer = getBuffer(OnnxRuntime.ortApiHandle, nativeHandle);
       ByteBuffer output = ByteBuffer.allocate(buffer.capacity());
@@ -143,20 +449,25 @@ public class OnnxTensor implements OnnxValue {
 
   /**
    * Returns a copy of the underlying OnnxTensor as a FloatBuffer if it can be losslessly converted
-   * into a float (i.e. it's a float or fp16), otherwise it returns null.
+   * into a float (i.e. it's a float, fp16 or bf16), otherwise it returns null.
    *
    * @return A FloatBuffer copy of the OnnxTensor.
    */
   public FloatBuffer getFloatBuffer() {
     if (info.type == OnnxJavaType.FLOAT) {
       if (info.onnxType == TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16) {
-        // if it's fp16 we need to copy it out by hand.
+        // if it's fp16 we need to convert it, a chunk at a time.
         ShortBuffer buffer = getBuffer().asShortBuffer();
-        int bufferCap = buffer.capacity();
-        FloatBuffer output = FloatBuffer.allocate(bufferCap);
-        for (int i = 0; i < bufferCap; i++) {
-          output.put(fp16ToFloat(buffer.get(i)));
-        }
+        FloatBuffer output = FloatBuffer.allocate(buffer.capacity());
+        OrtUtil.convertFp16ToFloat(buffer, output);
+        output.rewind();
+        return output;
+      } else if (info.onnxType
+          == TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16) {
+        // if it's bf16 we need to convert it, a chunk at a time.
+        ShortBuffer buffer = getBuffer().asShortBuffer();
+        FloatBuffer output = FloatBuffer.allocate(buffer.capacity());
+        OrtUtil.convertBf16ToFloat(buffer, output);
         output.rewind();
         return output;
       } else {
@@ -244,6 +555,327 @@ public class OnnxTensor implements OnnxValue {
     }
   }
 
+  /**
+   * Copies the tensor in row-major order into the supplied array starting at {@code offset},
+   * without allocating. The tensor must be fp32, fp16 or bf16, and fp16 and bf16 values are
+   * converted to floats.
+   *
+   * @param dst The destination array.
+   * @param offset The index in {@code dst} of the first element.
+   * @throws OrtException If the tensor has a different type, or doesn't fit in the array.
+   */
+  public void copyTo(float[] dst, int offset) throws OrtException {
+    checkCopy(OnnxJavaType.FLOAT, dst.length, offset);
+    copyToArray(OnnxRuntime.ortApiHandle, nativeHandle, dst, offset);
+  }
+
+  /**
+   * Copies the tensor in row-major order into the supplied array starting at {@code offset},
+   * without allocating. The tensor must be a double.
+   *
+   * @param dst The destination array.
+   * @param offset The index in {@code dst} of the first element.
+   * @throws OrtException If the tensor has a different type, or doesn't fit in the array.
+   */
+  public void copyTo(double[] dst, int offset) throws OrtException {
+    checkCopy(OnnxJavaType.DOUBLE, dst.length, offset);
+    copyToArray(OnnxRuntime.ortApiHandle, nativeHandle, dst, offset);
+  }
+
+  /**
+   * Copies the tensor in row-major order into the supplied array starting at {@code offset},
+   * without allocating. The tensor must be int8 or uint8.
+   *
+   * @param dst The destination array.
+   * @param offset The index in {@code dst} of the first element.
+   * @throws OrtException If the tensor has a different type, or doesn't fit in the array.
+   */
+  public void copyTo(byte[] dst, int offset) throws OrtException {
+    checkCopy(OnnxJavaType.INT8, dst.length, offset);
+    copyToArray(OnnxRuntime.ortApiHandle, nativeHandle, dst, offset);
+  }
+
+  /**
+   * Copies the tensor in row-major order into the supplied array starting at {@code offset},
+   * without allocating. The tensor must be int16 or uint16.
+   *
+   * @param dst The destination array.
+   * @param offset The index in {@code dst} of the first element.
+   * @throws OrtException If the tensor has a different type, or doesn't fit in the array.
+   */
+  public void copyTo(short[] dst, int offset) throws OrtException {
+    checkCopy(OnnxJavaType.INT16, dst.length, offset);
+    copyToArray(OnnxRuntime.ortApiHandle, nativeHandle, dst, offset);
+  }
+
+  /**
+   * Copies the tensor in row-major order into the supplied array starting at {@code offset},
+   * without allocating. The tensor must be int32 or uint32.
+   *
+   * @param dst The destination array.
+   * @param offset The index in {@code dst} of the first element.
+   * @throws OrtException If the tensor has a different type, or doesn't fit in the array.
+   */
+  public void copyTo(int[] dst, int offset) throws OrtException {
+    checkCopy(OnnxJavaType.INT32, dst.length, offset);
+    copyToArray(OnnxRuntime.ortApiHandle, nativeHandle, dst, offset);
+  }
+
+  /**
+   * Copies the tensor in row-major order into the supplied array starting at {@code offset},
+   * without allocating. The tensor must be int64 or uint64.
+   *
+   * @param dst The destination array.
+   * @param offset The index in {@code dst} of the first element.
+   * @throws OrtException If the tensor has a different type, or doesn't fit in the array.
+   */
+  public void copyTo(long[] dst, int offset) throws OrtException {
+    checkCopy(OnnxJavaType.INT64, dst.length, offset);
+    copyToArray(OnnxRuntime.ortApiHandle, nativeHandle, dst, offset);
+  }
+
+  /**
+   * Copies the tensor in row-major order into the supplied array starting at {@code offset},
+   * without allocating. The tensor must be a boolean.
+   *
+   * @param dst The destination array.
+   * @param offset The index in {@code dst} of the first element.
+   * @throws OrtException If the tensor has a different type, or doesn't fit in the array.
+   */
+  public void copyTo(boolean[] dst, int offset) throws OrtException {
+    checkCopy(OnnxJavaType.BOOL, dst.length, offset);
+    copyToArray(OnnxRuntime.ortApiHandle, nativeHandle, dst, offset);
+  }
+
+  /**
+   * Copies the tensor in row-major order into the supplied buffer at its position, advancing the
+   * position past the copied elements. The tensor must be fp32, fp16 or bf16, and fp16 and bf16
+   * values are converted to floats.
+   *
+   * @param dst The destination buffer.
+   * @throws OrtException If the tensor has a different type, or doesn't fit in the buffer.
+   */
+  public void copyTo(FloatBuffer dst) throws OrtException {
+    checkCopy(OnnxJavaType.FLOAT, dst.remaining(), 0);
+    if (info.onnxType == TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16) {
+      OrtUtil.convertFp16ToFloat(getBuffer().asShortBuffer(), dst);
+    } else if (info.onnxType == TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16) {
+      OrtUtil.convertBf16ToFloat(getBuffer().asShortBuffer(), dst);
+    } else {
+      dst.put(getBuffer().asFloatBuffer());
+    }
+  }
+
+  /**
+   * Copies the tensor in row-major order into the supplied buffer at its position, advancing the
+   * position past the copied elements. The tensor must be a double.
+   *
+   * @param dst The destination buffer.
+   * @throws OrtException If the tensor has a different type, or doesn't fit in the buffer.
+   */
+  public void copyTo(DoubleBuffer dst) throws OrtException {
+    checkCopy(OnnxJavaType.DOUBLE, dst.remaining(), 0);
+    dst.put(getBuffer().asDoubleBuffer());
+  }
+
+  /**
+   * Copies the tensor in row-major order into the supplied buffer at its position, advancing the
+   * position past the copied elements. The tensor must be int16, uint16, fp16 or bf16, and fp16 and
+   * bf16 values are copied as their raw bits.
+   *
+   * @param dst The destination buffer.
+   * @throws OrtException If the tensor has a different type, or doesn't fit in the buffer.
+   */
+  public void copyTo(ShortBuffer dst) throws OrtException {
+    if ((info.onnxType == TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16)
+        || (info.onnxType == TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16)) {
+      checkCopy(OnnxJavaType.FLOAT, dst.remaining(), 0);
+    } else {
+      checkCopy(OnnxJavaType.INT16, dst.remaining(), 0);
+    }
+    dst.put(getBuffer().asShortBuffer());
+  }
+
+  /**
+   * Copies the tensor in row-major order into the supplied buffer at its position, advancing the
+   * position past the copied elements. The tensor must be int32 or uint32.
+   *
+   * @param dst The destination buffer.
+   * @throws OrtException If the tensor has a different type, or doesn't fit in the buffer.
+   */
+  public void copyTo(IntBuffer dst) throws OrtException {
+    checkCopy(OnnxJavaType.INT32, dst.remaining(), 0);
+    dst.put(getBuffer().asIntBuffer());
+  }
+
+  /**
+   * Copies the tensor in row-major order into the supplied buffer at its position, advancing the
+   * position past the copied elements. The tensor must be int64 or uint64.
+   *
+   * @param dst The destination buffer.
+   * @throws OrtException If the tensor has a different type, or doesn't fit in the buffer.
+   */
+  public void copyTo(LongBuffer dst) throws OrtException {
+    checkCopy(OnnxJavaType.INT64, dst.remaining(), 0);
+    dst.put(getBuffer().asLongBuffer());
+  }
+
+  /**
+   * Copies the raw bytes of the tensor into the supplied buffer at its position, advancing the
+   * position past the copied bytes. The tensor must not be a string tensor.
+   *
+   * @param dst The destination buffer.
+   * @throws OrtException If the tensor is a string tensor, or doesn't fit in the buffer.
+   */
+  public void copyTo(ByteBuffer dst) throws OrtException {
+    checkClosed();
+    if (info.type == OnnxJavaType.STRING) {
+      throw new OrtException("Cannot copy a string tensor into a ByteBuffer");
+    }
+    ByteBuffer buffer = getBuffer();
+    if (buffer.remaining() > dst.remaining()) {
+      throw new OrtException(
+          "Tensor has "
+              + buffer.remaining()
+              + " bytes, the buffer only has "
+              + dst.remaining()
+              + " bytes remaining");
+    }
+    dst.put(buffer);
+  }
+
+  /**
+   * Returns the total length in bytes of the UTF-8 encoded strings in a string tensor.
+   *
+   * @return The string data length.
+   * @throws OrtException If the tensor is not a string tensor, or the native code encountered an
+   *     error.
+   */
+  public long getStringDataLength() throws OrtException {
+    checkClosed();
+    if (info.type != OnnxJavaType.STRING) {
+      throw new OrtException("Cannot get the string data length of a " + info.type + " tensor");
+    }
+    return getStringDataLength(OnnxRuntime.ortApiHandle, nativeHandle);
+  }
+
+  /**
+   * Copies the strings of a string tensor as packed UTF-8 into the supplied buffer at its
+   * position, advancing the position past the copied bytes, in a single native call. The strings
+   * are in row-major order, {@code offsets[i]} is set to the start of string {@code i} relative to
+   * the initial position, and each string ends where the next one starts. The buffer needs at least
+   * {@link #getStringDataLength()} bytes remaining.
+   *
+   * @param dst The destination buffer.
+   * @param offsets The array to write the string offsets into, one per tensor element.
+   * @throws OrtException If the tensor is not a string tensor, the offsets array has the wrong
+   *     length, the data doesn't fit in the buffer, or the native code encountered an error.
+   */
+  public void copyTo(ByteBuffer dst, int[] offsets) throws OrtException {
+    long length = getStringDataLength();
+    if (offsets.length != OrtUtil.elementCount(info.shape)) {
+      throw new OrtException(
+          "Tensor has "
+              + OrtUtil.elementCount(info.shape)
+              + " strings, the offsets array has length "
+              + offsets.length);
+    }
+    if (length > dst.remaining()) {
+      throw new OrtException(
+          "Tensor has "
+              + length
+              + " bytes of strings, the buffer only has "
+              + dst.remaining()
+              + " bytes remaining");
+    }
+    if (dst.isReadOnly()) {
+      throw new ReadOnlyBufferException();
+    }
+    if (dst.isDirect()) {
+      getStringContent(OnnxRuntime.ortApiHandle, nativeHandle, dst, null, dst.position(), offsets);
+    } else {
+      getStringContent(
+          OnnxRuntime.ortApiHandle,
+          nativeHandle,
+          null,
+          dst.array(),
+          dst.arrayOffset() + dst.position(),
+          offsets);
+    }
+    dst.position(dst.position() + (int) length);
+  }
+
+  /**
+   * Returns the strings of a string tensor as raw UTF-8 bytes in row-major order, without decoding
+   * them into {@link String}s. The strings are copied out of the tensor in a single native call.
+   *
+   * @return The UTF-8 bytes of each string.
+   * @throws OrtException If the tensor is not a string tensor, or the native code encountered an
+   *     error.
+   */
+  public byte[][] getUtf8Bytes() throws OrtException {
+    checkClosed();
+    if (info.type != OnnxJavaType.STRING) {
+      throw new OrtException("Cannot get the strings of a " + info.type + " tensor");
+    }
+    if (!OrtUtil.validateShape(info.shape)) {
+      throw new OrtException(
+          "This tensor is not representable in Java, it's too big - shape = "
+              + Arrays.toString(info.shape));
+    }
+    int[] offsets = new int[(int) OrtUtil.elementCount(info.shape)];
+    byte[] data = getUtf8Content(offsets);
+    byte[][] output = new byte[offsets.length][];
+    for (int i = 0; i < offsets.length; i++) {
+      int end = i + 1 < offsets.length ? offsets[i + 1] : data.length;
+      output[i] = Arrays.copyOfRange(data, offsets[i], end);
+    }
+    return output;
+  }
+
+  /**
+   * Copies the packed UTF-8 strings out of a string tensor.
+   *
+   * @param offsets The array to write the string offsets into.
+   * @return The packed strings.
+   * @throws OrtException If the strings are too large for a Java array, or the native code
+   *     encountered an error.
+   */
+  private byte[] getUtf8Content(int[] offsets) throws OrtException {
+    long length = getStringDataLength(OnnxRuntime.ortApiHandle, nativeHandle);
+    if (length > Integer.MAX_VALUE) {
+      throw new OrtException("The strings are too large for a Java array, found " + length);
+    }
+    byte[] data = new byte[(int) length];
+    getStringContent(OnnxRuntime.ortApiHandle, nativeHandle, null, data, 0, offsets);
+    return data;
+  }
+
+  /**
+   * Checks the tensor can be copied into a destination of the supplied type and size.
+   *
+   * @param type The Java type of the destination.
+   * @param length The length of the destination.
+   * @param offset The offset of the first element in the destination.
+   * @throws OrtException If the types don't match or the tensor doesn't fit.
+   */
+  private void checkCopy(OnnxJavaType type, int length, int offset) throws OrtException {
+    checkClosed();
+    if (info.type != type) {
+      throw new OrtException("Cannot copy a " + info.type + " tensor into a " + type + " array");
+    }
+    long count = OrtUtil.elementCount(info.shape);
+    if ((offset < 0) || (offset > length) || (length - offset < count)) {
+      throw new OrtException(
+          "Tensor has "
+              + count
+              + " elements, the destination has "
+              + (length - offset)
+              + " elements after offset "
+              + offset);
+    }
+  }
+
   /**
    * Wraps the OrtTensor pointer in a direct byte buffer of the native platform endian-ness. Unless
    * you really know what you're doing, you want this one rather than the native call {@link
@@ -251,7 +883,8 @@ public class OnnxTensor implements OnnxValue {
    *
    * @return A ByteBuffer wrapping the data.
    */
-  private ByteBuffer getBuffer() {
+  ByteBuffer getBuffer() {
+    checkClosed();
     return getBuffer(OnnxRuntime.ortApiHandle, nativeHandle).order(ByteOrder.nativeOrder());
   }
 
@@ -286,29 +919,32 @@ public class OnnxTensor implements OnnxValue {
   private native void getArray(
       long apiHandle, long nativeHandle, long allocatorHandle, Object carrier) throws OrtException;
 
-  private native void close(long apiHandle, long nativeHandle);
+  private native void copyToArray(long apiHandle, long nativeHandle, Object dst, int offset)
+      throws OrtException;
 
-  /**
-   * Mirrors the conversion in the C code. It's not precise if there are subnormal values, nor does
-   * it preserve all the different kinds of NaNs (which aren't representable in Java anyway).
-   *
-   * @param input A uint16_t representing an IEEE half precision float.
-   * @return A float.
-   */
-  private static float fp16ToFloat(short input) {
-    int output =
-        ((input & 0x8000) << 16) | (((input & 0x7c00) + 0x1C000) << 13) | ((input & 0x03FF) << 13);
-    return Float.intBitsToFloat(output);
-  }
+  private native long getStringDataLength(long apiHandle, long nativeHandle) throws OrtException;
+
+  private native void getStringContent(
+      long apiHandle,
+      long nativeHandle,
+      ByteBuffer directDst,
+      byte[] heapDst,
+      int dstOffset,
+      int[] offsets)
+      throws OrtException;
+
+  private native void close(long apiHandle, long nativeHandle);
 
   /**
    * Create a Tensor from a Java primitive or String multidimensional array. The shape is inferred
-   * from the array using reflection. The default allocator is used.
+   * from the array using reflection. The strings in a String array must not contain the null
+   * character. The default allocator is used.
    *
    * @param env The current OrtEnvironment.
    * @param data The data to store in a tensor.
    * @return An OnnxTensor storing the data.
-   * @throws OrtException If the onnx runtime threw an error.
+   * @throws OrtException If the onnx runtime threw an error, or a string in an array contains a
+   *     null character.
    */
   public static OnnxTensor createTensor(OrtEnvironment env, Object data) throws OrtException {
     return createTensor(env, env.defaultAllocator, data);
@@ -316,13 +952,15 @@ public class OnnxTensor implements OnnxValue {
 
   /**
    * Create a Tensor from a Java primitive or String multidimensional array. The shape is inferred
-   * from the array using reflection.
+   * from the array using reflection. The strings in a String array must not contain the null
+   * character.
    *
    * @param env The current OrtEnvironment.
    * @param allocator The allocator to use.
    * @param data The data to store in a tensor.
    * @return An OnnxTensor storing the data.
-   * @throws OrtException If the onnx runtime threw an error.
+   * @throws OrtException If the onnx runtime threw an error, or a string in an array contains a
+   *     null character.
    */
   static OnnxTensor createTensor(OrtEnvironment env, OrtAllocator allocator, Object data)
       throws OrtException {
@@ -336,11 +974,7 @@ public class OnnxTensor implements OnnxValue {
               info);
         } else {
           return new OnnxTensor(
-              createStringTensor(
-                  OnnxRuntime.ortApiHandle,
-                  allocator.handle,
-                  OrtUtil.flattenString(data),
-                  info.shape),
+              createStringTensor(allocator, OrtUtil.flattenString(data), info.shape),
               allocator.handle,
               info);
         }
@@ -355,52 +989,536 @@ public class OnnxTensor implements OnnxValue {
             info);
       }
     } else {
-      throw new IllegalStateException("Trying to create an OnnxTensor with a closed OrtAllocator.");
+      throw new IllegalStateException("Trying to create an OnnxTensor with a closed OrtAllocator.");
+    }
+  }
+
+  /**
+   * Create an fp32 OnnxTensor from a flat float array in row-major order. The values are copied
+   * straight from the array into the tensor. Uses the default allocator.
+   *
+   * @param env The current OrtEnvironment.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  public static OnnxTensor createTensor(OrtEnvironment env, float[] data, long[] shape)
+      throws OrtException {
+    return createTensor(env, env.defaultAllocator, data, shape);
+  }
+
+  /**
+   * Create an fp32 OnnxTensor from a flat float array in row-major order. The values are copied
+   * straight from the array into the tensor.
+   *
+   * @param env The current OrtEnvironment.
+   * @param allocator The allocator to use.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  static OnnxTensor createTensor(
+      OrtEnvironment env, OrtAllocator allocator, float[] data, long[] shape) throws OrtException {
+    return createTensorFromArray(
+        env,
+        allocator,
+        data,
+        data.length,
+        shape,
+        TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT);
+  }
+
+  /**
+   * Create an fp64 OnnxTensor from a flat double array in row-major order. The values are copied
+   * straight from the array into the tensor. Uses the default allocator.
+   *
+   * @param env The current OrtEnvironment.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  public static OnnxTensor createTensor(OrtEnvironment env, double[] data, long[] shape)
+      throws OrtException {
+    return createTensor(env, env.defaultAllocator, data, shape);
+  }
+
+  /**
+   * Create an fp64 OnnxTensor from a flat double array in row-major order. The values are copied
+   * straight from the array into the tensor.
+   *
+   * @param env The current OrtEnvironment.
+   * @param allocator The allocator to use.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  static OnnxTensor createTensor(
+      OrtEnvironment env, OrtAllocator allocator, double[] data, long[] shape) throws OrtException {
+    return createTensorFromArray(
+        env,
+        allocator,
+        data,
+        data.length,
+        shape,
+        TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_DOUBLE);
+  }
+
+  /**
+   * Create an int8 OnnxTensor from a flat byte array in row-major order. The values are copied
+   * straight from the array into the tensor. Uses the default allocator.
+   *
+   * @param env The current OrtEnvironment.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  public static OnnxTensor createTensor(OrtEnvironment env, byte[] data, long[] shape)
+      throws OrtException {
+    return createTensor(env, env.defaultAllocator, data, shape);
+  }
+
+  /**
+   * Create an int8 OnnxTensor from a flat byte array in row-major order. The values are copied
+   * straight from the array into the tensor.
+   *
+   * @param env The current OrtEnvironment.
+   * @param allocator The allocator to use.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  static OnnxTensor createTensor(
+      OrtEnvironment env, OrtAllocator allocator, byte[] data, long[] shape) throws OrtException {
+    return createTensorFromArray(
+        env,
+        allocator,
+        data,
+        data.length,
+        shape,
+        TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_INT8);
+  }
+
+  /**
+   * Create an int16 OnnxTensor from a flat short array in row-major order. The values are copied
+   * straight from the array into the tensor. Uses the default allocator.
+   *
+   * @param env The current OrtEnvironment.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  public static OnnxTensor createTensor(OrtEnvironment env, short[] data, long[] shape)
+      throws OrtException {
+    return createTensor(env, env.defaultAllocator, data, shape);
+  }
+
+  /**
+   * Create an int16 OnnxTensor from a flat short array in row-major order. The values are copied
+   * straight from the array into the tensor.
+   *
+   * @param env The current OrtEnvironment.
+   * @param allocator The allocator to use.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  static OnnxTensor createTensor(
+      OrtEnvironment env, OrtAllocator allocator, short[] data, long[] shape) throws OrtException {
+    return createTensorFromArray(
+        env,
+        allocator,
+        data,
+        data.length,
+        shape,
+        TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_INT16);
+  }
+
+  /**
+   * Create an int32 OnnxTensor from a flat int array in row-major order. The values are copied
+   * straight from the array into the tensor. Uses the default allocator.
+   *
+   * @param env The current OrtEnvironment.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  public static OnnxTensor createTensor(OrtEnvironment env, int[] data, long[] shape)
+      throws OrtException {
+    return createTensor(env, env.defaultAllocator, data, shape);
+  }
+
+  /**
+   * Create an int32 OnnxTensor from a flat int array in row-major order. The values are copied
+   * straight from the array into the tensor.
+   *
+   * @param env The current OrtEnvironment.
+   * @param allocator The allocator to use.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  static OnnxTensor createTensor(
+      OrtEnvironment env, OrtAllocator allocator, int[] data, long[] shape) throws OrtException {
+    return createTensorFromArray(
+        env,
+        allocator,
+        data,
+        data.length,
+        shape,
+        TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_INT32);
+  }
+
+  /**
+   * Create an int64 OnnxTensor from a flat long array in row-major order. The values are copied
+   * straight from the array into the tensor. Uses the default allocator.
+   *
+   * @param env The current OrtEnvironment.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  public static OnnxTensor createTensor(OrtEnvironment env, long[] data, long[] shape)
+      throws OrtException {
+    return createTensor(env, env.defaultAllocator, data, shape);
+  }
+
+  /**
+   * Create an int64 OnnxTensor from a flat long array in row-major order. The values are copied
+   * straight from the array into the tensor.
+   *
+   * @param env The current OrtEnvironment.
+   * @param allocator The allocator to use.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  static OnnxTensor createTensor(
+      OrtEnvironment env, OrtAllocator allocator, long[] data, long[] shape) throws OrtException {
+    return createTensorFromArray(
+        env,
+        allocator,
+        data,
+        data.length,
+        shape,
+        TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_INT64);
+  }
+
+  /**
+   * Create a boolean OnnxTensor from a flat boolean array in row-major order. The values are
+   * copied straight from the array into the tensor. Uses the default allocator.
+   *
+   * @param env The current OrtEnvironment.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  public static OnnxTensor createTensor(OrtEnvironment env, boolean[] data, long[] shape)
+      throws OrtException {
+    return createTensor(env, env.defaultAllocator, data, shape);
+  }
+
+  /**
+   * Create a boolean OnnxTensor from a flat boolean array in row-major order. The values are
+   * copied straight from the array into the tensor.
+   *
+   * @param env The current OrtEnvironment.
+   * @param allocator The allocator to use.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  static OnnxTensor createTensor(
+      OrtEnvironment env, OrtAllocator allocator, boolean[] data, long[] shape)
+      throws OrtException {
+    return createTensorFromArray(
+        env,
+        allocator,
+        data,
+        data.length,
+        shape,
+        TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_BOOL);
+  }
+
+  /**
+   * Creates a tensor by copying a flat primitive array into native memory owned by the tensor.
+   *
+   * @param env The current OrtEnvironment.
+   * @param allocator The allocator to use.
+   * @param data The primitive array.
+   * @param length The array length.
+   * @param shape The shape of tensor.
+   * @param onnxType The element type of the tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  private static OnnxTensor createTensorFromArray(
+      OrtEnvironment env,
+      OrtAllocator allocator,
+      Object data,
+      int length,
+      long[] shape,
+      TensorInfo.OnnxTensorType onnxType)
+      throws OrtException {
+    if ((env.isClosed()) || (allocator.isClosed())) {
+      throw new IllegalStateException("Trying to create an OnnxTensor on a closed OrtAllocator.");
+    }
+    long elementCount = OrtUtil.elementCount(shape);
+    if (elementCount != length) {
+      throw new OrtException(
+          "Shape "
+              + Arrays.toString(shape)
+              + ", requires "
+              + elementCount
+              + " elements but the array has "
+              + length
+              + " elements");
+    }
+    long[] shapeCopy = Arrays.copyOf(shape, shape.length);
+    TensorInfo info =
+        new TensorInfo(shapeCopy, OnnxJavaType.mapFromOnnxTensorType(onnxType), onnxType);
+    return new OnnxTensor(
+        createTensorFromArray(
+            OnnxRuntime.ortApiHandle, allocator.handle, data, shapeCopy, onnxType.value),
+        allocator.handle,
+        info);
+  }
+
+  /**
+   * Create a tensor from a flattened string array.
+   *
+   * <p>Requires the array to be flattened in row-major order. As the runtime stores null terminated
+   * strings, a string must not contain the null character. Uses the default allocator.
+   *
+   * @param env The current OrtEnvironment.
+   * @param data The tensor data
+   * @param shape the shape of the tensor
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error, if the data and shape don't match, or if
+   *     a string contains a null character.
+   */
+  public static OnnxTensor createTensor(OrtEnvironment env, String[] data, long[] shape)
+      throws OrtException {
+    return createTensor(env, env.defaultAllocator, data, shape);
+  }
+
+  /**
+   * Create a tensor from a flattened string array.
+   *
+   * <p>Requires the array to be flattened in row-major order. A string must not contain the null
+   * character.
+   *
+   * @param env The current OrtEnvironment.
+   * @param allocator The allocator to use.
+   * @param data The tensor data
+   * @param shape the shape of the tensor
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error, if the data and shape don't match, or if
+   *     a string contains a null character.
+   */
+  static OnnxTensor createTensor(
+      OrtEnvironment env, OrtAllocator allocator, String[] data, long[] shape) throws OrtException {
+    if ((!env.isClosed()) && (!allocator.isClosed())) {
+      TensorInfo info =
+          new TensorInfo(
+              shape,
+              OnnxJavaType.STRING,
+              TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_STRING);
+      return new OnnxTensor(createStringTensor(allocator, data, shape), allocator.handle, info);
+    } else {
+      throw new IllegalStateException("Trying to create an OnnxTensor on a closed OrtAllocator.");
+    }
+  }
+
+  /**
+   * Create a string tensor from packed UTF-8 data. The strings are the bytes between the buffer's
+   * position and limit, string {@code i} starts {@code offsets[i]} bytes after the position and
+   * ends where the next string starts (or at the limit for the last string). The strings are
+   * passed to the runtime in a single call, and the buffer's position is not changed. As the
+   * runtime stores null terminated strings, a string must not contain a zero byte. Uses the default
+   * allocator.
+   *
+   * @param env The current OrtEnvironment.
+   * @param utf8Data The packed UTF-8 strings.
+   * @param offsets The offset of each string, in row-major order.
+   * @param shape The shape of the tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error, if the number of offsets doesn't match
+   *     the shape, or if the offsets are not non-decreasing positions within the data.
+   * @throws IllegalArgumentException If a string contains a zero byte.
+   */
+  public static OnnxTensor createTensor(
+      OrtEnvironment env, ByteBuffer utf8Data, int[] offsets, long[] shape) throws OrtException {
+    return createTensor(env, env.defaultAllocator, utf8Data, offsets, shape);
+  }
+
+  /**
+   * Create a string tensor from packed UTF-8 data. See {@link #createTensor(OrtEnvironment,
+   * ByteBuffer, int[], long[])} for the layout.
+   *
+   * @param env The current OrtEnvironment.
+   * @param allocator The allocator to use.
+   * @param utf8Data The packed UTF-8 strings.
+   * @param offsets The offset of each string, in row-major order.
+   * @param shape The shape of the tensor.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error, if the number of offsets doesn't match
+   *     the shape, or if the offsets are not non-decreasing positions within the data.
+   * @throws IllegalArgumentException If a string contains a zero byte.
+   */
+  static OnnxTensor createTensor(
+      OrtEnvironment env, OrtAllocator allocator, ByteBuffer utf8Data, int[] offsets, long[] shape)
+      throws OrtException {
+    if ((env.isClosed()) || (allocator.isClosed())) {
+      throw new IllegalStateException("Trying to create an OnnxTensor on a closed OrtAllocator.");
+    }
+    int length = utf8Data.remaining();
+    checkUtf8Offsets(offsets, length, shape);
+    checkNoZeroBytes(utf8Data, offsets, length);
+    long handle;
+    if (utf8Data.isDirect()) {
+      handle =
+          createStringTensorFromUtf8(
+              OnnxRuntime.ortApiHandle,
+              allocator.handle,
+              utf8Data,
+              null,
+              utf8Data.position(),
+              length,
+              offsets,
+              shape);
+    } else if (utf8Data.hasArray()) {
+      handle =
+          createStringTensorFromUtf8(
+              OnnxRuntime.ortApiHandle,
+              allocator.handle,
+              null,
+              utf8Data.array(),
+              utf8Data.arrayOffset() + utf8Data.position(),
+              length,
+              offsets,
+              shape);
+    } else {
+      // Read-only heap buffer, copy it out.
+      byte[] data = new byte[length];
+      utf8Data.duplicate().get(data);
+      handle =
+          createStringTensorFromUtf8(
+              OnnxRuntime.ortApiHandle, allocator.handle, null, data, 0, length, offsets, shape);
     }
+    TensorInfo info =
+        new TensorInfo(
+            Arrays.copyOf(shape, shape.length),
+            OnnxJavaType.STRING,
+            TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_STRING);
+    return new OnnxTensor(handle, allocator.handle, info);
   }
 
   /**
-   * Create a tensor from a flattened string array.
+   * Creates a native string tensor, encoding the strings into one packed UTF-8 array so they are
+   * passed to the runtime in a single call.
    *
-   * <p>Requires the array to be flattened in row-major order. Uses the default allocator.
-   *
-   * @param env The current OrtEnvironment.
-   * @param data The tensor data
-   * @param shape the shape of the tensor
-   * @return An OnnxTensor of the required shape.
-   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   * @param allocator The allocator to use.
+   * @param data The strings in row-major order.
+   * @param shape The shape of the tensor.
+   * @return The native tensor handle.
+   * @throws OrtException Thrown if there is an onnx error, if the data and shape don't match, or if
+   *     a string contains a null character.
    */
-  public static OnnxTensor createTensor(OrtEnvironment env, String[] data, long[] shape)
+  private static long createStringTensor(OrtAllocator allocator, String[] data, long[] shape)
       throws OrtException {
-    return createTensor(env, env.defaultAllocator, data, shape);
+    byte[][] encoded = new byte[data.length][];
+    int[] offsets = new int[data.length];
+    long length = 0;
+    for (int i = 0; i < data.length; i++) {
+      if (data[i].indexOf('\u0000') >= 0) {
+        // The runtime stores null terminated strings, so it would silently truncate this one.
+        throw new OrtException("String " + i + " contains a null character");
+      }
+      encoded[i] = data[i].getBytes(StandardCharsets.UTF_8);
+      offsets[i] = (int) length;
+      length += encoded[i].length;
+      if (length > Integer.MAX_VALUE) {
+        throw new OrtException("The strings are too large, found at least " + length + " bytes");
+      }
+    }
+    byte[] packed = new byte[(int) length];
+    for (int i = 0; i < data.length; i++) {
+      System.arraycopy(encoded[i], 0, packed, offsets[i], encoded[i].length);
+    }
+    checkUtf8Offsets(offsets, packed.length, shape);
+    return createStringTensorFromUtf8(
+        OnnxRuntime.ortApiHandle, allocator.handle, null, packed, 0, packed.length, offsets, shape);
   }
 
   /**
-   * Create a tensor from a flattened string array.
+   * Checks no string in the packed UTF-8 data contains a zero byte, as the runtime stores null
+   * terminated strings and would silently truncate it. The offsets must already be validated.
    *
-   * <p>Requires the array to be flattened in row-major order.
+   * @param utf8Data The packed UTF-8 strings, starting at the buffer's position.
+   * @param offsets The string offsets.
+   * @param length The length of the data in bytes.
+   * @throws IllegalArgumentException If a string contains a zero byte.
+   */
+  private static void checkNoZeroBytes(ByteBuffer utf8Data, int[] offsets, int length) {
+    int position = utf8Data.position();
+    for (int i = 0; i < offsets.length; i++) {
+      int end = i + 1 < offsets.length ? offsets[i + 1] : length;
+      for (int j = offsets[i]; j < end; j++) {
+        if (utf8Data.get(position + j) == 0) {
+          throw new IllegalArgumentException(
+              "String " + i + " contains a zero byte at offset " + j);
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks there is one offset per element of the shape, and that they are non-decreasing and
+   * within the data.
    *
-   * @param env The current OrtEnvironment.
-   * @param allocator The allocator to use.
-   * @param data The tensor data
-   * @param shape the shape of the tensor
-   * @return An OnnxTensor of the required shape.
-   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   * @param offsets The string offsets.
+   * @param length The length of the data in bytes.
+   * @param shape The tensor shape.
+   * @throws OrtException If the offsets are invalid.
    */
-  static OnnxTensor createTensor(
-      OrtEnvironment env, OrtAllocator allocator, String[] data, long[] shape) throws OrtException {
-    if ((!env.isClosed()) && (!allocator.isClosed())) {
-      TensorInfo info =
-          new TensorInfo(
-              shape,
-              OnnxJavaType.STRING,
-              TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_STRING);
-      return new OnnxTensor(
-          createStringTensor(OnnxRuntime.ortApiHandle, allocator.handle, data, shape),
-          allocator.handle,
-          info);
-    } else {
-      throw new IllegalStateException("Trying to create an OnnxTensor on a closed OrtAllocator.");
+  private static void checkUtf8Offsets(int[] offsets, int length, long[] shape)
+      throws OrtException {
+    long elementCount = OrtUtil.elementCount(shape);
+    if (elementCount != offsets.length) {
+      throw new OrtException(
+          "Shape "
+              + Arrays.toString(shape)
+              + ", requires "
+              + elementCount
+              + " strings but found "
+              + offsets.length);
+    }
+    int prev = 0;
+    for (int i = 0; i < offsets.length; i++) {
+      if ((offsets[i] < prev) || (offsets[i] > length)) {
+        throw new OrtException(
+            "Invalid offset "
+                + offsets[i]
+                + " at index "
+                + i
+                + ", offsets must be non-decreasing and at most "
+                + length);
+      }
+      prev = offsets[i];
     }
   }
 
@@ -656,9 +1774,70 @@ public class OnnxTensor implements OnnxValue {
   static OnnxTensor createTensor(
       OrtEnvironment env, OrtAllocator allocator, ShortBuffer data, long[] shape)
       throws OrtException {
+    return createTensor(
+        env,
+        allocator,
+        data,
+        shape,
+        TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_INT16);
+  }
+
+  /**
+   * Create an OnnxTensor backed by a direct ShortBuffer, telling the runtime it's the specified
+   * 16-bit type. The buffer should be in nativeOrder. This is used to pass fp16 or bf16 data which
+   * is already in half precision through without conversion.
+   *
+   * <p>If the supplied buffer is not a direct buffer, a direct copy is created tied to the lifetime
+   * of the tensor. Uses the default allocator.
+   *
+   * @param env The current OrtEnvironment.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @param type The element type, one of int16, uint16, fp16 or bf16.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error, if the type is not a 16-bit type, or if
+   *     the data and shape don't match.
+   */
+  public static OnnxTensor createTensor(
+      OrtEnvironment env, ShortBuffer data, long[] shape, TensorInfo.OnnxTensorType type)
+      throws OrtException {
+    return createTensor(env, env.defaultAllocator, data, shape, type);
+  }
+
+  /**
+   * Create an OnnxTensor backed by a direct ShortBuffer, telling the runtime it's the specified
+   * 16-bit type. The buffer should be in nativeOrder.
+   *
+   * <p>If the supplied buffer is not a direct buffer, a direct copy is created tied to the lifetime
+   * of the tensor.
+   *
+   * @param env The current OrtEnvironment.
+   * @param allocator The allocator to use.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @param type The element type, one of int16, uint16, fp16 or bf16.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error, if the type is not a 16-bit type, or if
+   *     the data and shape don't match.
+   */
+  static OnnxTensor createTensor(
+      OrtEnvironment env,
+      OrtAllocator allocator,
+      ShortBuffer data,
+      long[] shape,
+      TensorInfo.OnnxTensorType type)
+      throws OrtException {
+    switch (type) {
+      case ONNX_TENSOR_ELEMENT_DATA_TYPE_INT16:
+      case ONNX_TENSOR_ELEMENT_DATA_TYPE_UINT16:
+      case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16:
+      case ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16:
+        break;
+      default:
+        throw new OrtException("Cannot create a " + type + " tensor from a ShortBuffer.");
+    }
     if ((!env.isClosed()) && (!allocator.isClosed())) {
-      OnnxJavaType type = OnnxJavaType.INT16;
-      int bufferSize = data.capacity() * type.size;
+      int bufferSize = data.capacity() * OnnxJavaType.INT16.size;
       ShortBuffer tmp;
       if (data.isDirect()) {
         tmp = data;
@@ -667,23 +1846,135 @@ public class OnnxTensor implements OnnxValue {
         tmp = buffer.asShortBuffer();
         tmp.put(data);
       }
-      TensorInfo info = TensorInfo.constructFromBuffer(tmp, shape, type);
-      return new OnnxTensor(
-          createTensorFromBuffer(
-              OnnxRuntime.ortApiHandle,
-              allocator.handle,
-              tmp,
-              bufferSize,
-              shape,
-              info.onnxType.value),
-          allocator.handle,
-          info,
-          tmp);
+      return createHalfWidthTensor(allocator, tmp, shape, type);
     } else {
       throw new IllegalStateException("Trying to create an OnnxTensor on a closed OrtAllocator.");
     }
   }
 
+  /**
+   * Create a fp32, fp16 or bf16 OnnxTensor from a float array, converting the values to the
+   * requested precision as they are copied into the tensor. Uses the default allocator.
+   *
+   * @param env The current OrtEnvironment.
+   * @param data The tensor data in row-major order.
+   * @param shape The shape of tensor.
+   * @param type The element type, one of fp32, fp16 or bf16.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error, if the type is not a floating point
+   *     type, or if the data and shape don't match.
+   */
+  public static OnnxTensor createTensor(
+      OrtEnvironment env, float[] data, long[] shape, TensorInfo.OnnxTensorType type)
+      throws OrtException {
+    switch (type) {
+      case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT:
+      case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16:
+      case ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16:
+        return createTensorFromArray(env, env.defaultAllocator, data, data.length, shape, type);
+      default:
+        throw new OrtException("Cannot create a " + type + " tensor from float values.");
+    }
+  }
+
+  /**
+   * Create a fp32, fp16 or bf16 OnnxTensor from a FloatBuffer, converting the values to the
+   * requested precision in bulk. For fp32 this is equivalent to {@link
+   * #createTensor(OrtEnvironment, FloatBuffer, long[])}, otherwise the converted values are written
+   * into a new direct buffer tied to the lifetime of the tensor. Uses the default allocator.
+   *
+   * @param env The current OrtEnvironment.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @param type The element type, one of fp32, fp16 or bf16.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error, if the type is not a floating point
+   *     type, or if the data and shape don't match.
+   */
+  public static OnnxTensor createTensor(
+      OrtEnvironment env, FloatBuffer data, long[] shape, TensorInfo.OnnxTensorType type)
+      throws OrtException {
+    return createTensor(env, env.defaultAllocator, data, shape, type);
+  }
+
+  /**
+   * Create a fp32, fp16 or bf16 OnnxTensor from a FloatBuffer, converting the values to the
+   * requested precision in bulk.
+   *
+   * @param env The current OrtEnvironment.
+   * @param allocator The allocator to use.
+   * @param data The tensor data.
+   * @param shape The shape of tensor.
+   * @param type The element type, one of fp32, fp16 or bf16.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error, if the type is not a floating point
+   *     type, or if the data and shape don't match.
+   */
+  static OnnxTensor createTensor(
+      OrtEnvironment env,
+      OrtAllocator allocator,
+      FloatBuffer data,
+      long[] shape,
+      TensorInfo.OnnxTensorType type)
+      throws OrtException {
+    if ((env.isClosed()) || (allocator.isClosed())) {
+      throw new IllegalStateException("Trying to create an OnnxTensor on a closed OrtAllocator.");
+    }
+    switch (type) {
+      case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT:
+        return createTensor(env, allocator, data, shape);
+      case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16:
+      case ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16:
+        {
+          FloatBuffer src = data.duplicate();
+          ShortBuffer tmp =
+              ByteBuffer.allocateDirect(src.remaining() * OnnxJavaType.INT16.size)
+                  .order(ByteOrder.nativeOrder())
+                  .asShortBuffer();
+          if (type == TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16) {
+            OrtUtil.convertFloatToFp16(src, tmp);
+          } else {
+            OrtUtil.convertFloatToBf16(src, tmp);
+          }
+          tmp.rewind();
+          return createHalfWidthTensor(allocator, tmp, shape, type);
+        }
+      default:
+        throw new OrtException("Cannot create a " + type + " tensor from float values.");
+    }
+  }
+
+  /**
+   * Creates a 16-bit tensor over the supplied direct buffer.
+   *
+   * @param allocator The allocator to use.
+   * @param data The direct buffer.
+   * @param shape The shape of tensor.
+   * @param type The 16-bit element type.
+   * @return An OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the data and shape don't match.
+   */
+  private static OnnxTensor createHalfWidthTensor(
+      OrtAllocator allocator, ShortBuffer data, long[] shape, TensorInfo.OnnxTensorType type)
+      throws OrtException {
+    // Validates the shape against the buffer.
+    TensorInfo.constructFromBuffer(data, shape, OnnxJavaType.INT16);
+    TensorInfo info =
+        new TensorInfo(
+            Arrays.copyOf(shape, shape.length), OnnxJavaType.mapFromOnnxTensorType(type), type);
+    return new OnnxTensor(
+        createTensorFromBuffer(
+            OnnxRuntime.ortApiHandle,
+            allocator.handle,
+            data,
+            (long) data.capacity() * OnnxJavaType.INT16.size,
+            shape,
+            info.onnxType.value),
+        allocator.handle,
+        info,
+        data);
+  }
+
   /**
    * Create an OnnxTensor backed by a direct IntBuffer. The buffer should be in nativeOrder.
    *
@@ -806,11 +2097,86 @@ public class OnnxTensor implements OnnxValue {
     }
   }
 
+  /**
+   * Create a mutable OnnxTensor of the supplied type and shape, backed by a direct buffer which can
+   * be rewritten between runs using {@link #getWritableBuffer} or the fill methods. The initial
+   * contents are zero. Uses the default allocator.
+   *
+   * @param env The current OrtEnvironment.
+   * @param type The element type.
+   * @param shape The shape of tensor.
+   * @return A mutable OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the type is string or unknown.
+   */
+  public static OnnxTensor createMutable(OrtEnvironment env, OnnxJavaType type, long[] shape)
+      throws OrtException {
+    return createMutable(env, env.defaultAllocator, type, shape);
+  }
+
+  /**
+   * Create a mutable OnnxTensor of the supplied type and shape, backed by a direct buffer which can
+   * be rewritten between runs using {@link #getWritableBuffer} or the fill methods. The initial
+   * contents are zero.
+   *
+   * @param env The current OrtEnvironment.
+   * @param allocator The allocator to use.
+   * @param type The element type.
+   * @param shape The shape of tensor.
+   * @return A mutable OnnxTensor of the required shape.
+   * @throws OrtException Thrown if there is an onnx error or if the type is string or unknown.
+   */
+  static OnnxTensor createMutable(
+      OrtEnvironment env, OrtAllocator allocator, OnnxJavaType type, long[] shape)
+      throws OrtException {
+    if ((!env.isClosed()) && (!allocator.isClosed())) {
+      ByteBuffer data = allocateDirect(type, shape);
+      TensorInfo info = TensorInfo.constructFromBuffer(data, shape, type);
+      return new OnnxTensor(
+          createTensorFromBuffer(
+              OnnxRuntime.ortApiHandle,
+              allocator.handle,
+              data,
+              data.capacity(),
+              shape,
+              info.onnxType.value),
+          allocator.handle,
+          info,
+          data,
+          data);
+    } else {
+      throw new IllegalStateException("Trying to create an OnnxTensor on a closed OrtAllocator.");
+    }
+  }
+
+  /**
+   * Allocates a native order direct buffer big enough for a tensor of the supplied type and shape.
+   *
+   * @param type The element type.
+   * @param shape The shape.
+   * @return A direct buffer.
+   * @throws OrtException If the type is string or unknown, or the tensor is too large.
+   */
+  static ByteBuffer allocateDirect(OnnxJavaType type, long[] shape) throws OrtException {
+    if ((type == OnnxJavaType.STRING) || (type == OnnxJavaType.UNKNOWN)) {
+      throw new OrtException("Cannot create a tensor from a string or unknown buffer.");
+    }
+    long size = OrtUtil.elementCount(shape) * type.size;
+    if (size > Integer.MAX_VALUE) {
+      throw new OrtException(
+          "Shape " + Arrays.toString(shape) + " is too large for a direct buffer");
+    }
+    return ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+  }
+
   private static native long createTensor(
       long apiHandle, long allocatorHandle, Object data, long[] shape, int onnxType)
       throws OrtException;
 
-  private static native long createTensorFromBuffer(
+  private static native long createTensorFromArray(
+      long apiHandle, long allocatorHandle, Object data, long[] shape, int onnxType)
+      throws OrtException;
+
+  static native long createTensorFromBuffer(
       long apiHandle,
       long allocatorHandle,
       Buffer data,
@@ -822,6 +2188,300 @@ public class OnnxTensor implements OnnxValue {
   private static native long createString(long apiHandle, long allocatorHandle, String data)
       throws OrtException;
 
-  private static native long createStringTensor(
-      long apiHandle, long allocatorHandle, Object[] data, long[] shape) throws OrtException;
+  private static native long createStringTensorFromUtf8(
+      long apiHandle,
+      long allocatorHandle,
+      ByteBuffer directData,
+      byte[] heapData,
+      int dataOffset,
+      int dataLength,
+      int[] offsets,
+      long[] shape)
+      throws OrtException;
+
+  /**
+   * Base class for the read-only views of a tensor's memory. A view is valid until its tensor is
+   * closed, after which every access throws {@link IllegalStateException}.
+   */
+  public abstract static class View {
+    private final OnnxTensor tensor;
+
+    View(OnnxTensor tensor) {
+      this.tensor = tensor;
+    }
+
+    /**
+     * Checks if the view can still be read, i.e. the tensor has not been closed.
+     *
+     * @return True if the view is valid.
+     */
+    public boolean isValid() {
+      return !tensor.closed;
+    }
+
+    /**
+     * Returns the number of elements in the view.
+     *
+     * @return The number of elements.
+     */
+    public abstract int size();
+
+    /** Checks if the tensor is closed, if so throws {@link IllegalStateException}. */
+    void checkValid() {
+      if (tensor.closed) {
+        throw new IllegalStateException("Trying to read a view of a closed OnnxTensor");
+      }
+    }
+
+    @Override
+    public String toString() {
+      return getClass().getSimpleName() + "(tensor=" + tensor + ",size=" + size() + ")";
+    }
+  }
+
+  /** A float view of a tensor's memory, see {@link OnnxTensor#asFloatView}. */
+  public static final class FloatView extends View {
+    private final FloatBuffer buffer;
+
+    FloatView(OnnxTensor tensor, FloatBuffer buffer) {
+      super(tensor);
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int size() {
+      return buffer.capacity();
+    }
+
+    /**
+     * Reads the element at the supplied index.
+     *
+     * @param index The element index.
+     * @return The element.
+     */
+    public float get(int index) {
+      checkValid();
+      return buffer.get(index);
+    }
+
+    /**
+     * Copies {@code length} elements starting at {@code index} into the destination array.
+     *
+     * @param index The first element to copy.
+     * @param dst The destination array.
+     * @param offset The offset in the destination array.
+     * @param length The number of elements to copy.
+     */
+    public void get(int index, float[] dst, int offset, int length) {
+      checkValid();
+      FloatBuffer tmp = buffer.duplicate();
+      tmp.position(index);
+      tmp.get(dst, offset, length);
+    }
+  }
+
+  /** A double view of a tensor's memory, see {@link OnnxTensor#asDoubleView}. */
+  public static final class DoubleView extends View {
+    private final DoubleBuffer buffer;
+
+    DoubleView(OnnxTensor tensor, DoubleBuffer buffer) {
+      super(tensor);
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int size() {
+      return buffer.capacity();
+    }
+
+    /**
+     * Reads the element at the supplied index.
+     *
+     * @param index The element index.
+     * @return The element.
+     */
+    public double get(int index) {
+      checkValid();
+      return buffer.get(index);
+    }
+
+    /**
+     * Copies {@code length} elements starting at {@code index} into the destination array.
+     *
+     * @param index The first element to copy.
+     * @param dst The destination array.
+     * @param offset The offset in the destination array.
+     * @param length The number of elements to copy.
+     */
+    public void get(int index, double[] dst, int offset, int length) {
+      checkValid();
+      DoubleBuffer tmp = buffer.duplicate();
+      tmp.position(index);
+      tmp.get(dst, offset, length);
+    }
+  }
+
+  /** A byte view of a tensor's memory, see {@link OnnxTensor#asByteView}. */
+  public static final class ByteView extends View {
+    private final ByteBuffer buffer;
+
+    ByteView(OnnxTensor tensor, ByteBuffer buffer) {
+      super(tensor);
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int size() {
+      return buffer.capacity();
+    }
+
+    /**
+     * Reads the element at the supplied index.
+     *
+     * @param index The element index.
+     * @return The element.
+     */
+    public byte get(int index) {
+      checkValid();
+      return buffer.get(index);
+    }
+
+    /**
+     * Copies {@code length} elements starting at {@code index} into the destination array.
+     *
+     * @param index The first element to copy.
+     * @param dst The destination array.
+     * @param offset The offset in the destination array.
+     * @param length The number of elements to copy.
+     */
+    public void get(int index, byte[] dst, int offset, int length) {
+      checkValid();
+      ByteBuffer tmp = buffer.duplicate();
+      tmp.position(index);
+      tmp.get(dst, offset, length);
+    }
+  }
+
+  /** A short view of a tensor's memory, see {@link OnnxTensor#asShortView}. */
+  public static final class ShortView extends View {
+    private final ShortBuffer buffer;
+
+    ShortView(OnnxTensor tensor, ShortBuffer buffer) {
+      super(tensor);
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int size() {
+      return buffer.capacity();
+    }
+
+    /**
+     * Reads the element at the supplied index.
+     *
+     * @param index The element index.
+     * @return The element.
+     */
+    public short get(int index) {
+      checkValid();
+      return buffer.get(index);
+    }
+
+    /**
+     * Copies {@code length} elements starting at {@code index} into the destination array.
+     *
+     * @param index The first element to copy.
+     * @param dst The destination array.
+     * @param offset The offset in the destination array.
+     * @param length The number of elements to copy.
+     */
+    public void get(int index, short[] dst, int offset, int length) {
+      checkValid();
+      ShortBuffer tmp = buffer.duplicate();
+      tmp.position(index);
+      tmp.get(dst, offset, length);
+    }
+  }
+
+  /** An int view of a tensor's memory, see {@link OnnxTensor#asIntView}. */
+  public static final class IntView extends View {
+    private final IntBuffer buffer;
+
+    IntView(OnnxTensor tensor, IntBuffer buffer) {
+      super(tensor);
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int size() {
+      return buffer.capacity();
+    }
+
+    /**
+     * Reads the element at the supplied index.
+     *
+     * @param index The element index.
+     * @return The element.
+     */
+    public int get(int index) {
+      checkValid();
+      return buffer.get(index);
+    }
+
+    /**
+     * Copies {@code length} elements starting at {@code index} into the destination array.
+     *
+     * @param index The first element to copy.
+     * @param dst The destination array.
+     * @param offset The offset in the destination array.
+     * @param length The number of elements to copy.
+     */
+    public void get(int index, int[] dst, int offset, int length) {
+      checkValid();
+      IntBuffer tmp = buffer.duplicate();
+      tmp.position(index);
+      tmp.get(dst, offset, length);
+    }
+  }
+
+  /** A long view of a tensor's memory, see {@link OnnxTensor#asLongView}. */
+  public static final class LongView extends View {
+    private final LongBuffer buffer;
+
+    LongView(OnnxTensor tensor, LongBuffer buffer) {
+      super(tensor);
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int size() {
+      return buffer.capacity();
+    }
+
+    /**
+     * Reads the element at the supplied index.
+     *
+     * @param index The element index.
+     * @return The element.
+     */
+    public long get(int index) {
+      checkValid();
+      return buffer.get(index);
+    }
+
+    /**
+     * Copies {@code length} elements starting at {@code index} into the destination array.
+     *
+     * @param index The first element to copy.
+     * @param dst The destination array.
+     * @param offset The offset in the destination array.
+     * @param length The number of elements to copy.
+     */
+    public void get(int index, long[] dst, int offset, int length) {
+      checkValid();
+      LongBuffer tmp = buffer.duplicate();
+      tmp.position(index);
+      tmp.get(dst, offset, length);
+    }
+  }
 }
@@ -0,0 +1,514 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * Licensed under the MIT License.
+ */
+package ai.onnxruntime;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * A pool of mutable tensors, keyed by element type and shape.
+ *
+ * <p>{@link #acquire} hands out a {@link PooledTensor} which can be refilled in place (see {@link
+ * OnnxTensor#fill(float[], int)}) and passed to {@link OrtSession#run}, and closing it returns it
+ * to the pool instead of releasing it. Returned tensors are kept in a cache local to the returning
+ * thread, and once that is full in a lock-free stack shared by all threads, both capped per key.
+ * Tensors which don't fit in either are released. A tensor handed out by the pool still holds the
+ * data written by its previous user.
+ *
+ * <p>Each thread's cache holds its thread weakly. When a new thread first uses the pool, the caches
+ * of threads which have exited are drained into the shared stack, so tensors parked by short-lived
+ * threads are reused rather than retained until the pool is closed. Tensors cached by threads which
+ * are alive but no longer use the pool stay in their caches.
+ *
+ * <p>The pool is thread safe. Closing the pool releases the idle tensors and empties every
+ * thread's cache, tensors which are leased when the pool is closed are released when they are
+ * closed.
+ */
+public class OnnxTensorPool implements AutoCloseable {
+
+  private static final Logger logger = Logger.getLogger(OnnxTensorPool.class.getName());
+
+  private static final int IDLE = 0;
+  private static final int LEASED = 1;
+  private static final int RELEASED = 2;
+
+  private final OrtEnvironment env;
+
+  private final int maxPerThread;
+
+  private final int maxShared;
+
+  private final ThreadLocal<LocalCache> localCache = ThreadLocal.withInitial(this::newLocalCache);
+
+  /** Every thread's cache, so closing the pool can empty them and dead threads can be drained. */
+  private final Set<LocalCache> localCaches = ConcurrentHashMap.newKeySet();
+
+  private final ConcurrentHashMap<Key, TensorStack> sharedCache = new ConcurrentHashMap<>();
+
+  /** Every tensor created by this pool which hasn't been released. */
+  private final Set<PooledTensor> tensors = ConcurrentHashMap.newKeySet();
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final LongAdder evictions = new LongAdder();
+
+  private volatile boolean closed = false;
+
+  /**
+   * Creates a tensor pool.
+   *
+   * @param env The environment used to create tensors.
+   * @param maxPerThread The maximum number of idle tensors per key in each thread's cache.
+   * @param maxShared The maximum number of idle tensors per key in the shared stack.
+   */
+  public OnnxTensorPool(OrtEnvironment env, int maxPerThread, int maxShared) {
+    if (maxPerThread < 0) {
+      throw new IllegalArgumentException(
+          "maxPerThread must be non-negative, found " + maxPerThread);
+    }
+    if (maxShared < 0) {
+      throw new IllegalArgumentException("maxShared must be non-negative, found " + maxShared);
+    }
+    this.env = env;
+    this.maxPerThread = maxPerThread;
+    this.maxShared = maxShared;
+  }
+
+  /**
+   * Hands out a tensor of the supplied type and shape, reusing an idle one if possible. The
+   * tensor's contents are undefined until written.
+   *
+   * @param type The element type, must not be {@link OnnxJavaType#STRING} or {@link
+   *     OnnxJavaType#UNKNOWN}.
+   * @param shape The tensor shape.
+   * @return A tensor which returns to this pool when it is closed.
+   * @throws OrtException If a new tensor could not be created.
+   */
+  public PooledTensor acquire(OnnxJavaType type, long[] shape) throws OrtException {
+    if (closed) {
+      throw new IllegalStateException("Trying to acquire from a closed OnnxTensorPool");
+    }
+    Key key = new Key(type, shape);
+    LocalCache local = localCache.get();
+    PooledTensor t;
+    while ((t = local.poll(key)) != null) {
+      if (t.state.compareAndSet(IDLE, LEASED)) {
+        hits.increment();
+        return t;
+      }
+    }
+    TensorStack shared = sharedCache.get(key);
+    if (shared != null) {
+      while ((t = shared.pop()) != null) {
+        if (t.state.compareAndSet(IDLE, LEASED)) {
+          hits.increment();
+          return t;
+        }
+      }
+    }
+    misses.increment();
+    return create(key);
+  }
+
+  /**
+   * Creates a new leased tensor.
+   *
+   * @param key The type and shape.
+   * @return A new tensor.
+   * @throws OrtException If the tensor could not be created.
+   */
+  private PooledTensor create(Key key) throws OrtException {
+    OrtAllocator allocator = env.defaultAllocator;
+    if (env.isClosed() || allocator.isClosed()) {
+      throw new IllegalStateException("Trying to create an OnnxTensor on a closed OrtAllocator.");
+    }
+    ByteBuffer data = OnnxTensor.allocateDirect(key.type, key.shape);
+    TensorInfo info = TensorInfo.constructFromBuffer(data, key.shape, key.type);
+    long handle =
+        OnnxTensor.createTensorFromBuffer(
+            OnnxRuntime.ortApiHandle,
+            allocator.handle,
+            data,
+            data.capacity(),
+            key.shape,
+            info.onnxType.value);
+    PooledTensor t = new PooledTensor(this, key, handle, allocator.handle, info, data);
+    tensors.add(t);
+    return t;
+  }
+
+  /**
+   * Returns a tensor to the pool, releasing it if the caches are full or the pool is closed.
+   *
+   * @param t The tensor.
+   */
+  private void release(PooledTensor t) {
+    if (!t.state.compareAndSet(LEASED, IDLE)) {
+      logger.warning("Closing an already closed tensor.");
+      return;
+    }
+    if (!closed) {
+      LocalCache local = localCache.get();
+      boolean cached = local.offer(t, maxPerThread);
+      if (!cached) {
+        TensorStack shared = sharedCache.computeIfAbsent(t.key, (Key k) -> new TensorStack());
+        cached = shared.push(t, maxShared);
+      }
+      if (!closed) {
+        if (cached) {
+          return;
+        }
+      } else {
+        // The pool was closed concurrently and may have emptied this cache before the offer.
+        local.clear();
+      }
+    }
+    evict(t);
+  }
+
+  /**
+   * Creates a cache for the calling thread and registers it with the pool, first draining the
+   * caches of threads which have exited.
+   *
+   * @return The new cache.
+   */
+  private LocalCache newLocalCache() {
+    drainDeadThreads();
+    LocalCache cache = new LocalCache(Thread.currentThread());
+    localCaches.add(cache);
+    return cache;
+  }
+
+  /**
+   * Unregisters the caches of threads which have exited, moving their tensors into the shared
+   * stack, or releasing them if it is full.
+   */
+  private void drainDeadThreads() {
+    for (LocalCache cache : localCaches) {
+      if (!cache.isOwnerAlive() && localCaches.remove(cache)) {
+        for (PooledTensor t : cache.drain()) {
+          TensorStack shared = sharedCache.computeIfAbsent(t.key, (Key k) -> new TensorStack());
+          if (closed || !shared.push(t, maxShared)) {
+            evict(t);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Releases an idle tensor, unless it has already been leased or released.
+   *
+   * @param t The tensor.
+   */
+  private void evict(PooledTensor t) {
+    if (t.state.compareAndSet(IDLE, RELEASED)) {
+      tensors.remove(t);
+      t.release();
+      evictions.increment();
+    }
+  }
+
+  /**
+   * Gets the number of acquisitions which reused an idle tensor.
+   *
+   * @return The hit count.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets the number of acquisitions which created a new tensor.
+   *
+   * @return The miss count.
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets the number of tensors released because the caches were full or the pool was closed.
+   *
+   * @return The eviction count.
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * Gets the number of tensors owned by this pool, either leased or idle.
+   *
+   * @return The number of live tensors.
+   */
+  public int getSize() {
+    return tensors.size();
+  }
+
+  /**
+   * Gets the number of idle tensors held in the thread caches, summed across all threads.
+   *
+   * @return The number of idle tensors in thread caches.
+   */
+  int getLocalCacheSize() {
+    int size = 0;
+    for (LocalCache cache : localCaches) {
+      size += cache.size();
+    }
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return "OnnxTensorPool(maxPerThread="
+        + maxPerThread
+        + ",maxShared="
+        + maxShared
+        + ",size="
+        + tensors.size()
+        + ",hits="
+        + hits.sum()
+        + ",misses="
+        + misses.sum()
+        + ",evictions="
+        + evictions.sum()
+        + ")";
+  }
+
+  /** Closes the pool, releasing all the idle tensors. */
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      for (PooledTensor t : tensors) {
+        evict(t);
+      }
+      sharedCache.clear();
+      for (LocalCache cache : localCaches) {
+        cache.clear();
+      }
+      localCaches.clear();
+      localCache.remove();
+    } else {
+      throw new IllegalStateException("Trying to close an already closed OnnxTensorPool");
+    }
+  }
+
+  /**
+   * A tensor handed out by an {@link OnnxTensorPool}, closing it returns it to the pool.
+   *
+   * <p>The tensor must not be used after it has been closed, as it may have been handed out again.
+   */
+  public static final class PooledTensor extends OnnxTensor {
+    private final OnnxTensorPool pool;
+    private final Key key;
+    private final AtomicInteger state = new AtomicInteger(LEASED);
+
+    private PooledTensor(
+        OnnxTensorPool pool,
+        Key key,
+        long nativeHandle,
+        long allocatorHandle,
+        TensorInfo info,
+        ByteBuffer data) {
+      super(nativeHandle, allocatorHandle, info, data, data);
+      this.pool = pool;
+      this.key = key;
+    }
+
+    /** Returns the tensor to its pool. */
+    @Override
+    public void close() {
+      pool.release(this);
+    }
+
+    /** Releases the native tensor. */
+    private void release() {
+      super.close();
+    }
+  }
+
+  /** The element type and shape of a pooled tensor. */
+  private static final class Key {
+    final OnnxJavaType type;
+    final long[] shape;
+    final int hash;
+
+    Key(OnnxJavaType type, long[] shape) {
+      if ((type == OnnxJavaType.STRING) || (type == OnnxJavaType.UNKNOWN)) {
+        throw new IllegalArgumentException("Cannot pool tensors of type " + type);
+      }
+      this.type = type;
+      this.shape = Arrays.copyOf(shape, shape.length);
+      this.hash = 31 * type.hashCode() + Arrays.hashCode(shape);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      } else if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return (type == other.type) && Arrays.equals(shape, other.shape);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * The idle tensors cached by a single thread. It is only contended when the pool is closed or
+   * the thread has exited, the lock lets another thread empty it.
+   */
+  private static final class LocalCache {
+    private final WeakReference<Thread> owner;
+    private final Map<Key, ArrayDeque<PooledTensor>> queues = new HashMap<>();
+
+    LocalCache(Thread owner) {
+      this.owner = new WeakReference<>(owner);
+    }
+
+    /**
+     * Checks if the thread which owns this cache is still running.
+     *
+     * @return True if the owning thread is alive.
+     */
+    boolean isOwnerAlive() {
+      Thread thread = owner.get();
+      return (thread != null) && thread.isAlive();
+    }
+
+    /**
+     * Removes the most recently cached tensor for the key.
+     *
+     * @param key The type and shape.
+     * @return The tensor, or null if there isn't one.
+     */
+    synchronized PooledTensor poll(Key key) {
+      ArrayDeque<PooledTensor> queue = queues.get(key);
+      return queue == null ? null : queue.pollFirst();
+    }
+
+    /**
+     * Caches the tensor if there are fewer than {@code max} tensors for its key.
+     *
+     * @param t The tensor.
+     * @param max The size cap.
+     * @return True if the tensor was cached.
+     */
+    synchronized boolean offer(PooledTensor t, int max) {
+      ArrayDeque<PooledTensor> queue = queues.computeIfAbsent(t.key, (Key k) -> new ArrayDeque<>());
+      if (queue.size() < max) {
+        queue.addFirst(t);
+        return true;
+      } else {
+        return false;
+      }
+    }
+
+    /**
+     * Gets the number of cached tensors.
+     *
+     * @return The number of cached tensors.
+     */
+    synchronized int size() {
+      int size = 0;
+      for (ArrayDeque<PooledTensor> queue : queues.values()) {
+        size += queue.size();
+      }
+      return size;
+    }
+
+    /** Removes all the cached tensors. */
+    synchronized void clear() {
+      queues.clear();
+    }
+
+    /**
+     * Removes and returns all the cached tensors.
+     *
+     * @return The cached tensors.
+     */
+    synchronized List<PooledTensor> drain() {
+      List<PooledTensor> drained = new ArrayList<>();
+      for (ArrayDeque<PooledTensor> queue : queues.values()) {
+        drained.addAll(queue);
+      }
+      queues.clear();
+      return drained;
+    }
+  }
+
+  /** A lock-free stack of idle tensors with a size cap. */
+  private static final class TensorStack {
+    private final AtomicReference<Node> head = new AtomicReference<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Pushes the tensor if the stack has fewer than {@code max} elements.
+     *
+     * @param t The tensor.
+     * @param max The size cap.
+     * @return True if the tensor was pushed.
+     */
+    boolean push(PooledTensor t, int max) {
+      if (size.incrementAndGet() > max) {
+        size.decrementAndGet();
+        return false;
+      }
+      Node node = new Node(t);
+      Node cur;
+      do {
+        cur = head.get();
+        node.next = cur;
+      } while (!head.compareAndSet(cur, node));
+      return true;
+    }
+
+    /**
+     * Pops a tensor.
+     *
+     * @return The tensor, or null if the stack is empty.
+     */
+    PooledTensor pop() {
+      Node cur;
+      do {
+        cur = head.get();
+        if (cur == null) {
+          return null;
+        }
+      } while (!head.compareAndSet(cur, cur.next));
+      size.decrementAndGet();
+      return cur.tensor;
+    }
+  }
+
+  private static final class Node {
+    final PooledTensor tensor;
+    Node next;
+
+    Node(PooledTensor tensor) {
+      this.tensor = tensor;
+    }
+  }
+}
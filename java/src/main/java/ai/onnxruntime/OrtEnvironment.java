@@ -6,6 +6,11 @@ package ai.onnxruntime;
 
 import ai.onnxruntime.OrtSession.SessionOptions;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
@@ -35,6 +40,8 @@ public class OrtEnvironment implements AutoCloseable {
 
   private static volatile String curLoggingName;
 
+  private static volatile boolean curGlobalThreadPools;
+
   /**
    * Gets the OrtEnvironment. If there is not an environment currently created, it creates one using
    * {@link OrtEnvironment#DEFAULT_NAME} and {@link OrtLoggingLevel#ORT_LOGGING_LEVEL_WARNING}.
@@ -78,11 +85,30 @@ public class OrtEnvironment implements AutoCloseable {
    */
   public static synchronized OrtEnvironment getEnvironment(
       OrtLoggingLevel loggingLevel, String name) {
+    return getEnvironment(loggingLevel, name, null);
+  }
+
+  /**
+   * Gets the OrtEnvironment. If there is not an environment currently created, it creates one using
+   * the supplied name and logging level, with global thread pools configured by the supplied
+   * threading options. Sessions share the global thread pools if they are created with {@link
+   * SessionOptions#disablePerSessionThreads()}. If an environment already exists with a different
+   * name or threading configuration, that environment is returned and a warning is logged.
+   *
+   * @param loggingLevel The logging level to use.
+   * @param name The log id.
+   * @param threadingOptions The global thread pool options, or null to not create global pools.
+   * @return The OrtEnvironment singleton.
+   */
+  public static synchronized OrtEnvironment getEnvironment(
+      OrtLoggingLevel loggingLevel, String name, ThreadingOptions threadingOptions) {
+    boolean globalThreadPools = threadingOptions != null;
     if (INSTANCE == null) {
       try {
-        INSTANCE = new OrtEnvironment(loggingLevel, name);
+        INSTANCE = new OrtEnvironment(loggingLevel, name, threadingOptions);
         curLogLevel = loggingLevel;
         curLoggingName = name;
+        curGlobalThreadPools = globalThreadPools;
       } catch (OrtException e) {
         throw new IllegalStateException("Failed to create OrtEnvironment", e);
       }
@@ -91,6 +117,10 @@ public class OrtEnvironment implements AutoCloseable {
         logger.warning(
             "Tried to change OrtEnvironment's logging level or name while a reference exists.");
       }
+      if (globalThreadPools && !curGlobalThreadPools) {
+        logger.warning(
+            "Tried to add global thread pools to an OrtEnvironment while a reference exists.");
+      }
     }
     refCount.incrementAndGet();
     return INSTANCE;
@@ -119,7 +149,31 @@ public class OrtEnvironment implements AutoCloseable {
    * @throws OrtException If the environment couldn't be created.
    */
   private OrtEnvironment(OrtLoggingLevel loggingLevel, String name) throws OrtException {
-    nativeHandle = createHandle(OnnxRuntime.ortApiHandle, loggingLevel.getValue(), name);
+    this(loggingLevel, name, null);
+  }
+
+  /**
+   * Create an OrtEnvironment using the specified name, log level and global thread pools.
+   *
+   * @param loggingLevel The logging level to use.
+   * @param name The logging id of the environment.
+   * @param threadingOptions The global thread pool options, or null to not create global pools.
+   * @throws OrtException If the environment couldn't be created.
+   */
+  private OrtEnvironment(
+      OrtLoggingLevel loggingLevel, String name, ThreadingOptions threadingOptions)
+      throws OrtException {
+    if (threadingOptions == null) {
+      nativeHandle = createHandle(OnnxRuntime.ortApiHandle, loggingLevel.getValue(), name);
+    } else {
+      threadingOptions.checkClosed();
+      nativeHandle =
+          createHandle(
+              OnnxRuntime.ortApiHandle,
+              loggingLevel.getValue(),
+              name,
+              threadingOptions.nativeHandle);
+    }
     defaultAllocator = new OrtAllocator(getDefaultAllocator(OnnxRuntime.ortApiHandle), true);
   }
 
@@ -209,6 +263,90 @@ public class OrtEnvironment implements AutoCloseable {
     }
   }
 
+  /**
+   * Create a session using the specified {@link SessionOptions}, model and the default memory
+   * allocator.
+   *
+   * <p>The model is read from the buffer's position to its limit. A direct buffer, such as a
+   * memory mapped file, is passed to the runtime without being copied, while a heap buffer is
+   * passed as a byte array. The buffer is only read during this call and is not retained by the
+   * session.
+   *
+   * @param modelData The ONNX model bytes.
+   * @param options The session options.
+   * @return An {@link OrtSession} with the specified model.
+   * @throws OrtException If the model failed to parse, wasn't compatible or caused an error.
+   */
+  public OrtSession createSession(ByteBuffer modelData, SessionOptions options)
+      throws OrtException {
+    return createSession(modelData, defaultAllocator, options);
+  }
+
+  /**
+   * Create a session using the specified {@link SessionOptions} and model.
+   *
+   * @param modelData The ONNX model bytes.
+   * @param allocator The memory allocator to use.
+   * @param options The session options.
+   * @return An {@link OrtSession} with the specified model.
+   * @throws OrtException If the model failed to parse, wasn't compatible or caused an error.
+   */
+  OrtSession createSession(ByteBuffer modelData, OrtAllocator allocator, SessionOptions options)
+      throws OrtException {
+    if (closed) {
+      throw new IllegalStateException("Trying to create an OrtSession on a closed OrtEnvironment.");
+    }
+    if (modelData.isDirect()) {
+      return new OrtSession(this, modelData, allocator, options);
+    } else if (modelData.hasArray()
+        && (modelData.arrayOffset() == 0)
+        && (modelData.position() == 0)
+        && (modelData.remaining() == modelData.array().length)) {
+      return new OrtSession(this, modelData.array(), allocator, options);
+    } else {
+      byte[] modelArray = new byte[modelData.remaining()];
+      modelData.duplicate().get(modelArray);
+      return new OrtSession(this, modelArray, allocator, options);
+    }
+  }
+
+  /**
+   * Create a session using the specified {@link SessionOptions}, model and the default memory
+   * allocator.
+   *
+   * <p>If {@code mmap} is true the model file is memory mapped and passed to the runtime as a
+   * direct buffer, so it is never copied onto the Java heap. Otherwise the runtime reads the file
+   * itself, which is equivalent to {@link #createSession(String, SessionOptions)}. Memory mapping
+   * is limited to models smaller than 2GB.
+   *
+   * @param modelPath Path on disk to load the model from.
+   * @param mmap If true memory map the model file.
+   * @param options The session options.
+   * @return An {@link OrtSession} with the specified model.
+   * @throws IOException If the model file could not be mapped.
+   * @throws OrtException If the model failed to load, wasn't compatible or caused an error.
+   */
+  public OrtSession createSession(Path modelPath, boolean mmap, SessionOptions options)
+      throws IOException, OrtException {
+    if (!mmap) {
+      return createSession(modelPath.toString(), options);
+    }
+    MappedByteBuffer modelData;
+    try (FileChannel channel = FileChannel.open(modelPath, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException(
+            "Model file "
+                + modelPath
+                + " is too large to memory map, found "
+                + size
+                + " bytes, load it from the path instead");
+      }
+      modelData = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+    return createSession(modelData, options);
+  }
+
   /**
    * Turns on or off the telemetry.
    *
@@ -228,9 +366,24 @@ public class OrtEnvironment implements AutoCloseable {
     return closed;
   }
 
+  /**
+   * Does this environment have global thread pools which sessions can share?
+   *
+   * @return True if the environment was created with {@link ThreadingOptions}.
+   */
+  public boolean hasGlobalThreadPools() {
+    return curGlobalThreadPools;
+  }
+
   @Override
   public String toString() {
-    return "OrtEnvironment(name=" + curLoggingName + ",logLevel=" + curLogLevel + ")";
+    return "OrtEnvironment(name="
+        + curLoggingName
+        + ",logLevel="
+        + curLogLevel
+        + ",globalThreadPools="
+        + curGlobalThreadPools
+        + ")";
   }
 
   /**
@@ -254,6 +407,52 @@ public class OrtEnvironment implements AutoCloseable {
     }
   }
 
+  /**
+   * Options for the global thread pools of an {@link OrtEnvironment}, which sessions share when
+   * they are created with {@link SessionOptions#disablePerSessionThreads()}.
+   *
+   * <p>The pools use the runtime's default sizing, which matches the intra op pool to the number
+   * of physical cores. The options are only read when the environment is created, so they can be
+   * closed afterwards.
+   */
+  public static class ThreadingOptions implements AutoCloseable {
+
+    private final long nativeHandle;
+
+    private boolean closed = false;
+
+    /**
+     * Creates threading options with the default settings.
+     *
+     * @throws OrtException If the construction of the native ThreadingOptions failed.
+     */
+    public ThreadingOptions() throws OrtException {
+      this.nativeHandle = createThreadingOptions(OnnxRuntime.ortApiHandle);
+    }
+
+    /** Checks if the ThreadingOptions is closed, if so throws {@link IllegalStateException}. */
+    private void checkClosed() {
+      if (closed) {
+        throw new IllegalStateException("Trying to use a closed ThreadingOptions");
+      }
+    }
+
+    /** Closes the threading options, releasing any memory acquired. */
+    @Override
+    public void close() {
+      if (!closed) {
+        closeThreadingOptions(OnnxRuntime.ortApiHandle, nativeHandle);
+        closed = true;
+      } else {
+        throw new IllegalStateException("Trying to close an already closed ThreadingOptions");
+      }
+    }
+
+    private static native long createThreadingOptions(long apiHandle) throws OrtException;
+
+    private static native void closeThreadingOptions(long apiHandle, long nativeHandle);
+  }
+
   /**
    * Creates the native object.
    *
@@ -266,6 +465,20 @@ public class OrtEnvironment implements AutoCloseable {
   private static native long createHandle(long apiHandle, int loggingLevel, String name)
       throws OrtException;
 
+  /**
+   * Creates the native object with global thread pools.
+   *
+   * @param apiHandle The API pointer.
+   * @param loggingLevel The logging level.
+   * @param name The name of the environment.
+   * @param threadingOptionsHandle The threading options pointer.
+   * @return The pointer to the native object.
+   * @throws OrtException If the creation failed.
+   */
+  private static native long createHandle(
+      long apiHandle, int loggingLevel, String name, long threadingOptionsHandle)
+      throws OrtException;
+
   /**
    * Gets a reference to the default allocator.
    *
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * Licensed under the MIT License.
+ */
+package ai.onnxruntime;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of inputs and outputs bound to an {@link OrtSession}, which can be scored repeatedly
+ * using {@link OrtSession#run(OrtIoBinding)}.
+ *
+ * <p>Inputs are bound to {@link OnnxTensor}s, and outputs are either bound to caller owned {@link
+ * OnnxTensor}s which the runtime writes into, or bound to the session allocator in which case
+ * they are returned in the {@link OrtSession.Result} of each run. The names are validated when
+ * they are bound, and the native names and tensor pointers are built on the first run after a
+ * change to the bindings, so re-running after refilling the bound tensors' buffers does no
+ * validation or marshalling.
+ *
+ * <p>The bound tensors must not be closed while they are bound. An OrtIoBinding is not thread
+ * safe, and must be closed before the session which produced it.
+ */
+public class OrtIoBinding implements AutoCloseable {
+
+  static {
+    try {
+      OnnxRuntime.init();
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to load onnx-runtime library", e);
+    }
+  }
+
+  private final OrtSession session;
+
+  private final Map<String, OnnxTensor> inputs = new LinkedHashMap<>();
+
+  /** The bound outputs, a null value means the output is bound to the allocator. */
+  private final Map<String, OnnxTensor> outputs = new LinkedHashMap<>();
+
+  private long nativeHandle = 0;
+
+  private String[] allocatedOutputNames = new String[0];
+
+  private boolean dirty = true;
+
+  private boolean closed = false;
+
+  /**
+   * Creates an empty binding for the supplied session.
+   *
+   * @param session The session.
+   */
+  OrtIoBinding(OrtSession session) {
+    this.session = session;
+  }
+
+  /**
+   * Gets the session this binding belongs to.
+   *
+   * @return The session.
+   */
+  OrtSession getSession() {
+    return session;
+  }
+
+  /**
+   * Binds an input to the supplied tensor, replacing any existing binding for that input. The name
+   * may also be one of the session's overridable initializers, see {@link
+   * OrtSession#getOverridableInitializerNames()}.
+   *
+   * @param name The input name.
+   * @param tensor The tensor.
+   * @throws OrtException If the input name is not an input or overridable initializer of the
+   *     session.
+   */
+  public void bindInput(String name, OnnxTensor tensor) throws OrtException {
+    checkClosed();
+    if (!session.getFeedNames().contains(name)) {
+      throw new OrtException(
+          "Unknown input name " + name + ", expected one of " + session.getFeedNames());
+    }
+    inputs.put(name, tensor);
+    dirty = true;
+  }
+
+  /**
+   * Binds an output to the supplied caller owned tensor, replacing any existing binding for that
+   * output. The tensor must have the type and shape the model produces, the runtime writes into it
+   * directly.
+   *
+   * @param name The output name.
+   * @param tensor The tensor to write into.
+   * @throws OrtException If the output name is not an output of the session.
+   */
+  public void bindOutput(String name, OnnxTensor tensor) throws OrtException {
+    checkClosed();
+    checkOutputName(name);
+    outputs.put(name, tensor);
+    dirty = true;
+  }
+
+  /**
+   * Binds an output to the session allocator, replacing any existing binding for that output. The
+   * runtime allocates a fresh value for this output on each run, which is returned in the {@link
+   * OrtSession.Result}.
+   *
+   * @param name The output name.
+   * @throws OrtException If the output name is not an output of the session.
+   */
+  public void bindOutputToAllocator(String name) throws OrtException {
+    checkClosed();
+    checkOutputName(name);
+    outputs.put(name, null);
+    dirty = true;
+  }
+
+  /** Removes all the input bindings. */
+  public void clearBoundInputs() {
+    checkClosed();
+    inputs.clear();
+    dirty = true;
+  }
+
+  /** Removes all the output bindings. */
+  public void clearBoundOutputs() {
+    checkClosed();
+    outputs.clear();
+    dirty = true;
+  }
+
+  /**
+   * Returns the bound input names, in binding order.
+   *
+   * @return The input names.
+   */
+  public List<String> getBoundInputNames() {
+    return Collections.unmodifiableList(new ArrayList<>(inputs.keySet()));
+  }
+
+  /**
+   * Returns the bound output names, in binding order.
+   *
+   * @return The output names.
+   */
+  public List<String> getBoundOutputNames() {
+    return Collections.unmodifiableList(new ArrayList<>(outputs.keySet()));
+  }
+
+  /**
+   * Scores the bound inputs, rebuilding the native binding if it has changed since the last run.
+   *
+   * @param sessionHandle The session pointer.
+   * @param allocatorHandle The allocator pointer.
+   * @param runOptionsHandle The (possibly null) run options pointer.
+   * @return The outputs which are bound to the allocator.
+   * @throws OrtException If the binding is empty, or there was an error in native code.
+   */
+  OrtSession.Result run(long sessionHandle, long allocatorHandle, long runOptionsHandle)
+      throws OrtException {
+    checkClosed();
+    if (dirty) {
+      rebuild();
+    }
+    OnnxValue[] values =
+        run(
+            OnnxRuntime.ortApiHandle,
+            sessionHandle,
+            allocatorHandle,
+            nativeHandle,
+            runOptionsHandle);
+    return new OrtSession.Result(allocatedOutputNames, values);
+  }
+
+  /**
+   * Replaces the native binding with one built from the current input and output maps.
+   *
+   * @throws OrtException If there are no bound inputs or outputs.
+   */
+  private void rebuild() throws OrtException {
+    if (inputs.isEmpty()) {
+      throw new OrtException("No inputs are bound.");
+    }
+    if (outputs.isEmpty()) {
+      throw new OrtException("No outputs are bound.");
+    }
+    String[] inputNames = new String[inputs.size()];
+    long[] inputHandles = new long[inputs.size()];
+    int i = 0;
+    for (Map.Entry<String, OnnxTensor> e : inputs.entrySet()) {
+      inputNames[i] = e.getKey();
+      inputHandles[i] = e.getValue().getNativeHandle();
+      i++;
+    }
+    String[] outputNames = new String[outputs.size()];
+    long[] outputHandles = new long[outputs.size()];
+    List<String> allocated = new ArrayList<>();
+    i = 0;
+    for (Map.Entry<String, OnnxTensor> e : outputs.entrySet()) {
+      outputNames[i] = e.getKey();
+      if (e.getValue() != null) {
+        outputHandles[i] = e.getValue().getNativeHandle();
+      } else {
+        outputHandles[i] = 0;
+        allocated.add(e.getKey());
+      }
+      i++;
+    }
+    if (nativeHandle != 0) {
+      close(nativeHandle);
+      nativeHandle = 0;
+    }
+    nativeHandle = createBinding(inputNames, inputHandles, outputNames, outputHandles);
+    allocatedOutputNames = allocated.toArray(new String[0]);
+    dirty = false;
+  }
+
+  private void checkOutputName(String name) throws OrtException {
+    if (!session.getOutputNames().contains(name)) {
+      throw new OrtException(
+          "Unknown output name " + name + ", expected one of " + session.getOutputNames());
+    }
+  }
+
+  /** Checks if the binding is closed, if so throws {@link IllegalStateException}. */
+  private void checkClosed() {
+    if (closed) {
+      throw new IllegalStateException("Trying to use a closed OrtIoBinding");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "OrtIoBinding(inputs=" + inputs.keySet() + ",outputs=" + outputs.keySet() + ")";
+  }
+
+  /** Closes the binding, releasing the native names. Does not close the bound tensors. */
+  @Override
+  public void close() {
+    if (!closed) {
+      if (nativeHandle != 0) {
+        close(nativeHandle);
+        nativeHandle = 0;
+      }
+      closed = true;
+    } else {
+      throw new IllegalStateException("Trying to close an already closed OrtIoBinding");
+    }
+  }
+
+  private static native long createBinding(
+      String[] inputNames, long[] inputs, String[] outputNames, long[] outputs)
+      throws OrtException;
+
+  /**
+   * The native run call. runOptionsHandle can be zero (i.e. the null pointer), but all other
+   * handles must be valid pointers.
+   *
+   * @param apiHandle The pointer to the api.
+   * @param sessionHandle The pointer to the session.
+   * @param allocatorHandle The pointer to the allocator.
+   * @param nativeHandle The pointer to the native binding.
+   * @param runOptionsHandle The (possibly null) pointer to the run options.
+   * @return The OnnxValues produced for the outputs bound to the allocator.
+   * @throws OrtException If the native call failed in some way.
+   */
+  private static native OnnxValue[] run(
+      long apiHandle,
+      long sessionHandle,
+      long allocatorHandle,
+      long nativeHandle,
+      long runOptionsHandle)
+      throws OrtException;
+
+  private static native void close(long nativeHandle);
+}
@@ -5,8 +5,11 @@
 package ai.onnxruntime;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -14,6 +17,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -27,6 +40,11 @@ import java.util.logging.Logger;
  */
 public class OrtSession implements AutoCloseable {
 
+  private static final Logger logger = Logger.getLogger(OrtSession.class.getName());
+
+  /** The queue size of the default async executor. */
+  private static final int DEFAULT_ASYNC_QUEUE_SIZE = 1024;
+
   static {
     try {
       OnnxRuntime.init();
@@ -43,13 +61,27 @@ public class OrtSession implements AutoCloseable {
 
   private final Set<String> inputNames;
 
+  private final long numOverridableInitializers;
+
+  private final Set<String> overridableInitializerNames;
+
+  /** The names which can be fed to a run, the inputs followed by the overridable initializers. */
+  private final Set<String> feedNames;
+
   private final long numOutputs;
 
   private final Set<String> outputNames;
 
   private OnnxModelMetadata metadata;
 
-  private boolean closed = false;
+  private Executor asyncExecutor;
+
+  private ExecutorService ownedAsyncExecutor;
+
+  /** The number of async runs executing on the native session, guarded by this. */
+  private int asyncRunsInFlight = 0;
+
+  private volatile boolean closed = false;
 
   /**
    * Create a session loading the model from disk.
@@ -83,6 +115,29 @@ public class OrtSession implements AutoCloseable {
         allocator);
   }
 
+  /**
+   * Creates a session reading the model from the supplied direct buffer, without copying it.
+   *
+   * @param env The environment.
+   * @param modelData The model protobuf in a direct buffer, read from position to limit.
+   * @param allocator The allocator to use.
+   * @param options Session configuration options.
+   * @throws OrtException If the model was corrupted or some other error occurred in native code.
+   */
+  OrtSession(
+      OrtEnvironment env, ByteBuffer modelData, OrtAllocator allocator, SessionOptions options)
+      throws OrtException {
+    this(
+        createSession(
+            OnnxRuntime.ortApiHandle,
+            env.nativeHandle,
+            modelData,
+            modelData.position(),
+            modelData.remaining(),
+            options.nativeHandle),
+        allocator);
+  }
+
   /**
    * Private constructor to build the Java object wrapped around a native session.
    *
@@ -97,6 +152,19 @@ public class OrtSession implements AutoCloseable {
     inputNames =
         new LinkedHashSet<>(
             Arrays.asList(getInputNames(OnnxRuntime.ortApiHandle, nativeHandle, allocator.handle)));
+    numOverridableInitializers =
+        getNumOverridableInitializers(OnnxRuntime.ortApiHandle, nativeHandle);
+    overridableInitializerNames =
+        new LinkedHashSet<>(
+            Arrays.asList(
+                getOverridableInitializerNames(
+                    OnnxRuntime.ortApiHandle, nativeHandle, allocator.handle)));
+    if (overridableInitializerNames.isEmpty()) {
+      feedNames = inputNames;
+    } else {
+      feedNames = new LinkedHashSet<>(inputNames);
+      feedNames.addAll(overridableInitializerNames);
+    }
     numOutputs = getNumOutputs(OnnxRuntime.ortApiHandle, nativeHandle);
     outputNames =
         new LinkedHashSet<>(
@@ -143,6 +211,20 @@ public class OrtSession implements AutoCloseable {
     }
   }
 
+  /**
+   * Returns the names which can be fed to a run, the inputs followed by the overridable
+   * initializers.
+   *
+   * @return The feed names.
+   */
+  Set<String> getFeedNames() {
+    if (!closed) {
+      return feedNames;
+    } else {
+      throw new IllegalStateException("Asking for inputs from a closed OrtSession.");
+    }
+  }
+
   /**
    * Returns the output names. The underlying collection is sorted based on the output id number.
    *
@@ -156,6 +238,54 @@ public class OrtSession implements AutoCloseable {
     }
   }
 
+  /**
+   * Returns the number of overridable initializers in this model.
+   *
+   * @return The number of overridable initializers.
+   */
+  public long getNumOverridableInitializers() {
+    if (!closed) {
+      return numOverridableInitializers;
+    } else {
+      throw new IllegalStateException("Asking for initializers from a closed OrtSession.");
+    }
+  }
+
+  /**
+   * Returns the names of the overridable initializers, the weights which are also declared as
+   * graph inputs and so can be replaced on each run.
+   *
+   * <p>An overridable initializer is fed to {@link #run} by name like an input. The supplied
+   * tensor is used in place of the weight stored in the model for that run only, and as the runtime
+   * only reads it, one long lived tensor can be shared by concurrent runs. Refreshing the weights
+   * is then a matter of feeding a new tensor to subsequent runs, rather than creating a new
+   * session. Runs which don't feed it use the stored weight.
+   *
+   * @return The overridable initializer names.
+   */
+  public Set<String> getOverridableInitializerNames() {
+    if (!closed) {
+      return overridableInitializerNames;
+    } else {
+      throw new IllegalStateException("Asking for initializers from a closed OrtSession.");
+    }
+  }
+
+  /**
+   * Returns the info objects for the overridable initializers, including their names and types.
+   *
+   * @return The overridable initializer information.
+   * @throws OrtException If there was an error in native code.
+   */
+  public Map<String, NodeInfo> getOverridableInitializerInfo() throws OrtException {
+    if (!closed) {
+      return wrapInMap(
+          getOverridableInitializerInfo(OnnxRuntime.ortApiHandle, nativeHandle, allocator.handle));
+    } else {
+      throw new IllegalStateException("Asking for initializers from a closed OrtSession.");
+    }
+  }
+
   /**
    * Returns the info objects for the inputs, including their names and types. The underlying
    * collection is sorted based on the input id number.
@@ -247,9 +377,12 @@ public class OrtSession implements AutoCloseable {
       Map<String, OnnxTensor> inputs, Set<String> requestedOutputs, RunOptions runOptions)
       throws OrtException {
     if (!closed) {
-      if (inputs.isEmpty() || (inputs.size() > numInputs)) {
+      if (inputs.isEmpty() || (inputs.size() > feedNames.size())) {
         throw new OrtException(
-            "Unexpected number of inputs, expected [1," + numInputs + ") found " + inputs.size());
+            "Unexpected number of inputs, expected [1,"
+                + feedNames.size()
+                + ") found "
+                + inputs.size());
       }
       if (requestedOutputs.isEmpty() || (requestedOutputs.size() > numOutputs)) {
         throw new OrtException(
@@ -262,13 +395,13 @@ public class OrtSession implements AutoCloseable {
       long[] inputHandles = new long[inputs.size()];
       int i = 0;
       for (Map.Entry<String, OnnxTensor> t : inputs.entrySet()) {
-        if (inputNames.contains(t.getKey())) {
+        if (feedNames.contains(t.getKey())) {
           inputNamesArray[i] = t.getKey();
           inputHandles[i] = t.getValue().getNativeHandle();
           i++;
         } else {
           throw new OrtException(
-              "Unknown input name " + t.getKey() + ", expected one of " + inputNames.toString());
+              "Unknown input name " + t.getKey() + ", expected one of " + feedNames.toString());
         }
       }
       String[] outputNamesArray = new String[requestedOutputs.size()];
@@ -301,6 +434,542 @@ public class OrtSession implements AutoCloseable {
     }
   }
 
+  /**
+   * Scores an input feed dict, writing the requested outputs into the supplied output tensors.
+   *
+   * <p>The output tensors are owned by the caller, and must have the type and shape the model
+   * produces for the supplied inputs, usually by creating them from direct buffers using {@link
+   * OnnxTensor#createTensor(OrtEnvironment, java.nio.FloatBuffer, long[])} and friends. The native
+   * runtime writes directly into their memory rather than allocating new outputs, so no output
+   * tensors are created by this call.
+   *
+   * @param inputs The inputs to score.
+   * @param outputs The output tensors to write into, keyed by output name.
+   * @throws OrtException If there was an error in native code, the input or output names are
+   *     invalid, if there are zero or too many inputs or outputs, or if an output tensor has the
+   *     wrong type or shape.
+   */
+  public void run(Map<String, OnnxTensor> inputs, Map<String, OnnxTensor> outputs)
+      throws OrtException {
+    run(inputs, outputs, null);
+  }
+
+  /**
+   * Scores an input feed dict, writing the requested outputs into the supplied output tensors.
+   *
+   * <p>The output tensors are owned by the caller, and must have the type and shape the model
+   * produces for the supplied inputs. The native runtime writes directly into their memory rather
+   * than allocating new outputs, so no output tensors are created by this call.
+   *
+   * @param inputs The inputs to score.
+   * @param outputs The output tensors to write into, keyed by output name.
+   * @param runOptions The RunOptions to control this run.
+   * @throws OrtException If there was an error in native code, the input or output names are
+   *     invalid, if there are zero or too many inputs or outputs, or if an output tensor has the
+   *     wrong type or shape.
+   */
+  public void run(
+      Map<String, OnnxTensor> inputs, Map<String, OnnxTensor> outputs, RunOptions runOptions)
+      throws OrtException {
+    if (!closed) {
+      if (inputs.isEmpty() || (inputs.size() > feedNames.size())) {
+        throw new OrtException(
+            "Unexpected number of inputs, expected [1,"
+                + feedNames.size()
+                + ") found "
+                + inputs.size());
+      }
+      if (outputs.isEmpty() || (outputs.size() > numOutputs)) {
+        throw new OrtException(
+            "Unexpected number of outputs, expected [1,"
+                + numOutputs
+                + ") found "
+                + outputs.size());
+      }
+      String[] inputNamesArray = new String[inputs.size()];
+      long[] inputHandles = new long[inputs.size()];
+      int i = 0;
+      for (Map.Entry<String, OnnxTensor> t : inputs.entrySet()) {
+        if (feedNames.contains(t.getKey())) {
+          inputNamesArray[i] = t.getKey();
+          inputHandles[i] = t.getValue().getNativeHandle();
+          i++;
+        } else {
+          throw new OrtException(
+              "Unknown input name " + t.getKey() + ", expected one of " + feedNames.toString());
+        }
+      }
+      String[] outputNamesArray = new String[outputs.size()];
+      long[] outputHandles = new long[outputs.size()];
+      i = 0;
+      for (Map.Entry<String, OnnxTensor> t : outputs.entrySet()) {
+        if (outputNames.contains(t.getKey())) {
+          outputNamesArray[i] = t.getKey();
+          outputHandles[i] = t.getValue().getNativeHandle();
+          i++;
+        } else {
+          throw new OrtException(
+              "Unknown output name " + t.getKey() + ", expected one of " + outputNames.toString());
+        }
+      }
+      long runOptionsHandle = runOptions == null ? 0 : runOptions.nativeHandle;
+
+      runInto(
+          OnnxRuntime.ortApiHandle,
+          nativeHandle,
+          inputNamesArray,
+          inputHandles,
+          inputNamesArray.length,
+          outputNamesArray,
+          outputHandles,
+          outputNamesArray.length,
+          runOptionsHandle);
+    } else {
+      throw new IllegalStateException("Trying to score a closed OrtSession.");
+    }
+  }
+
+  /**
+   * Scores an input feed dict asynchronously, returning a future of all inferred outputs.
+   *
+   * <p>See {@link #runAsync(Map, Set, RunOptions)}.
+   *
+   * @param inputs The inputs to score.
+   * @return A future of the inferred outputs.
+   */
+  public CompletableFuture<Result> runAsync(Map<String, OnnxTensor> inputs) {
+    return runAsync(inputs, outputNames, null);
+  }
+
+  /**
+   * Scores an input feed dict asynchronously, returning a future of the requested outputs.
+   *
+   * <p>See {@link #runAsync(Map, Set, RunOptions)}.
+   *
+   * @param inputs The inputs to score.
+   * @param requestedOutputs The requested outputs.
+   * @return A future of the inferred outputs.
+   */
+  public CompletableFuture<Result> runAsync(
+      Map<String, OnnxTensor> inputs, Set<String> requestedOutputs) {
+    return runAsync(inputs, requestedOutputs, null);
+  }
+
+  /**
+   * Scores an input feed dict asynchronously on this session's async executor, returning a future
+   * of the requested outputs.
+   *
+   * <p>The executor is set with {@link #setAsyncExecutor}, and defaults to a pool with one thread
+   * per available processor and a queue of 1024 runs which is owned by this session, so runs
+   * submitted when the queue is full complete exceptionally with a {@link
+   * RejectedExecutionException}. Closing the session completes the runs still queued on the owned
+   * pool exceptionally, and waits for the executing runs to finish. Cancelling the future before
+   * the run starts prevents it from starting, cancelling it while the run is executing calls {@link
+   * RunOptions#setTerminate} to stop the native run. Each run uses its own native RunOptions,
+   * copying the run tag and logging levels from {@code runOptions} if it is supplied, so cancelling
+   * one run neither terminates other runs nor leaves the supplied RunOptions terminated.
+   *
+   * <p>The {@link Result} records the time spent waiting for an executor thread in {@link
+   * Result#getQueueWaitNanos} separately from the time spent scoring in {@link
+   * Result#getExecutionNanos}. Failures are reported by completing the future exceptionally with
+   * the {@link OrtException}.
+   *
+   * @param inputs The inputs to score.
+   * @param requestedOutputs The requested outputs.
+   * @param runOptions The RunOptions to control this run, may be null.
+   * @return A future of the inferred outputs.
+   */
+  public CompletableFuture<Result> runAsync(
+      Map<String, OnnxTensor> inputs, Set<String> requestedOutputs, RunOptions runOptions) {
+    if (!closed) {
+      AsyncRun run = new AsyncRun(this, inputs, requestedOutputs, runOptions);
+      try {
+        getAsyncExecutor().execute(run);
+      } catch (RejectedExecutionException e) {
+        run.completeExceptionally(e);
+      }
+      return run;
+    } else {
+      throw new IllegalStateException("Trying to score a closed OrtSession.");
+    }
+  }
+
+  /**
+   * Sets the executor used by {@link #runAsync}. The session does not shut down an executor
+   * supplied here. The executor bounds the number of concurrent native runs, see {@link
+   * #createAsyncExecutor(int, int)}.
+   *
+   * @param executor The executor to use for asynchronous runs.
+   */
+  public synchronized void setAsyncExecutor(Executor executor) {
+    if (closed) {
+      throw new IllegalStateException("Trying to configure a closed OrtSession.");
+    }
+    if (ownedAsyncExecutor != null) {
+      ownedAsyncExecutor.shutdown();
+      ownedAsyncExecutor = null;
+    }
+    asyncExecutor = executor;
+  }
+
+  /**
+   * Creates an executor suitable for {@link #setAsyncExecutor}, with a fixed number of daemon
+   * threads and a bounded queue. Runs submitted when the queue is full complete exceptionally
+   * with a {@link RejectedExecutionException}.
+   *
+   * @param numThreads The number of threads, i.e. the maximum number of concurrent native runs.
+   * @param queueSize The maximum number of runs waiting for a thread.
+   * @return An executor service, which the caller must shut down.
+   */
+  public static ExecutorService createAsyncExecutor(int numThreads, int queueSize) {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("numThreads must be positive, found " + numThreads);
+    }
+    if (queueSize < 1) {
+      throw new IllegalArgumentException("queueSize must be positive, found " + queueSize);
+    }
+    AtomicInteger threadCount = new AtomicInteger();
+    return new ThreadPoolExecutor(
+        numThreads,
+        numThreads,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(queueSize),
+        (Runnable r) -> {
+          Thread t = new Thread(r, "ort-session-async-" + threadCount.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        });
+  }
+
+  /**
+   * Gets the async executor, creating the default one if necessary.
+   *
+   * <p>Checks {@link #closed} under the same lock {@link #close} uses to shut the owned executor
+   * down, so no executor is created once the session starts closing.
+   *
+   * @return The async executor.
+   * @throws IllegalStateException If the session is closed.
+   */
+  private synchronized Executor getAsyncExecutor() {
+    if (closed) {
+      throw new IllegalStateException("Trying to score a closed OrtSession.");
+    }
+    if (asyncExecutor == null) {
+      ownedAsyncExecutor =
+          createAsyncExecutor(
+              Runtime.getRuntime().availableProcessors(), DEFAULT_ASYNC_QUEUE_SIZE);
+      asyncExecutor = ownedAsyncExecutor;
+    }
+    return asyncExecutor;
+  }
+
+  /**
+   * Records the start of an async run on the native session.
+   *
+   * @return False if the session is closed, and the run must not start.
+   */
+  private synchronized boolean beginAsyncRun() {
+    if (closed) {
+      return false;
+    }
+    asyncRunsInFlight++;
+    return true;
+  }
+
+  /** Records the end of an async run, waking a {@link #close} waiting for it. */
+  private synchronized void endAsyncRun() {
+    asyncRunsInFlight--;
+    if (asyncRunsInFlight == 0) {
+      notifyAll();
+    }
+  }
+
+  /**
+   * Creates an empty {@link OrtIoBinding} for this session.
+   *
+   * @return An io binding.
+   */
+  public OrtIoBinding createIoBinding() {
+    if (!closed) {
+      return new OrtIoBinding(this);
+    } else {
+      throw new IllegalStateException("Trying to bind to a closed OrtSession.");
+    }
+  }
+
+  /**
+   * Scores the inputs bound in the supplied binding, writing into the bound output tensors.
+   *
+   * @param binding The binding to score.
+   * @return The outputs which are bound to the allocator, in binding order.
+   * @throws OrtException If there was an error in native code, or the binding has no inputs or
+   *     outputs.
+   */
+  public Result run(OrtIoBinding binding) throws OrtException {
+    return run(binding, null);
+  }
+
+  /**
+   * Scores the inputs bound in the supplied binding, writing into the bound output tensors.
+   *
+   * @param binding The binding to score.
+   * @param runOptions The RunOptions to control this run.
+   * @return The outputs which are bound to the allocator, in binding order.
+   * @throws OrtException If there was an error in native code, or the binding has no inputs or
+   *     outputs.
+   */
+  public Result run(OrtIoBinding binding, RunOptions runOptions) throws OrtException {
+    if (!closed) {
+      if (binding.getSession() != this) {
+        throw new OrtException("The OrtIoBinding was created by a different OrtSession.");
+      }
+      long runOptionsHandle = runOptions == null ? 0 : runOptions.nativeHandle;
+      return binding.run(nativeHandle, allocator.handle, runOptionsHandle);
+    } else {
+      throw new IllegalStateException("Trying to score a closed OrtSession.");
+    }
+  }
+
+  /**
+   * Prepares a reusable run over the supplied inputs and requested outputs.
+   *
+   * <p>The input and output names are validated and converted into native strings once, and held
+   * until the {@link PreparedRun} is closed. Subsequent calls to {@link PreparedRun#run} take the
+   * input tensors positionally, in the order of {@code inputs}, and score them with a single native
+   * call.
+   *
+   * @param inputs The input names, in the order the tensors will be supplied.
+   * @param requestedOutputs The requested outputs.
+   * @return A prepared run.
+   * @throws OrtException If the input or output names are invalid, or if there are zero or too
+   *     many inputs or outputs.
+   */
+  public PreparedRun prepare(List<String> inputs, Set<String> requestedOutputs)
+      throws OrtException {
+    if (!closed) {
+      if (inputs.isEmpty() || (inputs.size() > feedNames.size())) {
+        throw new OrtException(
+            "Unexpected number of inputs, expected [1,"
+                + feedNames.size()
+                + ") found "
+                + inputs.size());
+      }
+      if (requestedOutputs.isEmpty() || (requestedOutputs.size() > numOutputs)) {
+        throw new OrtException(
+            "Unexpected number of requestedOutputs, expected [1,"
+                + numOutputs
+                + ") found "
+                + requestedOutputs.size());
+      }
+      String[] inputNamesArray = new String[inputs.size()];
+      int i = 0;
+      for (String s : inputs) {
+        if (feedNames.contains(s)) {
+          inputNamesArray[i] = s;
+          i++;
+        } else {
+          throw new OrtException(
+              "Unknown input name " + s + ", expected one of " + feedNames.toString());
+        }
+      }
+      if (new LinkedHashSet<>(inputs).size() != inputNamesArray.length) {
+        throw new OrtException("Duplicate input names found in " + inputs.toString());
+      }
+      String[] outputNamesArray = new String[requestedOutputs.size()];
+      i = 0;
+      for (String s : requestedOutputs) {
+        if (outputNames.contains(s)) {
+          outputNamesArray[i] = s;
+          i++;
+        } else {
+          throw new OrtException(
+              "Unknown output name " + s + ", expected one of " + outputNames.toString());
+        }
+      }
+      return new PreparedRun(this, inputNamesArray, outputNamesArray);
+    } else {
+      throw new IllegalStateException("Trying to prepare a run on a closed OrtSession.");
+    }
+  }
+
+  /**
+   * Prepares a reusable run over the supplied inputs, producing all the model outputs.
+   *
+   * @param inputs The input names, in the order the tensors will be supplied.
+   * @return A prepared run.
+   * @throws OrtException If the input names are invalid, or if there are zero or too many inputs.
+   */
+  public PreparedRun prepare(List<String> inputs) throws OrtException {
+    return prepare(inputs, outputNames);
+  }
+
+  /**
+   * Warms up the session by scoring synthesized inputs, so the kernel initialization, arena growth
+   * and memory planning which make the first runs slow happen before real requests arrive.
+   *
+   * <p>Every input must be a tensor. Each input is filled with zeros (or empty strings) using the
+   * shape from {@link #getInputInfo()}, with free dimensions (those of size -1) set to the value
+   * for the dimension's symbolic name in {@code freeDimValues}, or failing that the value for the
+   * input's name, or 1 if neither is present.
+   *
+   * @param iterations The number of runs.
+   * @param freeDimValues The size of the free dimensions, keyed by symbolic dimension name or by
+   *     input name.
+   * @return The wall clock time of each run in nanoseconds.
+   * @throws OrtException If an input is not a tensor, or there was an error in native code.
+   */
+  public long[] warmUp(int iterations, Map<String, Long> freeDimValues) throws OrtException {
+    if (closed) {
+      throw new IllegalStateException("Trying to score a closed OrtSession.");
+    }
+    if (iterations < 0) {
+      throw new IllegalArgumentException("iterations must be non-negative, found " + iterations);
+    }
+    Map<String, OnnxTensor> inputs = new LinkedHashMap<>();
+    try {
+      for (NodeInfo n : getInputInfo().values()) {
+        if (!(n.getInfo() instanceof TensorInfo)) {
+          throw new OrtException("Cannot synthesize non-tensor input " + n);
+        }
+        TensorInfo info = (TensorInfo) n.getInfo();
+        long freeDimValue = freeDimValues.getOrDefault(n.getName(), 1L);
+        long[] shape = info.getShape();
+        for (int i = 0; i < shape.length; i++) {
+          if (shape[i] < 0) {
+            shape[i] = freeDimValues.getOrDefault(info.dimensionNames[i], freeDimValue);
+          }
+        }
+        inputs.put(n.getName(), createWarmUpInput(info, shape));
+      }
+      long[] times = new long[iterations];
+      for (int i = 0; i < iterations; i++) {
+        long startTime = System.nanoTime();
+        Result r = run(inputs);
+        try {
+          times[i] = System.nanoTime() - startTime;
+        } finally {
+          r.close();
+        }
+        if (logger.isLoggable(Level.FINE)) {
+          logger.fine("Warm up iteration " + i + " took " + (times[i] / 1000) + "us");
+        }
+      }
+      return times;
+    } finally {
+      OnnxValue.close(inputs);
+    }
+  }
+
+  /**
+   * Creates a zero filled tensor of the supplied type and shape.
+   *
+   * @param info The input type.
+   * @param shape The concrete input shape.
+   * @return A tensor.
+   * @throws OrtException If the type is unknown, or the tensor could not be created.
+   */
+  private OnnxTensor createWarmUpInput(TensorInfo info, long[] shape) throws OrtException {
+    if (info.type == OnnxJavaType.STRING) {
+      String[] data = new String[(int) OrtUtil.elementCount(shape)];
+      Arrays.fill(data, "");
+      return OnnxTensor.createTensor(OrtEnvironment.getEnvironment(), allocator, data, shape);
+    }
+    // The Java type is at least as wide as the native type, so the buffer is large enough.
+    ByteBuffer data = OnnxTensor.allocateDirect(info.type, shape);
+    TensorInfo tensorInfo = new TensorInfo(shape, info.type, info.onnxType);
+    long handle =
+        OnnxTensor.createTensorFromBuffer(
+            OnnxRuntime.ortApiHandle,
+            allocator.handle,
+            data,
+            data.capacity(),
+            shape,
+            info.onnxType.value);
+    return new OnnxTensor(handle, allocator.handle, tensorInfo, data);
+  }
+
+  /**
+   * Computes the shapes of the tensor outputs produced from inputs of the supplied shapes, so the
+   * output tensors can be allocated once and reused with {@link #run(Map, Map)} rather than
+   * discovered after each run.
+   *
+   * <p>The free dimensions in the model's inputs bind their symbolic names (see {@link
+   * TensorInfo#getDimensionNames()}) to the sizes in the supplied shapes, and each output dimension
+   * with a bound name takes that size. Outputs which are not tensors, or which have a free
+   * dimension whose name is not bound by an input, depend on the values computed by the model and
+   * are omitted. Inputs missing from {@code inputShapes} bind no names.
+   *
+   * @param inputShapes The concrete input shapes, keyed by input name.
+   * @return The concrete output shapes, keyed by output name.
+   * @throws OrtException If a supplied shape does not match the model's input, or the same name is
+   *     bound to different sizes.
+   */
+  public Map<String, long[]> inferOutputShapes(Map<String, long[]> inputShapes)
+      throws OrtException {
+    Map<String, Long> bindings = new HashMap<>();
+    for (NodeInfo n : getInputInfo().values()) {
+      long[] shape = inputShapes.get(n.getName());
+      if ((shape == null) || !(n.getInfo() instanceof TensorInfo)) {
+        continue;
+      }
+      TensorInfo info = (TensorInfo) n.getInfo();
+      if (shape.length != info.shape.length) {
+        throw new OrtException(
+            "Input "
+                + n.getName()
+                + " has rank "
+                + info.shape.length
+                + ", found shape "
+                + Arrays.toString(shape));
+      }
+      for (int i = 0; i < shape.length; i++) {
+        if ((info.shape[i] >= 0) && (info.shape[i] != shape[i])) {
+          throw new OrtException(
+              "Input "
+                  + n.getName()
+                  + " has size "
+                  + info.shape[i]
+                  + " at dimension "
+                  + i
+                  + ", found shape "
+                  + Arrays.toString(shape));
+        }
+        String name = info.dimensionNames[i];
+        if (!name.isEmpty()) {
+          Long bound = bindings.putIfAbsent(name, shape[i]);
+          if ((bound != null) && (bound != shape[i])) {
+            throw new OrtException(
+                "Dimension " + name + " is bound to both " + bound + " and " + shape[i]);
+          }
+        }
+      }
+    }
+    Map<String, long[]> outputShapes = new LinkedHashMap<>();
+    for (NodeInfo n : getOutputInfo().values()) {
+      if (!(n.getInfo() instanceof TensorInfo)) {
+        continue;
+      }
+      TensorInfo info = (TensorInfo) n.getInfo();
+      long[] shape = info.getShape();
+      boolean resolved = true;
+      for (int i = 0; (i < shape.length) && resolved; i++) {
+        if (shape[i] < 0) {
+          Long bound = bindings.get(info.dimensionNames[i]);
+          if (bound != null) {
+            shape[i] = bound;
+          } else {
+            resolved = false;
+          }
+        }
+      }
+      if (resolved) {
+        outputShapes.put(n.getName(), shape);
+      }
+    }
+    return outputShapes;
+  }
+
   /**
    * Gets the metadata for the currently loaded model.
    *
@@ -335,16 +1004,42 @@ public class OrtSession implements AutoCloseable {
   /**
    * Closes the session, releasing it's resources.
    *
+   * <p>Async runs which have not started fail with an {@link IllegalStateException}, and async runs
+   * which are executing are waited for before the native session is released.
+   *
    * @throws OrtException If it failed to close.
    */
   @Override
   public void close() throws OrtException {
-    if (!closed) {
-      closeSession(OnnxRuntime.ortApiHandle, nativeHandle);
+    List<Runnable> queued = Collections.emptyList();
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("Trying to close an already closed OrtSession.");
+      }
       closed = true;
-    } else {
-      throw new IllegalStateException("Trying to close an already closed OrtSession.");
+      if (ownedAsyncExecutor != null) {
+        queued = ownedAsyncExecutor.shutdownNow();
+        ownedAsyncExecutor = null;
+      }
+      boolean interrupted = false;
+      while (asyncRunsInFlight > 0) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    for (Runnable r : queued) {
+      if (r instanceof AsyncRun) {
+        ((AsyncRun) r).completeExceptionally(
+            new IllegalStateException("Trying to score a closed OrtSession."));
+      }
     }
+    closeSession(OnnxRuntime.ortApiHandle, nativeHandle);
   }
 
   /**
@@ -369,6 +1064,15 @@ public class OrtSession implements AutoCloseable {
   private static native long createSession(
       long apiHandle, long envHandle, byte[] modelArray, long optsHandle) throws OrtException;
 
+  private static native long createSession(
+      long apiHandle,
+      long envHandle,
+      ByteBuffer modelData,
+      int modelOffset,
+      int modelLength,
+      long optsHandle)
+      throws OrtException;
+
   private native long getNumInputs(long apiHandle, long nativeHandle) throws OrtException;
 
   private native String[] getInputNames(long apiHandle, long nativeHandle, long allocatorHandle)
@@ -377,6 +1081,15 @@ public class OrtSession implements AutoCloseable {
   private native NodeInfo[] getInputInfo(long apiHandle, long nativeHandle, long allocatorHandle)
       throws OrtException;
 
+  private native long getNumOverridableInitializers(long apiHandle, long nativeHandle)
+      throws OrtException;
+
+  private native String[] getOverridableInitializerNames(
+      long apiHandle, long nativeHandle, long allocatorHandle) throws OrtException;
+
+  private native NodeInfo[] getOverridableInitializerInfo(
+      long apiHandle, long nativeHandle, long allocatorHandle) throws OrtException;
+
   private native long getNumOutputs(long apiHandle, long nativeHandle) throws OrtException;
 
   private native String[] getOutputNames(long apiHandle, long nativeHandle, long allocatorHandle)
@@ -413,6 +1126,33 @@ public class OrtSession implements AutoCloseable {
       long runOptionsHandle)
       throws OrtException;
 
+  /**
+   * The native run call which writes into caller supplied outputs. runOptionsHandle can be zero
+   * (i.e. the null pointer), but all other handles must be valid pointers.
+   *
+   * @param apiHandle The pointer to the api.
+   * @param nativeHandle The pointer to the session.
+   * @param inputNamesArray The input names.
+   * @param inputs The input tensors.
+   * @param numInputs The number of inputs.
+   * @param outputNamesArray The requested output names.
+   * @param outputs The output tensors to write into.
+   * @param numOutputs The number of requested outputs.
+   * @param runOptionsHandle The (possibly null) pointer to the run options.
+   * @throws OrtException If the native call failed in some way.
+   */
+  private native void runInto(
+      long apiHandle,
+      long nativeHandle,
+      String[] inputNamesArray,
+      long[] inputs,
+      long numInputs,
+      String[] outputNamesArray,
+      long[] outputs,
+      long numOutputs,
+      long runOptionsHandle)
+      throws OrtException;
+
   private native String endProfiling(long apiHandle, long nativeHandle, long allocatorHandle)
       throws OrtException;
 
@@ -574,6 +1314,51 @@ public class OrtSession implements AutoCloseable {
       setIntraOpNumThreads(OnnxRuntime.ortApiHandle, nativeHandle, numThreads);
     }
 
+    /**
+     * Makes sessions created with these options use the environment's global thread pools instead
+     * of creating their own. The environment must have been created with {@link
+     * OrtEnvironment#getEnvironment(OrtLoggingLevel, String, OrtEnvironment.ThreadingOptions)},
+     * and the inter and intra op thread counts set on these options are ignored.
+     *
+     * @throws OrtException If there was an error in native code.
+     */
+    public void disablePerSessionThreads() throws OrtException {
+      checkClosed();
+      disablePerSessionThreads(OnnxRuntime.ortApiHandle, nativeHandle);
+    }
+
+    /**
+     * Fixes the value of the free dimensions with the supplied denotation (e.g. "DATA_BATCH"), so
+     * the session can plan memory and select kernels for a concrete shape. Inputs must then have
+     * that value in those dimensions.
+     *
+     * @param dimensionDenotation The dimension denotation.
+     * @param dimensionValue The value to fix the dimensions to.
+     * @throws OrtException If there was an error in native code.
+     */
+    public void addFreeDimensionOverride(String dimensionDenotation, long dimensionValue)
+        throws OrtException {
+      checkClosed();
+      addFreeDimensionOverride(
+          OnnxRuntime.ortApiHandle, nativeHandle, dimensionDenotation, dimensionValue);
+    }
+
+    /**
+     * Fixes the value of the free dimensions with the supplied symbolic name, so the session can
+     * plan memory and select kernels for a concrete shape. Inputs must then have that value in
+     * those dimensions.
+     *
+     * @param dimensionName The symbolic dimension name.
+     * @param dimensionValue The value to fix the dimensions to.
+     * @throws OrtException If there was an error in native code.
+     */
+    public void addFreeDimensionOverrideByName(String dimensionName, long dimensionValue)
+        throws OrtException {
+      checkClosed();
+      addFreeDimensionOverrideByName(
+          OnnxRuntime.ortApiHandle, nativeHandle, dimensionName, dimensionValue);
+    }
+
     /**
      * Sets the output path for the optimized model.
      *
@@ -812,6 +1597,17 @@ public class OrtSession implements AutoCloseable {
     private native void setIntraOpNumThreads(long apiHandle, long nativeHandle, int numThreads)
         throws OrtException;
 
+    private native void disablePerSessionThreads(long apiHandle, long nativeHandle)
+        throws OrtException;
+
+    private native void addFreeDimensionOverride(
+        long apiHandle, long nativeHandle, String dimensionDenotation, long dimensionValue)
+        throws OrtException;
+
+    private native void addFreeDimensionOverrideByName(
+        long apiHandle, long nativeHandle, String dimensionName, long dimensionValue)
+        throws OrtException;
+
     private native void setOptimizationModelFilePath(
         long apiHandle, long nativeHandle, String modelPath) throws OrtException;
 
@@ -980,6 +1776,27 @@ public class OrtSession implements AutoCloseable {
       setTerminate(OnnxRuntime.ortApiHandle, nativeHandle, terminate);
     }
 
+    /**
+     * Creates a new RunOptions with the same run tag and logging levels as this one. The terminate
+     * flag is not copied.
+     *
+     * @return A new RunOptions, which the caller must close.
+     * @throws OrtException If the construction of the native RunOptions failed.
+     */
+    RunOptions copy() throws OrtException {
+      checkClosed();
+      RunOptions copy = new RunOptions();
+      try {
+        copy.setLogLevel(getLogLevel());
+        copy.setLogVerbosityLevel(getLogVerbosityLevel());
+        copy.setRunTag(getRunTag());
+      } catch (OrtException | RuntimeException e) {
+        copy.close();
+        throw e;
+      }
+      return copy;
+    }
+
     /** Checks if the RunOptions is closed, if so throws {@link IllegalStateException}. */
     private void checkClosed() {
       if (closed) {
@@ -1020,6 +1837,371 @@ public class OrtSession implements AutoCloseable {
     private static native void close(long apiHandle, long nativeHandle);
   }
 
+  /**
+   * A run submitted by {@link OrtSession#runAsync}, which terminates the native run when it is
+   * cancelled.
+   */
+  private static final class AsyncRun extends CompletableFuture<Result> implements Runnable {
+    private static final Logger logger = Logger.getLogger(AsyncRun.class.getName());
+
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    private final OrtSession session;
+    private final Map<String, OnnxTensor> inputs;
+    private final Set<String> requestedOutputs;
+    private final RunOptions suppliedRunOptions;
+    private final long submitTime;
+
+    private RunOptions runOptions;
+    private int state = QUEUED;
+
+    AsyncRun(
+        OrtSession session,
+        Map<String, OnnxTensor> inputs,
+        Set<String> requestedOutputs,
+        RunOptions runOptions) {
+      this.session = session;
+      this.inputs = inputs;
+      this.requestedOutputs = requestedOutputs;
+      this.suppliedRunOptions = runOptions;
+      this.submitTime = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+      long startTime = System.nanoTime();
+      try {
+        synchronized (this) {
+          if (isDone()) {
+            state = DONE;
+            return;
+          }
+          // A private copy, so cancellation terminates only this run.
+          runOptions = suppliedRunOptions == null ? new RunOptions() : suppliedRunOptions.copy();
+          if (!session.beginAsyncRun()) {
+            completeExceptionally(
+                new IllegalStateException("Trying to score a closed OrtSession."));
+            return;
+          }
+          state = RUNNING;
+        }
+        Result result;
+        try {
+          result = session.run(inputs, requestedOutputs, runOptions);
+        } finally {
+          session.endAsyncRun();
+        }
+        result.setTimings(startTime - submitTime, System.nanoTime() - startTime);
+        if (!complete(result)) {
+          // Cancelled while running, nothing else can reach the result.
+          result.close();
+        }
+      } catch (OrtException | RuntimeException e) {
+        completeExceptionally(e);
+      } finally {
+        synchronized (this) {
+          state = DONE;
+          if (runOptions != null) {
+            runOptions.close();
+          }
+          runOptions = null;
+        }
+      }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      if (cancelled) {
+        synchronized (this) {
+          if (state == RUNNING) {
+            try {
+              runOptions.setTerminate(true);
+            } catch (OrtException e) {
+              logger.log(Level.WARNING, "Failed to terminate a cancelled run", e);
+            }
+          }
+        }
+      }
+      return cancelled;
+    }
+  }
+
+  /**
+   * A run over a fixed set of inputs and outputs, produced by {@link OrtSession#prepare}.
+   *
+   * <p>Holds the native copies of the input and output names for its whole lifetime, so each call
+   * to {@link #run} only passes the tensor pointers across to native code. The inputs are supplied
+   * positionally in the order given to {@link OrtSession#prepare}.
+   *
+   * <p>A PreparedRun may be run from multiple threads concurrently, but {@link #close} must not be
+   * called while a call to {@link #run} or {@link #runInto} is executing, as it releases the native
+   * names those calls use. A PreparedRun must be closed before the session which produced it.
+   */
+  public static class PreparedRun implements AutoCloseable {
+
+    private final OrtSession session;
+
+    private final long nativeHandle;
+
+    private final String[] inputNames;
+
+    private final String[] outputNames;
+
+    /**
+     * Handle arrays reused across runs, a run takes them and puts them back when it finishes so
+     * concurrent runs allocate their own.
+     */
+    private final AtomicReference<long[]> inputHandleCache = new AtomicReference<>();
+
+    private final AtomicReference<long[]> outputHandleCache = new AtomicReference<>();
+
+    private volatile boolean closed = false;
+
+    /**
+     * Creates the native name arrays for this run.
+     *
+     * @param session The session to score with.
+     * @param inputNames The validated input names.
+     * @param outputNames The validated output names.
+     * @throws OrtException If the native name arrays could not be allocated.
+     */
+    private PreparedRun(OrtSession session, String[] inputNames, String[] outputNames)
+        throws OrtException {
+      this.session = session;
+      this.inputNames = inputNames;
+      this.outputNames = outputNames;
+      this.nativeHandle = createPreparedRun(inputNames, outputNames);
+    }
+
+    /**
+     * Returns the input names in the order the tensors must be supplied.
+     *
+     * @return The input names.
+     */
+    public List<String> getInputNames() {
+      return Collections.unmodifiableList(Arrays.asList(inputNames));
+    }
+
+    /**
+     * Returns the output names in the order they are produced.
+     *
+     * @return The output names.
+     */
+    public List<String> getOutputNames() {
+      return Collections.unmodifiableList(Arrays.asList(outputNames));
+    }
+
+    /**
+     * Scores the supplied inputs, which must be in the same order as the prepared input names.
+     *
+     * @param inputs The input tensors.
+     * @return The inferred outputs.
+     * @throws OrtException If there was an error in native code, or the wrong number of inputs was
+     *     supplied.
+     */
+    public Result run(OnnxTensor... inputs) throws OrtException {
+      return run(null, inputs);
+    }
+
+    /**
+     * Scores the supplied inputs, which must be in the same order as the prepared input names.
+     *
+     * @param runOptions The RunOptions to control this run, may be null.
+     * @param inputs The input tensors.
+     * @return The inferred outputs.
+     * @throws OrtException If there was an error in native code, or the wrong number of inputs was
+     *     supplied.
+     */
+    public Result run(RunOptions runOptions, OnnxTensor... inputs) throws OrtException {
+      checkClosed();
+      if (inputs.length != inputNames.length) {
+        throw new OrtException(
+            "Unexpected number of inputs, expected "
+                + inputNames.length
+                + " found "
+                + inputs.length);
+      }
+      long[] inputHandles = takeHandles(inputHandleCache, inputs);
+      long runOptionsHandle = runOptions == null ? 0 : runOptions.nativeHandle;
+      OnnxValue[] outputValues;
+      try {
+        outputValues =
+            run(
+                OnnxRuntime.ortApiHandle,
+                session.nativeHandle,
+                session.allocator.handle,
+                nativeHandle,
+                inputHandles,
+                runOptionsHandle);
+      } finally {
+        inputHandleCache.set(inputHandles);
+      }
+      return new Result(outputNames, outputValues);
+    }
+
+    /**
+     * Scores the supplied inputs, writing the outputs into the supplied output tensors.
+     *
+     * <p>The inputs must be in the same order as the prepared input names, and the outputs in the
+     * same order as the prepared output names. The output tensors are owned by the caller and must
+     * have the type and shape the model produces, the native runtime writes directly into them.
+     *
+     * @param outputs The output tensors to write into.
+     * @param inputs The input tensors.
+     * @throws OrtException If there was an error in native code, the wrong number of inputs or
+     *     outputs was supplied, or an output tensor has the wrong type or shape.
+     */
+    public void runInto(OnnxTensor[] outputs, OnnxTensor... inputs) throws OrtException {
+      runInto(null, outputs, inputs);
+    }
+
+    /**
+     * Scores the supplied inputs, writing the outputs into the supplied output tensors.
+     *
+     * <p>The inputs must be in the same order as the prepared input names, and the outputs in the
+     * same order as the prepared output names. The output tensors are owned by the caller and must
+     * have the type and shape the model produces, the native runtime writes directly into them.
+     *
+     * @param runOptions The RunOptions to control this run, may be null.
+     * @param outputs The output tensors to write into.
+     * @param inputs The input tensors.
+     * @throws OrtException If there was an error in native code, the wrong number of inputs or
+     *     outputs was supplied, or an output tensor has the wrong type or shape.
+     */
+    public void runInto(RunOptions runOptions, OnnxTensor[] outputs, OnnxTensor... inputs)
+        throws OrtException {
+      checkClosed();
+      if (inputs.length != inputNames.length) {
+        throw new OrtException(
+            "Unexpected number of inputs, expected "
+                + inputNames.length
+                + " found "
+                + inputs.length);
+      }
+      if (outputs.length != outputNames.length) {
+        throw new OrtException(
+            "Unexpected number of outputs, expected "
+                + outputNames.length
+                + " found "
+                + outputs.length);
+      }
+      long[] inputHandles = takeHandles(inputHandleCache, inputs);
+      long[] outputHandles = takeHandles(outputHandleCache, outputs);
+      long runOptionsHandle = runOptions == null ? 0 : runOptions.nativeHandle;
+      try {
+        runInto(
+            OnnxRuntime.ortApiHandle,
+            session.nativeHandle,
+            nativeHandle,
+            inputHandles,
+            outputHandles,
+            runOptionsHandle);
+      } finally {
+        inputHandleCache.set(inputHandles);
+        outputHandleCache.set(outputHandles);
+      }
+    }
+
+    /**
+     * Takes the cached handle array, or allocates one if another run holds it, and fills it with
+     * the tensor handles.
+     *
+     * @param cache The handle array cache.
+     * @param tensors The tensors.
+     * @return The handle array.
+     */
+    private static long[] takeHandles(AtomicReference<long[]> cache, OnnxTensor[] tensors) {
+      long[] handles = cache.getAndSet(null);
+      if (handles == null) {
+        handles = new long[tensors.length];
+      }
+      for (int i = 0; i < tensors.length; i++) {
+        handles[i] = tensors[i].getNativeHandle();
+      }
+      return handles;
+    }
+
+    /** Checks if this run or its session is closed, if so throws {@link IllegalStateException}. */
+    private void checkClosed() {
+      if (closed) {
+        throw new IllegalStateException("Trying to use a closed PreparedRun");
+      } else if (session.closed) {
+        throw new IllegalStateException("Trying to score a closed OrtSession.");
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "PreparedRun(inputNames="
+          + Arrays.toString(inputNames)
+          + ",outputNames="
+          + Arrays.toString(outputNames)
+          + ")";
+    }
+
+    /** Closes the prepared run, releasing the native name arrays. */
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        close(nativeHandle);
+      } else {
+        throw new IllegalStateException("Trying to close an already closed PreparedRun");
+      }
+    }
+
+    private static native long createPreparedRun(String[] inputNames, String[] outputNames)
+        throws OrtException;
+
+    /**
+     * The native run call. runOptionsHandle can be zero (i.e. the null pointer), but all other
+     * handles must be valid pointers.
+     *
+     * @param apiHandle The pointer to the api.
+     * @param sessionHandle The pointer to the session.
+     * @param allocatorHandle The pointer to the allocator.
+     * @param nativeHandle The pointer to the prepared name arrays.
+     * @param inputs The input tensors, in the prepared order.
+     * @param runOptionsHandle The (possibly null) pointer to the run options.
+     * @return The OnnxValues produced by this run.
+     * @throws OrtException If the native call failed in some way.
+     */
+    private static native OnnxValue[] run(
+        long apiHandle,
+        long sessionHandle,
+        long allocatorHandle,
+        long nativeHandle,
+        long[] inputs,
+        long runOptionsHandle)
+        throws OrtException;
+
+    /**
+     * The native run call which writes into caller supplied outputs. runOptionsHandle can be zero
+     * (i.e. the null pointer), but all other handles must be valid pointers.
+     *
+     * @param apiHandle The pointer to the api.
+     * @param sessionHandle The pointer to the session.
+     * @param nativeHandle The pointer to the prepared name arrays.
+     * @param inputs The input tensors, in the prepared order.
+     * @param outputs The output tensors, in the prepared order.
+     * @param runOptionsHandle The (possibly null) pointer to the run options.
+     * @throws OrtException If the native call failed in some way.
+     */
+    private static native void runInto(
+        long apiHandle,
+        long sessionHandle,
+        long nativeHandle,
+        long[] inputs,
+        long[] outputs,
+        long runOptionsHandle)
+        throws OrtException;
+
+    private static native void close(long nativeHandle);
+  }
+
   /**
    * An {@link AutoCloseable} wrapper around a {@link Map} containing {@link OnnxValue}s.
    *
@@ -1035,6 +2217,10 @@ public class OrtSession implements AutoCloseable {
 
     private final List<OnnxValue> list;
 
+    private long queueWaitNanos = -1;
+
+    private long executionNanos = -1;
+
     private boolean closed;
 
     /**
@@ -1074,6 +2260,39 @@ public class OrtSession implements AutoCloseable {
       }
     }
 
+    /**
+     * Records the timings of an asynchronous run.
+     *
+     * @param queueWaitNanos The time spent waiting for an executor thread.
+     * @param executionNanos The time spent scoring.
+     */
+    void setTimings(long queueWaitNanos, long executionNanos) {
+      this.queueWaitNanos = queueWaitNanos;
+      this.executionNanos = executionNanos;
+    }
+
+    /**
+     * Returns the time in nanoseconds this run spent waiting in the executor queue, if it was
+     * produced by {@link OrtSession#runAsync}.
+     *
+     * @return The queue wait time in nanoseconds, or -1 if this is not the result of an
+     *     asynchronous run.
+     */
+    public long getQueueWaitNanos() {
+      return queueWaitNanos;
+    }
+
+    /**
+     * Returns the time in nanoseconds this run spent executing, if it was produced by {@link
+     * OrtSession#runAsync}.
+     *
+     * @return The execution time in nanoseconds, or -1 if this is not the result of an
+     *     asynchronous run.
+     */
+    public long getExecutionNanos() {
+      return executionNanos;
+    }
+
     @Override
     public Iterator<Map.Entry<String, OnnxValue>> iterator() {
       if (!closed) {
@@ -5,12 +5,17 @@
 package ai.onnxruntime;
 
 import java.lang.reflect.Array;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 
 /** Util code for interacting with Java arrays. */
 public final class OrtUtil {
 
+  /** The number of elements converted per chunk in the bulk 16-bit float conversions. */
+  private static final int CONVERSION_CHUNK = 1024;
+
   /** Private constructor for static util class. */
   private OrtUtil() {}
 
@@ -394,4 +399,185 @@ public final class OrtUtil {
     Array.set(array, 0, data);
     return array;
   }
+
+  /**
+   * Converts an IEEE half precision float into a float, including subnormals, infinities and NaNs.
+   *
+   * @param input A uint16_t representing an IEEE half precision float.
+   * @return A float.
+   */
+  public static float fp16ToFloat(short input) {
+    return Fp16Table.TABLE[input & 0xFFFF];
+  }
+
+  /**
+   * Converts a float into the nearest IEEE half precision float, rounding to nearest even. Values
+   * too large for half precision become infinity.
+   *
+   * @param input A float.
+   * @return A uint16_t representing an IEEE half precision float.
+   */
+  public static short floatToFp16(float input) {
+    int bits = Float.floatToRawIntBits(input);
+    int sign = (bits >>> 16) & 0x8000;
+    int abs = bits & 0x7FFFFFFF;
+    if (abs > 0x7F800000) {
+      // NaN, keep it quiet and preserve the top of the payload.
+      return (short) (sign | 0x7E00 | ((abs >>> 13) & 0x3FF));
+    } else if (abs >= 0x47800000) {
+      // Infinity, or too large for half precision.
+      return (short) (sign | 0x7C00);
+    } else if (abs < 0x38800000) {
+      // Subnormal in half precision, or rounds to zero.
+      if (abs < 0x33000000) {
+        return (short) sign;
+      }
+      int shift = 126 - (abs >>> 23);
+      int mantissa = (abs & 0x7FFFFF) | 0x800000;
+      int half = mantissa >>> shift;
+      int remainder = mantissa & ((1 << shift) - 1);
+      int halfway = 1 << (shift - 1);
+      if ((remainder > halfway) || ((remainder == halfway) && ((half & 1) != 0))) {
+        half++;
+      }
+      return (short) (sign | half);
+    } else {
+      // Normal, a carry out of the mantissa when rounding correctly bumps the exponent.
+      int half = (abs >>> 13) - (112 << 10);
+      int remainder = abs & 0x1FFF;
+      if ((remainder > 0x1000) || ((remainder == 0x1000) && ((half & 1) != 0))) {
+        half++;
+      }
+      return (short) (sign | half);
+    }
+  }
+
+  /**
+   * Converts a bfloat16 into a float.
+   *
+   * @param input A uint16_t representing a bfloat16.
+   * @return A float.
+   */
+  public static float bf16ToFloat(short input) {
+    return Float.intBitsToFloat((input & 0xFFFF) << 16);
+  }
+
+  /**
+   * Converts a float into the nearest bfloat16, rounding to nearest even.
+   *
+   * @param input A float.
+   * @return A uint16_t representing a bfloat16.
+   */
+  public static short floatToBf16(float input) {
+    int bits = Float.floatToRawIntBits(input);
+    if ((bits & 0x7FFFFFFF) > 0x7F800000) {
+      // NaN, keep it quiet.
+      return (short) ((bits >>> 16) | 0x40);
+    }
+    int rounding = 0x7FFF + ((bits >>> 16) & 1);
+    return (short) ((bits + rounding) >>> 16);
+  }
+
+  /**
+   * Converts the remaining IEEE half precision floats in {@code src} into floats in {@code dst},
+   * advancing both buffers. The conversion is done a chunk at a time using a lookup table.
+   *
+   * @param src The half precision values.
+   * @param dst The output buffer, must have at least as many elements remaining as {@code src}.
+   */
+  public static void convertFp16ToFloat(ShortBuffer src, FloatBuffer dst) {
+    float[] table = Fp16Table.TABLE;
+    short[] in = new short[Math.min(CONVERSION_CHUNK, src.remaining())];
+    float[] out = new float[in.length];
+    while (src.hasRemaining()) {
+      int length = Math.min(in.length, src.remaining());
+      src.get(in, 0, length);
+      for (int i = 0; i < length; i++) {
+        out[i] = table[in[i] & 0xFFFF];
+      }
+      dst.put(out, 0, length);
+    }
+  }
+
+  /**
+   * Converts the remaining floats in {@code src} into IEEE half precision floats in {@code dst},
+   * advancing both buffers.
+   *
+   * @param src The float values.
+   * @param dst The output buffer, must have at least as many elements remaining as {@code src}.
+   */
+  public static void convertFloatToFp16(FloatBuffer src, ShortBuffer dst) {
+    float[] in = new float[Math.min(CONVERSION_CHUNK, src.remaining())];
+    short[] out = new short[in.length];
+    while (src.hasRemaining()) {
+      int length = Math.min(in.length, src.remaining());
+      src.get(in, 0, length);
+      for (int i = 0; i < length; i++) {
+        out[i] = floatToFp16(in[i]);
+      }
+      dst.put(out, 0, length);
+    }
+  }
+
+  /**
+   * Converts the remaining bfloat16 values in {@code src} into floats in {@code dst}, advancing
+   * both buffers.
+   *
+   * @param src The bfloat16 values.
+   * @param dst The output buffer, must have at least as many elements remaining as {@code src}.
+   */
+  public static void convertBf16ToFloat(ShortBuffer src, FloatBuffer dst) {
+    short[] in = new short[Math.min(CONVERSION_CHUNK, src.remaining())];
+    float[] out = new float[in.length];
+    while (src.hasRemaining()) {
+      int length = Math.min(in.length, src.remaining());
+      src.get(in, 0, length);
+      for (int i = 0; i < length; i++) {
+        out[i] = Float.intBitsToFloat((in[i] & 0xFFFF) << 16);
+      }
+      dst.put(out, 0, length);
+    }
+  }
+
+  /**
+   * Converts the remaining floats in {@code src} into bfloat16 values in {@code dst}, advancing
+   * both buffers.
+   *
+   * @param src The float values.
+   * @param dst The output buffer, must have at least as many elements remaining as {@code src}.
+   */
+  public static void convertFloatToBf16(FloatBuffer src, ShortBuffer dst) {
+    float[] in = new float[Math.min(CONVERSION_CHUNK, src.remaining())];
+    short[] out = new short[in.length];
+    while (src.hasRemaining()) {
+      int length = Math.min(in.length, src.remaining());
+      src.get(in, 0, length);
+      for (int i = 0; i < length; i++) {
+        out[i] = floatToBf16(in[i]);
+      }
+      dst.put(out, 0, length);
+    }
+  }
+
+  /** Lazily built lookup table from every half precision bit pattern to the equivalent float. */
+  private static final class Fp16Table {
+    static final float[] TABLE = new float[65536];
+
+    static {
+      for (int i = 0; i < TABLE.length; i++) {
+        int sign = (i & 0x8000) << 16;
+        int exponent = (i >>> 10) & 0x1F;
+        int mantissa = i & 0x3FF;
+        if (exponent == 0) {
+          // Zero or subnormal, mantissa * 2^-24 is exact in single precision.
+          float value = mantissa * 0x1.0p-24f;
+          TABLE[i] = sign != 0 ? -value : value;
+        } else if (exponent == 0x1F) {
+          TABLE[i] = Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+        } else {
+          TABLE[i] = Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+        }
+      }
+    }
+  }
 }
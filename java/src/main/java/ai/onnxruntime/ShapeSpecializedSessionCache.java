@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * Licensed under the MIT License.
+ */
+package ai.onnxruntime;
+
+import ai.onnxruntime.OrtSession.Result;
+import ai.onnxruntime.OrtSession.SessionOptions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Routes runs of a model with free dimensions to sessions specialized for the concrete values of
+ * those dimensions, so each session can plan its memory and select kernels for a fixed shape.
+ *
+ * <p>The free dimensions to specialize are registered with {@link #addDimension} by their symbolic
+ * name, along with an input and axis to read the value from. Each run looks up the session built
+ * with {@link SessionOptions#addFreeDimensionOverrideByName} for the values found in its inputs,
+ * creating it on the first run with those values. Once the cache holds the maximum number of
+ * specialized sessions, runs with new values use a single session without overrides.
+ *
+ * <p>The cache is thread safe, and closing it closes all the sessions and their options.
+ */
+public class ShapeSpecializedSessionCache implements AutoCloseable {
+
+  private static final Logger logger =
+      Logger.getLogger(ShapeSpecializedSessionCache.class.getName());
+
+  /** Creates the session options for each session. */
+  @FunctionalInterface
+  public interface OptionsFactory {
+    /**
+     * Creates a new session options, the cache takes ownership of it.
+     *
+     * @return The session options.
+     * @throws OrtException If the options could not be created.
+     */
+    SessionOptions create() throws OrtException;
+  }
+
+  private final OrtEnvironment env;
+
+  private final String modelPath;
+
+  private final OptionsFactory optionsFactory;
+
+  private final int maxSessions;
+
+  private final List<String> dimensionNames = new ArrayList<>();
+
+  private final List<String> dimensionInputs = new ArrayList<>();
+
+  private final List<Integer> dimensionAxes = new ArrayList<>();
+
+  private final ConcurrentHashMap<Bucket, OrtSession> sessions = new ConcurrentHashMap<>();
+
+  private final List<SessionOptions> options = new ArrayList<>();
+
+  private volatile OrtSession genericSession;
+
+  private volatile boolean started = false;
+
+  private volatile boolean closed = false;
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param env The environment used to create sessions.
+   * @param modelPath The path to the model.
+   * @param optionsFactory Creates the options for each session, before the overrides are added.
+   * @param maxSessions The maximum number of specialized sessions.
+   */
+  public ShapeSpecializedSessionCache(
+      OrtEnvironment env, String modelPath, OptionsFactory optionsFactory, int maxSessions) {
+    if (maxSessions < 0) {
+      throw new IllegalArgumentException("maxSessions must be non-negative, found " + maxSessions);
+    }
+    this.env = env;
+    this.modelPath = modelPath;
+    this.optionsFactory = optionsFactory;
+    this.maxSessions = maxSessions;
+  }
+
+  /**
+   * Specializes the sessions on a free dimension. Must be called before the first run.
+   *
+   * @param dimensionName The symbolic name of the dimension in the model.
+   * @param inputName The input to read the dimension value from.
+   * @param axis The axis of the input which has the dimension.
+   */
+  public synchronized void addDimension(String dimensionName, String inputName, int axis) {
+    checkClosed();
+    if (started) {
+      throw new IllegalStateException("Dimensions must be added before the first run");
+    }
+    if (axis < 0) {
+      throw new IllegalArgumentException("axis must be non-negative, found " + axis);
+    }
+    dimensionNames.add(dimensionName);
+    dimensionInputs.add(inputName);
+    dimensionAxes.add(axis);
+  }
+
+  /**
+   * Scores the inputs with the session specialized for their free dimension values.
+   *
+   * @param inputs The inputs to score.
+   * @return The inferred outputs.
+   * @throws OrtException If an input needed to find the dimension values is missing, a session
+   *     could not be created, or there was an error in native code.
+   */
+  public Result run(Map<String, OnnxTensor> inputs) throws OrtException {
+    return getSession(inputs).run(inputs);
+  }
+
+  /**
+   * Scores the inputs with the session specialized for their free dimension values, returning only
+   * the requested outputs.
+   *
+   * @param inputs The inputs to score.
+   * @param requestedOutputs The requested outputs.
+   * @return The inferred outputs.
+   * @throws OrtException If an input needed to find the dimension values is missing, a session
+   *     could not be created, or there was an error in native code.
+   */
+  public Result run(Map<String, OnnxTensor> inputs, Set<String> requestedOutputs)
+      throws OrtException {
+    return getSession(inputs).run(inputs, requestedOutputs);
+  }
+
+  /**
+   * Gets the session for the free dimension values in the supplied inputs, creating it if
+   * necessary.
+   *
+   * @param inputs The inputs.
+   * @return The specialized session, or the generic session if the cache is full.
+   * @throws OrtException If an input is missing, or the session could not be created.
+   */
+  public OrtSession getSession(Map<String, OnnxTensor> inputs) throws OrtException {
+    checkClosed();
+    if (!started) {
+      // Taking the lock publishes the dimensions added before the first run.
+      synchronized (this) {
+        started = true;
+      }
+    }
+    long[] values = new long[dimensionNames.size()];
+    for (int i = 0; i < values.length; i++) {
+      OnnxTensor tensor = inputs.get(dimensionInputs.get(i));
+      if (tensor == null) {
+        throw new OrtException(
+            "Missing input "
+                + dimensionInputs.get(i)
+                + " for free dimension "
+                + dimensionNames.get(i));
+      }
+      long[] shape = tensor.getInfo().shape;
+      int axis = dimensionAxes.get(i);
+      if (axis >= shape.length) {
+        throw new OrtException(
+            "Input "
+                + dimensionInputs.get(i)
+                + " has rank "
+                + shape.length
+                + ", expected free dimension "
+                + dimensionNames.get(i)
+                + " at axis "
+                + axis);
+      }
+      values[i] = shape[axis];
+    }
+    Bucket bucket = new Bucket(values);
+    OrtSession session = sessions.get(bucket);
+    return session != null ? session : createSession(bucket);
+  }
+
+  /**
+   * Creates the session for the bucket, or returns the generic session if the cache is full.
+   *
+   * @param bucket The free dimension values.
+   * @return The session.
+   * @throws OrtException If the session could not be created.
+   */
+  private synchronized OrtSession createSession(Bucket bucket) throws OrtException {
+    checkClosed();
+    OrtSession session = sessions.get(bucket);
+    if (session != null) {
+      return session;
+    }
+    if (sessions.size() >= maxSessions) {
+      if (genericSession == null) {
+        genericSession = env.createSession(modelPath, newOptions());
+      }
+      return genericSession;
+    }
+    SessionOptions opts = newOptions();
+    for (int i = 0; i < bucket.values.length; i++) {
+      opts.addFreeDimensionOverrideByName(dimensionNames.get(i), bucket.values[i]);
+    }
+    session = env.createSession(modelPath, opts);
+    if (logger.isLoggable(Level.FINE)) {
+      logger.fine(
+          "Created a session for " + dimensionNames + " = " + Arrays.toString(bucket.values));
+    }
+    sessions.put(bucket, session);
+    return session;
+  }
+
+  private SessionOptions newOptions() throws OrtException {
+    SessionOptions opts = optionsFactory.create();
+    options.add(opts);
+    return opts;
+  }
+
+  /**
+   * Gets the number of specialized sessions.
+   *
+   * @return The number of specialized sessions.
+   */
+  public int getNumSessions() {
+    return sessions.size();
+  }
+
+  /** Checks if the cache is closed, if so throws {@link IllegalStateException}. */
+  private void checkClosed() {
+    if (closed) {
+      throw new IllegalStateException("Trying to use a closed ShapeSpecializedSessionCache");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ShapeSpecializedSessionCache(modelPath="
+        + modelPath
+        + ",dimensions="
+        + dimensionNames
+        + ",sessions="
+        + sessions.size()
+        + ",maxSessions="
+        + maxSessions
+        + ")";
+  }
+
+  /**
+   * Closes all the sessions and their options.
+   *
+   * @throws OrtException If a session failed to close.
+   */
+  @Override
+  public synchronized void close() throws OrtException {
+    if (!closed) {
+      closed = true;
+      try {
+        for (OrtSession session : sessions.values()) {
+          session.close();
+        }
+        if (genericSession != null) {
+          genericSession.close();
+        }
+      } finally {
+        sessions.clear();
+        genericSession = null;
+        for (SessionOptions opts : options) {
+          opts.close();
+        }
+        options.clear();
+      }
+    } else {
+      throw new IllegalStateException(
+          "Trying to close an already closed ShapeSpecializedSessionCache");
+    }
+  }
+
+  /** The free dimension values of a specialized session. */
+  private static final class Bucket {
+    final long[] values;
+    final int hash;
+
+    Bucket(long[] values) {
+      this.values = values;
+      this.hash = Arrays.hashCode(values);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      } else if (!(o instanceof Bucket)) {
+        return false;
+      }
+      return Arrays.equals(values, ((Bucket) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
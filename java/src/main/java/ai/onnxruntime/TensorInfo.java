@@ -6,6 +6,7 @@ package ai.onnxruntime;
 
 import java.lang.reflect.Array;
 import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /** Describes an {@link OnnxTensor}, including it's size, shape and element type. */
@@ -99,6 +100,9 @@ public class TensorInfo implements ValueInfo {
 
   final long[] shape;
 
+  /** The symbolic name of each dimension, or the empty string if it has none. */
+  final String[] dimensionNames;
+
   /** The Java type of this tensor. */
   public final OnnxJavaType type;
 
@@ -113,9 +117,30 @@ public class TensorInfo implements ValueInfo {
    * @param onnxType The native type.
    */
   TensorInfo(long[] shape, OnnxJavaType type, OnnxTensorType onnxType) {
+    this(shape, type, onnxType, null);
+  }
+
+  /**
+   * Constructs a TensorInfo with the specified shape, symbolic dimension names, Java type and
+   * native type.
+   *
+   * @param shape The tensor shape.
+   * @param type The Java type.
+   * @param onnxType The native type.
+   * @param dimensionNames The symbolic dimension names, empty for dimensions without one, or null
+   *     if no dimension has one.
+   */
+  TensorInfo(long[] shape, OnnxJavaType type, OnnxTensorType onnxType, String[] dimensionNames) {
     this.shape = shape;
     this.type = type;
     this.onnxType = onnxType;
+    this.dimensionNames = dimensionNames != null ? dimensionNames : unnamedDimensions(shape.length);
+  }
+
+  private static String[] unnamedDimensions(int numDimensions) {
+    String[] names = new String[numDimensions];
+    Arrays.fill(names, "");
+    return names;
   }
 
   /**
@@ -127,6 +152,17 @@ public class TensorInfo implements ValueInfo {
     return Arrays.copyOf(shape, shape.length);
   }
 
+  /**
+   * Get a copy of the symbolic names of the tensor's dimensions, as declared in the model (e.g.
+   * "batch"). A dimension without a symbolic name has the empty string. Free dimensions which
+   * share a name in a model's inputs and outputs always have the same size in a run.
+   *
+   * @return A copy of the dimension names.
+   */
+  public String[] getDimensionNames() {
+    return Arrays.copyOf(dimensionNames, dimensionNames.length);
+  }
+
   @Override
   public String toString() {
     return "TensorInfo(javaType="
@@ -135,9 +171,19 @@ public class TensorInfo implements ValueInfo {
         + onnxType.toString()
         + ",shape="
         + Arrays.toString(shape)
+        + (hasDimensionNames() ? ",dimensionNames=" + Arrays.toString(dimensionNames) : "")
         + ")";
   }
 
+  private boolean hasDimensionNames() {
+    for (String name : dimensionNames) {
+      if (!name.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Returns true if the shape represents a scalar value (i.e. it has zero dimensions).
    *
@@ -194,6 +240,65 @@ public class TensorInfo implements ValueInfo {
     }
   }
 
+  /**
+   * Checks the supplied array has the type and shape of an array produced by {@link #makeCarrier},
+   * so it can be filled with this tensor's values. Unlike {@link #constructFromJavaArray} it does
+   * not allocate.
+   *
+   * @param carrier The array to check.
+   * @throws OrtException If this tensor can't be copied into the supplied array.
+   */
+  void validateCarrier(Object carrier) throws OrtException {
+    if ((type == OnnxJavaType.STRING) || (type == OnnxJavaType.UNKNOWN) || isScalar()) {
+      throw new OrtException(
+          "Cannot copy a "
+              + type
+              + " tensor of shape "
+              + Arrays.toString(shape)
+              + " into an array");
+    }
+    Class<?> baseClass = carrier.getClass();
+    int dimensions = 0;
+    while (baseClass.isArray()) {
+      baseClass = baseClass.getComponentType();
+      dimensions++;
+    }
+    if (!baseClass.isPrimitive()
+        || (OnnxJavaType.mapFromClass(baseClass) != type)
+        || (dimensions != shape.length)) {
+      throw new OrtException(
+          "Cannot copy a "
+              + type
+              + " tensor of shape "
+              + Arrays.toString(shape)
+              + " into a "
+              + carrier.getClass().getSimpleName());
+    }
+    validateCarrierShape(0, carrier);
+  }
+
+  private void validateCarrierShape(int curDim, Object obj) throws OrtException {
+    boolean leaf = curDim == shape.length - 1;
+    int curLength = leaf ? leafLength(obj, type) : ((Object[]) obj).length;
+    if (curLength != shape[curDim]) {
+      throw new OrtException(
+          "Supplied array has length "
+              + curLength
+              + " at dimension "
+              + curDim
+              + ", expected "
+              + shape[curDim]);
+    }
+    if (!leaf) {
+      for (Object child : (Object[]) obj) {
+        if (child == null) {
+          throw new OrtException("Supplied array has a null element at dimension " + curDim);
+        }
+        validateCarrierShape(curDim + 1, child);
+      }
+    }
+  }
+
   /**
    * Constructs a TensorInfo from the supplied multidimensional Java array, used to allocate the
    * appropriate amount of native memory.
@@ -226,10 +331,10 @@ public class TensorInfo implements ValueInfo {
     OnnxJavaType javaType = OnnxJavaType.mapFromClass(objClass);
 
     // Now we extract the shape and validate that the java array is rectangular (i.e. not ragged).
-    // this is pretty nasty as we have to look at every object array recursively.
-    // Thanks Java!
+    // We have to look at every object array, but as the array is known to be a nest of object
+    // arrays ending in a primitive array this is done with casts rather than reflection.
     long[] shape = new long[dimensions];
-    extractShape(shape, 0, obj);
+    extractShape(shape, 0, obj, javaType);
 
     return new TensorInfo(shape, javaType, OnnxTensorType.mapFromJavaType(javaType));
   }
@@ -252,6 +357,20 @@ public class TensorInfo implements ValueInfo {
     long elementCount = OrtUtil.elementCount(shape);
 
     long bufferCapacity = buffer.capacity();
+    if (buffer instanceof ByteBuffer) {
+      // Byte buffers may hold wider elements, so count them in units of the element size.
+      if (bufferCapacity % type.size != 0) {
+        throw new OrtException(
+            "Buffer of "
+                + bufferCapacity
+                + " bytes is not a whole number of "
+                + type
+                + " elements of "
+                + type.size
+                + " bytes.");
+      }
+      bufferCapacity /= type.size;
+    }
 
     if (elementCount != bufferCapacity) {
       throw new OrtException(
@@ -276,9 +395,11 @@ public class TensorInfo implements ValueInfo {
    * @param obj The multidimensional array to inspect.
    * @throws OrtException If the array has a zero dimension, or is ragged.
    */
-  private static void extractShape(long[] shape, int curDim, Object obj) throws OrtException {
+  private static void extractShape(long[] shape, int curDim, Object obj, OnnxJavaType type)
+      throws OrtException {
     if (shape.length != curDim) {
-      int curLength = Array.getLength(obj);
+      boolean leaf = curDim == shape.length - 1;
+      int curLength = leaf ? leafLength(obj, type) : ((Object[]) obj).length;
       if (curLength == 0) {
         throw new OrtException(
             "Supplied array has a zero dimension at "
@@ -290,9 +411,44 @@ public class TensorInfo implements ValueInfo {
         throw new OrtException(
             "Supplied array is ragged, expected " + shape[curDim] + ", found " + curLength);
       }
-      for (int i = 0; i < curLength; i++) {
-        extractShape(shape, curDim + 1, Array.get(obj, i));
+      if (!leaf) {
+        for (Object child : (Object[]) obj) {
+          if (child == null) {
+            throw new OrtException("Supplied array has a null element at dimension " + curDim);
+          }
+          extractShape(shape, curDim + 1, child, type);
+        }
       }
     }
   }
+
+  /**
+   * Returns the length of the innermost array of a multidimensional array.
+   *
+   * @param obj The innermost array.
+   * @param type The element type.
+   * @return The array length.
+   */
+  private static int leafLength(Object obj, OnnxJavaType type) {
+    switch (type) {
+      case FLOAT:
+        return ((float[]) obj).length;
+      case DOUBLE:
+        return ((double[]) obj).length;
+      case INT8:
+        return ((byte[]) obj).length;
+      case INT16:
+        return ((short[]) obj).length;
+      case INT32:
+        return ((int[]) obj).length;
+      case INT64:
+        return ((long[]) obj).length;
+      case BOOL:
+        return ((boolean[]) obj).length;
+      case STRING:
+        return ((String[]) obj).length;
+      default:
+        return Array.getLength(obj);
+    }
+  }
 }
@@ -4,17 +4,146 @@
  */
 #include <jni.h>
 #include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
 #include "OrtJniUtil.h"
 
+// The number of rows of a 2d Java array which are copied in one critical region.
+#define ROW_BATCH_SIZE 64
+
+OrtJniCache ortJniCache;
+
+/*
+ * Looks up a class and returns a global reference to it, or NULL if the class could not be found.
+ */
+static jclass cacheClass(JNIEnv *jniEnv, const char *className) {
+    jclass localClazz = (*jniEnv)->FindClass(jniEnv, className);
+    if (localClazz == NULL) {
+        return NULL;
+    }
+    jclass globalClazz = (jclass) (*jniEnv)->NewGlobalRef(jniEnv, localClazz);
+    (*jniEnv)->DeleteLocalRef(jniEnv, localClazz);
+    return globalClazz;
+}
+
+/*
+ * Populates ortJniCache, returns 0 if any class or method could not be found.
+ */
+static int populateCache(JNIEnv *jniEnv) {
+    OrtJniCache *c = &ortJniCache;
+    if ((c->objectClass = cacheClass(jniEnv, "java/lang/Object")) == NULL) return 0;
+    if ((c->stringClass = cacheClass(jniEnv, "java/lang/String")) == NULL) return 0;
+    if ((c->onnxValueClass = cacheClass(jniEnv, "ai/onnxruntime/OnnxValue")) == NULL) return 0;
+
+    if ((c->onnxTensorClass = cacheClass(jniEnv, "ai/onnxruntime/OnnxTensor")) == NULL) return 0;
+    c->onnxTensorConstructor = (*jniEnv)->GetMethodID(jniEnv, c->onnxTensorClass, "<init>", "(JJLai/onnxruntime/TensorInfo;)V");
+    if (c->onnxTensorConstructor == NULL) return 0;
+
+    if ((c->onnxSequenceClass = cacheClass(jniEnv, "ai/onnxruntime/OnnxSequence")) == NULL) return 0;
+    c->onnxSequenceConstructor = (*jniEnv)->GetMethodID(jniEnv, c->onnxSequenceClass, "<init>", "(JJLai/onnxruntime/SequenceInfo;)V");
+    if (c->onnxSequenceConstructor == NULL) return 0;
+
+    if ((c->onnxMapClass = cacheClass(jniEnv, "ai/onnxruntime/OnnxMap")) == NULL) return 0;
+    c->onnxMapConstructor = (*jniEnv)->GetMethodID(jniEnv, c->onnxMapClass, "<init>", "(JJLai/onnxruntime/MapInfo;)V");
+    if (c->onnxMapConstructor == NULL) return 0;
+
+    if ((c->tensorInfoClass = cacheClass(jniEnv, "ai/onnxruntime/TensorInfo")) == NULL) return 0;
+    c->tensorInfoConstructor = (*jniEnv)->GetMethodID(jniEnv, c->tensorInfoClass, "<init>", "([JLai/onnxruntime/OnnxJavaType;Lai/onnxruntime/TensorInfo$OnnxTensorType;[Ljava/lang/String;)V");
+    if (c->tensorInfoConstructor == NULL) return 0;
+
+    if ((c->onnxTensorTypeClass = cacheClass(jniEnv, "ai/onnxruntime/TensorInfo$OnnxTensorType")) == NULL) return 0;
+    c->onnxTensorTypeMapFromInt = (*jniEnv)->GetStaticMethodID(jniEnv, c->onnxTensorTypeClass, "mapFromInt", "(I)Lai/onnxruntime/TensorInfo$OnnxTensorType;");
+    if (c->onnxTensorTypeMapFromInt == NULL) return 0;
+
+    if ((c->onnxJavaTypeClass = cacheClass(jniEnv, "ai/onnxruntime/OnnxJavaType")) == NULL) return 0;
+    c->onnxJavaTypeMapFromInt = (*jniEnv)->GetStaticMethodID(jniEnv, c->onnxJavaTypeClass, "mapFromInt", "(I)Lai/onnxruntime/OnnxJavaType;");
+    if (c->onnxJavaTypeMapFromInt == NULL) return 0;
+    c->onnxJavaTypeMapFromOnnxTensorType = (*jniEnv)->GetStaticMethodID(jniEnv, c->onnxJavaTypeClass, "mapFromOnnxTensorType", "(Lai/onnxruntime/TensorInfo$OnnxTensorType;)Lai/onnxruntime/OnnxJavaType;");
+    if (c->onnxJavaTypeMapFromOnnxTensorType == NULL) return 0;
+
+    if ((c->mapInfoClass = cacheClass(jniEnv, "ai/onnxruntime/MapInfo")) == NULL) return 0;
+    c->mapInfoConstructor = (*jniEnv)->GetMethodID(jniEnv, c->mapInfoClass, "<init>", "(ILai/onnxruntime/OnnxJavaType;Lai/onnxruntime/OnnxJavaType;)V");
+    if (c->mapInfoConstructor == NULL) return 0;
+    c->mapInfoEmptyConstructor = (*jniEnv)->GetMethodID(jniEnv, c->mapInfoClass, "<init>", "(Lai/onnxruntime/OnnxJavaType;Lai/onnxruntime/OnnxJavaType;)V");
+    if (c->mapInfoEmptyConstructor == NULL) return 0;
+
+    if ((c->sequenceInfoClass = cacheClass(jniEnv, "ai/onnxruntime/SequenceInfo")) == NULL) return 0;
+    c->sequenceInfoTensorConstructor = (*jniEnv)->GetMethodID(jniEnv, c->sequenceInfoClass, "<init>", "(ILai/onnxruntime/OnnxJavaType;)V");
+    if (c->sequenceInfoTensorConstructor == NULL) return 0;
+    c->sequenceInfoMapConstructor = (*jniEnv)->GetMethodID(jniEnv, c->sequenceInfoClass, "<init>", "(ILai/onnxruntime/MapInfo;)V");
+    if (c->sequenceInfoMapConstructor == NULL) return 0;
+
+    if ((c->nodeInfoClass = cacheClass(jniEnv, "ai/onnxruntime/NodeInfo")) == NULL) return 0;
+    c->nodeInfoConstructor = (*jniEnv)->GetMethodID(jniEnv, c->nodeInfoClass, "<init>", "(Ljava/lang/String;Lai/onnxruntime/ValueInfo;)V");
+    if (c->nodeInfoConstructor == NULL) return 0;
+
+    if ((c->modelMetadataClass = cacheClass(jniEnv, "ai/onnxruntime/OnnxModelMetadata")) == NULL) return 0;
+    //OnnxModelMetadata(String producerName, String graphName, String domain, String description, long version, String[] customMetadataArray)
+    c->modelMetadataConstructor = (*jniEnv)->GetMethodID(jniEnv, c->modelMetadataClass, "<init>", "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;J[Ljava/lang/String;)V");
+    if (c->modelMetadataConstructor == NULL) return 0;
+
+    if ((c->ortExceptionClass = cacheClass(jniEnv, "ai/onnxruntime/OrtException")) == NULL) return 0;
+    c->ortExceptionConstructor = (*jniEnv)->GetMethodID(jniEnv, c->ortExceptionClass, "<init>", "(ILjava/lang/String;)V");
+    if (c->ortExceptionConstructor == NULL) return 0;
+
+    return 1;
+}
+
+/*
+ * Releases the global references held in ortJniCache.
+ */
+static void releaseCache(JNIEnv *jniEnv) {
+    jclass* classes[] = {
+        &ortJniCache.objectClass, &ortJniCache.stringClass, &ortJniCache.onnxValueClass, &ortJniCache.onnxTensorClass,
+        &ortJniCache.onnxSequenceClass, &ortJniCache.onnxMapClass, &ortJniCache.tensorInfoClass,
+        &ortJniCache.onnxTensorTypeClass, &ortJniCache.onnxJavaTypeClass, &ortJniCache.mapInfoClass,
+        &ortJniCache.sequenceInfoClass, &ortJniCache.nodeInfoClass, &ortJniCache.modelMetadataClass,
+        &ortJniCache.ortExceptionClass
+    };
+    for (size_t i = 0; i < sizeof(classes) / sizeof(classes[0]); i++) {
+        if (*classes[i] != NULL) {
+            (*jniEnv)->DeleteGlobalRef(jniEnv, *classes[i]);
+            *classes[i] = NULL;
+        }
+    }
+}
+
 jint JNI_OnLoad(JavaVM *vm, void *reserved) {
     // To silence unused-parameter error.
-    // This function must exist according to the JNI spec, but the arguments aren't necessary for the library to request a specific version.
-    (void)vm; (void) reserved;
+    (void) reserved;
+    JNIEnv *jniEnv;
     // Requesting 1.6 to support Android. Will need to be bumped to a later version to call interface default methods
     // from native code, or to access other new Java features.
+    if ((*vm)->GetEnv(vm, (void **) &jniEnv, JNI_VERSION_1_6) != JNI_OK) {
+        return JNI_ERR;
+    }
+    initHalfToFloatTable();
+    // The class and method cache is populated by initJniCache once OnnxRuntime.init has loaded
+    // both libraries, as looking up the ORT classes here would initialize them and re-enter init.
     return JNI_VERSION_1_6;
 }
 
+/*
+ * Populates ortJniCache, returns 0 and leaves a pending exception if any class or method could not
+ * be found.
+ */
+int initJniCache(JNIEnv *jniEnv) {
+    if (!populateCache(jniEnv)) {
+        // A pending NoClassDefFoundError or NoSuchMethodError describes the failure.
+        releaseCache(jniEnv);
+        return 0;
+    }
+    return 1;
+}
+
+void JNI_OnUnload(JavaVM *vm, void *reserved) {
+    (void) reserved;
+    JNIEnv *jniEnv;
+    if ((*vm)->GetEnv(vm, (void **) &jniEnv, JNI_VERSION_1_6) == JNI_OK) {
+        releaseCache(jniEnv);
+    }
+}
+
 /**
  * Must be kept in sync with ORT_LOGGING_LEVEL and the OrtLoggingLevel java enum
  */
@@ -164,6 +293,7 @@ size_t onnxTypeSize(ONNXTensorElementDataType type) {
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_UINT16:  // maps to c type uint16_t
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_INT16:   // maps to c type int16_t
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16:
+        case ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16:    // Non-IEEE floating-point format based on IEEE754 single-precision
             return 2;
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_UINT32:  // maps to c type uint32_t
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_INT32:   // maps to c type int32_t
@@ -175,7 +305,6 @@ size_t onnxTypeSize(ONNXTensorElementDataType type) {
             return 8;
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_STRING:  // maps to c++ type std::string
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_UNDEFINED:
-        case ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16:    // Non-IEEE floating-point format based on IEEE754 single-precision
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_COMPLEX64:   // complex with float32 real and imaginary components
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_COMPLEX128:  // complex with float64 real and imaginary components
         default:
@@ -184,16 +313,102 @@ size_t onnxTypeSize(ONNXTensorElementDataType type) {
 }
 
 typedef union FP32 {
-    int intVal;
+    uint32_t intVal;
     float floatVal;
 } FP32;
 
+/*
+ * Lookup table from every IEEE half precision bit pattern to the equivalent float,
+ * populated in JNI_OnLoad so the bulk conversions are a single load per element.
+ */
+static float halfToFloatTable[65536];
+
+/*
+ * Exact conversion from IEEE half precision to single precision, including subnormals,
+ * infinities and NaNs. Used to build halfToFloatTable.
+ */
+static float computeHalfToFloat(uint16_t half) {
+    FP32 output;
+    uint32_t sign = ((uint32_t) (half & 0x8000)) << 16;
+    uint32_t exponent = (half >> 10) & 0x1F;
+    uint32_t mantissa = half & 0x3FF;
+    if (exponent == 0) {
+        // Zero or subnormal, mantissa * 2^-24 is exact in single precision.
+        output.floatVal = (float) mantissa * (1.0f / 16777216.0f);
+        output.intVal |= sign;
+    } else if (exponent == 0x1F) {
+        // Infinity or NaN, preserving the NaN payload.
+        output.intVal = sign | 0x7F800000 | (mantissa << 13);
+    } else {
+        output.intVal = sign | ((exponent + 112) << 23) | (mantissa << 13);
+    }
+    return output.floatVal;
+}
+
+void initHalfToFloatTable() {
+    for (uint32_t i = 0; i < 65536; i++) {
+        halfToFloatTable[i] = computeHalfToFloat((uint16_t) i);
+    }
+}
+
 jfloat convertHalfToFloat(uint16_t half) {
+    return halfToFloatTable[half];
+}
+
+jfloat convertBFloat16ToFloat(uint16_t bfloat) {
     FP32 output;
-    output.intVal = (((half&0x8000)<<16) | (((half&0x7c00)+0x1C000)<<13) | ((half&0x03FF)<<13));
+    output.intVal = ((uint32_t) bfloat) << 16;
     return output.floatVal;
 }
 
+uint16_t convertFloatToHalf(jfloat value) {
+    FP32 input;
+    input.floatVal = value;
+    uint32_t sign = (input.intVal >> 16) & 0x8000;
+    uint32_t abs = input.intVal & 0x7FFFFFFF;
+    if (abs > 0x7F800000) {
+        // NaN, keep it quiet and preserve the top of the payload.
+        return (uint16_t) (sign | 0x7E00 | ((abs >> 13) & 0x3FF));
+    } else if (abs >= 0x47800000) {
+        // Infinity, or too large for half precision.
+        return (uint16_t) (sign | 0x7C00);
+    } else if (abs < 0x38800000) {
+        // Subnormal in half precision, or rounds to zero.
+        if (abs < 0x33000000) {
+            return (uint16_t) sign;
+        }
+        uint32_t shift = 126 - (abs >> 23);
+        uint32_t mantissa = (abs & 0x7FFFFF) | 0x800000;
+        uint32_t half = mantissa >> shift;
+        uint32_t remainder = mantissa & ((1u << shift) - 1);
+        uint32_t halfway = 1u << (shift - 1);
+        if ((remainder > halfway) || ((remainder == halfway) && (half & 1))) {
+            half++;
+        }
+        return (uint16_t) (sign | half);
+    } else {
+        // Normal, round to nearest even. A carry out of the mantissa correctly bumps the exponent.
+        uint32_t half = ((abs >> 13) - (112 << 10));
+        uint32_t remainder = abs & 0x1FFF;
+        if ((remainder > 0x1000) || ((remainder == 0x1000) && (half & 1))) {
+            half++;
+        }
+        return (uint16_t) (sign | half);
+    }
+}
+
+uint16_t convertFloatToBFloat16(jfloat value) {
+    FP32 input;
+    input.floatVal = value;
+    if ((input.intVal & 0x7FFFFFFF) > 0x7F800000) {
+        // NaN, keep it quiet.
+        return (uint16_t) ((input.intVal >> 16) | 0x40);
+    }
+    // Round to nearest even.
+    uint32_t rounding = 0x7FFF + ((input.intVal >> 16) & 1);
+    return (uint16_t) ((input.intVal + rounding) >> 16);
+}
+
 jobject convertToValueInfo(JNIEnv *jniEnv, const OrtApi * api, OrtTypeInfo * info) {
     ONNXType type;
     checkOrtStatus(jniEnv,api,api->GetOnnxTypeFromTypeInfo(info,&type));
@@ -233,6 +448,8 @@ jobject convertToTensorInfo(JNIEnv *jniEnv, const OrtApi * api, const OrtTensorT
     //printf("numDim %d\n",numDim);
     int64_t* dimensions = (int64_t*) malloc(sizeof(int64_t)*numDim);
     checkOrtStatus(jniEnv,api,api->GetDimensions(info, dimensions, numDim));
+    const char** dimNames = (const char**) malloc(sizeof(char*)*numDim);
+    checkOrtStatus(jniEnv,api,api->GetSymbolicDimensions(info, dimNames, numDim));
     jint onnxTypeInt = convertFromONNXDataFormat(onnxType);
 
     // Create the long array for the shape.
@@ -242,45 +459,42 @@ jobject convertToTensorInfo(JNIEnv *jniEnv, const OrtApi * api, const OrtTensorT
     free(dimensions);
     dimensions = NULL;
 
+    // Create the dimension names array, leaving it null if no dimension is named (e.g. run outputs)
+    // so the common case doesn't allocate a string per dimension.
+    jobjectArray names = NULL;
+    for (size_t i = 0; i < numDim; i++) {
+        if ((dimNames[i] != NULL) && (dimNames[i][0] != '\0')) {
+            names = (*jniEnv)->NewObjectArray(jniEnv, numDim, ortJniCache.stringClass, NULL);
+            break;
+        }
+    }
+    if (names != NULL) {
+        for (size_t i = 0; i < numDim; i++) {
+            jstring name = (*jniEnv)->NewStringUTF(jniEnv, dimNames[i] != NULL ? dimNames[i] : "");
+            (*jniEnv)->SetObjectArrayElement(jniEnv, names, i, name);
+            (*jniEnv)->DeleteLocalRef(jniEnv, name);
+        }
+    }
+    free(dimNames);
+    dimNames = NULL;
+
     // Create the ONNXTensorType enum
-    char *onnxTensorTypeClassName = "ai/onnxruntime/TensorInfo$OnnxTensorType";
-    jclass clazz = (*jniEnv)->FindClass(jniEnv, onnxTensorTypeClassName);
-    jmethodID onnxTensorTypeMapFromInt = (*jniEnv)->GetStaticMethodID(jniEnv,clazz, "mapFromInt", "(I)Lai/onnxruntime/TensorInfo$OnnxTensorType;");
-    jobject onnxTensorTypeJava = (*jniEnv)->CallStaticObjectMethod(jniEnv,clazz,onnxTensorTypeMapFromInt,onnxTypeInt);
-    //printf("ONNXTensorType class %p, methodID %p, object %p\n",clazz,onnxTensorTypeMapFromInt,onnxTensorTypeJava);
+    jobject onnxTensorTypeJava = (*jniEnv)->CallStaticObjectMethod(jniEnv,ortJniCache.onnxTensorTypeClass,ortJniCache.onnxTensorTypeMapFromInt,onnxTypeInt);
 
     // Create the ONNXJavaType enum
-    char *javaDataTypeClassName = "ai/onnxruntime/OnnxJavaType";
-    clazz = (*jniEnv)->FindClass(jniEnv, javaDataTypeClassName);
-    jmethodID javaDataTypeMapFromONNXTensorType = (*jniEnv)->GetStaticMethodID(jniEnv,clazz, "mapFromOnnxTensorType", "(Lai/onnxruntime/TensorInfo$OnnxTensorType;)Lai/onnxruntime/OnnxJavaType;");
-    jobject javaDataType = (*jniEnv)->CallStaticObjectMethod(jniEnv,clazz,javaDataTypeMapFromONNXTensorType,onnxTensorTypeJava);
-    //printf("JavaDataType class %p, methodID %p, object %p\n",clazz,javaDataTypeMapFromONNXTensorType,javaDataType);
+    jobject javaDataType = (*jniEnv)->CallStaticObjectMethod(jniEnv,ortJniCache.onnxJavaTypeClass,ortJniCache.onnxJavaTypeMapFromOnnxTensorType,onnxTensorTypeJava);
 
     // Create the TensorInfo object
-    char *tensorInfoClassName = "ai/onnxruntime/TensorInfo";
-    clazz = (*jniEnv)->FindClass(jniEnv, tensorInfoClassName);
-    jmethodID tensorInfoConstructor = (*jniEnv)->GetMethodID(jniEnv,clazz, "<init>", "([JLai/onnxruntime/OnnxJavaType;Lai/onnxruntime/TensorInfo$OnnxTensorType;)V");
-    //printf("TensorInfo class %p, methodID %p\n",clazz,tensorInfoConstructor);
-    jobject tensorInfo = (*jniEnv)->NewObject(jniEnv, clazz, tensorInfoConstructor, shape, javaDataType, onnxTensorTypeJava);
+    jobject tensorInfo = (*jniEnv)->NewObject(jniEnv, ortJniCache.tensorInfoClass, ortJniCache.tensorInfoConstructor, shape, javaDataType, onnxTensorTypeJava, names);
     return tensorInfo;
 }
 
 jobject convertToMapInfo(JNIEnv *jniEnv, const OrtApi * api, const OrtMapTypeInfo * info) {
-    // Create the java methods we need to call.
-    // Get the ONNXTensorType enum static method
-    char *onnxTensorTypeClassName = "ai/onnxruntime/TensorInfo$OnnxTensorType";
-    jclass onnxTensorTypeClazz = (*jniEnv)->FindClass(jniEnv, onnxTensorTypeClassName);
-    jmethodID onnxTensorTypeMapFromInt = (*jniEnv)->GetStaticMethodID(jniEnv,onnxTensorTypeClazz, "mapFromInt", "(I)Lai/onnxruntime/TensorInfo$OnnxTensorType;");
-
-    // Get the ONNXJavaType enum static method
-    char *javaDataTypeClassName = "ai/onnxruntime/OnnxJavaType";
-    jclass onnxJavaTypeClazz = (*jniEnv)->FindClass(jniEnv, javaDataTypeClassName);
-    jmethodID onnxJavaTypeMapFromONNXTensorType = (*jniEnv)->GetStaticMethodID(jniEnv,onnxJavaTypeClazz, "mapFromOnnxTensorType", "(Lai/onnxruntime/TensorInfo$OnnxTensorType;)Lai/onnxruntime/OnnxJavaType;");
-
-    // Get the map info class
-    char *mapInfoClassName = "ai/onnxruntime/MapInfo";
-    jclass mapInfoClazz = (*jniEnv)->FindClass(jniEnv, mapInfoClassName);
-    jmethodID mapInfoConstructor = (*jniEnv)->GetMethodID(jniEnv,mapInfoClazz,"<init>","(ILai/onnxruntime/OnnxJavaType;Lai/onnxruntime/OnnxJavaType;)V");
+    // The java methods we need to call are cached in ortJniCache.
+    jclass onnxTensorTypeClazz = ortJniCache.onnxTensorTypeClass;
+    jmethodID onnxTensorTypeMapFromInt = ortJniCache.onnxTensorTypeMapFromInt;
+    jclass onnxJavaTypeClazz = ortJniCache.onnxJavaTypeClass;
+    jmethodID onnxJavaTypeMapFromONNXTensorType = ortJniCache.onnxJavaTypeMapFromOnnxTensorType;
 
     // Extract the key type
     ONNXTensorElementDataType keyType;
@@ -310,30 +524,23 @@ jobject convertToMapInfo(JNIEnv *jniEnv, const OrtApi * api, const OrtMapTypeInf
     jobject onnxJavaTypeValue = (*jniEnv)->CallStaticObjectMethod(jniEnv,onnxJavaTypeClazz,onnxJavaTypeMapFromONNXTensorType,onnxTensorTypeJavaValue);
 
     // Construct map info
-    jobject mapInfo = (*jniEnv)->NewObject(jniEnv,mapInfoClazz,mapInfoConstructor,(jint)-1,onnxJavaTypeKey,onnxJavaTypeValue);
+    jobject mapInfo = (*jniEnv)->NewObject(jniEnv,ortJniCache.mapInfoClass,ortJniCache.mapInfoConstructor,(jint)-1,onnxJavaTypeKey,onnxJavaTypeValue);
 
     return mapInfo;
 }
 
 jobject createEmptyMapInfo(JNIEnv *jniEnv) {
     // Create the ONNXJavaType enum
-    char *onnxJavaTypeClassName = "ai/onnxruntime/OnnxJavaType";
-    jclass clazz = (*jniEnv)->FindClass(jniEnv, onnxJavaTypeClassName);
-    jmethodID onnxJavaTypeMapFromInt = (*jniEnv)->GetStaticMethodID(jniEnv,clazz, "mapFromInt", "(I)Lai/onnxruntime/OnnxJavaType;");
-    jobject unknownType = (*jniEnv)->CallStaticObjectMethod(jniEnv,clazz,onnxJavaTypeMapFromInt,0);
+    jobject unknownType = (*jniEnv)->CallStaticObjectMethod(jniEnv,ortJniCache.onnxJavaTypeClass,ortJniCache.onnxJavaTypeMapFromInt,0);
 
-    char *mapInfoClassName = "ai/onnxruntime/MapInfo";
-    clazz = (*jniEnv)->FindClass(jniEnv, mapInfoClassName);
-    jmethodID mapInfoConstructor = (*jniEnv)->GetMethodID(jniEnv,clazz,"<init>","(Lai/onnxruntime/OnnxJavaType;Lai/onnxruntime/OnnxJavaType;)V");
-    jobject mapInfo = (*jniEnv)->NewObject(jniEnv,clazz,mapInfoConstructor,unknownType,unknownType);
+    jobject mapInfo = (*jniEnv)->NewObject(jniEnv,ortJniCache.mapInfoClass,ortJniCache.mapInfoEmptyConstructor,unknownType,unknownType);
 
     return mapInfo;
 }
 
 jobject convertToSequenceInfo(JNIEnv *jniEnv, const OrtApi * api, const OrtSequenceTypeInfo * info) {
     // Get the sequence info class
-    char *sequenceInfoClassName = "ai/onnxruntime/SequenceInfo";
-    jclass sequenceInfoClazz = (*jniEnv)->FindClass(jniEnv, sequenceInfoClassName);
+    jclass sequenceInfoClazz = ortJniCache.sequenceInfoClass;
 
     // according to include/onnxruntime/core/framework/data_types.h the following values are supported.
     // tensor types, map<string,float> and map<long,float>
@@ -354,21 +561,11 @@ jobject convertToSequenceInfo(JNIEnv *jniEnv, const OrtApi * api, const OrtSeque
 
             // Convert element type into ONNXTensorType
             jint onnxTypeInt = convertFromONNXDataFormat(element);
-            // Get the ONNXTensorType enum static method
-            char *onnxTensorTypeClassName = "ai/onnxruntime/TensorInfo$OnnxTensorType";
-            jclass onnxTensorTypeClazz = (*jniEnv)->FindClass(jniEnv, onnxTensorTypeClassName);
-            jmethodID onnxTensorTypeMapFromInt = (*jniEnv)->GetStaticMethodID(jniEnv,onnxTensorTypeClazz, "mapFromInt", "(I)Lai/onnxruntime/TensorInfo$OnnxTensorType;");
-            jobject onnxTensorTypeJava = (*jniEnv)->CallStaticObjectMethod(jniEnv,onnxTensorTypeClazz,onnxTensorTypeMapFromInt,onnxTypeInt);
-
-            // Get the ONNXJavaType enum static method
-            char *javaDataTypeClassName = "ai/onnxruntime/OnnxJavaType";
-            jclass onnxJavaTypeClazz = (*jniEnv)->FindClass(jniEnv, javaDataTypeClassName);
-            jmethodID onnxJavaTypeMapFromONNXTensorType = (*jniEnv)->GetStaticMethodID(jniEnv,onnxJavaTypeClazz, "mapFromOnnxTensorType", "(Lai/onnxruntime/TensorInfo$OnnxTensorType;)Lai/onnxruntime/OnnxJavaType;");
-            jobject onnxJavaType = (*jniEnv)->CallStaticObjectMethod(jniEnv,onnxJavaTypeClazz,onnxJavaTypeMapFromONNXTensorType,onnxTensorTypeJava);
+            jobject onnxTensorTypeJava = (*jniEnv)->CallStaticObjectMethod(jniEnv,ortJniCache.onnxTensorTypeClass,ortJniCache.onnxTensorTypeMapFromInt,onnxTypeInt);
+            jobject onnxJavaType = (*jniEnv)->CallStaticObjectMethod(jniEnv,ortJniCache.onnxJavaTypeClass,ortJniCache.onnxJavaTypeMapFromOnnxTensorType,onnxTensorTypeJava);
 
             // Construct sequence info
-            jmethodID sequenceInfoConstructor = (*jniEnv)->GetMethodID(jniEnv,sequenceInfoClazz,"<init>","(ILai/onnxruntime/OnnxJavaType;)V");
-            sequenceInfo = (*jniEnv)->NewObject(jniEnv,sequenceInfoClazz,sequenceInfoConstructor,(jint)-1,onnxJavaType);
+            sequenceInfo = (*jniEnv)->NewObject(jniEnv,sequenceInfoClazz,ortJniCache.sequenceInfoTensorConstructor,(jint)-1,onnxJavaType);
             break;
         }
         case ONNX_TYPE_MAP: {
@@ -380,8 +577,7 @@ jobject convertToSequenceInfo(JNIEnv *jniEnv, const OrtApi * api, const OrtSeque
             jobject javaMapInfo = convertToMapInfo(jniEnv,api,mapInfo);
 
             // Construct sequence info
-            jmethodID sequenceInfoConstructor = (*jniEnv)->GetMethodID(jniEnv,sequenceInfoClazz,"<init>","(ILai/onnxruntime/MapInfo;)V");
-            sequenceInfo = (*jniEnv)->NewObject(jniEnv,sequenceInfoClazz,sequenceInfoConstructor,(jint)-1,javaMapInfo);
+            sequenceInfo = (*jniEnv)->NewObject(jniEnv,sequenceInfoClazz,ortJniCache.sequenceInfoMapConstructor,(jint)-1,javaMapInfo);
             break;
         }
         default: {
@@ -398,19 +594,42 @@ jobject convertToSequenceInfo(JNIEnv *jniEnv, const OrtApi * api, const OrtSeque
 
 jobject createEmptySequenceInfo(JNIEnv *jniEnv) {
     // Create the ONNXJavaType enum
-    char *onnxJavaTypeClassName = "ai/onnxruntime/OnnxJavaType";
-    jclass clazz = (*jniEnv)->FindClass(jniEnv, onnxJavaTypeClassName);
-    jmethodID onnxJavaTypeMapFromInt = (*jniEnv)->GetStaticMethodID(jniEnv,clazz, "mapFromInt", "(I)Lai/onnxruntime/OnnxJavaType;");
-    jobject unknownType = (*jniEnv)->CallStaticObjectMethod(jniEnv,clazz,onnxJavaTypeMapFromInt,0);
+    jobject unknownType = (*jniEnv)->CallStaticObjectMethod(jniEnv,ortJniCache.onnxJavaTypeClass,ortJniCache.onnxJavaTypeMapFromInt,0);
 
-    char *sequenceInfoClassName = "ai/onnxruntime/SequenceInfo";
-    clazz = (*jniEnv)->FindClass(jniEnv, sequenceInfoClassName);
-    jmethodID sequenceInfoConstructor = (*jniEnv)->GetMethodID(jniEnv,clazz,"<init>","(ILai/onnxruntime/OnnxJavaType;)V");
-    jobject sequenceInfo = (*jniEnv)->NewObject(jniEnv,clazz,sequenceInfoConstructor,-1,unknownType);
+    jobject sequenceInfo = (*jniEnv)->NewObject(jniEnv,ortJniCache.sequenceInfoClass,ortJniCache.sequenceInfoTensorConstructor,-1,unknownType);
 
     return sequenceInfo;
 }
 
+/*
+ * Copies a row of Java primitives into the tensor, converting floats to 16-bit floats if necessary.
+ * Safe to call inside a critical region as it makes no JNI calls.
+ */
+static void copyCriticalRow(ONNXTensorElementDataType onnxType, uint8_t* tensor, const void* row, size_t length) {
+    switch (onnxType) {
+        case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16: {
+            uint16_t *halfArr = (uint16_t *) tensor;
+            const jfloat *floatArr = (const jfloat *) row;
+            for (size_t i = 0; i < length; i++) {
+                halfArr[i] = convertFloatToHalf(floatArr[i]);
+            }
+            break;
+        }
+        case ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16: {
+            uint16_t *bfloatArr = (uint16_t *) tensor;
+            const jfloat *floatArr = (const jfloat *) row;
+            for (size_t i = 0; i < length; i++) {
+                bfloatArr[i] = convertFloatToBFloat16(floatArr[i]);
+            }
+            break;
+        }
+        default:
+            // The remaining types have the same layout in Java and in the tensor.
+            memcpy(tensor, row, length * onnxTypeSize(onnxType));
+            break;
+    }
+}
+
 size_t copyJavaToPrimitiveArray(JNIEnv *jniEnv, ONNXTensorElementDataType onnxType, uint8_t* tensor, jarray input) {
     uint32_t inputLength = (*jniEnv)->GetArrayLength(jniEnv,input);
     size_t consumedSize = inputLength * onnxTypeSize(onnxType);
@@ -439,20 +658,16 @@ size_t copyJavaToPrimitiveArray(JNIEnv *jniEnv, ONNXTensorElementDataType onnxTy
             (*jniEnv)->GetLongArrayRegion(jniEnv, typedArr, 0, inputLength, (jlong * ) tensor);
             return consumedSize;
         }
-        case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16: {
-            throwOrtException(jniEnv, convertErrorCode(ORT_NOT_IMPLEMENTED), "16-bit float not supported.");
-            return 0;
-            /*
-            float *floatArr = malloc(sizeof(float) * inputLength);
-            uint16_t *halfArr = (uint16_t *) tensor;
-            for (uint32_t i = 0; i < inputLength; i++) {
-                floatArr[i] = convertHalfToFloat(halfArr[i]);
+        case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16:     // stored as a uint16_t, converted from a Java float array
+        case ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16: {  // stored as a uint16_t, converted from a Java float array
+            // Convert straight out of the Java array, no JNI calls are made inside the critical region.
+            void *floatArr = (*jniEnv)->GetPrimitiveArrayCritical(jniEnv, input, NULL);
+            if (floatArr == NULL) {
+                return 0;
             }
-            jfloatArray typedArr = (jfloatArray) input;
-            (*jniEnv)->GetFloatArrayRegion(jniEnv, typedArr, 0, inputLength, floatArr);
-            free(floatArr);
+            copyCriticalRow(onnxType, tensor, floatArr, inputLength);
+            (*jniEnv)->ReleasePrimitiveArrayCritical(jniEnv, input, floatArr, JNI_ABORT);
             return consumedSize;
-            */
         }
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT: { // maps to c type float
             jfloatArray typedArr = (jfloatArray) input;
@@ -475,7 +690,6 @@ size_t copyJavaToPrimitiveArray(JNIEnv *jniEnv, ONNXTensorElementDataType onnxTy
         }
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_COMPLEX64:   // complex with float32 real and imaginary components
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_COMPLEX128:  // complex with float64 real and imaginary components
-        case ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16:    // Non-IEEE floating-point format based on IEEE754 single-precision
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_UNDEFINED:
         default: {
             throwOrtException(jniEnv, convertErrorCode(ORT_INVALID_ARGUMENT), "Invalid tensor element type.");
@@ -484,11 +698,64 @@ size_t copyJavaToPrimitiveArray(JNIEnv *jniEnv, ONNXTensorElementDataType onnxTy
     }
 }
 
+/*
+ * Copies a Java array of primitive rows into the tensor. The row references are fetched a batch
+ * at a time, and every row in a batch is copied inside one critical region, rather than making a
+ * region copy call per row. The rows must have been checked to be the same length.
+ */
+static size_t copyJavaRowsToTensor(JNIEnv *jniEnv, ONNXTensorElementDataType onnxType, uint8_t* tensor, jobjectArray input) {
+    jsize numRows = (*jniEnv)->GetArrayLength(jniEnv,input);
+    size_t typeSize = onnxTypeSize(onnxType);
+    jarray rows[ROW_BATCH_SIZE];
+    void* rowData[ROW_BATCH_SIZE];
+    size_t sizeConsumed = 0;
+    for (jsize batchStart = 0; batchStart < numRows; batchStart += ROW_BATCH_SIZE) {
+        jsize batchSize = numRows - batchStart < ROW_BATCH_SIZE ? numRows - batchStart : ROW_BATCH_SIZE;
+        if ((*jniEnv)->PushLocalFrame(jniEnv,batchSize) != 0) {
+            return sizeConsumed;
+        }
+        jsize rowLength = 0;
+        for (jsize i = 0; i < batchSize; i++) {
+            rows[i] = (jarray) (*jniEnv)->GetObjectArrayElement(jniEnv,input,batchStart + i);
+        }
+        if (batchSize > 0) {
+            rowLength = (*jniEnv)->GetArrayLength(jniEnv,rows[0]);
+        }
+        // No other JNI calls may be made until all the rows in the batch are released.
+        jsize pinned = 0;
+        while (pinned < batchSize) {
+            rowData[pinned] = (*jniEnv)->GetPrimitiveArrayCritical(jniEnv,rows[pinned],NULL);
+            if (rowData[pinned] == NULL) {
+                break;
+            }
+            pinned++;
+        }
+        if (pinned == batchSize) {
+            for (jsize i = 0; i < batchSize; i++) {
+                copyCriticalRow(onnxType, tensor + sizeConsumed, rowData[i], rowLength);
+                sizeConsumed += rowLength * typeSize;
+            }
+        }
+        for (jsize i = pinned - 1; i >= 0; i--) {
+            (*jniEnv)->ReleasePrimitiveArrayCritical(jniEnv,rows[i],rowData[i],JNI_ABORT);
+        }
+        (*jniEnv)->PopLocalFrame(jniEnv,NULL);
+        if (pinned != batchSize) {
+            // An OutOfMemoryError is pending.
+            return sizeConsumed;
+        }
+    }
+    return sizeConsumed;
+}
+
 size_t copyJavaToTensor(JNIEnv *jniEnv, ONNXTensorElementDataType onnxType, uint8_t* tensor, size_t tensorSize,
                         uint32_t dimensionsRemaining, jarray input) {
-    if (dimensionsRemaining == 1) {
+    if (dimensionsRemaining <= 1) {
         // write out 1d array of the respective primitive type
         return copyJavaToPrimitiveArray(jniEnv,onnxType,tensor,input);
+    } else if ((dimensionsRemaining == 2) && (onnxTypeSize(onnxType) != 0)) {
+        // write out a 2d array of primitive rows
+        return copyJavaRowsToTensor(jniEnv,onnxType,tensor,(jobjectArray) input);
     } else {
         // recurse through the dimensions
         // Java arrays are objects until the final dimension
@@ -500,11 +767,43 @@ size_t copyJavaToTensor(JNIEnv *jniEnv, ONNXTensorElementDataType onnxType, uint
             sizeConsumed += copyJavaToTensor(jniEnv, onnxType, tensor + sizeConsumed, tensorSize - sizeConsumed, dimensionsRemaining - 1, childArr);
             // Cleanup reference to childArr so it doesn't prevent GC.
             (*jniEnv)->DeleteLocalRef(jniEnv,childArr);
+            if ((*jniEnv)->ExceptionCheck(jniEnv)) {
+                return sizeConsumed;
+            }
         }
         return sizeConsumed;
     }
 }
 
+/*
+ * Copies tensor elements into a row of Java primitives, converting 16-bit floats to floats if
+ * necessary. Safe to call inside a critical region as it makes no JNI calls.
+ */
+static void copyTensorToCriticalRow(ONNXTensorElementDataType onnxType, const uint8_t* tensor, void* row, size_t length) {
+    switch (onnxType) {
+        case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16: {
+            const uint16_t *halfArr = (const uint16_t *) tensor;
+            jfloat *floatArr = (jfloat *) row;
+            for (size_t i = 0; i < length; i++) {
+                floatArr[i] = halfToFloatTable[halfArr[i]];
+            }
+            break;
+        }
+        case ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16: {
+            const uint16_t *bfloatArr = (const uint16_t *) tensor;
+            jfloat *floatArr = (jfloat *) row;
+            for (size_t i = 0; i < length; i++) {
+                floatArr[i] = convertBFloat16ToFloat(bfloatArr[i]);
+            }
+            break;
+        }
+        default:
+            // The remaining types have the same layout in Java and in the tensor.
+            memcpy(row, tensor, length * onnxTypeSize(onnxType));
+            break;
+    }
+}
+
 size_t copyPrimitiveArrayToJava(JNIEnv *jniEnv, ONNXTensorElementDataType onnxType, uint8_t* tensor, jarray output) {
     uint32_t outputLength = (*jniEnv)->GetArrayLength(jniEnv,output);
     size_t consumedSize = outputLength * onnxTypeSize(onnxType);
@@ -533,15 +832,15 @@ size_t copyPrimitiveArrayToJava(JNIEnv *jniEnv, ONNXTensorElementDataType onnxTy
             (*jniEnv)->SetLongArrayRegion(jniEnv, typedArr, 0, outputLength, (jlong * ) tensor);
             return consumedSize;
         }
-        case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16: { // stored as a uint16_t
-            float *floatArr = malloc(sizeof(float) * outputLength);
-            uint16_t *halfArr = (uint16_t *) tensor;
-            for (uint32_t i = 0; i < outputLength; i++) {
-                floatArr[i] = convertHalfToFloat(halfArr[i]);
+        case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16:     // stored as a uint16_t
+        case ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16: {  // stored as a uint16_t
+            // Convert straight into the Java array, no JNI calls are made inside the critical region.
+            void *floatArr = (*jniEnv)->GetPrimitiveArrayCritical(jniEnv, output, NULL);
+            if (floatArr == NULL) {
+                return 0;
             }
-            jfloatArray typedArr = (jfloatArray) output;
-            (*jniEnv)->SetFloatArrayRegion(jniEnv, typedArr, 0, outputLength, floatArr);
-            free(floatArr);
+            copyTensorToCriticalRow(onnxType, tensor, floatArr, outputLength);
+            (*jniEnv)->ReleasePrimitiveArrayCritical(jniEnv, output, floatArr, 0);
             return consumedSize;
         }
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT: { // maps to c type float
@@ -566,7 +865,6 @@ size_t copyPrimitiveArrayToJava(JNIEnv *jniEnv, ONNXTensorElementDataType onnxTy
         }
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_COMPLEX64:   // complex with float32 real and imaginary components
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_COMPLEX128:  // complex with float64 real and imaginary components
-        case ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16:    // Non-IEEE floating-point format based on IEEE754 single-precision
         case ONNX_TENSOR_ELEMENT_DATA_TYPE_UNDEFINED:
         default: {
             throwOrtException(jniEnv, convertErrorCode(ORT_NOT_IMPLEMENTED), "Invalid tensor element type.");
@@ -575,11 +873,63 @@ size_t copyPrimitiveArrayToJava(JNIEnv *jniEnv, ONNXTensorElementDataType onnxTy
     }
 }
 
+/*
+ * Copies the tensor into a Java array of primitive rows, the mirror of copyJavaRowsToTensor.
+ * The rows must have been checked to be the same length.
+ */
+static size_t copyTensorRowsToJava(JNIEnv *jniEnv, ONNXTensorElementDataType onnxType, uint8_t* tensor, jobjectArray output) {
+    jsize numRows = (*jniEnv)->GetArrayLength(jniEnv,output);
+    size_t typeSize = onnxTypeSize(onnxType);
+    jarray rows[ROW_BATCH_SIZE];
+    void* rowData[ROW_BATCH_SIZE];
+    size_t sizeConsumed = 0;
+    for (jsize batchStart = 0; batchStart < numRows; batchStart += ROW_BATCH_SIZE) {
+        jsize batchSize = numRows - batchStart < ROW_BATCH_SIZE ? numRows - batchStart : ROW_BATCH_SIZE;
+        if ((*jniEnv)->PushLocalFrame(jniEnv,batchSize) != 0) {
+            return sizeConsumed;
+        }
+        jsize rowLength = 0;
+        for (jsize i = 0; i < batchSize; i++) {
+            rows[i] = (jarray) (*jniEnv)->GetObjectArrayElement(jniEnv,output,batchStart + i);
+        }
+        if (batchSize > 0) {
+            rowLength = (*jniEnv)->GetArrayLength(jniEnv,rows[0]);
+        }
+        // No other JNI calls may be made until all the rows in the batch are released.
+        jsize pinned = 0;
+        while (pinned < batchSize) {
+            rowData[pinned] = (*jniEnv)->GetPrimitiveArrayCritical(jniEnv,rows[pinned],NULL);
+            if (rowData[pinned] == NULL) {
+                break;
+            }
+            pinned++;
+        }
+        if (pinned == batchSize) {
+            for (jsize i = 0; i < batchSize; i++) {
+                copyTensorToCriticalRow(onnxType, tensor + sizeConsumed, rowData[i], rowLength);
+                sizeConsumed += rowLength * typeSize;
+            }
+        }
+        for (jsize i = pinned - 1; i >= 0; i--) {
+            (*jniEnv)->ReleasePrimitiveArrayCritical(jniEnv,rows[i],rowData[i],pinned == batchSize ? 0 : JNI_ABORT);
+        }
+        (*jniEnv)->PopLocalFrame(jniEnv,NULL);
+        if (pinned != batchSize) {
+            // An OutOfMemoryError is pending.
+            return sizeConsumed;
+        }
+    }
+    return sizeConsumed;
+}
+
 size_t copyTensorToJava(JNIEnv *jniEnv, ONNXTensorElementDataType onnxType, uint8_t* tensor, size_t tensorSize,
                         uint32_t dimensionsRemaining, jarray output) {
     if (dimensionsRemaining == 1) {
         // write out 1d array of the respective primitive type
         return copyPrimitiveArrayToJava(jniEnv,onnxType,tensor,output);
+    } else if ((dimensionsRemaining == 2) && (onnxTypeSize(onnxType) != 0)) {
+        // write out a 2d array of primitive rows
+        return copyTensorRowsToJava(jniEnv,onnxType,tensor,(jobjectArray) output);
     } else {
         // recurse through the dimensions
         // Java arrays are objects until the final dimension
@@ -591,11 +941,68 @@ size_t copyTensorToJava(JNIEnv *jniEnv, ONNXTensorElementDataType onnxType, uint
             sizeConsumed += copyTensorToJava(jniEnv, onnxType, tensor + sizeConsumed, tensorSize - sizeConsumed, dimensionsRemaining - 1, childArr);
             // Cleanup reference to childArr so it doesn't prevent GC.
             (*jniEnv)->DeleteLocalRef(jniEnv,childArr);
+            if ((*jniEnv)->ExceptionCheck(jniEnv)) {
+                return sizeConsumed;
+            }
         }
         return sizeConsumed;
     }
 }
 
+void copyTensorToJavaRegion(JNIEnv *jniEnv, ONNXTensorElementDataType onnxType, uint8_t* tensor, size_t numElements,
+                            jarray output, jint offset) {
+    uint8_t *outputArr = (uint8_t *) (*jniEnv)->GetPrimitiveArrayCritical(jniEnv, output, NULL);
+    if (outputArr != NULL) {
+        // Java arrays of 16-bit floats are float arrays, so the element size comes from the Java type.
+        size_t javaTypeSize = (onnxType == ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16)
+            || (onnxType == ONNX_TENSOR_ELEMENT_DATA_TYPE_BFLOAT16) ? sizeof(jfloat) : onnxTypeSize(onnxType);
+        copyTensorToCriticalRow(onnxType, tensor, outputArr + (offset * javaTypeSize), numElements);
+        (*jniEnv)->ReleasePrimitiveArrayCritical(jniEnv, output, outputArr, 0);
+    }
+}
+
+/*
+ * Copies the strings out of a Java String array into a malloc'd array of malloc'd C strings.
+ * Returns NULL if the allocation failed.
+ */
+char** copyJavaStringArray(JNIEnv * jniEnv, jobjectArray javaNames, size_t numNames) {
+    char** names = (char**) calloc(numNames, sizeof(char*));
+    if (names == NULL) {
+        return NULL;
+    }
+    for (size_t i = 0; i < numNames; i++) {
+        jstring javaName = (jstring) (*jniEnv)->GetObjectArrayElement(jniEnv,javaNames,(jsize)i);
+        const char* utfName = (*jniEnv)->GetStringUTFChars(jniEnv,javaName,NULL);
+        size_t length = strlen(utfName);
+        names[i] = (char*) malloc(length+1);
+        if (names[i] != NULL) {
+            memcpy(names[i],utfName,length+1);
+        }
+        (*jniEnv)->ReleaseStringUTFChars(jniEnv,javaName,utfName);
+        (*jniEnv)->DeleteLocalRef(jniEnv,javaName);
+        if (names[i] == NULL) {
+            for (size_t j = 0; j < i; j++) {
+                free(names[j]);
+            }
+            free(names);
+            return NULL;
+        }
+    }
+    return names;
+}
+
+/*
+ * Frees an array of C strings produced by copyJavaStringArray.
+ */
+void freeStringArray(char** names, size_t numNames) {
+    if (names != NULL) {
+        for (size_t i = 0; i < numNames; i++) {
+            free(names[i]);
+        }
+        free(names);
+    }
+}
+
 jobject createStringFromStringTensor(JNIEnv *jniEnv, const OrtApi * api, OrtAllocator* allocator, OrtValue* tensor) {
     // Get the buffer size needed
     size_t totalStringLength;
@@ -671,8 +1078,7 @@ jobjectArray createStringArrayFromTensor(JNIEnv *jniEnv, const OrtApi * api, Ort
     api->ReleaseTensorTypeAndShapeInfo(tensorInfo);
 
     // Create the java array
-    jclass stringClazz = (*jniEnv)->FindClass(jniEnv,"java/lang/String");
-    jobjectArray outputArray = (*jniEnv)->NewObjectArray(jniEnv,length,stringClazz,NULL);
+    jobjectArray outputArray = (*jniEnv)->NewObjectArray(jniEnv,length,ortJniCache.stringClass,NULL);
 
     copyStringTensorToArray(jniEnv, api, allocator, tensor, length, outputArray);
 
@@ -757,29 +1163,17 @@ jobject createJavaTensorFromONNX(JNIEnv *jniEnv, const OrtApi * api, OrtAllocato
     api->ReleaseTensorTypeAndShapeInfo(info);
 
     // Construct the ONNXTensor object
-    char *tensorClassName = "ai/onnxruntime/OnnxTensor";
-    jclass clazz = (*jniEnv)->FindClass(jniEnv, tensorClassName);
-    jmethodID tensorConstructor = (*jniEnv)->GetMethodID(jniEnv,clazz, "<init>", "(JJLai/onnxruntime/TensorInfo;)V");
-    jobject javaTensor = (*jniEnv)->NewObject(jniEnv, clazz, tensorConstructor, (jlong) tensor, (jlong) allocator, tensorInfo);
+    jobject javaTensor = (*jniEnv)->NewObject(jniEnv, ortJniCache.onnxTensorClass, ortJniCache.onnxTensorConstructor, (jlong) tensor, (jlong) allocator, tensorInfo);
 
     return javaTensor;
 }
 
 jobject createJavaSequenceFromONNX(JNIEnv *jniEnv, const OrtApi * api, OrtAllocator* allocator, OrtValue* sequence) {
     // Setup
-    // Get the ONNXTensorType enum static method
-    char *onnxTensorTypeClassName = "ai/onnxruntime/TensorInfo$OnnxTensorType";
-    jclass onnxTensorTypeClazz = (*jniEnv)->FindClass(jniEnv, onnxTensorTypeClassName);
-    jmethodID onnxTensorTypeMapFromInt = (*jniEnv)->GetStaticMethodID(jniEnv,onnxTensorTypeClazz, "mapFromInt", "(I)Lai/onnxruntime/TensorInfo$OnnxTensorType;");
-
-    // Get the ONNXJavaType enum static method
-    char *javaDataTypeClassName = "ai/onnxruntime/OnnxJavaType";
-    jclass onnxJavaTypeClazz = (*jniEnv)->FindClass(jniEnv, javaDataTypeClassName);
-    jmethodID onnxJavaTypeMapFromONNXTensorType = (*jniEnv)->GetStaticMethodID(jniEnv,onnxJavaTypeClazz, "mapFromOnnxTensorType", "(Lai/onnxruntime/TensorInfo$OnnxTensorType;)Lai/onnxruntime/OnnxJavaType;");
-
-    // Get the sequence info class
-    char *sequenceInfoClassName = "ai/onnxruntime/SequenceInfo";
-    jclass sequenceInfoClazz = (*jniEnv)->FindClass(jniEnv, sequenceInfoClassName);
+    jclass onnxTensorTypeClazz = ortJniCache.onnxTensorTypeClass;
+    jmethodID onnxTensorTypeMapFromInt = ortJniCache.onnxTensorTypeMapFromInt;
+    jclass onnxJavaTypeClazz = ortJniCache.onnxJavaTypeClass;
+    jmethodID onnxJavaTypeMapFromONNXTensorType = ortJniCache.onnxJavaTypeMapFromOnnxTensorType;
 
     // Get the element count of this sequence
     size_t count;
@@ -806,8 +1200,7 @@ jobject createJavaSequenceFromONNX(JNIEnv *jniEnv, const OrtApi * api, OrtAlloca
             jobject onnxJavaType = (*jniEnv)->CallStaticObjectMethod(jniEnv,onnxJavaTypeClazz,onnxJavaTypeMapFromONNXTensorType,onnxTensorTypeJava);
 
             // Construct sequence info
-            jmethodID sequenceInfoConstructor = (*jniEnv)->GetMethodID(jniEnv,sequenceInfoClazz,"<init>","(ILai/onnxruntime/OnnxJavaType;)V");
-            sequenceInfo = (*jniEnv)->NewObject(jniEnv,sequenceInfoClazz,sequenceInfoConstructor,(jint)count,onnxJavaType);
+            sequenceInfo = (*jniEnv)->NewObject(jniEnv,ortJniCache.sequenceInfoClass,ortJniCache.sequenceInfoTensorConstructor,(jint)count,onnxJavaType);
             break;
         }
         case ONNX_TYPE_MAP: {
@@ -848,20 +1241,15 @@ jobject createJavaSequenceFromONNX(JNIEnv *jniEnv, const OrtApi * api, OrtAlloca
             jobject onnxTensorTypeJavaValue = (*jniEnv)->CallStaticObjectMethod(jniEnv,onnxTensorTypeClazz,onnxTensorTypeMapFromInt,onnxTypeValue);
             jobject onnxJavaTypeValue = (*jniEnv)->CallStaticObjectMethod(jniEnv,onnxJavaTypeClazz,onnxJavaTypeMapFromONNXTensorType,onnxTensorTypeJavaValue);
 
-            // Get the map info class
-            char *mapInfoClassName = "ai/onnxruntime/MapInfo";
-            jclass mapInfoClazz = (*jniEnv)->FindClass(jniEnv, mapInfoClassName);
             // Construct map info
-            jmethodID mapInfoConstructor = (*jniEnv)->GetMethodID(jniEnv,mapInfoClazz,"<init>","(ILai/onnxruntime/OnnxJavaType;Lai/onnxruntime/OnnxJavaType;)V");
-            jobject mapInfo = (*jniEnv)->NewObject(jniEnv,mapInfoClazz,mapInfoConstructor,(jint)mapCount,onnxJavaTypeKey,onnxJavaTypeValue);
+            jobject mapInfo = (*jniEnv)->NewObject(jniEnv,ortJniCache.mapInfoClass,ortJniCache.mapInfoConstructor,(jint)mapCount,onnxJavaTypeKey,onnxJavaTypeValue);
 
             // Free the intermediate tensors.
             api->ReleaseValue(keys);
             api->ReleaseValue(values);
 
             // Construct sequence info
-            jmethodID sequenceInfoConstructor = (*jniEnv)->GetMethodID(jniEnv,sequenceInfoClazz,"<init>","(ILai/onnxruntime/MapInfo;)V");
-            sequenceInfo = (*jniEnv)->NewObject(jniEnv,sequenceInfoClazz,sequenceInfoConstructor,(jint)count,mapInfo);
+            sequenceInfo = (*jniEnv)->NewObject(jniEnv,ortJniCache.sequenceInfoClass,ortJniCache.sequenceInfoMapConstructor,(jint)count,mapInfo);
             break;
         }
         default: {
@@ -875,29 +1263,17 @@ jobject createJavaSequenceFromONNX(JNIEnv *jniEnv, const OrtApi * api, OrtAlloca
     api->ReleaseValue(firstElement);
 
     // Construct the ONNXSequence object
-    char *sequenceClassName = "ai/onnxruntime/OnnxSequence";
-    jclass sequenceClazz = (*jniEnv)->FindClass(jniEnv, sequenceClassName);
-    jmethodID sequenceConstructor = (*jniEnv)->GetMethodID(jniEnv,sequenceClazz, "<init>", "(JJLai/onnxruntime/SequenceInfo;)V");
-    jobject javaSequence = (*jniEnv)->NewObject(jniEnv, sequenceClazz, sequenceConstructor, (jlong)sequence, (jlong)allocator, sequenceInfo);
+    jobject javaSequence = (*jniEnv)->NewObject(jniEnv, ortJniCache.onnxSequenceClass, ortJniCache.onnxSequenceConstructor, (jlong)sequence, (jlong)allocator, sequenceInfo);
 
     return javaSequence;
 }
 
 jobject createJavaMapFromONNX(JNIEnv *jniEnv, const OrtApi * api, OrtAllocator* allocator, OrtValue* map) {
     // Setup
-    // Get the ONNXTensorType enum static method
-    char *onnxTensorTypeClassName = "ai/onnxruntime/TensorInfo$OnnxTensorType";
-    jclass onnxTensorTypeClazz = (*jniEnv)->FindClass(jniEnv, onnxTensorTypeClassName);
-    jmethodID onnxTensorTypeMapFromInt = (*jniEnv)->GetStaticMethodID(jniEnv,onnxTensorTypeClazz, "mapFromInt", "(I)Lai/onnxruntime/TensorInfo$OnnxTensorType;");
-
-    // Get the ONNXJavaType enum static method
-    char *javaDataTypeClassName = "ai/onnxruntime/OnnxJavaType";
-    jclass onnxJavaTypeClazz = (*jniEnv)->FindClass(jniEnv, javaDataTypeClassName);
-    jmethodID onnxJavaTypeMapFromONNXTensorType = (*jniEnv)->GetStaticMethodID(jniEnv,onnxJavaTypeClazz, "mapFromOnnxTensorType", "(Lai/onnxruntime/TensorInfo$OnnxTensorType;)Lai/onnxruntime/OnnxJavaType;");
-
-    // Get the map info class
-    char *mapInfoClassName = "ai/onnxruntime/MapInfo";
-    jclass mapInfoClazz = (*jniEnv)->FindClass(jniEnv, mapInfoClassName);
+    jclass onnxTensorTypeClazz = ortJniCache.onnxTensorTypeClass;
+    jmethodID onnxTensorTypeMapFromInt = ortJniCache.onnxTensorTypeMapFromInt;
+    jclass onnxJavaTypeClazz = ortJniCache.onnxJavaTypeClass;
+    jmethodID onnxJavaTypeMapFromONNXTensorType = ortJniCache.onnxJavaTypeMapFromOnnxTensorType;
 
     // Extract key
     OrtValue* keys;
@@ -937,18 +1313,14 @@ jobject createJavaMapFromONNX(JNIEnv *jniEnv, const OrtApi * api, OrtAllocator*
     jobject onnxJavaTypeValue = (*jniEnv)->CallStaticObjectMethod(jniEnv,onnxJavaTypeClazz,onnxJavaTypeMapFromONNXTensorType,onnxTensorTypeJavaValue);
 
     // Construct map info
-    jmethodID mapInfoConstructor = (*jniEnv)->GetMethodID(jniEnv,mapInfoClazz,"<init>","(ILai/onnxruntime/OnnxJavaType;Lai/onnxruntime/OnnxJavaType;)V");
-    jobject mapInfo = (*jniEnv)->NewObject(jniEnv,mapInfoClazz,mapInfoConstructor,(jint)mapCount,onnxJavaTypeKey,onnxJavaTypeValue);
+    jobject mapInfo = (*jniEnv)->NewObject(jniEnv,ortJniCache.mapInfoClass,ortJniCache.mapInfoConstructor,(jint)mapCount,onnxJavaTypeKey,onnxJavaTypeValue);
 
     // Free the intermediate tensors.
     checkOrtStatus(jniEnv,api,api->AllocatorFree(allocator,keys));
     checkOrtStatus(jniEnv,api,api->AllocatorFree(allocator,values));
 
     // Construct the ONNXMap object
-    char *mapClassName = "ai/onnxruntime/OnnxMap";
-    jclass mapClazz = (*jniEnv)->FindClass(jniEnv, mapClassName);
-    jmethodID mapConstructor = (*jniEnv)->GetMethodID(jniEnv,mapClazz, "<init>", "(JJLai/onnxruntime/MapInfo;)V");
-    jobject javaMap = (*jniEnv)->NewObject(jniEnv, mapClazz, mapConstructor, (jlong)map, (jlong) allocator, mapInfo);
+    jobject javaMap = (*jniEnv)->NewObject(jniEnv, ortJniCache.onnxMapClass, ortJniCache.onnxMapConstructor, (jlong)map, (jlong) allocator, mapInfo);
 
     return javaMap;
 }
@@ -980,10 +1352,7 @@ jobject convertOrtValueToONNXValue(JNIEnv *jniEnv, const OrtApi * api, OrtAlloca
 jint throwOrtException(JNIEnv *jniEnv, int messageId, const char *message) {
     jstring messageStr = (*jniEnv)->NewStringUTF(jniEnv, message);
 
-    char *className = "ai/onnxruntime/OrtException";
-    jclass exClazz = (*jniEnv)->FindClass(jniEnv,className);
-    jmethodID exConstructor = (*jniEnv)->GetMethodID(jniEnv, exClazz, "<init>", "(ILjava/lang/String;)V");
-    jobject javaException = (*jniEnv)->NewObject(jniEnv, exClazz, exConstructor, messageId, messageStr);
+    jobject javaException = (*jniEnv)->NewObject(jniEnv, ortJniCache.ortExceptionClass, ortJniCache.ortExceptionConstructor, messageId, messageStr);
 
     return (*jniEnv)->Throw(jniEnv,javaException);
 }
@@ -11,8 +11,50 @@
 extern "C" {
 #endif
 
+/*
+ * Global references to the Java classes and the method ids used by the native code.
+ * Populated once in JNI_OnLoad and released in JNI_OnUnload, so the native methods
+ * don't need to call FindClass or GetMethodID on every invocation.
+ */
+typedef struct OrtJniCache {
+    jclass objectClass;
+    jclass stringClass;
+    jclass onnxValueClass;
+    jclass onnxTensorClass;
+    jmethodID onnxTensorConstructor;
+    jclass onnxSequenceClass;
+    jmethodID onnxSequenceConstructor;
+    jclass onnxMapClass;
+    jmethodID onnxMapConstructor;
+    jclass tensorInfoClass;
+    jmethodID tensorInfoConstructor;
+    jclass onnxTensorTypeClass;
+    jmethodID onnxTensorTypeMapFromInt;
+    jclass onnxJavaTypeClass;
+    jmethodID onnxJavaTypeMapFromInt;
+    jmethodID onnxJavaTypeMapFromOnnxTensorType;
+    jclass mapInfoClass;
+    jmethodID mapInfoConstructor;
+    jmethodID mapInfoEmptyConstructor;
+    jclass sequenceInfoClass;
+    jmethodID sequenceInfoTensorConstructor;
+    jmethodID sequenceInfoMapConstructor;
+    jclass nodeInfoClass;
+    jmethodID nodeInfoConstructor;
+    jclass modelMetadataClass;
+    jmethodID modelMetadataConstructor;
+    jclass ortExceptionClass;
+    jmethodID ortExceptionConstructor;
+} OrtJniCache;
+
+extern OrtJniCache ortJniCache;
+
 jint JNI_OnLoad(JavaVM *vm, void *reserved);
 
+void JNI_OnUnload(JavaVM *vm, void *reserved);
+
+int initJniCache(JNIEnv *jniEnv);
+
 OrtLoggingLevel convertLoggingLevel(jint level);
 
 GraphOptimizationLevel convertOptimizationLevel(jint level);
@@ -25,8 +67,16 @@ ONNXTensorElementDataType convertToONNXDataFormat(jint type);
 
 size_t onnxTypeSize(ONNXTensorElementDataType type);
 
+void initHalfToFloatTable();
+
 jfloat convertHalfToFloat(uint16_t half);
 
+jfloat convertBFloat16ToFloat(uint16_t bfloat);
+
+uint16_t convertFloatToHalf(jfloat value);
+
+uint16_t convertFloatToBFloat16(jfloat value);
+
 jobject convertToValueInfo(JNIEnv *jniEnv, const OrtApi * api, OrtTypeInfo * info);
 
 jobject convertToTensorInfo(JNIEnv *jniEnv, const OrtApi * api, const OrtTensorTypeAndShapeInfo * info);
@@ -45,6 +95,16 @@ size_t copyPrimitiveArrayToJava(JNIEnv *jniEnv, ONNXTensorElementDataType onnxTy
 
 size_t copyTensorToJava(JNIEnv *jniEnv, ONNXTensorElementDataType onnxType, uint8_t* tensor, size_t tensorSize, uint32_t dimensionsRemaining, jarray output);
 
+/*
+ * Copies every element of a non-string tensor into a primitive Java array starting at offset,
+ * the bounds must have been checked in Java. Converts 16-bit floats into floats.
+ */
+void copyTensorToJavaRegion(JNIEnv *jniEnv, ONNXTensorElementDataType onnxType, uint8_t* tensor, size_t numElements, jarray output, jint offset);
+
+char** copyJavaStringArray(JNIEnv *jniEnv, jobjectArray javaNames, size_t numNames);
+
+void freeStringArray(char** names, size_t numNames);
+
 jobject createStringFromStringTensor(JNIEnv *jniEnv, const OrtApi * api, OrtAllocator* allocator, OrtValue* tensor);
 
 void copyStringTensorToArray(JNIEnv *jniEnv, const OrtApi * api, OrtAllocator* allocator, OrtValue* tensor, size_t length, jobjectArray outputArray);
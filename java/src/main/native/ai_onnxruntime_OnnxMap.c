@@ -8,130 +8,59 @@
 #include "ai_onnxruntime_OnnxMap.h"
 
 /*
- * Class:     ai_onnxruntime_OnnxMap
- * Method:    getStringKeys
- * Signature: (J)[Ljava/lang/String;
- */
-JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OnnxMap_getStringKeys
-  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong handle, jlong allocatorHandle) {
-    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
-    const OrtApi* api = (const OrtApi*) apiHandle;
-    OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
-    // Extract key
-    OrtValue* keys;
-    checkOrtStatus(jniEnv,api,api->GetValue((OrtValue*)handle,0,allocator,&keys));
-
-    // Convert to Java String array
-    jobjectArray output = createStringArrayFromTensor(jniEnv, api, allocator, keys);
-
-    api->ReleaseValue(keys);
-
-    return output;
-}
-
-/*
- * Class:     ai_onnxruntime_OnnxMap
- * Method:    getLongKeys
- * Signature: (JJ)[J
- */
-JNIEXPORT jlongArray JNICALL Java_ai_onnxruntime_OnnxMap_getLongKeys
-  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong handle, jlong allocatorHandle) {
-    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
-    const OrtApi* api = (const OrtApi*) apiHandle;
-    OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
-    // Extract key
-    OrtValue* keys;
-    checkOrtStatus(jniEnv,api,api->GetValue((OrtValue*)handle,0,allocator,&keys));
-
-    jlongArray output = createLongArrayFromTensor(jniEnv, api, keys);
-
-    api->ReleaseValue(keys);
-
-    return output;
-}
-
-/*
- * Class:     ai_onnxruntime_OnnxMap
- * Method:    getStringValues
- * Signature: (JJ)[Ljava/lang/String;
- */
-JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OnnxMap_getStringValues
-  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong handle, jlong allocatorHandle) {
-    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
-    const OrtApi* api = (const OrtApi*) apiHandle;
-    OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
-    // Extract value
-    OrtValue* values;
-    checkOrtStatus(jniEnv,api,api->GetValue((OrtValue*)handle,1,allocator,&values));
-
-    // Convert to Java String array
-    jobjectArray output = createStringArrayFromTensor(jniEnv, api, allocator, values);
-
-    api->ReleaseValue(values);
-
-    return output;
-}
-
-/*
- * Class:     ai_onnxruntime_OnnxMap
- * Method:    getLongValues
- * Signature: (JJ)[J
- */
-JNIEXPORT jlongArray JNICALL Java_ai_onnxruntime_OnnxMap_getLongValues
-  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong handle, jlong allocatorHandle) {
-    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
-    const OrtApi* api = (const OrtApi*) apiHandle;
-    OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
-    // Extract value
-    OrtValue* values;
-    checkOrtStatus(jniEnv,api,api->GetValue((OrtValue*)handle,1,allocator,&values));
-
-    jlongArray output = createLongArrayFromTensor(jniEnv, api, values);
-
-    api->ReleaseValue(values);
-
-    return output;
-}
-
-/*
- * Class:     ai_onnxruntime_OnnxMap
- * Method:    getFloatValues
- * Signature: (JJ)[F
+ * Converts a map key or value tensor into the matching Java array.
  */
-JNIEXPORT jfloatArray JNICALL Java_ai_onnxruntime_OnnxMap_getFloatValues
-  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong handle, jlong allocatorHandle) {
-    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
-    const OrtApi* api = (const OrtApi*) apiHandle;
-    OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
-    // Extract value
-    OrtValue* values;
-    checkOrtStatus(jniEnv,api,api->GetValue((OrtValue*)handle,1,allocator,&values));
-
-    jfloatArray output = createFloatArrayFromTensor(jniEnv, api, values);
-
-    api->ReleaseValue(values);
-
-    return output;
+static jobject createArrayFromTensor(JNIEnv *jniEnv, const OrtApi * api, OrtAllocator* allocator, OrtValue* tensor) {
+    OrtTensorTypeAndShapeInfo* info;
+    checkOrtStatus(jniEnv,api,api->GetTensorTypeAndShape(tensor, &info));
+    ONNXTensorElementDataType type;
+    checkOrtStatus(jniEnv,api,api->GetTensorElementType(info,&type));
+    api->ReleaseTensorTypeAndShapeInfo(info);
+    switch (type) {
+        case ONNX_TENSOR_ELEMENT_DATA_TYPE_STRING:
+            return createStringArrayFromTensor(jniEnv, api, allocator, tensor);
+        case ONNX_TENSOR_ELEMENT_DATA_TYPE_INT64:
+            return createLongArrayFromTensor(jniEnv, api, tensor);
+        case ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT:
+            return createFloatArrayFromTensor(jniEnv, api, tensor);
+        case ONNX_TENSOR_ELEMENT_DATA_TYPE_DOUBLE:
+            return createDoubleArrayFromTensor(jniEnv, api, tensor);
+        default:
+            throwOrtException(jniEnv,convertErrorCode(ORT_INVALID_ARGUMENT),"Invalid map key or value type.");
+            return NULL;
+    }
 }
 
 /*
  * Class:     ai_onnxruntime_OnnxMap
- * Method:    getDoubleValues
- * Signature: (JJ)[D
+ * Method:    getKeysAndValues
+ * Signature: (JJJ)[Ljava/lang/Object;
  */
-JNIEXPORT jdoubleArray JNICALL Java_ai_onnxruntime_OnnxMap_getDoubleValues
+JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OnnxMap_getKeysAndValues
   (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong handle, jlong allocatorHandle) {
     (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
     const OrtApi* api = (const OrtApi*) apiHandle;
     OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
-    // Extract value
-    OrtValue* values;
-    checkOrtStatus(jniEnv,api,api->GetValue((OrtValue*)handle,1,allocator,&values));
-
-    jdoubleArray output = createDoubleArrayFromTensor(jniEnv, api, values);
-
-    api->ReleaseValue(values);
-
+    jobjectArray output = (*jniEnv)->NewObjectArray(jniEnv,2,ortJniCache.objectClass,NULL);
+    if (output == NULL) {
+        return NULL;
+    }
+    for (int i = 0; i < 2; i++) {
+        // Index 0 holds the keys and index 1 the values.
+        OrtValue* tensor = NULL;
+        OrtStatus* status = api->GetValue((OrtValue*)handle,i,allocator,&tensor);
+        if (status != NULL) {
+            checkOrtStatus(jniEnv,api,status);
+            return NULL;
+        }
+        jobject array = createArrayFromTensor(jniEnv, api, allocator, tensor);
+        api->ReleaseValue(tensor);
+        if ((*jniEnv)->ExceptionCheck(jniEnv)) {
+            return NULL;
+        }
+        (*jniEnv)->SetObjectArrayElement(jniEnv,output,i,array);
+        (*jniEnv)->DeleteLocalRef(jniEnv,array);
+    }
     return output;
 }
 
@@ -4,6 +4,7 @@
  */
 #include <jni.h>
 #include "onnxruntime/core/session/onnxruntime_c_api.h"
+#include "OrtJniUtil.h"
 #include "ai_onnxruntime_OnnxRuntime.h"
 
 /*
@@ -13,7 +14,10 @@
  */
 JNIEXPORT jlong JNICALL Java_ai_onnxruntime_OnnxRuntime_initialiseAPIBase
   (JNIEnv * jniEnv, jclass clazz, jint apiVersion) {
-    (void) jniEnv; (void) clazz; // required JNI parameters not needed by functions which don't call back into Java.
+    (void) clazz; // Required JNI parameter not needed by functions which don't need to access their host object.
+    if (!initJniCache(jniEnv)) {
+        return 0;
+    }
     const OrtApi* ortPtr = OrtGetApiBase()->GetApi((uint32_t) apiVersion);
     return (jlong) ortPtr;
 }
@@ -6,6 +6,33 @@
 #include "onnxruntime/core/session/onnxruntime_c_api.h"
 #include "OrtJniUtil.h"
 #include "ai_onnxruntime_OnnxSequence.h"
+/*
+ * Class:     ai_onnxruntime_OnnxSequence
+ * Method:    getElement
+ * Signature: (JJJI)Lai/onnxruntime/OnnxValue;
+ */
+JNIEXPORT jobject JNICALL Java_ai_onnxruntime_OnnxSequence_getElement
+  (JNIEnv *jniEnv, jobject jobj, jlong apiHandle, jlong handle, jlong allocatorHandle, jint index) {
+    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    OrtValue* sequence = (OrtValue*) handle;
+    OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
+
+    // Extract the element, the Java object takes ownership of it.
+    OrtValue* element;
+    OrtStatus* status = api->GetValue(sequence,index,allocator,&element);
+    if (status != NULL) {
+        checkOrtStatus(jniEnv,api,status);
+        return NULL;
+    }
+
+    jobject output = convertOrtValueToONNXValue(jniEnv,api,allocator,element);
+    if (output == NULL) {
+        api->ReleaseValue(element);
+    }
+    return output;
+}
+
 /*
  * Class:     ai_onnxruntime_OnnxSequence
  * Method:    getStringKeys
@@ -178,8 +205,7 @@ JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OnnxSequence_getStrings
     size_t count;
     checkOrtStatus(jniEnv,api,api->GetValueCount(sequence,&count));
 
-    jclass stringClazz = (*jniEnv)->FindClass(jniEnv,"java/lang/String");
-    jobjectArray outputArray = (*jniEnv)->NewObjectArray(jniEnv,count,stringClazz,NULL);
+    jobjectArray outputArray = (*jniEnv)->NewObjectArray(jniEnv,count,ortJniCache.stringClass,NULL);
     for (size_t i = 0; i < count; i++) {
         // Extract element
         OrtValue* element;
@@ -313,6 +339,123 @@ JNIEXPORT jdoubleArray JNICALL Java_ai_onnxruntime_OnnxSequence_getDoubles
     return outputArray;
 }
 
+/*
+ * Converts a tensor of map keys into a Java long or String array.
+ */
+static jobject createArrayFromKeys(JNIEnv *jniEnv, const OrtApi * api, OrtAllocator* allocator, OrtValue* keys) {
+    OrtTensorTypeAndShapeInfo* info;
+    OrtStatus* status = api->GetTensorTypeAndShape(keys,&info);
+    if (status != NULL) {
+        checkOrtStatus(jniEnv,api,status);
+        return NULL;
+    }
+    ONNXTensorElementDataType type;
+    status = api->GetTensorElementType(info,&type);
+    api->ReleaseTensorTypeAndShapeInfo(info);
+    if (status != NULL) {
+        checkOrtStatus(jniEnv,api,status);
+        return NULL;
+    }
+    if (type == ONNX_TENSOR_ELEMENT_DATA_TYPE_STRING) {
+        return createStringArrayFromTensor(jniEnv, api, allocator, keys);
+    } else {
+        return createLongArrayFromTensor(jniEnv, api, keys);
+    }
+}
+
+/*
+ * Class:     ai_onnxruntime_OnnxSequence
+ * Method:    getClassifierColumns
+ * Signature: (JJJ)[Ljava/lang/Object;
+ */
+JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OnnxSequence_getClassifierColumns
+  (JNIEnv *jniEnv, jobject jobj, jlong apiHandle, jlong handle, jlong allocatorHandle) {
+    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
+    OrtValue* sequence = (OrtValue*) handle;
+    OrtStatus* status;
+
+    size_t count;
+    status = api->GetValueCount(sequence,&count);
+    if (status != NULL) {
+        checkOrtStatus(jniEnv,api,status);
+        return NULL;
+    }
+
+    jobjectArray output = (*jniEnv)->NewObjectArray(jniEnv,2,ortJniCache.objectClass,NULL);
+    jobject labels = NULL;
+    jfloatArray probabilities = NULL;
+    size_t numClasses = 0;
+    for (size_t i = 0; (i < count) && (output != NULL); i++) {
+        OrtValue* map = NULL;
+        OrtValue* keys = NULL;
+        OrtValue* values = NULL;
+        status = api->GetValue(sequence,(int)i,allocator,&map);
+        if ((status == NULL) && (i == 0)) {
+            // Every ZipMap row has the same keys, so they are only read from the first row.
+            status = api->GetValue(map,0,allocator,&keys);
+        }
+        if (status == NULL) {
+            status = api->GetValue(map,1,allocator,&values);
+        }
+        float* data = NULL;
+        size_t rowSize = 0;
+        if (status == NULL) {
+            OrtTensorTypeAndShapeInfo* info;
+            status = api->GetTensorTypeAndShape(values,&info);
+            if (status == NULL) {
+                ONNXTensorElementDataType type;
+                status = api->GetTensorElementType(info,&type);
+                if (status == NULL) {
+                    status = api->GetTensorShapeElementCount(info,&rowSize);
+                }
+                api->ReleaseTensorTypeAndShapeInfo(info);
+                if ((status == NULL) && (type != ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT)) {
+                    status = api->CreateStatus(ORT_INVALID_ARGUMENT,"Classifier probabilities must be floats.");
+                }
+            }
+        }
+        if (status == NULL) {
+            status = api->GetTensorMutableData(values,(void**)&data);
+        }
+        if ((status == NULL) && (i == 0)) {
+            numClasses = rowSize;
+            labels = createArrayFromKeys(jniEnv,api,allocator,keys);
+            if (labels != NULL) {
+                probabilities = (*jniEnv)->NewFloatArray(jniEnv,(jsize)(count * numClasses));
+            }
+        }
+        if ((status == NULL) && (rowSize != numClasses)) {
+            status = api->CreateStatus(ORT_INVALID_ARGUMENT,"Classifier rows have differing numbers of classes.");
+        }
+        if ((status == NULL) && (probabilities != NULL)) {
+            (*jniEnv)->SetFloatArrayRegion(jniEnv,probabilities,(jsize)(i * numClasses),(jsize)numClasses,data);
+        }
+        if (values != NULL) {
+            api->ReleaseValue(values);
+        }
+        if (keys != NULL) {
+            api->ReleaseValue(keys);
+        }
+        if (map != NULL) {
+            api->ReleaseValue(map);
+        }
+        if (status != NULL) {
+            checkOrtStatus(jniEnv,api,status);
+            return NULL;
+        }
+        if ((*jniEnv)->ExceptionCheck(jniEnv)) {
+            return NULL;
+        }
+    }
+    if (output != NULL) {
+        (*jniEnv)->SetObjectArrayElement(jniEnv,output,0,labels);
+        (*jniEnv)->SetObjectArrayElement(jniEnv,output,1,probabilities);
+    }
+    return output;
+}
+
 /*
  * Class:     ai_onnxruntime_OnnxSequence
  * Method:    close
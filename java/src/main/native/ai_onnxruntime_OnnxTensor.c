@@ -4,6 +4,8 @@
  */
 #include <jni.h>
 #include <math.h>
+#include <stdlib.h>
+#include <string.h>
 #include "onnxruntime/core/session/onnxruntime_c_api.h"
 #include "OrtJniUtil.h"
 #include "ai_onnxruntime_OnnxTensor.h"
@@ -53,6 +55,50 @@ JNIEXPORT jlong JNICALL Java_ai_onnxruntime_OnnxTensor_createTensor
     return (jlong) ortValue;
 }
 
+/*
+ * Class:     ai_onnxruntime_OnnxTensor
+ * Method:    createTensorFromArray
+ * Signature: (JJLjava/lang/Object;[JI)J
+ */
+JNIEXPORT jlong JNICALL Java_ai_onnxruntime_OnnxTensor_createTensorFromArray
+        (JNIEnv * jniEnv, jclass jobj, jlong apiHandle, jlong allocatorHandle, jobject dataObj, jlongArray shape, jint onnxTypeJava) {
+    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
+    // Convert type to ONNX C enum
+    ONNXTensorElementDataType onnxType = convertToONNXDataFormat(onnxTypeJava);
+
+    // Extract the shape information
+    jlong* shapeArr = (*jniEnv)->GetLongArrayElements(jniEnv,shape,NULL);
+    jsize shapeLen = (*jniEnv)->GetArrayLength(jniEnv,shape);
+
+    // Create the OrtValue
+    OrtValue* ortValue = NULL;
+    OrtStatus* status = api->CreateTensorAsOrtValue(allocator,(int64_t*)shapeArr,shapeLen,onnxType,&ortValue);
+    (*jniEnv)->ReleaseLongArrayElements(jniEnv,shape,shapeArr,JNI_ABORT);
+    if (status != NULL) {
+        checkOrtStatus(jniEnv,api,status);
+        return 0;
+    }
+
+    // Copy the flat java array straight into the tensor, the length was checked in Java.
+    uint8_t* tensorData;
+    status = api->GetTensorMutableData(ortValue, (void**) &tensorData);
+    if (status != NULL) {
+        api->ReleaseValue(ortValue);
+        checkOrtStatus(jniEnv,api,status);
+        return 0;
+    }
+    copyJavaToPrimitiveArray(jniEnv, onnxType, tensorData, (jarray) dataObj);
+    if ((*jniEnv)->ExceptionCheck(jniEnv)) {
+        api->ReleaseValue(ortValue);
+        return 0;
+    }
+
+    // Return the pointer to the OrtValue
+    return (jlong) ortValue;
+}
+
 /*
  * Class:     ai_onnxruntime_OnnxTensor
  * Method:    createTensorFromBuffer
@@ -123,51 +169,103 @@ JNIEXPORT jlong JNICALL Java_ai_onnxruntime_OnnxTensor_createString
 
 /*
  * Class:     ai_onnxruntime_OnnxTensor
- * Method:    createStringTensor
- * Signature: (JJ[Ljava/lang/Object;[J)J
+ * Method:    createStringTensorFromUtf8
+ * Signature: (JJLjava/nio/ByteBuffer;[BII[I[J)J
  */
-JNIEXPORT jlong JNICALL Java_ai_onnxruntime_OnnxTensor_createStringTensor
-        (JNIEnv * jniEnv, jclass jobj, jlong apiHandle, jlong allocatorHandle, jobjectArray stringArr, jlongArray shape) {
+JNIEXPORT jlong JNICALL Java_ai_onnxruntime_OnnxTensor_createStringTensorFromUtf8
+        (JNIEnv * jniEnv, jclass jobj, jlong apiHandle, jlong allocatorHandle, jobject directData, jbyteArray heapData,
+         jint dataOffset, jint dataLength, jintArray offsetArr, jlongArray shape) {
     (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
     const OrtApi* api = (const OrtApi*) apiHandle;
     OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
 
     // Extract the shape information
-    jboolean mkCopy;
-    jlong* shapeArr = (*jniEnv)->GetLongArrayElements(jniEnv,shape,&mkCopy);
+    jlong* shapeArr = (*jniEnv)->GetLongArrayElements(jniEnv,shape,NULL);
     jsize shapeLen = (*jniEnv)->GetArrayLength(jniEnv,shape);
 
-    // Array length
-    jsize length = (*jniEnv)->GetArrayLength(jniEnv, stringArr);
-
     // Create the OrtValue
-    OrtValue* ortValue;
-    checkOrtStatus(jniEnv, api, api->CreateTensorAsOrtValue(allocator,(int64_t*)shapeArr,shapeLen,ONNX_TENSOR_ELEMENT_DATA_TYPE_STRING,&ortValue));
+    OrtValue* ortValue = NULL;
+    OrtStatus* status = api->CreateTensorAsOrtValue(allocator,(int64_t*)shapeArr,shapeLen,ONNX_TENSOR_ELEMENT_DATA_TYPE_STRING,&ortValue);
     (*jniEnv)->ReleaseLongArrayElements(jniEnv,shape,shapeArr,JNI_ABORT);
+    if (status != NULL) {
+        checkOrtStatus(jniEnv,api,status);
+        return 0;
+    }
 
-    // Create the buffers for the Java strings
-    const char** strings;
-    checkOrtStatus(jniEnv, api, api->AllocatorAlloc(allocator,sizeof(char*)*length,(void**)&strings));
-    jobject* javaStrings;
-    checkOrtStatus(jniEnv, api, api->AllocatorAlloc(allocator,sizeof(jobject)*length,(void**)&javaStrings));
-
-    // Copy the java strings into the buffers
-    for (int i = 0; i < length; i++) {
-        javaStrings[i] = (*jniEnv)->GetObjectArrayElement(jniEnv,stringArr,i);
-        strings[i] = (*jniEnv)->GetStringUTFChars(jniEnv,javaStrings[i],NULL);
+    // FillStringTensor needs null terminated strings, so copy every string into one scratch block.
+    jsize length = (*jniEnv)->GetArrayLength(jniEnv,offsetArr);
+    char* scratch = (char*) malloc((size_t) dataLength + (size_t) length + 1);
+    const char** strings = (const char**) malloc(sizeof(char*) * ((size_t) length + 1));
+    if ((scratch == NULL) || (strings == NULL)) {
+        free(scratch);
+        free(strings);
+        api->ReleaseValue(ortValue);
+        throwOrtException(jniEnv,convertErrorCode(ORT_FAIL),"Failed to allocate string scratch space.");
+        return 0;
     }
 
-    // Assign the strings into the Tensor
-    checkOrtStatus(jniEnv, api, api->FillStringTensor(ortValue,strings,length));
+    // The direct address is fetched before pinning, as only the critical get/release calls are
+    // allowed while an array is pinned.
+    const char* directAddress = NULL;
+    if (directData != NULL) {
+        directAddress = (const char*) (*jniEnv)->GetDirectBufferAddress(jniEnv,directData);
+        if (directAddress == NULL) {
+            free(scratch);
+            free(strings);
+            api->ReleaseValue(ortValue);
+            if (!(*jniEnv)->ExceptionCheck(jniEnv)) {
+                throwOrtException(jniEnv,convertErrorCode(ORT_INVALID_ARGUMENT),"Failed to access the string data.");
+            }
+            return 0;
+        }
+    }
 
-    // Release the Java strings
-    for (int i = 0; i < length; i++) {
-        (*jniEnv)->ReleaseStringUTFChars(jniEnv,javaStrings[i],strings[i]);
+    // The offsets were validated in Java. No other JNI calls are made while the arrays are pinned.
+    jint* offsets = (jint*) (*jniEnv)->GetPrimitiveArrayCritical(jniEnv,offsetArr,NULL);
+    const char* data = NULL;
+    if (offsets != NULL) {
+        if (directAddress != NULL) {
+            data = directAddress;
+        } else {
+            data = (const char*) (*jniEnv)->GetPrimitiveArrayCritical(jniEnv,heapData,NULL);
+        }
+    }
+    if (data != NULL) {
+        char* cur = scratch;
+        for (jsize i = 0; i < length; i++) {
+            jint end = (i + 1 < length) ? offsets[i+1] : dataLength;
+            size_t curLength = (size_t) (end - offsets[i]);
+            memcpy(cur, data + dataOffset + offsets[i], curLength);
+            cur[curLength] = '\0';
+            strings[i] = cur;
+            cur += curLength + 1;
+        }
+        if (directAddress == NULL) {
+            (*jniEnv)->ReleasePrimitiveArrayCritical(jniEnv,heapData,(void*)data,JNI_ABORT);
+        }
+    }
+    if (offsets != NULL) {
+        (*jniEnv)->ReleasePrimitiveArrayCritical(jniEnv,offsetArr,offsets,JNI_ABORT);
+    }
+    if (data == NULL) {
+        free(scratch);
+        free(strings);
+        api->ReleaseValue(ortValue);
+        if (!(*jniEnv)->ExceptionCheck(jniEnv)) {
+            throwOrtException(jniEnv,convertErrorCode(ORT_INVALID_ARGUMENT),"Failed to access the string data.");
+        }
+        return 0;
     }
 
-    // Release the buffers
-    checkOrtStatus(jniEnv, api, api->AllocatorFree(allocator, strings));
-    checkOrtStatus(jniEnv, api, api->AllocatorFree(allocator, javaStrings));
+    // Assign the strings into the Tensor
+    status = api->FillStringTensor(ortValue,strings,length);
+    free(scratch);
+    free(strings);
+    if (status != NULL) {
+        api->ReleaseValue(ortValue);
+        checkOrtStatus(jniEnv,api,status);
+        return 0;
+    }
 
     return (jlong) ortValue;
 }
@@ -216,6 +314,10 @@ JNIEXPORT jfloat JNICALL Java_ai_onnxruntime_OnnxTensor_getFloat
         jfloat* arr;
         checkOrtStatus(jniEnv,api,api->GetTensorMutableData((OrtValue*)handle,(void**)&arr));
         return *arr;
+    } else if (onnxType == 16) {
+        uint16_t* arr;
+        checkOrtStatus(jniEnv,api,api->GetTensorMutableData((OrtValue*)handle,(void**)&arr));
+        return convertBFloat16ToFloat(*arr);
     } else {
         return NAN;
     }
@@ -386,6 +488,102 @@ JNIEXPORT void JNICALL Java_ai_onnxruntime_OnnxTensor_getArray
     }
 }
 
+/*
+ * Class:     ai_onnxruntime_OnnxTensor
+ * Method:    copyToArray
+ * Signature: (JJLjava/lang/Object;I)V
+ */
+JNIEXPORT void JNICALL Java_ai_onnxruntime_OnnxTensor_copyToArray
+  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong handle, jobject dst, jint offset) {
+    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    OrtTensorTypeAndShapeInfo* info;
+    checkOrtStatus(jniEnv,api,api->GetTensorTypeAndShape((OrtValue*) handle, &info));
+    size_t arrSize;
+    checkOrtStatus(jniEnv,api,api->GetTensorShapeElementCount(info,&arrSize));
+    ONNXTensorElementDataType onnxTypeEnum;
+    checkOrtStatus(jniEnv,api,api->GetTensorElementType(info,&onnxTypeEnum));
+    api->ReleaseTensorTypeAndShapeInfo(info);
+
+    uint8_t* arr;
+    checkOrtStatus(jniEnv,api,api->GetTensorMutableData((OrtValue*)handle,(void**)&arr));
+    copyTensorToJavaRegion(jniEnv,onnxTypeEnum,arr,arrSize,(jarray)dst,offset);
+}
+
+/*
+ * Class:     ai_onnxruntime_OnnxTensor
+ * Method:    getStringDataLength
+ * Signature: (JJ)J
+ */
+JNIEXPORT jlong JNICALL Java_ai_onnxruntime_OnnxTensor_getStringDataLength
+  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong handle) {
+    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    size_t totalStringLength = 0;
+    checkOrtStatus(jniEnv,api,api->GetStringTensorDataLength((OrtValue*) handle,&totalStringLength));
+    return (jlong) totalStringLength;
+}
+
+/*
+ * Class:     ai_onnxruntime_OnnxTensor
+ * Method:    getStringContent
+ * Signature: (JJLjava/nio/ByteBuffer;[BI[I)V
+ */
+JNIEXPORT void JNICALL Java_ai_onnxruntime_OnnxTensor_getStringContent
+  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong handle, jobject directDst, jbyteArray heapDst, jint dstOffset, jintArray offsetArr) {
+    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    OrtValue* value = (OrtValue*) handle;
+    size_t totalStringLength;
+    OrtStatus* status = api->GetStringTensorDataLength(value,&totalStringLength);
+    if (status != NULL) {
+        checkOrtStatus(jniEnv,api,status);
+        return;
+    }
+    jsize length = (*jniEnv)->GetArrayLength(jniEnv,offsetArr);
+    size_t* offsets = (size_t*) malloc(sizeof(size_t) * ((size_t) length + 1));
+    if (offsets == NULL) {
+        throwOrtException(jniEnv,convertErrorCode(ORT_FAIL),"Failed to allocate string offsets.");
+        return;
+    }
+
+    // The destination size was checked in Java, the content is written straight into it.
+    if (directDst != NULL) {
+        char* dst = (char*) (*jniEnv)->GetDirectBufferAddress(jniEnv,directDst);
+        if (dst == NULL) {
+            free(offsets);
+            if (!(*jniEnv)->ExceptionCheck(jniEnv)) {
+                throwOrtException(jniEnv,convertErrorCode(ORT_INVALID_ARGUMENT),"Failed to access the destination buffer.");
+            }
+            return;
+        }
+        status = api->GetStringTensorContent(value,dst + dstOffset,totalStringLength,offsets,length);
+    } else {
+        char* dst = (char*) (*jniEnv)->GetPrimitiveArrayCritical(jniEnv,heapDst,NULL);
+        if (dst == NULL) {
+            free(offsets);
+            return;
+        }
+        status = api->GetStringTensorContent(value,dst + dstOffset,totalStringLength,offsets,length);
+        (*jniEnv)->ReleasePrimitiveArrayCritical(jniEnv,heapDst,dst,status == NULL ? 0 : JNI_ABORT);
+    }
+    if (status != NULL) {
+        free(offsets);
+        checkOrtStatus(jniEnv,api,status);
+        return;
+    }
+
+    // Narrow the offsets into the Java int array
+    jint* javaOffsets = (jint*) (*jniEnv)->GetPrimitiveArrayCritical(jniEnv,offsetArr,NULL);
+    if (javaOffsets != NULL) {
+        for (jsize i = 0; i < length; i++) {
+            javaOffsets[i] = (jint) offsets[i];
+        }
+        (*jniEnv)->ReleasePrimitiveArrayCritical(jniEnv,offsetArr,javaOffsets,0);
+    }
+    free(offsets);
+}
+
 /*
  * Class:     ai_onnxruntime_OnnxTensor
  * Method:    close
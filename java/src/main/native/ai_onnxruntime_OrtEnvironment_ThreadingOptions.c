@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ * Licensed under the MIT License.
+ */
+#include <jni.h>
+#include "onnxruntime/core/session/onnxruntime_c_api.h"
+#include "OrtJniUtil.h"
+#include "ai_onnxruntime_OrtEnvironment_ThreadingOptions.h"
+
+/*
+ * Class:     ai_onnxruntime_OrtEnvironment_ThreadingOptions
+ * Method:    createThreadingOptions
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_ai_onnxruntime_OrtEnvironment_00024ThreadingOptions_createThreadingOptions
+  (JNIEnv * jniEnv, jclass jclazz, jlong apiHandle) {
+    (void) jclazz; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    OrtThreadingOptions* opts;
+    checkOrtStatus(jniEnv,api,api->CreateThreadingOptions(&opts));
+    return (jlong) opts;
+}
+
+/*
+ * Class:     ai_onnxruntime_OrtEnvironment_ThreadingOptions
+ * Method:    closeThreadingOptions
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_ai_onnxruntime_OrtEnvironment_00024ThreadingOptions_closeThreadingOptions
+  (JNIEnv * jniEnv, jclass jclazz, jlong apiHandle, jlong handle) {
+    (void) jniEnv; (void) jclazz; // Required JNI parameters not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    api->ReleaseThreadingOptions((OrtThreadingOptions*) handle);
+}
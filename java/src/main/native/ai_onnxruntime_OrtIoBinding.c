@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ * Licensed under the MIT License.
+ */
+#include <jni.h>
+#include <stdlib.h>
+#include <string.h>
+#include "onnxruntime/core/session/onnxruntime_c_api.h"
+#include "OrtJniUtil.h"
+#include "ai_onnxruntime_OrtIoBinding.h"
+
+/*
+ * The native state of an io binding. The names are null terminated UTF-8 strings,
+ * boundOutputs holds the caller supplied output values or NULL for outputs bound
+ * to the allocator, and outputValues is the scratch array passed to Run.
+ */
+typedef struct IoBinding {
+    size_t numInputs;
+    char** inputNames;
+    const OrtValue** inputValues;
+    size_t numOutputs;
+    char** outputNames;
+    OrtValue** boundOutputs;
+    OrtValue** outputValues;
+    size_t numAllocatedOutputs;
+} IoBinding;
+
+static void releaseBinding(IoBinding* binding) {
+    freeStringArray(binding->inputNames,binding->numInputs);
+    freeStringArray(binding->outputNames,binding->numOutputs);
+    free(binding->inputValues);
+    free(binding->boundOutputs);
+    free(binding->outputValues);
+    free(binding);
+}
+
+/*
+ * Class:     ai_onnxruntime_OrtIoBinding
+ * Method:    createBinding
+ * Signature: ([Ljava/lang/String;[J[Ljava/lang/String;[J)J
+ */
+JNIEXPORT jlong JNICALL Java_ai_onnxruntime_OrtIoBinding_createBinding
+  (JNIEnv * jniEnv, jclass jclazz, jobjectArray inputNamesArr, jlongArray inputTensorArr, jobjectArray outputNamesArr, jlongArray outputTensorArr) {
+    (void) jclazz; // Required JNI parameter not needed by functions which don't need to access their host object.
+    IoBinding* binding = (IoBinding*) calloc(1, sizeof(IoBinding));
+    if (binding == NULL) {
+        throwOrtException(jniEnv,convertErrorCode(ORT_FAIL),"Failed to allocate io binding.");
+        return 0;
+    }
+    binding->numInputs = (*jniEnv)->GetArrayLength(jniEnv,inputNamesArr);
+    binding->numOutputs = (*jniEnv)->GetArrayLength(jniEnv,outputNamesArr);
+    binding->inputNames = copyJavaStringArray(jniEnv,inputNamesArr,binding->numInputs);
+    binding->outputNames = copyJavaStringArray(jniEnv,outputNamesArr,binding->numOutputs);
+    binding->inputValues = (const OrtValue**) malloc(sizeof(OrtValue*)*binding->numInputs);
+    binding->boundOutputs = (OrtValue**) malloc(sizeof(OrtValue*)*binding->numOutputs);
+    binding->outputValues = (OrtValue**) malloc(sizeof(OrtValue*)*binding->numOutputs);
+    if ((binding->inputNames == NULL) || (binding->outputNames == NULL) || (binding->inputValues == NULL)
+        || (binding->boundOutputs == NULL) || (binding->outputValues == NULL)) {
+        releaseBinding(binding);
+        throwOrtException(jniEnv,convertErrorCode(ORT_FAIL),"Failed to allocate io binding.");
+        return 0;
+    }
+
+    // Convert the Java longs into tensor pointers once, so each run can use them directly.
+    jlong* inputTensors = (*jniEnv)->GetLongArrayElements(jniEnv,inputTensorArr,NULL);
+    for (size_t i = 0; i < binding->numInputs; i++) {
+        binding->inputValues[i] = (const OrtValue*) inputTensors[i];
+    }
+    (*jniEnv)->ReleaseLongArrayElements(jniEnv,inputTensorArr,inputTensors,JNI_ABORT);
+    jlong* outputTensors = (*jniEnv)->GetLongArrayElements(jniEnv,outputTensorArr,NULL);
+    for (size_t i = 0; i < binding->numOutputs; i++) {
+        binding->boundOutputs[i] = (OrtValue*) outputTensors[i];
+        if (binding->boundOutputs[i] == NULL) {
+            binding->numAllocatedOutputs++;
+        }
+    }
+    (*jniEnv)->ReleaseLongArrayElements(jniEnv,outputTensorArr,outputTensors,JNI_ABORT);
+
+    return (jlong) binding;
+}
+
+/*
+ * Class:     ai_onnxruntime_OrtIoBinding
+ * Method:    run
+ * Signature: (JJJJJ)[Lai/onnxruntime/OnnxValue;
+ */
+JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OrtIoBinding_run
+  (JNIEnv * jniEnv, jclass jclazz, jlong apiHandle, jlong sessionHandle, jlong allocatorHandle, jlong bindingHandle, jlong runOptionsHandle) {
+    (void) jclazz; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
+    OrtSession* session = (OrtSession*) sessionHandle;
+    OrtRunOptions* runOptions = (OrtRunOptions*) runOptionsHandle;
+    IoBinding* binding = (IoBinding*) bindingHandle;
+
+    // Reset the outputs, bound outputs are written in place, the rest are allocated by the runtime.
+    memcpy(binding->outputValues,binding->boundOutputs,sizeof(OrtValue*)*binding->numOutputs);
+
+    OrtStatus* status = api->Run(session, runOptions, (const char* const*) binding->inputNames,
+                                 binding->inputValues, binding->numInputs,
+                                 (const char* const*) binding->outputNames, binding->numOutputs, binding->outputValues);
+
+    jobjectArray outputArray = NULL;
+    if (status == NULL) {
+        // Convert the allocated outputs into ONNXValues
+        outputArray = (*jniEnv)->NewObjectArray(jniEnv,binding->numAllocatedOutputs,ortJniCache.onnxValueClass,NULL);
+        jsize j = 0;
+        for (size_t i = 0; i < binding->numOutputs; i++) {
+            if (binding->boundOutputs[i] == NULL) {
+                if (binding->outputValues[i] != NULL) {
+                    jobject onnxValue = convertOrtValueToONNXValue(jniEnv,api,allocator,binding->outputValues[i]);
+                    (*jniEnv)->SetObjectArrayElement(jniEnv,outputArray,j,onnxValue);
+                    (*jniEnv)->DeleteLocalRef(jniEnv,onnxValue);
+                }
+                j++;
+            }
+        }
+    } else {
+        checkOrtStatus(jniEnv,api,status);
+    }
+
+    return outputArray;
+}
+
+/*
+ * Class:     ai_onnxruntime_OrtIoBinding
+ * Method:    close
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_ai_onnxruntime_OrtIoBinding_close
+  (JNIEnv * jniEnv, jclass jclazz, jlong bindingHandle) {
+    (void) jniEnv; (void) jclazz; // Required JNI parameters not needed by functions which don't need to access their host object.
+    releaseBinding((IoBinding*) bindingHandle);
+}
@@ -3,6 +3,7 @@
  * Licensed under the MIT License.
  */
 #include <jni.h>
+#include <stdlib.h>
 #include <string.h>
 #include "onnxruntime/core/session/onnxruntime_c_api.h"
 #include "OrtJniUtil.h"
@@ -57,6 +58,28 @@ JNIEXPORT jlong JNICALL Java_ai_onnxruntime_OrtSession_createSession__JJ_3BJ
     return (jlong) session;
   }
 
+/*
+ * Class:     ai_onnxruntime_OrtSession
+ * Method:    createSession
+ * Signature: (JJLjava/nio/ByteBuffer;IIJ)J
+ */
+JNIEXPORT jlong JNICALL Java_ai_onnxruntime_OrtSession_createSession__JJLjava_nio_ByteBuffer_2IIJ
+  (JNIEnv * jniEnv, jclass jclazz, jlong apiHandle, jlong envHandle, jobject buffer, jint bufferPos, jint bufferSize, jlong optsHandle) {
+    (void) jclazz; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    OrtSession* session = NULL;
+
+    // Read the model in place from the direct buffer
+    char* modelArr = (char*) (*jniEnv)->GetDirectBufferAddress(jniEnv,buffer);
+    if (modelArr == NULL) {
+        throwOrtException(jniEnv,convertErrorCode(ORT_INVALID_ARGUMENT),"Model buffer is not a direct buffer.");
+        return 0;
+    }
+    checkOrtStatus(jniEnv,api,api->CreateSessionFromArray((OrtEnv*)envHandle, modelArr + bufferPos, (size_t) bufferSize, (OrtSessionOptions*)optsHandle, &session));
+
+    return (jlong) session;
+}
+
 /*
  * Class:     ai_onnxruntime_OrtSession
  * Method:    getNumInputs
@@ -82,15 +105,11 @@ JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OrtSession_getInputNames
     const OrtApi* api = (const OrtApi*) apiHandle;
     OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
 
-    // Setup
-    char *stringClassName = "java/lang/String";
-    jclass stringClazz = (*jniEnv)->FindClass(jniEnv, stringClassName);
-
     // Get the number of inputs
     size_t numInputs = Java_ai_onnxruntime_OrtSession_getNumInputs(jniEnv, jobj, apiHandle, sessionHandle);
 
     // Allocate the return array
-    jobjectArray array = (*jniEnv)->NewObjectArray(jniEnv,numInputs,stringClazz,NULL);
+    jobjectArray array = (*jniEnv)->NewObjectArray(jniEnv,numInputs,ortJniCache.stringClass,NULL);
     for (uint32_t i = 0; i < numInputs; i++) {
         // Read out the input name and convert it to a java.lang.String
         char* inputName;
@@ -128,15 +147,11 @@ JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OrtSession_getOutputNames
     const OrtApi* api = (const OrtApi*) apiHandle;
     OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
 
-    // Setup
-    char *stringClassName = "java/lang/String";
-    jclass stringClazz = (*jniEnv)->FindClass(jniEnv, stringClassName);
-
     // Get the number of outputs
     size_t numOutputs = Java_ai_onnxruntime_OrtSession_getNumOutputs(jniEnv, jobj, apiHandle, sessionHandle);
 
     // Allocate the return array
-    jobjectArray array = (*jniEnv)->NewObjectArray(jniEnv,numOutputs,stringClazz,NULL);
+    jobjectArray array = (*jniEnv)->NewObjectArray(jniEnv,numOutputs,ortJniCache.stringClass,NULL);
     for (uint32_t i = 0; i < numOutputs; i++) {
         // Read out the output name and convert it to a java.lang.String
         char* outputName;
@@ -161,9 +176,8 @@ JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OrtSession_getInputInfo
     OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
 
     // Setup
-    char *nodeInfoClassName = "ai/onnxruntime/NodeInfo";
-    jclass nodeInfoClazz = (*jniEnv)->FindClass(jniEnv, nodeInfoClassName);
-    jmethodID nodeInfoConstructor = (*jniEnv)->GetMethodID(jniEnv,nodeInfoClazz, "<init>", "(Ljava/lang/String;Lai/onnxruntime/ValueInfo;)V");
+    jclass nodeInfoClazz = ortJniCache.nodeInfoClass;
+    jmethodID nodeInfoConstructor = ortJniCache.nodeInfoConstructor;
 
     // Get the number of inputs
     size_t numInputs = Java_ai_onnxruntime_OrtSession_getNumInputs(jniEnv, jobj, apiHandle, sessionHandle);
@@ -202,9 +216,8 @@ JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OrtSession_getOutputInfo
     const OrtApi* api = (const OrtApi*) apiHandle;
     OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
     // Setup
-    char *nodeInfoClassName = "ai/onnxruntime/NodeInfo";
-    jclass nodeInfoClazz = (*jniEnv)->FindClass(jniEnv, nodeInfoClassName);
-    jmethodID nodeInfoConstructor = (*jniEnv)->GetMethodID(jniEnv, nodeInfoClazz, "<init>", "(Ljava/lang/String;Lai/onnxruntime/ValueInfo;)V");
+    jclass nodeInfoClazz = ortJniCache.nodeInfoClass;
+    jmethodID nodeInfoConstructor = ortJniCache.nodeInfoConstructor;
 
     // Get the number of outputs
     size_t numOutputs = Java_ai_onnxruntime_OrtSession_getNumOutputs(jniEnv, jobj, apiHandle, sessionHandle);
@@ -232,6 +245,88 @@ JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OrtSession_getOutputInfo
     return array;
 }
 
+/*
+ * Class:     ai_onnxruntime_OrtSession
+ * Method:    getNumOverridableInitializers
+ * Signature: (JJ)J
+ */
+JNIEXPORT jlong JNICALL Java_ai_onnxruntime_OrtSession_getNumOverridableInitializers
+  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong handle) {
+    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    size_t numInitializers;
+    checkOrtStatus(jniEnv,api,api->SessionGetOverridableInitializerCount((OrtSession*)handle, &numInitializers));
+    return numInitializers;
+}
+
+/*
+ * Class:     ai_onnxruntime_OrtSession
+ * Method:    getOverridableInitializerNames
+ * Signature: (JJJ)[Ljava/lang/String;
+ */
+JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OrtSession_getOverridableInitializerNames
+  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong sessionHandle, jlong allocatorHandle) {
+    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
+
+    // Get the number of overridable initializers
+    size_t numInitializers = Java_ai_onnxruntime_OrtSession_getNumOverridableInitializers(jniEnv, jobj, apiHandle, sessionHandle);
+
+    // Allocate the return array
+    jobjectArray array = (*jniEnv)->NewObjectArray(jniEnv,numInitializers,ortJniCache.stringClass,NULL);
+    for (uint32_t i = 0; i < numInitializers; i++) {
+        // Read out the initializer name and convert it to a java.lang.String
+        char* initializerName;
+        checkOrtStatus(jniEnv,api,api->SessionGetOverridableInitializerName((OrtSession*)sessionHandle, i, allocator, &initializerName));
+        jstring name = (*jniEnv)->NewStringUTF(jniEnv,initializerName);
+        (*jniEnv)->SetObjectArrayElement(jniEnv, array, i, name);
+        checkOrtStatus(jniEnv,api,api->AllocatorFree(allocator,initializerName));
+    }
+
+    return array;
+}
+
+/*
+ * Class:     ai_onnxruntime_OrtSession
+ * Method:    getOverridableInitializerInfo
+ * Signature: (JJJ)[Lai/onnxruntime/NodeInfo;
+ */
+JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OrtSession_getOverridableInitializerInfo
+  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong sessionHandle, jlong allocatorHandle) {
+    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
+    // Setup
+    jclass nodeInfoClazz = ortJniCache.nodeInfoClass;
+    jmethodID nodeInfoConstructor = ortJniCache.nodeInfoConstructor;
+
+    // Get the number of overridable initializers
+    size_t numInitializers = Java_ai_onnxruntime_OrtSession_getNumOverridableInitializers(jniEnv, jobj, apiHandle, sessionHandle);
+
+    // Allocate the return array
+    jobjectArray array = (*jniEnv)->NewObjectArray(jniEnv,numInitializers,nodeInfoClazz,NULL);
+    for (uint32_t i = 0; i < numInitializers; i++) {
+        // Read out the initializer name and convert it to a java.lang.String
+        char* initializerName;
+        checkOrtStatus(jniEnv,api,api->SessionGetOverridableInitializerName((OrtSession*)sessionHandle, i, allocator, &initializerName));
+        jstring name = (*jniEnv)->NewStringUTF(jniEnv,initializerName);
+        checkOrtStatus(jniEnv,api,api->AllocatorFree(allocator,initializerName));
+
+        // Create a ValueInfo from the OrtTypeInfo
+        OrtTypeInfo* typeInfo;
+        checkOrtStatus(jniEnv,api,api->SessionGetOverridableInitializerTypeInfo((OrtSession*)sessionHandle, i, &typeInfo));
+        jobject valueInfoJava = convertToValueInfo(jniEnv,api,typeInfo);
+        api->ReleaseTypeInfo(typeInfo);
+
+        // Create a NodeInfo and assign into the array
+        jobject nodeInfo = (*jniEnv)->NewObject(jniEnv, nodeInfoClazz, nodeInfoConstructor, name, valueInfoJava);
+        (*jniEnv)->SetObjectArrayElement(jniEnv, array, i, nodeInfo);
+    }
+
+    return array;
+}
+
 /*
  * Class:     ai_onnxruntime_OrtSession
  * Method:    run
@@ -282,9 +377,7 @@ JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OrtSession_run
     (*jniEnv)->ReleaseLongArrayElements(jniEnv,tensorArr,inputTensors,JNI_ABORT);
 
     // Construct the output array of ONNXValues
-    char *onnxValueClassName = "ai/onnxruntime/OnnxValue";
-    jclass onnxValueClass = (*jniEnv)->FindClass(jniEnv, onnxValueClassName);
-    jobjectArray outputArray = (*jniEnv)->NewObjectArray(jniEnv,numOutputs,onnxValueClass,NULL);
+    jobjectArray outputArray = (*jniEnv)->NewObjectArray(jniEnv,numOutputs,ortJniCache.onnxValueClass,NULL);
 
     // Convert the output tensors into ONNXValues and release the output strings.
     for (int i = 0; i < numOutputs; i++) {
@@ -310,6 +403,74 @@ JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OrtSession_run
     return outputArray;
 }
 
+/*
+ * Class:     ai_onnxruntime_OrtSession
+ * Method:    runInto
+ * Signature: (JJ[Ljava/lang/String;[JJ[Ljava/lang/String;[JJJ)V
+ * private native void runInto(long apiHandle, long nativeHandle, String[] inputNamesArray, long[] inputs, long numInputs, String[] outputNamesArray, long[] outputs, long numOutputs, long runOptionsHandle)
+ */
+JNIEXPORT void JNICALL Java_ai_onnxruntime_OrtSession_runInto
+  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong sessionHandle, jobjectArray inputNamesArr, jlongArray inputTensorArr, jlong numInputs, jobjectArray outputNamesArr, jlongArray outputTensorArr, jlong numOutputs, jlong runOptionsHandle) {
+    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    OrtSession* session = (OrtSession*) sessionHandle;
+    OrtRunOptions* runOptions = (OrtRunOptions*) runOptionsHandle;
+
+    // Create the buffers for the Java input and output strings and the output values
+    const char** inputNames = malloc(sizeof(char*)*numInputs);
+    jobject* javaInputStrings = malloc(sizeof(jobject)*numInputs);
+    const char** outputNames = malloc(sizeof(char*)*numOutputs);
+    jobject* javaOutputStrings = malloc(sizeof(jobject)*numOutputs);
+    OrtValue** outputValues = malloc(sizeof(OrtValue*)*numOutputs);
+    if ((inputNames == NULL) || (javaInputStrings == NULL) || (outputNames == NULL) || (javaOutputStrings == NULL) || (outputValues == NULL)) {
+        free(inputNames);
+        free(javaInputStrings);
+        free(outputNames);
+        free(javaOutputStrings);
+        free(outputValues);
+        throwOrtException(jniEnv,convertErrorCode(ORT_FAIL),"Failed to allocate name buffers.");
+        return;
+    }
+
+    // Extract the names of the input values.
+    for (int i = 0; i < numInputs; i++) {
+        javaInputStrings[i] = (*jniEnv)->GetObjectArrayElement(jniEnv,inputNamesArr,i);
+        inputNames[i] = (*jniEnv)->GetStringUTFChars(jniEnv,javaInputStrings[i],NULL);
+    }
+
+    // Extract a C array of longs which are pointers to the input tensors.
+    jlong* inputTensors = (*jniEnv)->GetLongArrayElements(jniEnv,inputTensorArr,NULL);
+
+    // Extract the names of the output values, and the pointers to the caller supplied output tensors.
+    jlong* outputTensors = (*jniEnv)->GetLongArrayElements(jniEnv,outputTensorArr,NULL);
+    for (int i = 0; i < numOutputs; i++) {
+        javaOutputStrings[i] = (*jniEnv)->GetObjectArrayElement(jniEnv,outputNamesArr,i);
+        outputNames[i] = (*jniEnv)->GetStringUTFChars(jniEnv,javaOutputStrings[i],NULL);
+        outputValues[i] = (OrtValue*) outputTensors[i];
+    }
+    (*jniEnv)->ReleaseLongArrayElements(jniEnv,outputTensorArr,outputTensors,JNI_ABORT);
+
+    // Score the inputs, as the output values are non-null they are written into in place.
+    checkOrtStatus(jniEnv,api,api->Run(session, runOptions, (const char* const*) inputNames, (const OrtValue* const*) inputTensors, numInputs, (const char* const*) outputNames, numOutputs, outputValues));
+    // Release the C array of pointers to the tensors.
+    (*jniEnv)->ReleaseLongArrayElements(jniEnv,inputTensorArr,inputTensors,JNI_ABORT);
+
+    // Release the Java strings
+    for (int i = 0; i < numOutputs; i++) {
+        (*jniEnv)->ReleaseStringUTFChars(jniEnv,javaOutputStrings[i],outputNames[i]);
+    }
+    for (int i = 0; i < numInputs; i++) {
+        (*jniEnv)->ReleaseStringUTFChars(jniEnv,javaInputStrings[i],inputNames[i]);
+    }
+
+    // Release the buffers
+    free(inputNames);
+    free(javaInputStrings);
+    free(outputNames);
+    free(javaOutputStrings);
+    free(outputValues);
+}
+
 /*
  * Class:     ai_onnxruntime_OrtSession
  * Method:    endProfiling
@@ -352,13 +513,7 @@ JNIEXPORT jstring JNICALL Java_ai_onnxruntime_OrtSession_constructMetadata
   OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
 
   // Setup
-  char* stringClassName = "java/lang/String";
-  jclass stringClazz = (*jniEnv)->FindClass(jniEnv, stringClassName);
-  char *metadataClassName = "ai/onnxruntime/OnnxModelMetadata";
-  jclass metadataClazz = (*jniEnv)->FindClass(jniEnv, metadataClassName);
-  //OnnxModelMetadata(String producerName, String graphName, String domain, String description, long version, String[] customMetadataArray)
-  jmethodID metadataConstructor = (*jniEnv)->GetMethodID(jniEnv, metadataClazz, "<init>",
-                                                         "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;J[Ljava/lang/String;)V");
+  jclass stringClazz = ortJniCache.stringClass;
 
   // Get metadata
   OrtModelMetadata* metadata;
@@ -423,7 +578,7 @@ JNIEXPORT jstring JNICALL Java_ai_onnxruntime_OrtSession_constructMetadata
 
   // Invoke the metadata constructor
   //OnnxModelMetadata(String producerName, String graphName, String domain, String description, long version, String[] customMetadataArray)
-  jobject metadataJava = (*jniEnv)->NewObject(jniEnv, metadataClazz, metadataConstructor, producerStr, graphStr, domainStr, descriptionStr, (jlong) version, customArray);
+  jobject metadataJava = (*jniEnv)->NewObject(jniEnv, ortJniCache.modelMetadataClass, ortJniCache.modelMetadataConstructor, producerStr, graphStr, domainStr, descriptionStr, (jlong) version, customArray);
 
   // Release the metadata
   api->ReleaseModelMetadata(metadata);
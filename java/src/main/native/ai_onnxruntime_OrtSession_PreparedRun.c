@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ * Licensed under the MIT License.
+ */
+#include <jni.h>
+#include <stdlib.h>
+#include <string.h>
+#include "onnxruntime/core/session/onnxruntime_c_api.h"
+#include "OrtJniUtil.h"
+#include "ai_onnxruntime_OrtSession_PreparedRun.h"
+
+// Number of outputs which are stored on the stack during a run before falling back to malloc.
+#define PREPARED_RUN_STACK_OUTPUTS 16
+
+// Number of inputs which are stored on the stack during a run before falling back to malloc.
+#define PREPARED_RUN_STACK_INPUTS 16
+
+/*
+ * Copies the input tensor handles into inputValues, which has space for numInputs values.
+ * Uses GetLongArrayRegion as GetLongArrayElements copies into a fresh allocation on every call.
+ */
+static void copyInputHandles(JNIEnv *jniEnv, jlongArray tensorArr, jlong* handles, const OrtValue** inputValues, size_t numInputs) {
+    (*jniEnv)->GetLongArrayRegion(jniEnv,tensorArr,0,(jsize)numInputs,handles);
+    for (size_t i = 0; i < numInputs; i++) {
+        inputValues[i] = (const OrtValue*) handles[i];
+    }
+}
+
+/*
+ * Allocates the input buffers for a run with more than PREPARED_RUN_STACK_INPUTS inputs, returns 0
+ * and throws if the allocation failed.
+ */
+static int allocInputBuffers(JNIEnv *jniEnv, size_t numInputs, jlong** handles, const OrtValue*** inputValues) {
+    *handles = (jlong*) malloc(sizeof(jlong)*numInputs);
+    *inputValues = (const OrtValue**) malloc(sizeof(OrtValue*)*numInputs);
+    if ((*handles == NULL) || (*inputValues == NULL)) {
+        free(*handles);
+        free((void*) *inputValues);
+        throwOrtException(jniEnv,convertErrorCode(ORT_FAIL),"Failed to allocate input array.");
+        return 0;
+    }
+    return 1;
+}
+
+/*
+ * The native state of a prepared run, the input and output names as
+ * null terminated UTF-8 strings.
+ */
+typedef struct PreparedRunNames {
+    size_t numInputs;
+    char** inputNames;
+    size_t numOutputs;
+    char** outputNames;
+} PreparedRunNames;
+
+/*
+ * Class:     ai_onnxruntime_OrtSession_PreparedRun
+ * Method:    createPreparedRun
+ * Signature: ([Ljava/lang/String;[Ljava/lang/String;)J
+ */
+JNIEXPORT jlong JNICALL Java_ai_onnxruntime_OrtSession_00024PreparedRun_createPreparedRun
+  (JNIEnv * jniEnv, jclass jclazz, jobjectArray inputNamesArr, jobjectArray outputNamesArr) {
+    (void) jclazz; // Required JNI parameter not needed by functions which don't need to access their host object.
+    PreparedRunNames* prepared = (PreparedRunNames*) calloc(1, sizeof(PreparedRunNames));
+    if (prepared == NULL) {
+        throwOrtException(jniEnv,convertErrorCode(ORT_FAIL),"Failed to allocate prepared run.");
+        return 0;
+    }
+    prepared->numInputs = (*jniEnv)->GetArrayLength(jniEnv,inputNamesArr);
+    prepared->inputNames = copyJavaStringArray(jniEnv,inputNamesArr,prepared->numInputs);
+    prepared->numOutputs = (*jniEnv)->GetArrayLength(jniEnv,outputNamesArr);
+    prepared->outputNames = copyJavaStringArray(jniEnv,outputNamesArr,prepared->numOutputs);
+    if ((prepared->inputNames == NULL) || (prepared->outputNames == NULL)) {
+        freeStringArray(prepared->inputNames,prepared->numInputs);
+        freeStringArray(prepared->outputNames,prepared->numOutputs);
+        free(prepared);
+        throwOrtException(jniEnv,convertErrorCode(ORT_FAIL),"Failed to allocate prepared run names.");
+        return 0;
+    }
+    return (jlong) prepared;
+}
+
+/*
+ * Class:     ai_onnxruntime_OrtSession_PreparedRun
+ * Method:    run
+ * Signature: (JJJJ[JJ)[Lai/onnxruntime/OnnxValue;
+ */
+JNIEXPORT jobjectArray JNICALL Java_ai_onnxruntime_OrtSession_00024PreparedRun_run
+  (JNIEnv * jniEnv, jclass jclazz, jlong apiHandle, jlong sessionHandle, jlong allocatorHandle, jlong preparedHandle, jlongArray tensorArr, jlong runOptionsHandle) {
+    (void) jclazz; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    OrtAllocator* allocator = (OrtAllocator*) allocatorHandle;
+    OrtSession* session = (OrtSession*) sessionHandle;
+    OrtRunOptions* runOptions = (OrtRunOptions*) runOptionsHandle;
+    PreparedRunNames* prepared = (PreparedRunNames*) preparedHandle;
+    size_t numInputs = prepared->numInputs;
+    size_t numOutputs = prepared->numOutputs;
+
+    // Copy the input pointers, using the stack unless there are too many of them.
+    jlong stackInputHandles[PREPARED_RUN_STACK_INPUTS];
+    const OrtValue* stackInputs[PREPARED_RUN_STACK_INPUTS];
+    jlong* inputHandles = stackInputHandles;
+    const OrtValue** inputValues = stackInputs;
+    if ((numInputs > PREPARED_RUN_STACK_INPUTS) && !allocInputBuffers(jniEnv,numInputs,&inputHandles,&inputValues)) {
+        return NULL;
+    }
+    copyInputHandles(jniEnv,tensorArr,inputHandles,inputValues,numInputs);
+
+    // Use a stack buffer for the outputs unless there are too many of them.
+    OrtValue* stackOutputs[PREPARED_RUN_STACK_OUTPUTS];
+    OrtValue** outputValues = stackOutputs;
+    if (numOutputs > PREPARED_RUN_STACK_OUTPUTS) {
+        outputValues = (OrtValue**) malloc(sizeof(OrtValue*)*numOutputs);
+        if (outputValues == NULL) {
+            if (inputValues != stackInputs) {
+                free(inputHandles);
+                free((void*) inputValues);
+            }
+            throwOrtException(jniEnv,convertErrorCode(ORT_FAIL),"Failed to allocate output array.");
+            return NULL;
+        }
+    }
+    for (size_t i = 0; i < numOutputs; i++) {
+        outputValues[i] = NULL;
+    }
+
+    // Actually score the inputs.
+    OrtStatus* status = api->Run(session, runOptions, (const char* const*) prepared->inputNames,
+                                 inputValues, numInputs,
+                                 (const char* const*) prepared->outputNames, numOutputs, outputValues);
+    if (inputValues != stackInputs) {
+        free(inputHandles);
+        free((void*) inputValues);
+    }
+
+    jobjectArray outputArray = NULL;
+    if (status == NULL) {
+        // Construct the output array of ONNXValues
+        outputArray = (*jniEnv)->NewObjectArray(jniEnv,numOutputs,ortJniCache.onnxValueClass,NULL);
+
+        // Convert the output tensors into ONNXValues
+        for (size_t i = 0; i < numOutputs; i++) {
+            if (outputValues[i] != NULL) {
+                jobject onnxValue = convertOrtValueToONNXValue(jniEnv,api,allocator,outputValues[i]);
+                (*jniEnv)->SetObjectArrayElement(jniEnv,outputArray,i,onnxValue);
+                (*jniEnv)->DeleteLocalRef(jniEnv,onnxValue);
+            }
+        }
+    } else {
+        checkOrtStatus(jniEnv,api,status);
+    }
+
+    if (outputValues != stackOutputs) {
+        free(outputValues);
+    }
+
+    return outputArray;
+}
+
+/*
+ * Class:     ai_onnxruntime_OrtSession_PreparedRun
+ * Method:    runInto
+ * Signature: (JJJ[J[JJ)V
+ */
+JNIEXPORT void JNICALL Java_ai_onnxruntime_OrtSession_00024PreparedRun_runInto
+  (JNIEnv * jniEnv, jclass jclazz, jlong apiHandle, jlong sessionHandle, jlong preparedHandle, jlongArray inputTensorArr, jlongArray outputTensorArr, jlong runOptionsHandle) {
+    (void) jclazz; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    OrtSession* session = (OrtSession*) sessionHandle;
+    OrtRunOptions* runOptions = (OrtRunOptions*) runOptionsHandle;
+    PreparedRunNames* prepared = (PreparedRunNames*) preparedHandle;
+    size_t numInputs = prepared->numInputs;
+    size_t numOutputs = prepared->numOutputs;
+
+    // Copy the input pointers, using the stack unless there are too many of them.
+    jlong stackInputHandles[PREPARED_RUN_STACK_INPUTS];
+    const OrtValue* stackInputs[PREPARED_RUN_STACK_INPUTS];
+    jlong* inputHandles = stackInputHandles;
+    const OrtValue** inputValues = stackInputs;
+    if ((numInputs > PREPARED_RUN_STACK_INPUTS) && !allocInputBuffers(jniEnv,numInputs,&inputHandles,&inputValues)) {
+        return;
+    }
+    copyInputHandles(jniEnv,inputTensorArr,inputHandles,inputValues,numInputs);
+
+    // Copy the caller supplied output pointers, using the stack unless there are too many of them.
+    jlong stackOutputHandles[PREPARED_RUN_STACK_OUTPUTS];
+    OrtValue* stackOutputs[PREPARED_RUN_STACK_OUTPUTS];
+    jlong* outputHandles = stackOutputHandles;
+    OrtValue** outputValues = stackOutputs;
+    if (numOutputs > PREPARED_RUN_STACK_OUTPUTS) {
+        outputHandles = (jlong*) malloc(sizeof(jlong)*numOutputs);
+        outputValues = (OrtValue**) malloc(sizeof(OrtValue*)*numOutputs);
+        if ((outputHandles == NULL) || (outputValues == NULL)) {
+            free(outputHandles);
+            free(outputValues);
+            if (inputValues != stackInputs) {
+                free(inputHandles);
+                free((void*) inputValues);
+            }
+            throwOrtException(jniEnv,convertErrorCode(ORT_FAIL),"Failed to allocate output array.");
+            return;
+        }
+    }
+    (*jniEnv)->GetLongArrayRegion(jniEnv,outputTensorArr,0,(jsize)numOutputs,outputHandles);
+    for (size_t i = 0; i < numOutputs; i++) {
+        outputValues[i] = (OrtValue*) outputHandles[i];
+    }
+
+    // Score the inputs, as the output values are non-null they are written into in place.
+    checkOrtStatus(jniEnv,api,api->Run(session, runOptions, (const char* const*) prepared->inputNames,
+                                       inputValues, numInputs,
+                                       (const char* const*) prepared->outputNames, numOutputs, outputValues));
+
+    if (inputValues != stackInputs) {
+        free(inputHandles);
+        free((void*) inputValues);
+    }
+
+    if (outputValues != stackOutputs) {
+        free(outputHandles);
+        free(outputValues);
+    }
+}
+
+/*
+ * Class:     ai_onnxruntime_OrtSession_PreparedRun
+ * Method:    close
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_ai_onnxruntime_OrtSession_00024PreparedRun_close
+  (JNIEnv * jniEnv, jclass jclazz, jlong preparedHandle) {
+    (void) jniEnv; (void) jclazz; // Required JNI parameters not needed by functions which don't need to access their host object.
+    PreparedRunNames* prepared = (PreparedRunNames*) preparedHandle;
+    freeStringArray(prepared->inputNames,prepared->numInputs);
+    freeStringArray(prepared->outputNames,prepared->numOutputs);
+    free(prepared);
+}
@@ -77,6 +77,46 @@ JNIEXPORT void JNICALL Java_ai_onnxruntime_OrtSession_00024SessionOptions_setInt
     checkOrtStatus(jniEnv,api,api->SetInterOpNumThreads((OrtSessionOptions*) handle, numThreads));
 }
 
+/*
+ * Class:     ai_onnxruntime_OrtSession_SessionOptions
+ * Method:    disablePerSessionThreads
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_ai_onnxruntime_OrtSession_00024SessionOptions_disablePerSessionThreads
+  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong handle) {
+    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    checkOrtStatus(jniEnv,api,api->DisablePerSessionThreads((OrtSessionOptions*) handle));
+}
+
+/*
+ * Class:     ai_onnxruntime_OrtSession_SessionOptions
+ * Method:    addFreeDimensionOverride
+ * Signature: (JJLjava/lang/String;J)V
+ */
+JNIEXPORT void JNICALL Java_ai_onnxruntime_OrtSession_00024SessionOptions_addFreeDimensionOverride
+  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong handle, jstring dimensionDenotation, jlong dimensionValue) {
+    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    const char* cDenotation = (*jniEnv)->GetStringUTFChars(jniEnv, dimensionDenotation, NULL);
+    checkOrtStatus(jniEnv,api,api->AddFreeDimensionOverride((OrtSessionOptions*) handle, cDenotation, dimensionValue));
+    (*jniEnv)->ReleaseStringUTFChars(jniEnv,dimensionDenotation,cDenotation);
+}
+
+/*
+ * Class:     ai_onnxruntime_OrtSession_SessionOptions
+ * Method:    addFreeDimensionOverrideByName
+ * Signature: (JJLjava/lang/String;J)V
+ */
+JNIEXPORT void JNICALL Java_ai_onnxruntime_OrtSession_00024SessionOptions_addFreeDimensionOverrideByName
+  (JNIEnv * jniEnv, jobject jobj, jlong apiHandle, jlong handle, jstring dimensionName, jlong dimensionValue) {
+    (void) jobj; // Required JNI parameter not needed by functions which don't need to access their host object.
+    const OrtApi* api = (const OrtApi*) apiHandle;
+    const char* cName = (*jniEnv)->GetStringUTFChars(jniEnv, dimensionName, NULL);
+    checkOrtStatus(jniEnv,api,api->AddFreeDimensionOverrideByName((OrtSessionOptions*) handle, cName, dimensionValue));
+    (*jniEnv)->ReleaseStringUTFChars(jniEnv,dimensionName,cName);
+}
+
 /*
  * Class:     ai_onnxruntime_OrtSession_SessionOptions
  * Method:    setOptimizationModelFilePath
@@ -8,6 +8,8 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -19,6 +21,7 @@ import ai.onnxruntime.OrtSession.SessionOptions.ExecutionMode;
 import ai.onnxruntime.OrtSession.SessionOptions.OptLevel;
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileReader;
@@ -26,20 +29,31 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -340,6 +354,746 @@ public class InferenceTest {
     }
   }
 
+  @Test
+  public void testPreparedRun() throws OrtException {
+    String modelPath = getResourcePath("/partial-inputs-test.onnx").toString();
+    try (OrtEnvironment env =
+            OrtEnvironment.getEnvironment(OrtLoggingLevel.ORT_LOGGING_LEVEL_FATAL, "preparedRun");
+        OrtSession.SessionOptions options = new SessionOptions();
+        OrtSession session = env.createSession(modelPath, options)) {
+      Set<String> requestedOutputs = new LinkedHashSet<>();
+      requestedOutputs.add("abc:0");
+      requestedOutputs.add("ab:0");
+      try (OrtSession.PreparedRun run =
+          session.prepare(Arrays.asList("c:0", "a:0", "b:0"), requestedOutputs)) {
+        assertEquals(Arrays.asList("c:0", "a:0", "b:0"), run.getInputNames());
+        assertEquals(Arrays.asList("abc:0", "ab:0"), run.getOutputNames());
+        for (int i = 0; i < 3; i++) {
+          try (OnnxTensor a = OnnxTensor.createTensor(env, new float[] {2.0f + i});
+              OnnxTensor b = OnnxTensor.createTensor(env, new float[] {3.0f});
+              OnnxTensor c = OnnxTensor.createTensor(env, new float[] {5.0f});
+              Result r = run.run(c, a, b)) {
+            assertEquals(2, r.size());
+            assertEquals(21.0f + 3 * i, ((float[]) r.get(0).getValue())[0], 1e-10);
+            assertEquals(6.0f + 3 * i, ((float[]) r.get("ab:0").get().getValue())[0], 1e-10);
+          }
+        }
+
+        // Wrong number of inputs
+        try (OnnxTensor a = OnnxTensor.createTensor(env, new float[] {2.0f})) {
+          run.run(a);
+          fail("Expected to throw OrtException due to the wrong number of inputs");
+        } catch (OrtException e) {
+          // pass
+        }
+      }
+
+      // Unknown input name
+      try (OrtSession.PreparedRun run = session.prepare(Arrays.asList("a:0", "d:0"))) {
+        fail("Expected to throw OrtException due to an unknown input");
+      } catch (OrtException e) {
+        // pass
+      }
+    }
+  }
+
+  @Test
+  public void testRunIntoPreallocatedOutputs() throws OrtException {
+    // model takes 1x5 input of fixed type, echoes back
+    String modelPath = getResourcePath("/test_types_FLOAT.pb").toString();
+
+    try (OrtEnvironment env = OrtEnvironment.getEnvironment("testRunIntoPreallocatedOutputs");
+        SessionOptions options = new SessionOptions();
+        OrtSession session = env.createSession(modelPath, options)) {
+      String inputName = session.getInputNames().iterator().next();
+      String outputName = session.getOutputNames().iterator().next();
+      long[] shape = new long[] {1, 5};
+      FloatBuffer outputBuffer =
+          ByteBuffer.allocateDirect(5 * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+      float[] flatInput = new float[] {1.0f, 2.0f, -3.0f, Float.MIN_VALUE, Float.MAX_VALUE};
+      try (OnnxTensor input = OnnxTensor.createTensor(env, FloatBuffer.wrap(flatInput), shape);
+          OnnxTensor output = OnnxTensor.createTensor(env, outputBuffer, shape)) {
+        session.run(
+            Collections.singletonMap(inputName, input),
+            Collections.singletonMap(outputName, output));
+        float[] resultArray = new float[flatInput.length];
+        outputBuffer.duplicate().get(resultArray);
+        assertArrayEquals(flatInput, resultArray, 1e-6f);
+
+        // Check the prepared run writes into the same buffer
+        flatInput[0] = 42.0f;
+        try (OnnxTensor secondInput =
+                OnnxTensor.createTensor(env, FloatBuffer.wrap(flatInput), shape);
+            OrtSession.PreparedRun run =
+                session.prepare(Collections.singletonList(inputName))) {
+          run.runInto(new OnnxTensor[] {output}, secondInput);
+          outputBuffer.duplicate().get(resultArray);
+          assertArrayEquals(flatInput, resultArray, 1e-6f);
+        }
+      }
+
+      // Output of the wrong shape
+      try (OnnxTensor input = OnnxTensor.createTensor(env, FloatBuffer.wrap(flatInput), shape);
+          OnnxTensor output =
+              OnnxTensor.createTensor(env, outputBuffer.duplicate(), new long[] {5, 1})) {
+        session.run(
+            Collections.singletonMap(inputName, input),
+            Collections.singletonMap(outputName, output));
+        fail("Expected to throw OrtException due to the wrong output shape");
+      } catch (OrtException e) {
+        // pass
+      }
+    }
+  }
+
+  @Test
+  public void testIoBinding() throws OrtException {
+    String modelPath = getResourcePath("/partial-inputs-test.onnx").toString();
+    try (OrtEnvironment env =
+            OrtEnvironment.getEnvironment(OrtLoggingLevel.ORT_LOGGING_LEVEL_FATAL, "ioBinding");
+        OrtSession.SessionOptions options = new SessionOptions();
+        OrtSession session = env.createSession(modelPath, options)) {
+      long[] shape = new long[] {1};
+      FloatBuffer aBuffer =
+          ByteBuffer.allocateDirect(4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+      FloatBuffer abBuffer =
+          ByteBuffer.allocateDirect(4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+      aBuffer.put(0, 2.0f);
+      try (OnnxTensor a = OnnxTensor.createTensor(env, aBuffer, shape);
+          OnnxTensor b = OnnxTensor.createTensor(env, new float[] {3.0f});
+          OnnxTensor c = OnnxTensor.createTensor(env, new float[] {5.0f});
+          OnnxTensor ab = OnnxTensor.createTensor(env, abBuffer, shape);
+          OrtIoBinding binding = session.createIoBinding()) {
+        binding.bindInput("a:0", a);
+        binding.bindInput("b:0", b);
+        binding.bindInput("c:0", c);
+        binding.bindOutput("ab:0", ab);
+        binding.bindOutputToAllocator("abc:0");
+        for (int i = 0; i < 3; i++) {
+          aBuffer.put(0, 2.0f + i);
+          try (Result r = session.run(binding)) {
+            assertEquals(1, r.size());
+            assertEquals(21.0f + 3 * i, ((float[]) r.get("abc:0").get().getValue())[0], 1e-10);
+            assertEquals(6.0f + 3 * i, abBuffer.get(0), 1e-10);
+          }
+        }
+
+        try {
+          binding.bindInput("d:0", a);
+          fail("Expected to throw OrtException due to an unknown input");
+        } catch (OrtException e) {
+          // pass
+        }
+        binding.clearBoundOutputs();
+        try (Result r = session.run(binding)) {
+          fail("Expected to throw OrtException due to no bound outputs");
+        } catch (OrtException e) {
+          // pass
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRunAsync() throws Exception {
+    String modelPath = getResourcePath("/partial-inputs-test.onnx").toString();
+    try (OrtEnvironment env =
+            OrtEnvironment.getEnvironment(OrtLoggingLevel.ORT_LOGGING_LEVEL_FATAL, "runAsync");
+        OrtSession.SessionOptions options = new SessionOptions();
+        OrtSession session = env.createSession(modelPath, options)) {
+      ExecutorService executor = OrtSession.createAsyncExecutor(2, 16);
+      try (OnnxTensor a = OnnxTensor.createTensor(env, new float[] {2.0f});
+          OnnxTensor b = OnnxTensor.createTensor(env, new float[] {3.0f});
+          OnnxTensor c = OnnxTensor.createTensor(env, new float[] {5.0f})) {
+        Map<String, OnnxTensor> inputs = new HashMap<>();
+        inputs.put("a:0", a);
+        inputs.put("b:0", b);
+        inputs.put("c:0", c);
+        // default session owned executor
+        try (Result r = session.runAsync(inputs).get(10, TimeUnit.SECONDS)) {
+          assertEquals(3, r.size());
+          assertEquals(21.0f, ((float[]) r.get("abc:0").get().getValue())[0], 1e-10);
+          assertTrue(r.getQueueWaitNanos() >= 0);
+          assertTrue(r.getExecutionNanos() >= 0);
+        }
+        session.setAsyncExecutor(executor);
+        List<CompletableFuture<Result>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+          futures.add(session.runAsync(inputs, Collections.singleton("ab:0")));
+        }
+        for (CompletableFuture<Result> f : futures) {
+          try (Result r = f.get(10, TimeUnit.SECONDS)) {
+            assertEquals(1, r.size());
+            assertEquals(6.0f, ((float[]) r.get("ab:0").get().getValue())[0], 1e-10);
+          }
+        }
+        // failures complete the future exceptionally
+        try {
+          session.runAsync(Collections.singletonMap("a:0", a)).get(10, TimeUnit.SECONDS);
+          fail("Expected the future to fail due to missing inputs");
+        } catch (ExecutionException e) {
+          assertTrue(e.getCause() instanceof OrtException);
+        }
+        // results of cancelled runs are released rather than leaked
+        CompletableFuture<Result> cancelled = session.runAsync(inputs);
+        cancelled.cancel(true);
+        assertTrue(cancelled.isCancelled());
+        // cancelling a run leaves the supplied RunOptions usable
+        try (OrtSession.RunOptions runOptions = new OrtSession.RunOptions()) {
+          runOptions.setRunTag("cancelled");
+          for (int i = 0; i < 8; i++) {
+            CompletableFuture<Result> f =
+                session.runAsync(inputs, Collections.singleton("abc:0"), runOptions);
+            f.cancel(true);
+          }
+          try (Result r = session.run(inputs, runOptions)) {
+            assertEquals(21.0f, ((float[]) r.get("abc:0").get().getValue())[0], 1e-10);
+          }
+          try (Result r =
+              session
+                  .runAsync(inputs, Collections.singleton("abc:0"), runOptions)
+                  .get(10, TimeUnit.SECONDS)) {
+            assertEquals(21.0f, ((float[]) r.get("abc:0").get().getValue())[0], 1e-10);
+          }
+          assertEquals("cancelled", runOptions.getRunTag());
+        }
+      } finally {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+      }
+    }
+  }
+
+  @Test
+  public void testCloseWithPendingAsyncRuns() throws Exception {
+    String modelPath = getResourcePath("/partial-inputs-test.onnx").toString();
+    try (OrtEnvironment env =
+            OrtEnvironment.getEnvironment(
+                OrtLoggingLevel.ORT_LOGGING_LEVEL_FATAL, "closeWithPendingAsyncRuns");
+        OrtSession.SessionOptions options = new SessionOptions();
+        OnnxTensor a = OnnxTensor.createTensor(env, new float[] {2.0f});
+        OnnxTensor b = OnnxTensor.createTensor(env, new float[] {3.0f});
+        OnnxTensor c = OnnxTensor.createTensor(env, new float[] {5.0f})) {
+      Map<String, OnnxTensor> inputs = new HashMap<>();
+      inputs.put("a:0", a);
+      inputs.put("b:0", b);
+      inputs.put("c:0", c);
+      OrtSession session = env.createSession(modelPath, options);
+      List<CompletableFuture<Result>> futures = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        futures.add(session.runAsync(inputs));
+      }
+      session.close();
+      // every run either finished before the session closed, or failed without touching it
+      for (CompletableFuture<Result> f : futures) {
+        try (Result r = f.get(10, TimeUnit.SECONDS)) {
+          assertEquals(21.0f, ((float[]) r.get("abc:0").get().getValue())[0], 1e-10);
+        } catch (ExecutionException e) {
+          assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testBatchingSession() throws Exception {
+    // matmul_2 computes y = x0 + 2 * x1 with a free batch dimension
+    String modelPath = getResourcePath("/matmul_2.onnx").toString();
+    try (OrtEnvironment env =
+            OrtEnvironment.getEnvironment(OrtLoggingLevel.ORT_LOGGING_LEVEL_FATAL, "batching");
+        OrtSession.SessionOptions options = new SessionOptions();
+        OrtSession session = env.createSession(modelPath, options)) {
+      List<OnnxTensor> inputs = new ArrayList<>();
+      List<CompletableFuture<Result>> futures = new ArrayList<>();
+      try (BatchingSession batcher = new BatchingSession(env, session, 4, 10000)) {
+        assertEquals(4, batcher.getMaxBatchSize());
+        for (int i = 0; i < 10; i++) {
+          // one three row request among the single row requests
+          float[][] x = i == 5 ? new float[][] {{i, 1}, {i, 2}, {i, 3}} : new float[][] {{i, 1}};
+          OnnxTensor t = OnnxTensor.createTensor(env, x);
+          inputs.add(t);
+          futures.add(batcher.submit(Collections.singletonMap("X", t)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+          try (Result r = futures.get(i).get(10, TimeUnit.SECONDS)) {
+            float[][] y = (float[][]) r.get(0).getValue();
+            assertEquals(i == 5 ? 3 : 1, y.length);
+            for (int j = 0; j < y.length; j++) {
+              assertEquals(i + 2.0f * (j + 1), y[j][0], 1e-6);
+            }
+          }
+        }
+        try {
+          batcher.submit(Collections.emptyMap());
+          fail("Expected to throw OrtException due to missing inputs");
+        } catch (OrtException e) {
+          // pass
+        }
+        try (OnnxTensor empty =
+            OnnxTensor.createTensor(env, FloatBuffer.allocate(0), new long[] {0, 2})) {
+          batcher.submit(Collections.singletonMap("X", empty));
+          fail("Expected to throw OrtException due to an empty input");
+        } catch (OrtException e) {
+          // pass
+        }
+      } finally {
+        OnnxValue.close(inputs);
+      }
+    }
+  }
+
+  @Test
+  public void testModelRegistry() throws IOException, OrtException {
+    Path squeezenetPath = getResourcePath("/squeezenet.onnx");
+    Path matmulPath = getResourcePath("/matmul_2.onnx");
+    long squeezenetBytes = Files.size(squeezenetPath);
+    long matmulBytes = Files.size(matmulPath);
+    try (OrtEnvironment env = OrtEnvironment.getEnvironment("testModelRegistry");
+        OrtSession.SessionOptions options = new SessionOptions();
+        ModelRegistry registry =
+            new ModelRegistry(env, squeezenetBytes + matmulBytes + 1024 - 1)) {
+      registry.register("squeezenet", squeezenetPath, options);
+      registry.register("matmul", matmulPath, options);
+      assertFalse(registry.isLoaded("squeezenet"));
+      assertEquals(0, registry.getResidentBytes());
+
+      ModelRegistry.Lease squeezenet = registry.acquire("squeezenet");
+      assertEquals(Collections.singleton("data_0"), squeezenet.getSession().getInputNames());
+      try (ModelRegistry.Lease matmul = registry.acquire("matmul")) {
+        assertEquals(squeezenetBytes + matmulBytes, registry.getResidentBytes());
+        // a [256,2] input produces a [256,1] float output, taking the total over budget
+        try (OnnxTensor x = OnnxTensor.createTensor(env, new float[256 * 2], new long[] {256, 2});
+            OrtSession.Result r = matmul.run(Collections.singletonMap("X", x))) {
+          assertEquals(256, ((float[][]) r.get(0).getValue()).length);
+        }
+        assertEquals(matmulBytes + 1024, registry.getFootprint("matmul"));
+        // both sessions are leased so neither can be evicted
+        assertTrue(registry.isLoaded("squeezenet"));
+        assertTrue(registry.isLoaded("matmul"));
+        squeezenet.close();
+        // the least recently used idle session is evicted
+        assertFalse(registry.isLoaded("squeezenet"));
+        assertEquals(1, registry.getEvictionCount());
+        assertEquals(matmulBytes + 1024, registry.getResidentBytes());
+      }
+      assertTrue(registry.isLoaded("matmul"));
+
+      try (ModelRegistry.Lease lease = registry.acquire("squeezenet")) {
+        assertEquals(3, registry.getLoadCount());
+        // reloading squeezenet evicts the idle matmul session to fit in the budget
+        assertFalse(registry.isLoaded("matmul"));
+        assertEquals(2, registry.getEvictionCount());
+        // unregistering a leased model defers closing it until the lease is closed
+        assertTrue(registry.unregister("squeezenet"));
+        assertFalse(registry.isLoaded("squeezenet"));
+        assertEquals(squeezenetBytes, registry.getResidentBytes());
+        assertEquals(1, lease.getSession().getNumInputs());
+      }
+      assertEquals(0, registry.getResidentBytes());
+      assertEquals(Collections.singletonList("matmul"), registry.getModelNames());
+      try {
+        registry.acquire("squeezenet");
+        fail("Expected to throw IllegalArgumentException as the model is not registered");
+      } catch (IllegalArgumentException e) {
+        // pass
+      }
+    }
+  }
+
+  @Test
+  public void testWarmUp() throws OrtException {
+    try (OrtEnvironment env = OrtEnvironment.getEnvironment("testWarmUp");
+        OrtSession.SessionOptions options = new SessionOptions()) {
+      // matmul_2 has a free batch dimension
+      String matmulModel = getResourcePath("/matmul_2.onnx").toString();
+      try (OrtSession session = env.createSession(matmulModel, options)) {
+        long[] times = session.warmUp(3, Collections.singletonMap("X", 8L));
+        assertEquals(3, times.length);
+        for (long t : times) {
+          assertTrue(t > 0);
+        }
+        assertEquals(0, session.warmUp(0, Collections.emptyMap()).length);
+      }
+      String stringModel = getResourcePath("/identity_string.onnx").toString();
+      try (OrtSession session = env.createSession(stringModel, options)) {
+        assertEquals(1, session.warmUp(1, Collections.emptyMap()).length);
+      }
+    }
+  }
+
+  @Test
+  public void testGlobalThreadPools() throws OrtException {
+    String modelPath = getResourcePath("/matmul_2.onnx").toString();
+    OrtEnvironment env;
+    try (OrtEnvironment.ThreadingOptions threadingOptions = new OrtEnvironment.ThreadingOptions()) {
+      env =
+          OrtEnvironment.getEnvironment(
+              OrtLoggingLevel.ORT_LOGGING_LEVEL_WARNING, "testGlobalThreadPools", threadingOptions);
+    }
+    try (OrtSession.SessionOptions options = new SessionOptions()) {
+      options.disablePerSessionThreads();
+      if (env.hasGlobalThreadPools()) {
+        try (OrtSession first = env.createSession(modelPath, options);
+            OrtSession second = env.createSession(modelPath, options);
+            OnnxTensor x = OnnxTensor.createTensor(env, new float[][] {{1.0f, 2.0f}});
+            OrtSession.Result a = first.run(Collections.singletonMap("X", x));
+            OrtSession.Result b = second.run(Collections.singletonMap("X", x))) {
+          assertEquals(5.0f, ((float[][]) a.get(0).getValue())[0][0], 1e-6f);
+          assertEquals(5.0f, ((float[][]) b.get(0).getValue())[0][0], 1e-6f);
+        }
+      } else {
+        // another test holds an environment without global thread pools
+        try {
+          env.createSession(modelPath, options).close();
+          fail("Expected to throw OrtException as the environment has no global thread pools");
+        } catch (OrtException e) {
+          // pass
+        }
+      }
+    } finally {
+      env.close();
+    }
+  }
+
+  @Test
+  public void testShapeSpecializedSessionCache() throws OrtException {
+    // abs_free_dimensions has an input x of shape [Dim1, Dim2, 5]
+    String modelPath = getResourcePath("/abs_free_dimensions.onnx").toString();
+    try (OrtEnvironment env = OrtEnvironment.getEnvironment("testShapeSpecializedSessionCache");
+        ShapeSpecializedSessionCache cache =
+            new ShapeSpecializedSessionCache(env, modelPath, SessionOptions::new, 2)) {
+      cache.addDimension("Dim1", "x", 0);
+      cache.addDimension("Dim2", "x", 1);
+      float[][][] small = new float[1][2][5];
+      small[0][1][3] = -3.0f;
+      float[][][] large = new float[2][3][5];
+      large[1][2][4] = -4.0f;
+      float[][][] other = new float[3][1][5];
+      other[2][0][0] = -5.0f;
+      try (OnnxTensor smallTensor = OnnxTensor.createTensor(env, small);
+          OnnxTensor largeTensor = OnnxTensor.createTensor(env, large);
+          OnnxTensor otherTensor = OnnxTensor.createTensor(env, other)) {
+        try (OrtSession.Result r = cache.run(Collections.singletonMap("x", smallTensor))) {
+          assertEquals(3.0f, ((float[][][]) r.get(0).getValue())[0][1][3], 1e-6f);
+        }
+        try (OrtSession.Result r = cache.run(Collections.singletonMap("x", largeTensor))) {
+          assertEquals(4.0f, ((float[][][]) r.get(0).getValue())[1][2][4], 1e-6f);
+        }
+        try (OrtSession.Result r = cache.run(Collections.singletonMap("x", smallTensor))) {
+          assertEquals(3.0f, ((float[][][]) r.get(0).getValue())[0][1][3], 1e-6f);
+        }
+        assertEquals(2, cache.getNumSessions());
+        // the cache is full, so this runs on the generic session
+        try (OrtSession.Result r = cache.run(Collections.singletonMap("x", otherTensor))) {
+          assertEquals(5.0f, ((float[][][]) r.get(0).getValue())[2][0][0], 1e-6f);
+        }
+        assertEquals(2, cache.getNumSessions());
+        try {
+          cache.addDimension("Dim3", "x", 2);
+          fail("Expected to throw IllegalStateException as the cache has been run");
+        } catch (IllegalStateException e) {
+          // pass
+        }
+        try {
+          cache.run(Collections.emptyMap());
+          fail("Expected to throw OrtException due to a missing input");
+        } catch (OrtException e) {
+          // pass
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSymbolicDimensions() throws OrtException {
+    String modelPath = getResourcePath("/abs_free_dimensions.onnx").toString();
+    try (OrtEnvironment env = OrtEnvironment.getEnvironment("testSymbolicDimensions");
+        OrtSession.SessionOptions options = new SessionOptions();
+        OrtSession session = env.createSession(modelPath, options)) {
+      TensorInfo inputInfo = (TensorInfo) session.getInputInfo().get("x").getInfo();
+      assertArrayEquals(new long[] {-1, -1, 5}, inputInfo.getShape());
+      assertArrayEquals(new String[] {"Dim1", "Dim2", ""}, inputInfo.getDimensionNames());
+      TensorInfo outputInfo = (TensorInfo) session.getOutputInfo().get("y").getInfo();
+      assertArrayEquals(new String[] {"Dim1", "Dim2", ""}, outputInfo.getDimensionNames());
+
+      Map<String, long[]> outputShapes =
+          session.inferOutputShapes(Collections.singletonMap("x", new long[] {3, 4, 5}));
+      assertEquals(1, outputShapes.size());
+      assertArrayEquals(new long[] {3, 4, 5}, outputShapes.get("y"));
+      // without the input the output dimensions can't be resolved
+      assertTrue(session.inferOutputShapes(Collections.emptyMap()).isEmpty());
+      try {
+        session.inferOutputShapes(Collections.singletonMap("x", new long[] {3, 4, 6}));
+        fail("Expected to throw OrtException due to a mismatched fixed dimension");
+      } catch (OrtException e) {
+        // pass
+      }
+
+      // preallocate the output from the inferred shape and reuse it
+      float[][][] input = new float[3][4][5];
+      input[2][3][4] = -2.0f;
+      FloatBuffer output =
+          ByteBuffer.allocateDirect(60 * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+      try (OnnxTensor x = OnnxTensor.createTensor(env, input);
+          OnnxTensor y = OnnxTensor.createTensor(env, output, outputShapes.get("y"))) {
+        assertArrayEquals(new String[] {"", "", ""}, x.getInfo().getDimensionNames());
+        session.run(Collections.singletonMap("x", x), Collections.singletonMap("y", y));
+        assertEquals(2.0f, y.getFloatBuffer().get(59), 1e-6f);
+      }
+    }
+  }
+
+  @Test
+  public void testOverridableInitializers() throws OrtException {
+    // overridable_initializer has inputs Label and F2, and an initializer F1 which is also an input
+    String modelPath = getResourcePath("/overridable_initializer.onnx").toString();
+    try (OrtEnvironment env = OrtEnvironment.getEnvironment("testOverridableInitializers");
+        OrtSession.SessionOptions options = new SessionOptions();
+        OrtSession session = env.createSession(modelPath, options)) {
+      assertEquals(2, session.getNumInputs());
+      assertEquals(1, session.getNumOverridableInitializers());
+      assertEquals(Collections.singleton("F1"), session.getOverridableInitializerNames());
+      NodeInfo initInfo = session.getOverridableInitializerInfo().get("F1");
+      assertEquals(OnnxJavaType.FLOAT, ((TensorInfo) initInfo.getInfo()).type);
+
+      try (OnnxTensor label = OnnxTensor.createTensor(env, new boolean[][] {{true}});
+          OnnxTensor f2 = OnnxTensor.createTensor(env, new String[][] {{"f2"}});
+          OnnxTensor first = OnnxTensor.createTensor(env, new float[][] {{2.0f}});
+          OnnxTensor second = OnnxTensor.createTensor(env, new float[][] {{3.0f}})) {
+        Map<String, OnnxTensor> inputs = new HashMap<>();
+        inputs.put("Label", label);
+        inputs.put("F2", f2);
+        // without an override the stored weight is used
+        try (OrtSession.Result r = session.run(inputs)) {
+          assertEquals(0.0f, ((float[][]) r.get("F11").get().getValue())[0][0], 1e-6f);
+        }
+        inputs.put("F1", first);
+        try (OrtSession.Result r = session.run(inputs)) {
+          assertEquals(2.0f, ((float[][]) r.get("F11").get().getValue())[0][0], 1e-6f);
+        }
+        // refreshing the weight is a swap of the fed tensor
+        inputs.put("F1", second);
+        try (OrtSession.Result r = session.run(inputs)) {
+          assertEquals(3.0f, ((float[][]) r.get("F11").get().getValue())[0][0], 1e-6f);
+        }
+        // an io binding can hold the weight across runs
+        try (OrtIoBinding binding = session.createIoBinding()) {
+          binding.bindInput("Label", label);
+          binding.bindInput("F2", f2);
+          binding.bindInput("F1", first);
+          binding.bindOutputToAllocator("F11");
+          try (OrtSession.Result r = session.run(binding)) {
+            assertEquals(2.0f, ((float[][]) r.get("F11").get().getValue())[0][0], 1e-6f);
+          }
+          binding.bindInput("F1", second);
+          try (OrtSession.Result r = session.run(binding)) {
+            assertEquals(3.0f, ((float[][]) r.get("F11").get().getValue())[0][0], 1e-6f);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testTensorViews() throws OrtException {
+    try (OrtEnvironment env = OrtEnvironment.getEnvironment("tensorViews")) {
+      OnnxTensor floats = OnnxTensor.createTensor(env, new float[][] {{1.0f, 2.0f}, {3.0f, 4.0f}});
+      OnnxTensor.FloatView view = floats.asFloatView();
+      assertNotNull(view);
+      assertEquals(4, view.size());
+      assertEquals(3.0f, view.get(2), 1e-10);
+      float[] dst = new float[3];
+      view.get(1, dst, 1, 2);
+      assertArrayEquals(new float[] {0.0f, 2.0f, 3.0f}, dst, 1e-10f);
+      assertEquals(null, floats.asLongView());
+      floats.close();
+      assertTrue(floats.isClosed());
+      assertFalse(view.isValid());
+      try {
+        view.get(0);
+        fail("Expected to throw IllegalStateException due to reading a closed tensor");
+      } catch (IllegalStateException e) {
+        // pass
+      }
+      try {
+        floats.getFloatBuffer();
+        fail("Expected to throw IllegalStateException due to reading a closed tensor");
+      } catch (IllegalStateException e) {
+        // pass
+      }
+      try {
+        floats.getByteBuffer();
+        fail("Expected to throw IllegalStateException due to reading a closed tensor");
+      } catch (IllegalStateException e) {
+        // pass
+      }
+
+      try (OnnxTensor longs = OnnxTensor.createTensor(env, new long[] {5L, 6L, 7L})) {
+        OnnxTensor.LongView longView = longs.asLongView();
+        assertEquals(3, longView.size());
+        assertEquals(7L, longView.get(2));
+        assertEquals(null, longs.asFloatView());
+      }
+    }
+  }
+
+  @Test
+  public void testTensorPool() throws OrtException {
+    String modelPath = getResourcePath("/partial-inputs-test.onnx").toString();
+    try (OrtEnvironment env =
+            OrtEnvironment.getEnvironment(OrtLoggingLevel.ORT_LOGGING_LEVEL_FATAL, "tensorPool");
+        OrtSession.SessionOptions options = new SessionOptions();
+        OrtSession session = env.createSession(modelPath, options);
+        OnnxTensorPool pool = new OnnxTensorPool(env, 3, 1)) {
+      long[] shape = new long[] {1};
+      for (int i = 0; i < 5; i++) {
+        Map<String, OnnxTensor> inputs = new HashMap<>();
+        for (String name : new String[] {"a:0", "b:0", "c:0"}) {
+          OnnxTensorPool.PooledTensor t = pool.acquire(OnnxJavaType.FLOAT, shape);
+          t.getWritableBuffer().putFloat(0, name.equals("a:0") ? i : 1.0f);
+          inputs.put(name, t);
+        }
+        try (Result r = session.run(inputs, Collections.singleton("ab:0"))) {
+          assertEquals((float) i, ((float[]) r.get(0).getValue())[0], 1e-10);
+        } finally {
+          OnnxValue.close(inputs);
+        }
+      }
+      assertEquals(3, pool.getMissCount());
+      assertEquals(12, pool.getHitCount());
+      assertEquals(3, pool.getSize());
+
+      // overflow the thread local cache into the shared stack, then evict
+      List<OnnxTensor> leased = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        leased.add(pool.acquire(OnnxJavaType.FLOAT, shape));
+      }
+      OnnxValue.close(leased);
+      assertEquals(1, pool.getEvictionCount());
+      assertEquals(4, pool.getSize());
+      OnnxTensorPool.PooledTensor other = pool.acquire(OnnxJavaType.INT64, new long[] {2, 2});
+      assertEquals(OnnxJavaType.INT64, other.getInfo().type);
+      assertArrayEquals(new long[] {2, 2}, other.getInfo().getShape());
+      other.close();
+    }
+  }
+
+  @Test
+  public void testTensorPoolCloseDrainsThreadCaches() throws Exception {
+    OrtEnvironment env =
+        OrtEnvironment.getEnvironment(OrtLoggingLevel.ORT_LOGGING_LEVEL_FATAL, "tensorPoolClose");
+    OnnxTensorPool pool = new OnnxTensorPool(env, 2, 0);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      long[] shape = new long[] {4};
+      List<OnnxTensorPool.PooledTensor> cached = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        cached.add(
+            executor
+                .submit(
+                    () -> {
+                      OnnxTensorPool.PooledTensor t = pool.acquire(OnnxJavaType.FLOAT, shape);
+                      t.close();
+                      return t;
+                    })
+                .get(10, TimeUnit.SECONDS));
+      }
+      assertEquals(2, pool.getLocalCacheSize());
+      pool.close();
+      // the other threads' caches are emptied and their tensors released
+      assertEquals(0, pool.getLocalCacheSize());
+      assertEquals(0, pool.getSize());
+      for (OnnxTensorPool.PooledTensor t : cached) {
+        assertTrue(t.isClosed());
+      }
+      try {
+        executor.submit(() -> pool.acquire(OnnxJavaType.FLOAT, shape)).get(10, TimeUnit.SECONDS);
+        fail("Expected the acquire to fail on a closed pool");
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testTensorPoolShortLivedThreads() throws Exception {
+    OrtEnvironment env =
+        OrtEnvironment.getEnvironment(
+            OrtLoggingLevel.ORT_LOGGING_LEVEL_FATAL, "tensorPoolShortLivedThreads");
+    try (OnnxTensorPool pool = new OnnxTensorPool(env, 2, 4)) {
+      long[] shape = new long[] {4};
+      for (int i = 0; i < 8; i++) {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread =
+            new Thread(
+                () -> {
+                  try {
+                    pool.acquire(OnnxJavaType.FLOAT, shape).close();
+                  } catch (Throwable e) {
+                    failure.set(e);
+                  }
+                });
+        thread.start();
+        thread.join(10000);
+        assertFalse(thread.isAlive());
+        assertNull(failure.get());
+      }
+      // each new thread drains the exited threads' caches, so one tensor serves every thread
+      assertEquals(1, pool.getMissCount());
+      assertEquals(7, pool.getHitCount());
+      assertEquals(1, pool.getSize());
+      assertEquals(1, pool.getLocalCacheSize());
+    }
+  }
+
+  @Test
+  public void testMutableTensor() throws OrtException {
+    String modelPath = getResourcePath("/partial-inputs-test.onnx").toString();
+    try (OrtEnvironment env =
+            OrtEnvironment.getEnvironment(OrtLoggingLevel.ORT_LOGGING_LEVEL_FATAL, "mutable");
+        OrtSession.SessionOptions options = new SessionOptions();
+        OrtSession session = env.createSession(modelPath, options);
+        OnnxTensor a = OnnxTensor.createMutable(env, OnnxJavaType.FLOAT, new long[] {1});
+        OnnxTensor b = OnnxTensor.createTensor(env, new float[] {3.0f});
+        OnnxTensor c = OnnxTensor.createTensor(env, new float[] {5.0f})) {
+      assertTrue(a.isMutable());
+      assertFalse(b.isMutable());
+      assertEquals(0.0f, a.getWritableBuffer().getFloat(0), 1e-10);
+      Map<String, OnnxTensor> inputs = new HashMap<>();
+      inputs.put("a:0", a);
+      inputs.put("b:0", b);
+      inputs.put("c:0", c);
+      float[] values = new float[] {1.0f, 2.0f, 4.0f};
+      for (int i = 0; i < values.length; i++) {
+        a.fill(values, i);
+        try (Result r = session.run(inputs, Collections.singleton("ab:0"))) {
+          assertEquals(values[i] * 3.0f, ((float[]) r.get(0).getValue())[0], 1e-10);
+        }
+      }
+      try {
+        a.fill(values, 3);
+        fail("Expected to throw OrtException due to a short source");
+      } catch (OrtException e) {
+        // pass
+      }
+      try {
+        a.fill(new long[] {1L}, 0);
+        fail("Expected to throw OrtException due to a type mismatch");
+      } catch (OrtException e) {
+        // pass
+      }
+      try {
+        b.fill(values, 0);
+        fail("Expected to throw IllegalStateException due to an immutable tensor");
+      } catch (IllegalStateException e) {
+        // pass
+      }
+    }
+  }
+
   @Test
   public void createSessionFromByteArray() throws IOException, OrtException {
     Path modelPath = getResourcePath("/squeezenet.onnx");
@@ -390,6 +1144,38 @@ public class InferenceTest {
     }
   }
 
+  @Test
+  public void createSessionFromByteBuffer() throws IOException, OrtException {
+    Path modelPath = getResourcePath("/squeezenet.onnx");
+    byte[] modelBytes = Files.readAllBytes(modelPath);
+    ByteBuffer direct = ByteBuffer.allocateDirect(modelBytes.length + 4);
+    direct.position(4);
+    direct.put(modelBytes);
+    direct.position(4);
+    try (OrtEnvironment env = OrtEnvironment.getEnvironment("createSessionFromByteBuffer");
+        OrtSession.SessionOptions options = new SessionOptions()) {
+      try (OrtSession session = env.createSession(direct, options)) {
+        assertEquals(Collections.singleton("data_0"), session.getInputNames());
+        assertEquals(Collections.singleton("softmaxout_1"), session.getOutputNames());
+      }
+      // the buffer position is not modified
+      assertEquals(4, direct.position());
+      try (OrtSession session = env.createSession(ByteBuffer.wrap(modelBytes), options)) {
+        assertEquals(Collections.singleton("data_0"), session.getInputNames());
+      }
+      try (OrtSession session = env.createSession(modelPath, true, options)) {
+        assertEquals(Collections.singleton("data_0"), session.getInputNames());
+        assertEquals("squeezenet_old", session.getMetadata().getGraphName());
+      }
+      try {
+        env.createSession(ByteBuffer.allocateDirect(16), options);
+        fail("Expected to throw OrtException due to an invalid model");
+      } catch (OrtException e) {
+        // pass
+      }
+    }
+  }
+
   @Test
   public void inferenceTest() throws OrtException {
     canRunInferenceOnAModel(OptLevel.NO_OPT, ExecutionMode.PARALLEL);
@@ -535,6 +1321,153 @@ public class InferenceTest {
     }
   }
 
+  @Test
+  public void testFlatArrayTensors() throws OrtException {
+    try (OrtEnvironment env =
+        OrtEnvironment.getEnvironment(OrtLoggingLevel.ORT_LOGGING_LEVEL_FATAL, "flat")) {
+      long[] shape = new long[] {2, 3};
+      try (OnnxTensor t = OnnxTensor.createTensor(env, new float[] {0, 1, 2, 3, 4, 5}, shape)) {
+        assertEquals(OnnxJavaType.FLOAT, t.getInfo().type);
+        assertArrayEquals(shape, t.getInfo().getShape());
+        assertArrayEquals(new float[][] {{0, 1, 2}, {3, 4, 5}}, (float[][]) t.getValue());
+      }
+      try (OnnxTensor t = OnnxTensor.createTensor(env, new double[] {0, 1, 2, 3, 4, 5}, shape)) {
+        assertArrayEquals(new double[][] {{0, 1, 2}, {3, 4, 5}}, (double[][]) t.getValue());
+      }
+      try (OnnxTensor t = OnnxTensor.createTensor(env, new byte[] {0, 1, 2, 3, 4, 5}, shape)) {
+        assertArrayEquals(new byte[][] {{0, 1, 2}, {3, 4, 5}}, (byte[][]) t.getValue());
+      }
+      try (OnnxTensor t = OnnxTensor.createTensor(env, new short[] {0, 1, 2, 3, 4, 5}, shape)) {
+        assertArrayEquals(new short[][] {{0, 1, 2}, {3, 4, 5}}, (short[][]) t.getValue());
+      }
+      try (OnnxTensor t = OnnxTensor.createTensor(env, new int[] {0, 1, 2, 3, 4, 5}, shape)) {
+        assertArrayEquals(new int[][] {{0, 1, 2}, {3, 4, 5}}, (int[][]) t.getValue());
+      }
+      try (OnnxTensor t = OnnxTensor.createTensor(env, new long[] {0, 1, 2, 3, 4, 5}, shape)) {
+        assertArrayEquals(new long[][] {{0, 1, 2}, {3, 4, 5}}, (long[][]) t.getValue());
+      }
+      boolean[] bools = new boolean[] {true, false, true, false, false, true};
+      try (OnnxTensor t = OnnxTensor.createTensor(env, bools, shape)) {
+        boolean[][] output = (boolean[][]) t.getValue();
+        assertArrayEquals(new boolean[] {true, false, true}, output[0]);
+        assertArrayEquals(new boolean[] {false, false, true}, output[1]);
+      }
+      try {
+        OnnxTensor.createTensor(env, new float[5], shape);
+        fail("Expected to throw OrtException due to a length mismatch");
+      } catch (OrtException e) {
+        // pass
+      }
+
+      // Enough rows to span several copy batches, with a partial final batch.
+      float[][] rows = new float[1000][3];
+      float[] flat = new float[3000];
+      for (int i = 0; i < rows.length; i++) {
+        for (int j = 0; j < 3; j++) {
+          rows[i][j] = i * 3 + j;
+          flat[i * 3 + j] = i * 3 + j;
+        }
+      }
+      try (OnnxTensor t = OnnxTensor.createTensor(env, rows)) {
+        assertArrayEquals(new long[] {1000, 3}, t.getInfo().getShape());
+        assertArrayEquals(flat, t.getFloatBuffer().array());
+      }
+      try (OnnxTensor t = OnnxTensor.createTensor(env, new float[][][] {rows, rows})) {
+        FloatBuffer buf = t.getFloatBuffer();
+        assertEquals(6000, buf.capacity());
+        assertEquals(flat[2999], buf.get(5999));
+      }
+      float[][] ragged = new float[][] {{1, 2}, {3}};
+      try {
+        OnnxTensor.createTensor(env, ragged);
+        fail("Expected to throw OrtException due to a ragged array");
+      } catch (OrtException e) {
+        // pass
+      }
+    }
+  }
+
+  @Test
+  public void testCopyToCallerArrays() throws OrtException {
+    try (OrtEnvironment env =
+        OrtEnvironment.getEnvironment(OrtLoggingLevel.ORT_LOGGING_LEVEL_FATAL, "copyTo")) {
+      float[][] rows = new float[100][4];
+      float[] flat = new float[400];
+      for (int i = 0; i < rows.length; i++) {
+        for (int j = 0; j < 4; j++) {
+          rows[i][j] = i * 4 + j;
+          flat[i * 4 + j] = i * 4 + j;
+        }
+      }
+      try (OnnxTensor t = OnnxTensor.createTensor(env, rows)) {
+        float[][] carrier = new float[100][4];
+        assertSame(carrier, t.getValue(carrier));
+        assertArrayEquals(rows, carrier);
+
+        float[] dst = new float[402];
+        t.copyTo(dst, 2);
+        assertArrayEquals(flat, Arrays.copyOfRange(dst, 2, 402));
+
+        FloatBuffer buf = FloatBuffer.allocate(401);
+        buf.put(-1.0f);
+        t.copyTo(buf);
+        assertEquals(401, buf.position());
+        assertEquals(flat[399], buf.get(400));
+
+        ByteBuffer bytes = ByteBuffer.allocate(1600).order(ByteOrder.nativeOrder());
+        t.copyTo(bytes);
+        assertEquals(flat[5], bytes.getFloat(20));
+
+        try {
+          t.getValue(new float[4][100]);
+          fail("Expected to throw OrtException due to a shape mismatch");
+        } catch (OrtException e) {
+          // pass
+        }
+        try {
+          t.getValue(new double[100][4]);
+          fail("Expected to throw OrtException due to a type mismatch");
+        } catch (OrtException e) {
+          // pass
+        }
+        try {
+          t.copyTo(new float[400], 1);
+          fail("Expected to throw OrtException due to a short destination");
+        } catch (OrtException e) {
+          // pass
+        }
+        try {
+          t.copyTo(new int[400], 0);
+          fail("Expected to throw OrtException due to a type mismatch");
+        } catch (OrtException e) {
+          // pass
+        }
+      }
+      long[] longs = new long[] {1, 2, 3, 4};
+      try (OnnxTensor t = OnnxTensor.createTensor(env, longs, new long[] {2, 2})) {
+        long[] dst = new long[4];
+        t.copyTo(dst, 0);
+        assertArrayEquals(longs, dst);
+        LongBuffer buf = LongBuffer.allocate(4);
+        t.copyTo(buf);
+        assertArrayEquals(dst, buf.array());
+      }
+      try (OnnxTensor t =
+          OnnxTensor.createTensor(
+              env,
+              new float[] {0.5f, -2.0f},
+              new long[] {2},
+              TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16)) {
+        float[] dst = new float[2];
+        t.copyTo(dst, 0);
+        assertArrayEquals(new float[] {0.5f, -2.0f}, dst);
+        ShortBuffer raw = ShortBuffer.allocate(2);
+        t.copyTo(raw);
+        assertEquals(OrtUtil.floatToFp16(-2.0f), raw.get(1));
+      }
+    }
+  }
+
   @Test
   public void testMultiThreads() throws OrtException, InterruptedException {
     int numThreads = 10;
@@ -1065,6 +1998,44 @@ public class InferenceTest {
     }
   }
 
+  @Test
+  public void testModelInputFLOAT16() throws OrtException {
+    // model takes 1x5 input of fixed type, echoes back
+    String modelPath = getResourcePath("/test_types_FLOAT16.pb").toString();
+
+    try (OrtEnvironment env = OrtEnvironment.getEnvironment("testModelInputFLOAT16");
+        SessionOptions options = new SessionOptions();
+        OrtSession session = env.createSession(modelPath, options)) {
+      String inputName = session.getInputNames().iterator().next();
+      float[] flatInput = new float[] {1.0f, 2.0f, -3.0f, 65504.0f, 0x1.0p-24f};
+      long[] shape = new long[] {1, 5};
+      TensorInfo.OnnxTensorType fp16 =
+          TensorInfo.OnnxTensorType.ONNX_TENSOR_ELEMENT_DATA_TYPE_FLOAT16;
+      try (OnnxTensor ov = OnnxTensor.createTensor(env, flatInput, shape, fp16)) {
+        assertEquals(OnnxJavaType.FLOAT, ov.getInfo().type);
+        try (OrtSession.Result res = session.run(Collections.singletonMap(inputName, ov))) {
+          OnnxTensor output = (OnnxTensor) res.get(0);
+          assertEquals(fp16, output.getInfo().onnxType);
+          assertArrayEquals(flatInput, output.getFloatBuffer().array());
+          assertArrayEquals(flatInput, TestHelpers.flattenFloat(output.getValue()));
+          assertEquals(5, output.asShortView().size());
+        }
+      }
+
+      // raw half precision values are passed through without conversion
+      ShortBuffer raw =
+          ByteBuffer.allocateDirect(10).order(ByteOrder.nativeOrder()).asShortBuffer();
+      for (float f : flatInput) {
+        raw.put(OrtUtil.floatToFp16(f));
+      }
+      raw.rewind();
+      try (OnnxTensor ov = OnnxTensor.createTensor(env, raw, shape, fp16);
+          OrtSession.Result res = session.run(Collections.singletonMap(inputName, ov))) {
+        assertArrayEquals(flatInput, ((OnnxTensor) res.get(0)).getFloatBuffer().array());
+      }
+    }
+  }
+
   @Test
   public void testModelInputINT64() throws OrtException {
     // model takes 1x5 input of fixed type, echoes back
@@ -1087,6 +2058,44 @@ public class InferenceTest {
     }
   }
 
+  @Test
+  public void testPrimitiveMaps() {
+    long[] keys = new long[200];
+    float[] values = new float[200];
+    for (int i = 0; i < keys.length; i++) {
+      // spread the keys so they collide in the low bits
+      keys[i] = (long) i << 32;
+      values[i] = i * 0.5f;
+    }
+    OnnxMap.LongFloatMap longMap = new OnnxMap.LongFloatMap(keys, values);
+    assertEquals(200, longMap.size());
+    for (int i = 0; i < keys.length; i++) {
+      assertEquals(i, longMap.indexOf(keys[i]));
+      assertEquals(values[i], longMap.get(keys[i]));
+    }
+    assertFalse(longMap.containsKey(1L));
+    assertEquals(-1.0f, longMap.getOrDefault(1L, -1.0f));
+    try {
+      longMap.get(1L);
+      fail("Expected to throw NoSuchElementException");
+    } catch (NoSuchElementException e) {
+      // pass
+    }
+
+    String[] stringKeys = new String[] {"a", "b", "c"};
+    OnnxMap.StringLongMap stringMap =
+        new OnnxMap.StringLongMap(stringKeys, new long[] {10L, 20L, 30L});
+    assertEquals(20L, stringMap.get("b"));
+    assertEquals("c", stringMap.keyAt(2));
+    assertEquals(30L, stringMap.valueAt(2));
+    assertEquals(-1, stringMap.indexOf("d"));
+    assertArrayEquals(stringKeys, stringMap.getKeys());
+
+    OnnxMap.LongDoubleMap emptyMap = new OnnxMap.LongDoubleMap(new long[0], new double[0]);
+    assertEquals(0, emptyMap.size());
+    assertFalse(emptyMap.containsKey(0L));
+  }
+
   @Test
   public void testModelSequenceOfMapIntFloat() throws OrtException {
     // test model trained using lightgbm classifier
@@ -1149,11 +2158,128 @@ public class InferenceTest {
         assertEquals(0.25938290, map.get(0L), 1e-6);
         assertEquals(0.40904793, map.get(1L), 1e-6);
         assertEquals(0.33156919, map.get(2L), 1e-6);
+
+        // read the same map without boxing
+        OnnxSequence sequence = (OnnxSequence) secondOutput;
+        long[] keys = sequence.getMapLongKeys(0);
+        float[] values = sequence.getMapFloatValues(0);
+        assertEquals(keys.length, values.length);
+        for (int i = 0; i < keys.length; i++) {
+          assertEquals(map.get(keys[i]), values[i], 1e-6);
+        }
+        try {
+          sequence.getMapStringKeys(0);
+          fail("Expected to throw OrtException due to a key type mismatch");
+        } catch (OrtException e) {
+          // pass
+        }
+        try {
+          sequence.getFloats();
+          fail("Expected to throw OrtException as this is a sequence of maps");
+        } catch (OrtException e) {
+          // pass
+        }
+        try {
+          sequence.getMapFloatValues(sequenceInfo.length);
+          fail("Expected to throw IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+          // pass
+        }
+
+        // read the whole sequence as a classifier result
+        OnnxSequence.ClassifierResult result = sequence.getClassifierResult();
+        assertEquals(1, result.getNumRows());
+        assertEquals(3, result.getNumClasses());
+        assertArrayEquals(new long[] {0, 1, 2}, result.getLongLabels());
+        assertNull(result.getStringLabels());
+        assertArrayEquals(
+            new float[] {0.25938290f, 0.40904793f, 0.33156919f}, result.getProbabilities(), 1e-6f);
+        assertArrayEquals(result.getProbabilities(), result.getProbabilityMatrix()[0]);
+        assertEquals(0.40904793f, result.getProbability(0, 1), 1e-6f);
+        assertEquals(labelOutput[0], result.getLongLabels()[result.argmax(0)]);
+        int[] top = new int[3];
+        assertEquals(2, result.topK(0, 2, top));
+        assertArrayEquals(new int[] {1, 2, 0}, top);
+
+        // read the map lazily
+        assertEquals(1, sequence.size());
+        try (OnnxValue element = sequence.get(0)) {
+          assertTrue(element instanceof OnnxMap);
+          assertEquals(map, element.getValue());
+        }
       }
       ov.close();
     }
   }
 
+  @Test
+  public void testSequenceOfTensors() throws OrtException {
+    String modelPath = getResourcePath("/sequence_construct.onnx").toString();
+    try (OrtEnvironment env = OrtEnvironment.getEnvironment("testSequenceOfTensors");
+        OrtSession session = env.createSession(modelPath, new SessionOptions())) {
+      long[] shape = new long[] {2, 3};
+      Map<String, OnnxTensor> inputs = new HashMap<>();
+      inputs.put("tensor1", OnnxTensor.createTensor(env, new long[] {1, 2, 3, 4, 5, 6}, shape));
+      inputs.put("tensor2", OnnxTensor.createTensor(env, new long[] {7, 8, 9, 10, 11, 12}, shape));
+      try (OrtSession.Result outputs = session.run(inputs)) {
+        OnnxSequence sequence = (OnnxSequence) outputs.get(0);
+        assertEquals(2, sequence.size());
+        try (OnnxValue second = sequence.get(1)) {
+          assertTrue(second instanceof OnnxTensor);
+          assertArrayEquals(shape, ((OnnxTensor) second).getInfo().getShape());
+          assertArrayEquals(new long[][] {{7, 8, 9}, {10, 11, 12}}, (long[][]) second.getValue());
+        }
+        int count = 0;
+        for (OnnxValue element : sequence) {
+          try (OnnxTensor tensor = (OnnxTensor) element) {
+            assertEquals(1 + count * 6, tensor.getLongBuffer().get(0));
+          }
+          count++;
+        }
+        assertEquals(2, count);
+        try {
+          sequence.get(2);
+          fail("Expected to throw IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+          // pass
+        }
+      } finally {
+        OnnxValue.close(inputs);
+      }
+    }
+  }
+
+  @Test
+  public void testClassifierResult() {
+    float[] probabilities = new float[] {0.1f, 0.5f, 0.2f, 0.2f, 0.4f, 0.3f, 0.3f, 0.0f};
+    OnnxSequence.ClassifierResult result =
+        new OnnxSequence.ClassifierResult(new String[] {"a", "b", "c", "d"}, probabilities, 2, 4);
+    assertNull(result.getLongLabels());
+    int[] argmax = new int[2];
+    result.argmax(argmax);
+    assertArrayEquals(new int[] {1, 0}, argmax);
+
+    int[] top = new int[5];
+    assertEquals(3, result.topK(0, 3, top));
+    assertArrayEquals(new int[] {1, 2, 3}, Arrays.copyOf(top, 3));
+    assertEquals(4, result.topK(1, 5, top));
+    assertArrayEquals(new int[] {0, 1, 2, 3}, Arrays.copyOf(top, 4));
+    assertEquals(0, result.topK(1, 0, top));
+
+    try {
+      result.argmax(2);
+      fail("Expected to throw IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException e) {
+      // pass
+    }
+    try {
+      result.topK(0, 6, top);
+      fail("Expected to throw IllegalArgumentException as the output is too small");
+    } catch (IllegalArgumentException e) {
+      // pass
+    }
+  }
+
   @Test
   public void testModelSequenceOfMapStringFloat() throws OrtException {
     // test model trained using lightgbm classifier
@@ -1216,6 +2342,14 @@ public class InferenceTest {
         assertEquals(0.25938290, map.get("0"), 1e-6);
         assertEquals(0.40904793, map.get("1"), 1e-6);
         assertEquals(0.33156919, map.get("2"), 1e-6);
+
+        // read the same map without boxing
+        OnnxSequence sequence = (OnnxSequence) secondOutput;
+        String[] keys = sequence.getMapStringKeys(0);
+        float[] values = sequence.getMapFloatValues(0);
+        for (int i = 0; i < keys.length; i++) {
+          assertEquals(map.get(keys[i]), values[i], 1e-6);
+        }
       }
       ov.close();
     }
@@ -1244,6 +2378,90 @@ public class InferenceTest {
     }
   }
 
+  @Test
+  public void testUtf8StringTensors() throws OrtException {
+    String modelPath = getResourcePath("/identity_string.onnx").toString();
+    try (OrtEnvironment env = OrtEnvironment.getEnvironment("testUtf8StringTensors");
+        SessionOptions options = new SessionOptions();
+        OrtSession session = env.createSession(modelPath, options)) {
+      String inputName = session.getInputNames().iterator().next();
+      String[] strings = new String[] {"this", "", "identity", "test \u263A \uD83D\uDE00"};
+      byte[][] encoded = new byte[strings.length][];
+      int[] offsets = new int[strings.length];
+      ByteArrayOutputStream packed = new ByteArrayOutputStream();
+      for (int i = 0; i < strings.length; i++) {
+        encoded[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+        offsets[i] = packed.size();
+        packed.write(encoded[i], 0, encoded[i].length);
+      }
+      byte[] packedBytes = packed.toByteArray();
+      long[] shape = new long[] {2, 2};
+
+      ByteBuffer direct = ByteBuffer.allocateDirect(packedBytes.length + 3);
+      direct.put(new byte[3]).put(packedBytes).position(3);
+      ByteBuffer heap = ByteBuffer.wrap(packedBytes);
+      for (ByteBuffer input : Arrays.asList(direct, heap)) {
+        try (OnnxTensor ov = OnnxTensor.createTensor(env, input, offsets, shape);
+            OrtSession.Result outputs = session.run(Collections.singletonMap(inputName, ov))) {
+          OnnxTensor output = (OnnxTensor) outputs.get(0);
+          assertArrayEquals(strings, (String[]) output.getValue());
+          byte[][] raw = output.getUtf8Bytes();
+          for (int i = 0; i < strings.length; i++) {
+            assertArrayEquals(encoded[i], raw[i]);
+          }
+          assertEquals(packedBytes.length, output.getStringDataLength());
+          ByteBuffer dst = ByteBuffer.allocate(packedBytes.length + 1);
+          dst.put((byte) 1);
+          int[] outputOffsets = new int[strings.length];
+          output.copyTo(dst, outputOffsets);
+          assertEquals(dst.capacity(), dst.position());
+          assertArrayEquals(offsets, outputOffsets);
+          assertArrayEquals(packedBytes, Arrays.copyOfRange(dst.array(), 1, dst.capacity()));
+        }
+        assertEquals(input == direct ? 3 : 0, input.position());
+      }
+
+      try {
+        OnnxTensor.createTensor(env, heap, new int[] {0, 5, 4, 6}, shape);
+        fail("Expected to throw OrtException due to decreasing offsets");
+      } catch (OrtException e) {
+        // pass
+      }
+      try {
+        OnnxTensor.createTensor(env, heap, new int[] {0, 1, 2}, shape);
+        fail("Expected to throw OrtException due to a shape mismatch");
+      } catch (OrtException e) {
+        // pass
+      }
+      // the runtime would truncate strings at a null character
+      try {
+        OnnxTensor.createTensor(env, new String[] {"a", "b\u0000c"}, new long[] {2});
+        fail("Expected to throw OrtException due to a null character");
+      } catch (OrtException e) {
+        // pass
+      }
+      try {
+        OnnxTensor.createTensor(env, new String[][] {{"a", "b\u0000c"}});
+        fail("Expected to throw OrtException due to a null character");
+      } catch (OrtException e) {
+        // pass
+      }
+      try {
+        ByteBuffer zero = ByteBuffer.wrap(new byte[] {'a', 'b', 0, 'c'});
+        OnnxTensor.createTensor(env, zero, new int[] {0, 1}, new long[] {2});
+        fail("Expected to throw IllegalArgumentException due to a zero byte");
+      } catch (IllegalArgumentException e) {
+        // pass
+      }
+      try {
+        OnnxTensor.createTensor(env, heap, new int[] {0, 1, 2, packedBytes.length + 1}, shape);
+        fail("Expected to throw OrtException due to an offset past the data");
+      } catch (OrtException e) {
+        // pass
+      }
+    }
+  }
+
   @Test
   public void testStringIdentity() throws OrtException {
     String modelPath = getResourcePath("/identity_string.onnx").toString();
@@ -4,6 +4,16 @@
  */
 package ai.onnxruntime;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -87,4 +97,109 @@ public class UtilTest {
     Assertions.assertArrayEquals(seventeenTestArray, reshapedArray[2][2][0]);
     Assertions.assertArrayEquals(eighteenTestArray, reshapedArray[2][2][1]);
   }
+
+  @Test
+  public void fp16ConversionTest() {
+    Assertions.assertEquals((short) 0x3C00, OrtUtil.floatToFp16(1.0f));
+    Assertions.assertEquals((short) 0xC000, OrtUtil.floatToFp16(-2.0f));
+    Assertions.assertEquals((short) 0x7BFF, OrtUtil.floatToFp16(65504.0f));
+    Assertions.assertEquals((short) 0x7C00, OrtUtil.floatToFp16(65520.0f));
+    Assertions.assertEquals((short) 0x7C00, OrtUtil.floatToFp16(Float.POSITIVE_INFINITY));
+    Assertions.assertEquals((short) 0x0001, OrtUtil.floatToFp16(0x1.0p-24f));
+    Assertions.assertEquals((short) 0x0000, OrtUtil.floatToFp16(0x1.0p-25f));
+    Assertions.assertEquals((short) 0x8000, OrtUtil.floatToFp16(-0.0f));
+    Assertions.assertTrue(Float.isNaN(OrtUtil.fp16ToFloat(OrtUtil.floatToFp16(Float.NaN))));
+    // every non-NaN half precision value round trips through float
+    for (int i = 0; i < 65536; i++) {
+      short half = (short) i;
+      float f = OrtUtil.fp16ToFloat(half);
+      if (!Float.isNaN(f)) {
+        Assertions.assertEquals(half, OrtUtil.floatToFp16(f));
+      }
+    }
+    float[] input = new float[] {0.1f, -1.5f, 1000.0f, 3.14159f, 0x1.0p-20f};
+    ShortBuffer halves = ShortBuffer.allocate(input.length);
+    OrtUtil.convertFloatToFp16(FloatBuffer.wrap(input), halves);
+    halves.rewind();
+    FloatBuffer output = FloatBuffer.allocate(input.length);
+    OrtUtil.convertFp16ToFloat(halves, output);
+    for (int i = 0; i < input.length; i++) {
+      Assertions.assertEquals(input[i], output.get(i), Math.abs(input[i]) * 1e-3);
+    }
+  }
+
+  @Test
+  public void bf16ConversionTest() {
+    Assertions.assertEquals((short) 0x3F80, OrtUtil.floatToBf16(1.0f));
+    Assertions.assertEquals(1.0f, OrtUtil.bf16ToFloat((short) 0x3F80));
+    Assertions.assertTrue(Float.isNaN(OrtUtil.bf16ToFloat(OrtUtil.floatToBf16(Float.NaN))));
+    for (int i = 0; i < 65536; i++) {
+      short bf16 = (short) i;
+      float f = OrtUtil.bf16ToFloat(bf16);
+      if (!Float.isNaN(f)) {
+        Assertions.assertEquals(bf16, OrtUtil.floatToBf16(f));
+      }
+    }
+    float[] input = new float[] {0.1f, -1.5f, 1000.0f, 3.14159f, 1e30f};
+    ShortBuffer bf16s = ShortBuffer.allocate(input.length);
+    OrtUtil.convertFloatToBf16(FloatBuffer.wrap(input), bf16s);
+    bf16s.rewind();
+    FloatBuffer output = FloatBuffer.allocate(input.length);
+    OrtUtil.convertBf16ToFloat(bf16s, output);
+    for (int i = 0; i < input.length; i++) {
+      Assertions.assertEquals(input[i], output.get(i), Math.abs(input[i]) * 1e-2);
+    }
+  }
+
+  @Test
+  public void nativeLibraryCacheTest() throws IOException {
+    byte[] library = new byte[100 * 1024];
+    for (int i = 0; i < library.length; i++) {
+      library[i] = (byte) (i * 31);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(library, 0, library.length);
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    CRC32 copyCrc = new CRC32();
+    Assertions.assertEquals(
+        library.length, OnnxRuntime.copy(new ByteArrayInputStream(library), os, copyCrc));
+    Assertions.assertArrayEquals(library, os.toByteArray());
+    Assertions.assertEquals(crc.getValue(), copyCrc.getValue());
+
+    Assertions.assertEquals("0000abcd-42", OnnxRuntime.cacheKey(0xabcd, 42));
+
+    Path tempDirectory = Files.createTempDirectory("onnxruntime-cache-test");
+    try {
+      Path resource = tempDirectory.resolve("libtest.so");
+      Files.write(resource, library);
+      Path cacheDirectory = tempDirectory.resolve("cache");
+      Path cached =
+          OnnxRuntime.extractToCache(cacheDirectory, resource.toUri().toURL(), "libtest.so");
+      Assertions.assertEquals(
+          cacheDirectory
+              .resolve(OnnxRuntime.cacheKey(crc.getValue(), library.length))
+              .resolve("libtest.so"),
+          cached);
+      Assertions.assertArrayEquals(library, Files.readAllBytes(cached));
+      Assertions.assertTrue(OnnxRuntime.isValid(cached, crc.getValue(), library.length));
+      Assertions.assertFalse(OnnxRuntime.isValid(cached, crc.getValue(), library.length + 1));
+      Assertions.assertFalse(
+          OnnxRuntime.isValid(tempDirectory.resolve("missing"), crc.getValue(), library.length));
+
+      // a corrupted cached copy of the same size is detected and re-extracted
+      byte[] corrupted = library.clone();
+      corrupted[1234] ^= 1;
+      Files.write(cached, corrupted);
+      Assertions.assertFalse(OnnxRuntime.isValid(cached, crc.getValue(), library.length));
+      Assertions.assertEquals(
+          cached,
+          OnnxRuntime.extractToCache(cacheDirectory, resource.toUri().toURL(), "libtest.so"));
+      Assertions.assertArrayEquals(library, Files.readAllBytes(cached));
+    } finally {
+      try (Stream<Path> paths = Files.walk(tempDirectory)) {
+        paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+      }
+    }
+  }
 }